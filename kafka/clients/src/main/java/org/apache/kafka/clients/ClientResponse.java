@@ -36,6 +36,7 @@ public class ClientResponse {
     private final UnsupportedVersionException versionMismatch;
     private final AuthenticationException authenticationException;
     private final AbstractResponse responseBody;
+    private final ReceiveBufferReference receiveBuffer;
 
     /**
      * @param requestHeader The header of the corresponding request
@@ -57,6 +58,33 @@ public class ClientResponse {
                           UnsupportedVersionException versionMismatch,
                           AuthenticationException authenticationException,
                           AbstractResponse responseBody) {
+        this(requestHeader, callback, destination, createdTimeMs, receivedTimeMs, disconnected, versionMismatch,
+                authenticationException, responseBody, null);
+    }
+
+    /**
+     * @param requestHeader The header of the corresponding request
+     * @param callback The callback to be invoked
+     * @param createdTimeMs The unix timestamp when the corresponding request was created
+     * @param destination The node the corresponding request was sent to
+     * @param receivedTimeMs The unix timestamp when this response was received
+     * @param disconnected Whether the client disconnected before fully reading a response
+     * @param versionMismatch Whether there was a version mismatch that prevented sending the request.
+     * @param responseBody The response contents (or null) if we disconnected, no response was expected,
+     *                     or if there was a version mismatch.
+     * @param receiveBuffer The reference on the pooled buffer the response body refers to, or null if it
+     *                      doesn't refer to a pooled buffer.
+     */
+    public ClientResponse(RequestHeader requestHeader,
+                          RequestCompletionHandler callback,
+                          String destination,
+                          long createdTimeMs,
+                          long receivedTimeMs,
+                          boolean disconnected,
+                          UnsupportedVersionException versionMismatch,
+                          AuthenticationException authenticationException,
+                          AbstractResponse responseBody,
+                          ReceiveBufferReference receiveBuffer) {
         this.requestHeader = requestHeader;
         this.callback = callback;
         this.destination = destination;
@@ -66,6 +94,7 @@ public class ClientResponse {
         this.versionMismatch = versionMismatch;
         this.authenticationException = authenticationException;
         this.responseBody = responseBody;
+        this.receiveBuffer = receiveBuffer;
     }
 
     public long receivedTimeMs() {
@@ -96,6 +125,15 @@ public class ClientResponse {
         return responseBody;
     }
 
+    /**
+     * The reference on the pooled buffer which the response body refers to, or null if the body doesn't refer to a
+     * pooled buffer. The reference is owned by the handler of the response, which must release it once it is done
+     * with the body; the body must not be accessed afterwards.
+     */
+    public ReceiveBufferReference receiveBuffer() {
+        return receiveBuffer;
+    }
+
     public boolean hasResponse() {
         return responseBody != null;
     }
@@ -19,6 +19,11 @@ package org.apache.kafka.clients;
 import org.apache.kafka.common.config.AbstractConfig;
 import org.apache.kafka.common.config.ConfigException;
 import org.apache.kafka.common.config.SaslConfigs;
+import org.apache.kafka.common.memory.MemoryPool;
+import org.apache.kafka.common.memory.RecyclingMemoryPool;
+import org.apache.kafka.common.metrics.Metrics;
+import org.apache.kafka.common.metrics.Sensor;
+import org.apache.kafka.common.metrics.stats.Meter;
 import org.apache.kafka.common.network.ChannelBuilder;
 import org.apache.kafka.common.network.ChannelBuilders;
 import org.apache.kafka.common.security.JaasContext;
@@ -33,6 +38,7 @@ import java.net.UnknownHostException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import static org.apache.kafka.common.utils.Utils.getHost;
 import static org.apache.kafka.common.utils.Utils.getPort;
@@ -100,6 +106,36 @@ public final class ClientUtils {
                 clientSaslMechanism, time, true);
     }
 
+    /**
+     * Create the memory pool the client's selector allocates receive buffers from, and register its metrics
+     * in the group of the selector's metrics.
+     * @param sizeBytes the size of the pool, buffers are not pooled if it isn't positive
+     * @param metrics the client's metrics
+     * @param metricGrpPrefix the prefix of the selector's metric group
+     * @return the memory pool, {@link MemoryPool#NONE} if buffers are not pooled
+     */
+    public static MemoryPool createReceiveMemoryPool(long sizeBytes, Metrics metrics, String metricGrpPrefix) {
+        if (sizeBytes <= 0)
+            return MemoryPool.NONE;
+
+        String metricGrpName = metricGrpPrefix + "-metrics";
+        Sensor depletedSensor = metrics.sensor("receive-memory-pool-depleted");
+        depletedSensor.add(new Meter(TimeUnit.MILLISECONDS,
+                metrics.metricName("receive-memory-pool-depleted-percent", metricGrpName,
+                        "The average percentage of time the receive memory pool was depleted"),
+                metrics.metricName("receive-memory-pool-depleted-time-total", metricGrpName,
+                        "The total time in milliseconds the receive memory pool was depleted")));
+        MemoryPool pool = new RecyclingMemoryPool(sizeBytes, (int) Math.min(sizeBytes, Integer.MAX_VALUE),
+                false, depletedSensor);
+        metrics.addMetric(metrics.metricName("receive-memory-pool-available-bytes", metricGrpName,
+                "The memory in bytes which can still be allocated from the receive memory pool"),
+            (config, now) -> pool.availableMemory());
+        metrics.addMetric(metrics.metricName("receive-memory-pool-used-bytes", metricGrpName,
+                "The memory in bytes allocated from the receive memory pool which is not yet released"),
+            (config, now) -> pool.size() - pool.availableMemory());
+        return pool;
+    }
+
     static List<InetAddress> resolve(String host, ClientDnsLookup clientDnsLookup) throws UnknownHostException {
         InetAddress[] addresses = InetAddress.getAllByName(host);
         if (ClientDnsLookup.USE_ALL_DNS_IPS == clientDnsLookup) {
@@ -84,6 +84,21 @@ public class CommonClientConfigs {
     public static final String METRICS_RECORDING_LEVEL_CONFIG = "metrics.recording.level";
     public static final String METRICS_RECORDING_LEVEL_DOC = "The highest recording level for metrics.";
 
+    public static final String METRICS_CONCURRENT_RECORDING_CONFIG = "metrics.concurrent.recording";
+    public static final String METRICS_CONCURRENT_RECORDING_DOC = "Whether sensors whose metrics are all averages, sums, counts, maxima or rates record "
+                                                                  + "values without taking a lock shared by all recording threads. Recorded values are "
+                                                                  + "aggregated per thread stripe and applied to the metrics when they are read, which "
+                                                                  + "reduces contention when many threads record into the same sensors.";
+
+    public static final String RECEIVE_MEMORY_POOL_CONFIG = "receive.memory.pool.bytes";
+    public static final String RECEIVE_MEMORY_POOL_DOC = "The total bytes of memory the client uses to read responses from the network. Released buffers are "
+                                                         + "recycled for later responses instead of being left to the garbage collector. While the memory is "
+                                                         + "exhausted, the client stops reading from connections until buffers are released, which for a "
+                                                         + "consumer happens once the fetched records are returned by poll(). A consumer only pools the "
+                                                         + "connections it fetches from, the connection to the group coordinator keeps reading so that "
+                                                         + "heartbeats and offset commits are not delayed. Responses larger than the pool are read into "
+                                                         + "unpooled buffers. If the value is -1, buffers are not pooled.";
+
     public static final String METRIC_REPORTER_CLASSES_CONFIG = "metric.reporters";
     public static final String METRIC_REPORTER_CLASSES_DOC = "A list of classes to use as metrics reporters. Implementing the <code>org.apache.kafka.common.metrics.MetricsReporter</code> interface allows plugging in classes that will be notified of new metric creation. The JmxReporter is always included to register JMX statistics.";
 
@@ -831,22 +831,36 @@ public class NetworkClient implements KafkaClient {
         for (NetworkReceive receive : this.selector.completedReceives()) {
             String source = receive.source();
             InFlightRequest req = inFlightRequests.completeNext(source);
-            Struct responseStruct = parseStructMaybeUpdateThrottleTimeMetrics(receive.payload(), req.header,
-                throttleTimeSensor, now);
-            if (log.isTraceEnabled()) {
-                log.trace("Completed receive from node {} for {} with correlation id {}, received {}", req.destination,
-                    req.header.apiKey(), req.header.correlationId(), responseStruct);
+            ApiKeys apiKey = req.header.apiKey();
+            ByteBuffer payload = receive.payload();
+            // a pooled buffer is given back to the pool once the response is parsed, except for fetch responses whose
+            // records are read from the buffer until the fetcher releases it. Other responses which would refer to the
+            // buffer are parsed from a copy.
+            ReceiveBufferReference receiveBuffer = receive.isPooled() ? new ReceiveBufferReference(receive) : null;
+            boolean retainBuffer = receiveBuffer != null && apiKey == ApiKeys.FETCH;
+            if (receiveBuffer != null && !retainBuffer && apiKey.responseRetainsBufferReference)
+                payload = ByteBuffer.wrap(Utils.toArray(payload));
+            try {
+                Struct responseStruct = parseStructMaybeUpdateThrottleTimeMetrics(payload, req.header,
+                    throttleTimeSensor, now);
+                if (log.isTraceEnabled()) {
+                    log.trace("Completed receive from node {} for {} with correlation id {}, received {}", req.destination,
+                        apiKey, req.header.correlationId(), responseStruct);
+                }
+                // If the received response includes a throttle delay, throttle the connection.
+                AbstractResponse body = AbstractResponse.
+                        parseResponse(apiKey, responseStruct, req.header.apiVersion());
+                maybeThrottle(body, req.header.apiVersion(), req.destination, now);
+                if (req.isInternalRequest && body instanceof MetadataResponse)
+                    metadataUpdater.handleCompletedMetadataResponse(req.header, now, (MetadataResponse) body);
+                else if (req.isInternalRequest && body instanceof ApiVersionsResponse)
+                    handleApiVersionsResponse(responses, req, now, (ApiVersionsResponse) body);
+                else
+                    responses.add(req.completed(body, now, retainBuffer ? receiveBuffer.retain() : null));
+            } finally {
+                if (receiveBuffer != null)
+                    receiveBuffer.release();
             }
-            // If the received response includes a throttle delay, throttle the connection.
-            AbstractResponse body = AbstractResponse.
-                    parseResponse(req.header.apiKey(), responseStruct, req.header.apiVersion());
-            maybeThrottle(body, req.header.apiVersion(), req.destination, now);
-            if (req.isInternalRequest && body instanceof MetadataResponse)
-                metadataUpdater.handleCompletedMetadataResponse(req.header, now, (MetadataResponse) body);
-            else if (req.isInternalRequest && body instanceof ApiVersionsResponse)
-                handleApiVersionsResponse(responses, req, now, (ApiVersionsResponse) body);
-            else
-                responses.add(req.completed(body, now));
         }
     }
 
@@ -1199,8 +1213,12 @@ public class NetworkClient implements KafkaClient {
         }
 
         public ClientResponse completed(AbstractResponse response, long timeMs) {
+            return completed(response, timeMs, null);
+        }
+
+        public ClientResponse completed(AbstractResponse response, long timeMs, ReceiveBufferReference receiveBuffer) {
             return new ClientResponse(header, callback, destination, createdTimeMs, timeMs,
-                    false, null, null, response);
+                    false, null, null, response, receiveBuffer);
         }
 
         public ClientResponse disconnected(long timeMs, AuthenticationException authenticationException) {
@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.kafka.clients;
+
+import org.apache.kafka.common.network.NetworkReceive;
+import org.apache.kafka.common.utils.Utils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A reference counted handle on the pooled buffer of a received response. Parsed responses may refer to
+ * the buffer (e.g. the records of a fetch response), so it is given back to the memory pool only once
+ * every holder has released its reference. The handle starts with a single reference owned by its creator.
+ */
+public class ReceiveBufferReference {
+
+    private final NetworkReceive receive;
+    private final AtomicInteger refCount = new AtomicInteger(1);
+
+    public ReceiveBufferReference(NetworkReceive receive) {
+        this.receive = receive;
+    }
+
+    /**
+     * Take an additional reference on the buffer.
+     * @return this handle
+     * @throws IllegalStateException if the buffer was released already
+     */
+    public ReceiveBufferReference retain() {
+        int refs;
+        do {
+            refs = refCount.get();
+            if (refs <= 0)
+                throw new IllegalStateException("Buffer of receive from " + receive.source() + " was released already");
+        } while (!refCount.compareAndSet(refs, refs + 1));
+        return this;
+    }
+
+    /**
+     * Release a reference on the buffer, giving it back to the memory pool if this was the last one.
+     * @throws IllegalStateException if the buffer was released already
+     */
+    public void release() {
+        int refs = refCount.decrementAndGet();
+        if (refs == 0)
+            Utils.closeQuietly(receive, "receive from " + receive.source());
+        else if (refs < 0)
+            throw new IllegalStateException("Buffer of receive from " + receive.source() + " was released already");
+    }
+
+    @Override
+    public String toString() {
+        return "ReceiveBufferReference(source=" + receive.source() + ", refCount=" + refCount.get() + ")";
+    }
+}
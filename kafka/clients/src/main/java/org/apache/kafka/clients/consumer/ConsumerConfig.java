@@ -67,6 +67,13 @@ public class ConsumerConfig extends AbstractConfig {
     public static final String MAX_POLL_RECORDS_CONFIG = "max.poll.records";
     private static final String MAX_POLL_RECORDS_DOC = "The maximum number of records returned in a single call to poll().";
 
+    /** <code>fetch.decode.threads</code> */
+    public static final String FETCH_DECODE_THREADS_CONFIG = "fetch.decode.threads";
+    private static final String FETCH_DECODE_THREADS_DOC = "The number of background threads used to decompress and deserialize " +
+            "completed fetches ahead of poll(). Records are still returned by poll() in offset order and subject to " +
+            "<code>max.poll.records</code>. When set above zero, the configured key and value deserializers are invoked " +
+            "concurrently from these threads and must be thread-safe. A value of zero decodes records on the calling thread.";
+
     /** <code>max.poll.interval.ms</code> */
     public static final String MAX_POLL_INTERVAL_MS_CONFIG = "max.poll.interval.ms";
     private static final String MAX_POLL_INTERVAL_MS_DOC = "The maximum delay between invocations of poll() when using " +
@@ -211,6 +218,12 @@ public class ConsumerConfig extends AbstractConfig {
      */
     public static final String METRICS_RECORDING_LEVEL_CONFIG = CommonClientConfigs.METRICS_RECORDING_LEVEL_CONFIG;
 
+    /** <code>metrics.concurrent.recording</code> */
+    public static final String METRICS_CONCURRENT_RECORDING_CONFIG = CommonClientConfigs.METRICS_CONCURRENT_RECORDING_CONFIG;
+
+    /** <code>receive.memory.pool.bytes</code> */
+    public static final String RECEIVE_MEMORY_POOL_CONFIG = CommonClientConfigs.RECEIVE_MEMORY_POOL_CONFIG;
+
     /**
      * <code>metric.reporters</code>
      */
@@ -432,6 +445,17 @@ public class ConsumerConfig extends AbstractConfig {
                                         in(Sensor.RecordingLevel.INFO.toString(), Sensor.RecordingLevel.DEBUG.toString()),
                                         Importance.LOW,
                                         CommonClientConfigs.METRICS_RECORDING_LEVEL_DOC)
+                                .define(METRICS_CONCURRENT_RECORDING_CONFIG,
+                                        Type.BOOLEAN,
+                                        false,
+                                        Importance.LOW,
+                                        CommonClientConfigs.METRICS_CONCURRENT_RECORDING_DOC)
+                                .define(RECEIVE_MEMORY_POOL_CONFIG,
+                                        Type.LONG,
+                                        -1L,
+                                        atLeast(-1L),
+                                        Importance.LOW,
+                                        CommonClientConfigs.RECEIVE_MEMORY_POOL_DOC)
                                 .define(METRIC_REPORTER_CLASSES_CONFIG,
                                         Type.LIST,
                                         Collections.emptyList(),
@@ -476,6 +500,12 @@ public class ConsumerConfig extends AbstractConfig {
                                         atLeast(1),
                                         Importance.MEDIUM,
                                         MAX_POLL_RECORDS_DOC)
+                                .define(FETCH_DECODE_THREADS_CONFIG,
+                                        Type.INT,
+                                        0,
+                                        atLeast(0),
+                                        Importance.LOW,
+                                        FETCH_DECODE_THREADS_DOC)
                                 .define(MAX_POLL_INTERVAL_MS_CONFIG,
                                         Type.INT,
                                         300000,
@@ -746,7 +746,10 @@ public class KafkaConsumer<K, V> implements Consumer<K, V> {
 
             ApiVersions apiVersions = new ApiVersions();
             NetworkClient netClient = new NetworkClient(
-                    new Selector(config.getLong(ConsumerConfig.CONNECTIONS_MAX_IDLE_MS_CONFIG), metrics, time, metricGrpPrefix, channelBuilder, logContext),
+                    new Selector(config.getLong(ConsumerConfig.CONNECTIONS_MAX_IDLE_MS_CONFIG), metrics, time, metricGrpPrefix, channelBuilder,
+                            ClientUtils.createReceiveMemoryPool(config.getLong(ConsumerConfig.RECEIVE_MEMORY_POOL_CONFIG), metrics, metricGrpPrefix),
+                            connectionId -> isFetchConnection(this.metadata, connectionId),
+                            logContext),
                     this.metadata,
                     clientId,
                     100, // a fixed large enough value will suffice for max in-flight requests
@@ -815,7 +818,8 @@ public class KafkaConsumer<K, V> implements Consumer<K, V> {
                     this.retryBackoffMs,
                     this.requestTimeoutMs,
                     isolationLevel,
-                    apiVersions);
+                    apiVersions,
+                    config.getInt(ConsumerConfig.FETCH_DECODE_THREADS_CONFIG));
 
             config.logUnused();
             AppInfoParser.registerAppInfo(JMX_PREFIX, clientId, metrics, time.milliseconds());
@@ -865,11 +869,25 @@ public class KafkaConsumer<K, V> implements Consumer<K, V> {
         this.groupId = groupId;
     }
 
+    /**
+     * Fetch responses only come from the brokers of the cluster, and only those connections read into the receive
+     * memory pool. The connection to the group coordinator uses a separate connection id and keeps reading while the
+     * pool is exhausted, so that heartbeats and offset commits are not held up by records which were not polled yet.
+     */
+    private static boolean isFetchConnection(ConsumerMetadata metadata, String connectionId) {
+        try {
+            return metadata.fetch().nodeById(Integer.parseInt(connectionId)) != null;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
     private static Metrics buildMetrics(ConsumerConfig config, Time time, String clientId) {
         Map<String, String> metricsTags = Collections.singletonMap(CLIENT_ID_METRIC_TAG, clientId);
         MetricConfig metricConfig = new MetricConfig().samples(config.getInt(ConsumerConfig.METRICS_NUM_SAMPLES_CONFIG))
                 .timeWindow(config.getLong(ConsumerConfig.METRICS_SAMPLE_WINDOW_MS_CONFIG), TimeUnit.MILLISECONDS)
                 .recordLevel(Sensor.RecordingLevel.forName(config.getString(ConsumerConfig.METRICS_RECORDING_LEVEL_CONFIG)))
+                .concurrentRecording(config.getBoolean(ConsumerConfig.METRICS_CONCURRENT_RECORDING_CONFIG))
                 .tags(metricsTags);
         List<MetricsReporter> reporters = config.getConfiguredInstances(ConsumerConfig.METRIC_REPORTER_CLASSES_CONFIG,
                 MetricsReporter.class, Collections.singletonMap(ConsumerConfig.CLIENT_ID_CONFIG, clientId));
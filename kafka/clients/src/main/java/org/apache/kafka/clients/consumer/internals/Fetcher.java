@@ -19,6 +19,7 @@ package org.apache.kafka.clients.consumer.internals;
 import org.apache.kafka.clients.ApiVersions;
 import org.apache.kafka.clients.ClientResponse;
 import org.apache.kafka.clients.FetchSessionHandler;
+import org.apache.kafka.clients.ReceiveBufferReference;
 import org.apache.kafka.clients.MetadataCache;
 import org.apache.kafka.clients.NodeApiVersions;
 import org.apache.kafka.clients.StaleMetadataException;
@@ -34,21 +35,26 @@ import org.apache.kafka.common.KafkaException;
 import org.apache.kafka.common.Node;
 import org.apache.kafka.common.PartitionInfo;
 import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.InterruptException;
 import org.apache.kafka.common.errors.InvalidTopicException;
 import org.apache.kafka.common.errors.RecordTooLargeException;
 import org.apache.kafka.common.errors.RetriableException;
 import org.apache.kafka.common.errors.SerializationException;
 import org.apache.kafka.common.errors.TimeoutException;
 import org.apache.kafka.common.errors.TopicAuthorizationException;
+import org.apache.kafka.common.header.Header;
 import org.apache.kafka.common.header.Headers;
 import org.apache.kafka.common.header.internals.RecordHeaders;
 import org.apache.kafka.common.metrics.Metrics;
 import org.apache.kafka.common.metrics.Sensor;
 import org.apache.kafka.common.metrics.stats.Avg;
 import org.apache.kafka.common.metrics.stats.Count;
+import org.apache.kafka.common.metrics.stats.Histogram.LogLinearBinScheme;
 import org.apache.kafka.common.metrics.stats.Max;
 import org.apache.kafka.common.metrics.stats.Meter;
 import org.apache.kafka.common.metrics.stats.Min;
+import org.apache.kafka.common.metrics.stats.Percentile;
+import org.apache.kafka.common.metrics.stats.Percentiles;
 import org.apache.kafka.common.metrics.stats.Value;
 import org.apache.kafka.common.protocol.ApiKeys;
 import org.apache.kafka.common.protocol.Errors;
@@ -70,10 +76,10 @@ import org.apache.kafka.common.requests.MetadataResponse;
 import org.apache.kafka.common.requests.OffsetsForLeaderEpochRequest;
 import org.apache.kafka.common.serialization.Deserializer;
 import org.apache.kafka.common.utils.CloseableIterator;
+import org.apache.kafka.common.utils.KafkaThread;
 import org.apache.kafka.common.utils.LogContext;
 import org.apache.kafka.common.utils.Time;
 import org.apache.kafka.common.utils.Timer;
-import org.apache.kafka.common.utils.Utils;
 import org.slf4j.Logger;
 import org.slf4j.helpers.MessageFormatter;
 
@@ -89,10 +95,20 @@ import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.PriorityQueue;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
@@ -122,6 +138,9 @@ import static java.util.Collections.emptyList;
  * </ul>
  */
 public class Fetcher<K, V> implements Closeable {
+    // the number of completed fetches which may wait for a decode thread, per thread
+    private static final int DECODE_QUEUE_SIZE_PER_THREAD = 64;
+
     private final Logger log;
     private final LogContext logContext;
     private final ConsumerNetworkClient client;
@@ -149,6 +168,9 @@ public class Fetcher<K, V> implements Closeable {
     private final OffsetsForLeaderEpochClient offsetsForLeaderEpochClient;
     private final Set<Integer> nodesWithPendingFetchRequests;
     private final ApiVersions apiVersions;
+    // decodes completed fetches ahead of poll(), null if fetches are decoded by the thread calling poll()
+    private final ExecutorService decodeExecutor;
+    private final ThreadLocal<BufferSupplier> decodeBufferSuppliers = ThreadLocal.withInitial(BufferSupplier::create);
 
     private PartitionRecords nextInLineRecords = null;
 
@@ -172,6 +194,37 @@ public class Fetcher<K, V> implements Closeable {
                    long requestTimeoutMs,
                    IsolationLevel isolationLevel,
                    ApiVersions apiVersions) {
+        this(logContext, client, minBytes, maxBytes, maxWaitMs, fetchSize, maxPollRecords, checkCrcs, clientRackId,
+                keyDeserializer, valueDeserializer, metadata, subscriptions, metrics, metricsRegistry, time,
+                retryBackoffMs, requestTimeoutMs, isolationLevel, apiVersions, 0);
+    }
+
+    /**
+     * Create a fetcher which decompresses and deserializes completed fetches on a pool of decodeThreads threads
+     * before they are returned by {@link #fetchedRecords()}. If decodeThreads is 0, this is done by the thread
+     * calling {@link #fetchedRecords()}. The deserializers must be thread-safe when decodeThreads is positive.
+     */
+    public Fetcher(LogContext logContext,
+                   ConsumerNetworkClient client,
+                   int minBytes,
+                   int maxBytes,
+                   int maxWaitMs,
+                   int fetchSize,
+                   int maxPollRecords,
+                   boolean checkCrcs,
+                   String clientRackId,
+                   Deserializer<K> keyDeserializer,
+                   Deserializer<V> valueDeserializer,
+                   ConsumerMetadata metadata,
+                   SubscriptionState subscriptions,
+                   Metrics metrics,
+                   FetcherMetricsRegistry metricsRegistry,
+                   Time time,
+                   long retryBackoffMs,
+                   long requestTimeoutMs,
+                   IsolationLevel isolationLevel,
+                   ApiVersions apiVersions,
+                   int decodeThreads) {
         this.log = logContext.logger(Fetcher.class);
         this.logContext = logContext;
         this.time = time;
@@ -196,6 +249,14 @@ public class Fetcher<K, V> implements Closeable {
         this.sessionHandlers = new HashMap<>();
         this.offsetsForLeaderEpochClient = new OffsetsForLeaderEpochClient(client, logContext);
         this.nodesWithPendingFetchRequests = new HashSet<>();
+        this.decodeExecutor = decodeThreads > 0 ? newDecodeExecutor(decodeThreads) : null;
+    }
+
+    private static ExecutorService newDecodeExecutor(int decodeThreads) {
+        AtomicInteger threadIndex = new AtomicInteger(0);
+        return new ThreadPoolExecutor(decodeThreads, decodeThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(DECODE_QUEUE_SIZE_PER_THREAD * decodeThreads),
+            runnable -> KafkaThread.daemon("kafka-fetch-decoder-" + threadIndex.incrementAndGet(), runnable));
     }
 
     /**
@@ -250,6 +311,8 @@ public class Fetcher<K, V> implements Closeable {
                         @Override
                         public void onSuccess(ClientResponse resp) {
                             synchronized (Fetcher.this) {
+                                // every completed fetch takes its own reference on the pooled buffer, if any
+                                ReceiveBufferReference receiveBuffer = resp.receiveBuffer();
                                 try {
                                     @SuppressWarnings("unchecked")
                                     FetchResponse<Records> response = (FetchResponse<Records>) resp.responseBody();
@@ -290,12 +353,15 @@ public class Fetcher<K, V> implements Closeable {
                                             log.debug("Fetch {} at offset {} for partition {} returned fetch data {}",
                                                     isolationLevel, fetchOffset, partition, fetchData);
                                             completedFetches.add(new CompletedFetch(partition, fetchOffset, fetchData, metricAggregator,
-                                                    resp.requestHeader().apiVersion()));
+                                                    resp.requestHeader().apiVersion(), receiveBuffer,
+                                                    maybeDecodeAsync(partition, fetchOffset, fetchData, receiveBuffer)));
                                         }
                                     }
 
                                     sensors.fetchLatency.record(resp.requestLatencyMs());
                                 } finally {
+                                    if (receiveBuffer != null)
+                                        receiveBuffer.release();
                                     nodesWithPendingFetchRequests.remove(fetchTarget.id());
                                 }
                             }
@@ -594,10 +660,13 @@ public class Fetcher<K, V> implements Closeable {
                         FetchResponse.PartitionData partition = completedFetch.partitionData;
                         if (fetched.isEmpty() && (partition.records == null || partition.records.sizeInBytes() == 0)) {
                             completedFetches.poll();
+                            completedFetch.releaseReceiveBuffer();
                         }
                         throw e;
                     }
                     completedFetches.poll();
+                    if (nextInLineRecords == null)
+                        completedFetch.releaseReceiveBuffer();
                 } else {
                     List<ConsumerRecord<K, V>> records = fetchRecords(nextInLineRecords, recordsRemaining);
                     TopicPartition partition = nextInLineRecords.partition;
@@ -672,6 +741,67 @@ public class Fetcher<K, V> implements Closeable {
         return emptyList();
     }
 
+    /**
+     * Submit the records of a completed fetch to the decode threads, if any.
+     * @return the task decoding the batches, or null if the fetch is decoded by the thread calling poll()
+     */
+    private DecodeTask maybeDecodeAsync(TopicPartition partition,
+                                        long fetchOffset,
+                                        FetchResponse.PartitionData<Records> partitionData,
+                                        ReceiveBufferReference receiveBuffer) {
+        if (decodeExecutor == null || partitionData.error != Errors.NONE || partitionData.records == null
+                || partitionData.records.sizeInBytes() == 0)
+            return null;
+        DecodeTask task = new DecodeTask(partition, fetchOffset, partitionData.records,
+                receiveBuffer == null ? null : receiveBuffer.retain());
+        try {
+            task.future = decodeExecutor.submit(task);
+            return task;
+        } catch (RejectedExecutionException e) {
+            log.trace("Decode queue is full, records of partition {} will be decoded by poll()", partition);
+            task.cancel();
+            return null;
+        }
+    }
+
+    /**
+     * Decompress the batches of a completed fetch and deserialize their records. This runs on a decode thread and
+     * doesn't touch any state of the fetcher. Control batches and everything from the first batch which cannot be
+     * read are left to {@link PartitionRecords}, which reports errors at the right position.
+     */
+    private List<DecodedBatch> decodeBatches(TopicPartition partition, long fetchOffset, Records records,
+                                             boolean pooledBuffer) {
+        BufferSupplier bufferSupplier = decodeBufferSuppliers.get();
+        List<DecodedBatch> decodedBatches = new ArrayList<>();
+        for (RecordBatch batch : records.batches()) {
+            if (batch.isControlBatch()) {
+                decodedBatches.add(null);
+                continue;
+            }
+            DecodedBatch decodedBatch = new DecodedBatch();
+            try (CloseableIterator<Record> iterator = batch.streamingIterator(bufferSupplier)) {
+                while (iterator.hasNext()) {
+                    Record record = iterator.next();
+                    ConsumerRecord<K, V> consumerRecord = null;
+                    if (record.offset() >= fetchOffset) {
+                        try {
+                            consumerRecord = parseRecord(partition, batch, record, pooledBuffer);
+                        } catch (SerializationException e) {
+                            // deserialized again by poll(), which throws the exception
+                        }
+                    }
+                    decodedBatch.add(record, consumerRecord);
+                }
+            } catch (RuntimeException e) {
+                log.debug("Failed to decode batch at offset {} of partition {}, leaving it to poll()",
+                        batch.baseOffset(), partition, e);
+                break;
+            }
+            decodedBatches.add(decodedBatch);
+        }
+        return decodedBatches;
+    }
+
     private void resetOffsetIfNeeded(TopicPartition partition, OffsetResetStrategy requestedResetStrategy, ListOffsetData offsetData) {
         SubscriptionState.FetchPosition position = new SubscriptionState.FetchPosition(
                 offsetData.offset, offsetData.leaderEpoch, metadata.leaderAndEpoch(partition));
@@ -1249,23 +1379,28 @@ public class Fetcher<K, V> implements Closeable {
      */
     private ConsumerRecord<K, V> parseRecord(TopicPartition partition,
                                              RecordBatch batch,
-                                             Record record) {
+                                             Record record,
+                                             boolean pooledBuffer) {
         try {
             long offset = record.offset();
             long timestamp = record.timestamp();
             Optional<Integer> leaderEpoch = maybeLeaderEpoch(batch.partitionLeaderEpoch());
             TimestampType timestampType = batch.timestampType();
-            Headers headers = new RecordHeaders(record.headers());
+            Header[] recordHeaders = record.headers();
+            if (pooledBuffer) {
+                // header values are lazily copied out of the buffer, which is reused once the records are returned
+                for (Header header : recordHeaders)
+                    header.value();
+            }
+            Headers headers = new RecordHeaders(recordHeaders);
             ByteBuffer keyBytes = record.key();
-            byte[] keyByteArray = keyBytes == null ? null : Utils.toArray(keyBytes);
-            K key = keyBytes == null ? null : this.keyDeserializer.deserialize(partition.topic(), headers, keyByteArray);
+            K key = keyBytes == null ? null : this.keyDeserializer.deserialize(partition.topic(), headers, keyBytes);
             ByteBuffer valueBytes = record.value();
-            byte[] valueByteArray = valueBytes == null ? null : Utils.toArray(valueBytes);
-            V value = valueBytes == null ? null : this.valueDeserializer.deserialize(partition.topic(), headers, valueByteArray);
+            V value = valueBytes == null ? null : this.valueDeserializer.deserialize(partition.topic(), headers, valueBytes);
             return new ConsumerRecord<>(partition.topic(), partition.partition(), offset,
                                         timestamp, timestampType, record.checksumOrNull(),
-                                        keyByteArray == null ? ConsumerRecord.NULL_SIZE : keyByteArray.length,
-                                        valueByteArray == null ? ConsumerRecord.NULL_SIZE : valueByteArray.length,
+                                        record.hasKey() ? record.keySize() : ConsumerRecord.NULL_SIZE,
+                                        record.hasValue() ? record.valueSize() : ConsumerRecord.NULL_SIZE,
                                         key, value, headers, leaderEpoch);
         } catch (RuntimeException e) {
             throw new SerializationException("Error deserializing key/value for partition " + partition +
@@ -1285,8 +1420,10 @@ public class Fetcher<K, V> implements Closeable {
     public void clearBufferedDataForUnassignedPartitions(Collection<TopicPartition> assignedPartitions) {
         Iterator<CompletedFetch> itr = completedFetches.iterator();
         while (itr.hasNext()) {
-            TopicPartition tp = itr.next().partition;
-            if (!assignedPartitions.contains(tp)) {
+            CompletedFetch completedFetch = itr.next();
+            if (!assignedPartitions.contains(completedFetch.partition)) {
+                completedFetch.cancelDecoding();
+                completedFetch.releaseReceiveBuffer();
                 itr.remove();
             }
         }
@@ -1331,10 +1468,13 @@ public class Fetcher<K, V> implements Closeable {
         private final Iterator<? extends RecordBatch> batches;
         private final Set<Long> abortedProducerIds;
         private final PriorityQueue<FetchResponse.AbortedTransaction> abortedTransactions;
+        private final List<DecodedBatch> decodedBatches;
 
         private int recordsRead;
         private int bytesRead;
         private RecordBatch currentBatch;
+        private int currentBatchIndex = -1;
+        private DecodedBatch.RecordIterator currentDecodedRecords;
         private Record lastRecord;
         private CloseableIterator<Record> records;
         private long nextFetchOffset;
@@ -1353,6 +1493,7 @@ public class Fetcher<K, V> implements Closeable {
             this.lastEpoch = Optional.empty();
             this.abortedProducerIds = new HashSet<>();
             this.abortedTransactions = abortedTransactions(completedFetch.partitionData);
+            this.decodedBatches = completedFetch.decodedBatches();
         }
 
         private void drain() {
@@ -1361,6 +1502,7 @@ public class Fetcher<K, V> implements Closeable {
                 cachedRecordException = null;
                 this.isFetched = true;
                 this.completedFetch.metricAggregator.record(partition, bytesRead, recordsRead);
+                this.completedFetch.releaseReceiveBuffer();
 
                 // we move the partition to the end if we received some bytes. This way, it's more likely that partitions
                 // for the same topic can remain together (allowing for more efficient serialization).
@@ -1400,6 +1542,7 @@ public class Fetcher<K, V> implements Closeable {
                 records.close();
                 records = null;
             }
+            currentDecodedRecords = null;
         }
 
         private Record nextFetchedRecord() {
@@ -1420,6 +1563,7 @@ public class Fetcher<K, V> implements Closeable {
                     }
 
                     currentBatch = batches.next();
+                    currentBatchIndex++;
                     lastEpoch = currentBatch.partitionLeaderEpoch() == RecordBatch.NO_PARTITION_LEADER_EPOCH ?
                             Optional.empty() : Optional.of(currentBatch.partitionLeaderEpoch());
 
@@ -1443,7 +1587,14 @@ public class Fetcher<K, V> implements Closeable {
                         }
                     }
 
-                    records = currentBatch.streamingIterator(decompressionBufferSupplier);
+                    DecodedBatch decodedBatch = decodedBatches != null && currentBatchIndex < decodedBatches.size() ?
+                            decodedBatches.get(currentBatchIndex) : null;
+                    if (decodedBatch != null) {
+                        currentDecodedRecords = decodedBatch.iterator();
+                        records = currentDecodedRecords;
+                    } else {
+                        records = currentBatch.streamingIterator(decompressionBufferSupplier);
+                    }
                 } else {
                     Record record = records.next();
                     // skip any records out of range
@@ -1485,7 +1636,10 @@ public class Fetcher<K, V> implements Closeable {
                     }
                     if (lastRecord == null)
                         break;
-                    records.add(parseRecord(partition, currentBatch, lastRecord));
+                    ConsumerRecord<K, V> decodedRecord = currentDecodedRecords == null ? null :
+                            currentDecodedRecords.consumerRecord(lastRecord);
+                    records.add(decodedRecord != null ? decodedRecord : parseRecord(partition, currentBatch, lastRecord,
+                            completedFetch.receiveBuffer != null));
                     recordsRead++;
                     bytesRead += lastRecord.sizeInBytes();
                     nextFetchOffset = lastRecord.offset() + 1;
@@ -1545,23 +1699,155 @@ public class Fetcher<K, V> implements Closeable {
         }
     }
 
-    private static class CompletedFetch {
+    private class CompletedFetch {
         private final TopicPartition partition;
         private final long fetchedOffset;
         private final FetchResponse.PartitionData<Records> partitionData;
         private final FetchResponseMetricAggregator metricAggregator;
         private final short responseVersion;
+        private final ReceiveBufferReference receiveBuffer;
+        private final DecodeTask decodeTask;
+        private boolean receiveBufferReleased = false;
 
         private CompletedFetch(TopicPartition partition,
                                long fetchedOffset,
                                FetchResponse.PartitionData<Records> partitionData,
                                FetchResponseMetricAggregator metricAggregator,
-                               short responseVersion) {
+                               short responseVersion,
+                               ReceiveBufferReference receiveBuffer,
+                               DecodeTask decodeTask) {
             this.partition = partition;
             this.fetchedOffset = fetchedOffset;
             this.partitionData = partitionData;
             this.metricAggregator = metricAggregator;
             this.responseVersion = responseVersion;
+            this.receiveBuffer = receiveBuffer == null ? null : receiveBuffer.retain();
+            this.decodeTask = decodeTask;
+        }
+
+        /**
+         * Get the batches decoded ahead of poll(), waiting for a decode thread which is working on them.
+         * @return the decoded batches, or null if the records have to be decoded by the calling thread
+         */
+        private List<DecodedBatch> decodedBatches() {
+            // if no decode thread picked up the fetch yet, it's faster to decode it right away
+            if (decodeTask == null || decodeTask.cancel() || decodeTask.future.isCancelled())
+                return null;
+            try {
+                return decodeTask.future.get();
+            } catch (InterruptedException e) {
+                throw new InterruptException(e);
+            } catch (ExecutionException e) {
+                log.debug("Failed to decode records of partition {} ahead of poll()", partition, e.getCause());
+                return null;
+            }
+        }
+
+        private void cancelDecoding() {
+            if (decodeTask != null)
+                decodeTask.cancel();
+        }
+
+        /**
+         * Give up the reference on the pooled buffer the records are read from, once they are all consumed or dropped.
+         */
+        private void releaseReceiveBuffer() {
+            if (receiveBuffer != null && !receiveBufferReleased) {
+                receiveBufferReleased = true;
+                receiveBuffer.release();
+            }
+        }
+    }
+
+    /**
+     * Decodes the records of a completed fetch on a decode thread. The task holds its own reference on the pooled
+     * buffer, if any, which is released once it is done or if it is cancelled before it started.
+     */
+    private class DecodeTask implements Callable<List<DecodedBatch>> {
+        private final TopicPartition partition;
+        private final long fetchOffset;
+        private final Records records;
+        private final ReceiveBufferReference receiveBuffer;
+        // set by whoever gets to the task first, the decode thread or cancel()
+        private final AtomicBoolean claimed = new AtomicBoolean(false);
+        private Future<List<DecodedBatch>> future;
+
+        private DecodeTask(TopicPartition partition, long fetchOffset, Records records, ReceiveBufferReference receiveBuffer) {
+            this.partition = partition;
+            this.fetchOffset = fetchOffset;
+            this.records = records;
+            this.receiveBuffer = receiveBuffer;
+        }
+
+        @Override
+        public List<DecodedBatch> call() {
+            if (!claimed.compareAndSet(false, true))
+                return null;
+            try {
+                return decodeBatches(partition, fetchOffset, records, receiveBuffer != null);
+            } finally {
+                if (receiveBuffer != null)
+                    receiveBuffer.release();
+            }
+        }
+
+        /**
+         * Prevent the task from decoding the records if it didn't start yet.
+         * @return true if the task won't decode the records, false if it started already
+         */
+        private boolean cancel() {
+            if (!claimed.compareAndSet(false, true))
+                return false;
+            if (future != null)
+                future.cancel(false);
+            if (receiveBuffer != null)
+                receiveBuffer.release();
+            return true;
+        }
+    }
+
+    /**
+     * The records of a batch with the consumer records deserialized by a decode thread. A consumer record is null
+     * if the record is before the fetch offset or could not be deserialized.
+     */
+    private class DecodedBatch {
+        private final List<Record> records = new ArrayList<>();
+        private final List<ConsumerRecord<K, V>> consumerRecords = new ArrayList<>();
+
+        private void add(Record record, ConsumerRecord<K, V> consumerRecord) {
+            records.add(record);
+            consumerRecords.add(consumerRecord);
+        }
+
+        private RecordIterator iterator() {
+            return new RecordIterator();
+        }
+
+        private class RecordIterator implements CloseableIterator<Record> {
+            private int nextIndex = 0;
+
+            @Override
+            public boolean hasNext() {
+                return nextIndex < records.size();
+            }
+
+            @Override
+            public Record next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                return records.get(nextIndex++);
+            }
+
+            /**
+             * Get the deserialized consumer record of the record last returned by {@link #next()}
+             */
+            private ConsumerRecord<K, V> consumerRecord(Record record) {
+                int index = nextIndex - 1;
+                return index >= 0 && records.get(index) == record ? consumerRecords.get(index) : null;
+            }
+
+            @Override
+            public void close() {}
         }
     }
 
@@ -1654,6 +1940,9 @@ public class Fetcher<K, V> implements Closeable {
             this.fetchLatency = metrics.sensor("fetch-latency");
             this.fetchLatency.add(metrics.metricInstance(metricsRegistry.fetchLatencyAvg), new Avg());
             this.fetchLatency.add(metrics.metricInstance(metricsRegistry.fetchLatencyMax), new Max());
+            this.fetchLatency.add(new Percentiles(new LogLinearBinScheme(1.0, TimeUnit.MINUTES.toMillis(5), 2),
+                new Percentile(metrics.metricInstance(metricsRegistry.fetchLatencyP99), 99.0),
+                new Percentile(metrics.metricInstance(metricsRegistry.fetchLatencyP999), 99.9)));
             this.fetchLatency.add(new Meter(new Count(), metrics.metricInstance(metricsRegistry.fetchRequestRate),
                     metrics.metricInstance(metricsRegistry.fetchRequestTotal)));
 
@@ -1764,7 +2053,14 @@ public class Fetcher<K, V> implements Closeable {
     public void close() {
         if (nextInLineRecords != null)
             nextInLineRecords.drain();
+        CompletedFetch completedFetch;
+        while ((completedFetch = completedFetches.poll()) != null) {
+            completedFetch.cancelDecoding();
+            completedFetch.releaseReceiveBuffer();
+        }
         decompressionBufferSupplier.close();
+        if (decodeExecutor != null)
+            decodeExecutor.shutdownNow();
     }
 
     private Set<String> topicsForPartitions(Collection<TopicPartition> partitions) {
@@ -35,6 +35,8 @@ public class FetcherMetricsRegistry {
     public MetricNameTemplate recordsConsumedTotal;
     public MetricNameTemplate fetchLatencyAvg;
     public MetricNameTemplate fetchLatencyMax;
+    public MetricNameTemplate fetchLatencyP99;
+    public MetricNameTemplate fetchLatencyP999;
     public MetricNameTemplate fetchRequestRate;
     public MetricNameTemplate fetchRequestTotal;
     public MetricNameTemplate recordsLagMax;
@@ -89,6 +91,10 @@ public class FetcherMetricsRegistry {
                 "The average time taken for a fetch request.", tags);
         this.fetchLatencyMax = new MetricNameTemplate("fetch-latency-max", groupName,
                 "The max time taken for any fetch request.", tags);
+        this.fetchLatencyP99 = new MetricNameTemplate("fetch-latency-p99", groupName,
+                "The 99th percentile time taken for a fetch request.", tags);
+        this.fetchLatencyP999 = new MetricNameTemplate("fetch-latency-p999", groupName,
+                "The 99.9th percentile time taken for a fetch request.", tags);
         this.fetchRequestRate = new MetricNameTemplate("fetch-rate", groupName,
                 "The number of fetch requests per second.", tags);
         this.fetchRequestTotal = new MetricNameTemplate("fetch-total", groupName,
@@ -153,6 +159,8 @@ public class FetcherMetricsRegistry {
             recordsConsumedTotal,
             fetchLatencyAvg,
             fetchLatencyMax,
+            fetchLatencyP99,
+            fetchLatencyP999,
             fetchRequestRate,
             fetchRequestTotal,
             recordsLagMax,
@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.kafka.clients.producer;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.apache.kafka.clients.producer.internals.NodeLoadStats;
+import org.apache.kafka.common.Cluster;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.utils.Utils;
+
+/**
+ * A partitioning strategy that sends records without keys to the less loaded brokers:
+ * <ul>
+ * <li>If a partition is specified in the record, use it
+ * <li>If no partition is specified but a key is present choose a partition based on a hash of the key
+ * <li>If no partition or key is present choose a sticky partition that changes when the batch is full. The next
+ * sticky partition is picked at random, weighted by how many batches are queued for its leader and by the recent
+ * produce latency of its leader. Partitions whose leaders have had data to send but no ready connection for longer
+ * than <code>partitioner.availability.timeout.ms</code> are skipped.
+ * </ul>
+ *
+ * The load of every broker is tracked by the producer itself, so a single slow broker gets fewer new batches instead
+ * of throttling the whole producer once its queue fills up the buffer memory. When the partitioner is used outside of
+ * {@link KafkaProducer}, no load is known and it behaves like {@link StickyPartitioner}.
+ */
+public class AdaptivePartitioner implements Partitioner {
+
+    private final ConcurrentMap<String, Integer> stickyPartitions = new ConcurrentHashMap<>();
+    private volatile NodeLoadStats loadStats;
+
+    public void configure(Map<String, ?> configs) {}
+
+    /**
+     * Set the broker load tracked by the producer. Called by {@link KafkaProducer} before any record is partitioned.
+     */
+    public void setLoadStats(NodeLoadStats loadStats) {
+        this.loadStats = loadStats;
+    }
+
+    /**
+     * Compute the partition for the given record.
+     *
+     * @param topic The topic name
+     * @param key The key to partition on (or null if no key)
+     * @param keyBytes serialized key to partition on (or null if no key)
+     * @param value The value to partition on or null
+     * @param valueBytes serialized value to partition on or null
+     * @param cluster The current cluster metadata
+     */
+    public int partition(String topic, Object key, byte[] keyBytes, Object value, byte[] valueBytes, Cluster cluster) {
+        if (keyBytes == null) {
+            Integer part = stickyPartitions.get(topic);
+            if (part == null)
+                return nextPartition(topic, cluster, -1);
+            return part;
+        }
+        int numPartitions = cluster.partitionsForTopic(topic).size();
+        // hash the keyBytes to choose a partition
+        return Utils.toPositive(Utils.murmur2(keyBytes)) % numPartitions;
+    }
+
+    public void close() {}
+
+    /**
+     * If a batch completed for the current sticky partition, change the sticky partition.
+     * Alternately, if no sticky partition has been determined, set one.
+     */
+    public void onNewBatch(String topic, Cluster cluster, int prevPartition) {
+        nextPartition(topic, cluster, prevPartition);
+    }
+
+    private int nextPartition(String topic, Cluster cluster, int prevPartition) {
+        Integer oldPart = stickyPartitions.get(topic);
+        // Only change the sticky partition if it is not set or if the partition that triggered the new batch
+        // is the current sticky partition.
+        if (oldPart == null || oldPart == prevPartition) {
+            int newPart = choosePartition(topic, cluster, oldPart);
+            if (oldPart == null)
+                stickyPartitions.putIfAbsent(topic, newPart);
+            else
+                stickyPartitions.replace(topic, prevPartition, newPart);
+        }
+        return stickyPartitions.get(topic);
+    }
+
+    private int choosePartition(String topic, Cluster cluster, Integer oldPart) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<PartitionInfo> availablePartitions = cluster.availablePartitionsForTopic(topic);
+        if (availablePartitions.isEmpty()) {
+            List<PartitionInfo> partitions = cluster.partitionsForTopic(topic);
+            return partitions.get(random.nextInt(partitions.size())).partition();
+        }
+        if (availablePartitions.size() == 1)
+            return availablePartitions.get(0).partition();
+
+        // Weight every available partition other than the current one by the load of its leader.
+        NodeLoadStats stats = loadStats;
+        double[] cumulativeWeights = new double[availablePartitions.size()];
+        double totalWeight = 0.0;
+        for (int i = 0; i < availablePartitions.size(); i++) {
+            PartitionInfo info = availablePartitions.get(i);
+            if (oldPart == null || info.partition() != oldPart)
+                totalWeight += stats == null ? 1.0 : stats.weight(info.leader().id());
+            cumulativeWeights[i] = totalWeight;
+        }
+
+        if (totalWeight <= 0.0) {
+            // Every other leader is lagging, stay on the current partition if there is one, otherwise spread evenly.
+            if (oldPart != null)
+                return oldPart;
+            return availablePartitions.get(random.nextInt(availablePartitions.size())).partition();
+        }
+
+        double target = random.nextDouble() * totalWeight;
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (target < cumulativeWeights[i])
+                return availablePartitions.get(i).partition();
+        }
+        // Rounding may leave the target at the total weight, take the last partition that has a weight.
+        for (int i = cumulativeWeights.length - 1; i > 0; i--) {
+            if (cumulativeWeights[i] > cumulativeWeights[i - 1])
+                return availablePartitions.get(i).partition();
+        }
+        return availablePartitions.get(0).partition();
+    }
+}
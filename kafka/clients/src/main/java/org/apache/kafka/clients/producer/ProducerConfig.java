@@ -73,6 +73,14 @@ public class ProducerConfig extends AbstractConfig {
                                                  + "batching entirely). A very large batch size may use memory a bit more wastefully as we will always allocate a "
                                                  + "buffer of the specified batch size in anticipation of additional records.";
 
+    /** <code>batch.stripes</code> */
+    public static final String BATCH_STRIPES_CONFIG = "batch.stripes";
+    private static final String BATCH_STRIPES_DOC = "The number of batches per partition which application threads can append records to concurrently. "
+                                                    + "Every thread always appends to the same one of these batches, so the order of the records sent by one thread "
+                                                    + "to a partition is kept, but records of different threads are no longer appended in the order of the send calls. "
+                                                    + "A higher value reduces lock contention when many threads send to the same partitions, at the cost of up to this "
+                                                    + "many buffers of <code>" + BATCH_SIZE_CONFIG + "</code> per partition. It also shards the free list of buffer memory.";
+
     /** <code>acks</code> */
     public static final String ACKS_CONFIG = "acks";
     private static final String ACKS_DOC = "The number of acknowledgments the producer requires the leader to have received before considering a request complete. This controls the "
@@ -177,6 +185,12 @@ public class ProducerConfig extends AbstractConfig {
      */
     public static final String METRICS_RECORDING_LEVEL_CONFIG = CommonClientConfigs.METRICS_RECORDING_LEVEL_CONFIG;
 
+    /** <code>metrics.concurrent.recording</code> */
+    public static final String METRICS_CONCURRENT_RECORDING_CONFIG = CommonClientConfigs.METRICS_CONCURRENT_RECORDING_CONFIG;
+
+    /** <code>receive.memory.pool.bytes</code> */
+    public static final String RECEIVE_MEMORY_POOL_CONFIG = CommonClientConfigs.RECEIVE_MEMORY_POOL_CONFIG;
+
     /** <code>metric.reporters</code> */
     public static final String METRIC_REPORTER_CLASSES_CONFIG = CommonClientConfigs.METRIC_REPORTER_CLASSES_CONFIG;
 
@@ -213,6 +227,13 @@ public class ProducerConfig extends AbstractConfig {
     public static final String PARTITIONER_CLASS_CONFIG = "partitioner.class";
     private static final String PARTITIONER_CLASS_DOC = "Partitioner class that implements the <code>org.apache.kafka.clients.producer.Partitioner</code> interface.";
 
+    /** <code>partitioner.availability.timeout.ms</code> */
+    public static final String PARTITIONER_AVAILABILITY_TIMEOUT_MS_CONFIG = "partitioner.availability.timeout.ms";
+    private static final String PARTITIONER_AVAILABILITY_TIMEOUT_MS_DOC = "Only used by <code>org.apache.kafka.clients.producer.AdaptivePartitioner</code>. "
+                                                                          + "If a broker has had records ready to send but no ready connection for this long, "
+                                                                          + "the partitioner stops choosing its partitions for records without keys until it catches up. "
+                                                                          + "The value 0 disables this check, slow brokers then only get a lower share of the records.";
+
     /** <code>interceptor.classes</code> */
     public static final String INTERCEPTOR_CLASSES_CONFIG = "interceptor.classes";
     public static final String INTERCEPTOR_CLASSES_DOC = "A list of classes to use as interceptors. "
@@ -260,6 +281,7 @@ public class ProducerConfig extends AbstractConfig {
                                         ACKS_DOC)
                                 .define(COMPRESSION_TYPE_CONFIG, Type.STRING, "none", Importance.HIGH, COMPRESSION_TYPE_DOC)
                                 .define(BATCH_SIZE_CONFIG, Type.INT, 16384, atLeast(0), Importance.MEDIUM, BATCH_SIZE_DOC)
+                                .define(BATCH_STRIPES_CONFIG, Type.INT, 1, atLeast(1), Importance.LOW, BATCH_STRIPES_DOC)
                                 .define(LINGER_MS_CONFIG, Type.LONG, 0, atLeast(0), Importance.MEDIUM, LINGER_MS_DOC)
                                 .define(DELIVERY_TIMEOUT_MS_CONFIG, Type.INT, 120 * 1000, atLeast(0), Importance.MEDIUM, DELIVERY_TIMEOUT_MS_DOC)
                                 .define(CLIENT_ID_CONFIG, Type.STRING, "", Importance.MEDIUM, CommonClientConfigs.CLIENT_ID_DOC)
@@ -300,6 +322,17 @@ public class ProducerConfig extends AbstractConfig {
                                         in(Sensor.RecordingLevel.INFO.toString(), Sensor.RecordingLevel.DEBUG.toString()),
                                         Importance.LOW,
                                         CommonClientConfigs.METRICS_RECORDING_LEVEL_DOC)
+                                .define(METRICS_CONCURRENT_RECORDING_CONFIG,
+                                        Type.BOOLEAN,
+                                        false,
+                                        Importance.LOW,
+                                        CommonClientConfigs.METRICS_CONCURRENT_RECORDING_DOC)
+                                .define(RECEIVE_MEMORY_POOL_CONFIG,
+                                        Type.LONG,
+                                        -1L,
+                                        atLeast(-1L),
+                                        Importance.LOW,
+                                        CommonClientConfigs.RECEIVE_MEMORY_POOL_DOC)
                                 .define(METRIC_REPORTER_CLASSES_CONFIG,
                                         Type.LIST,
                                         Collections.emptyList(),
@@ -330,6 +363,12 @@ public class ProducerConfig extends AbstractConfig {
                                         Type.CLASS,
                                         DefaultPartitioner.class,
                                         Importance.MEDIUM, PARTITIONER_CLASS_DOC)
+                                .define(PARTITIONER_AVAILABILITY_TIMEOUT_MS_CONFIG,
+                                        Type.LONG,
+                                        0L,
+                                        atLeast(0L),
+                                        Importance.LOW,
+                                        PARTITIONER_AVAILABILITY_TIMEOUT_MS_DOC)
                                 .define(INTERCEPTOR_CLASSES_CONFIG,
                                         Type.LIST,
                                         Collections.emptyList(),
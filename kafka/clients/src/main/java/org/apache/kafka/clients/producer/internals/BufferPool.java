@@ -19,6 +19,8 @@ package org.apache.kafka.clients.producer.internals;
 import java.nio.ByteBuffer;
 import java.util.ArrayDeque;
 import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
@@ -40,6 +42,8 @@ import org.apache.kafka.common.utils.Time;
  * prevents starvation or deadlock when a thread asks for a large chunk of memory and needs to block until multiple
  * buffers are deallocated.
  * </ol>
+ * The free list can be sharded. Buffers of the poolable size are then recycled through lock-free shards without
+ * taking the pool lock, which is only needed for other sizes and when threads have to wait for memory.
  */
 public class BufferPool {
 
@@ -49,7 +53,11 @@ public class BufferPool {
     private final int poolableSize;
     private final ReentrantLock lock;
     private final Deque<ByteBuffer> free;
+    /* lock-free shards of the free list, null if the free list is not sharded */
+    private final Deque<ByteBuffer>[] freeShards;
     private final Deque<Condition> waiters;
+    /* the size of waiters, only updated under the lock but read without it when a buffer is returned to a shard */
+    private volatile int numWaiters;
     /** Total available memory is the sum of nonPooledAvailableMemory and the number of byte buffers in free * poolableSize.  */
     private long nonPooledAvailableMemory;
     private final Metrics metrics;
@@ -66,9 +74,31 @@ public class BufferPool {
      * @param metricGrpName logical group name for metrics
      */
     public BufferPool(long memory, int poolableSize, Metrics metrics, Time time, String metricGrpName) {
+        this(memory, poolableSize, metrics, time, metricGrpName, 1);
+    }
+
+    /**
+     * Create a new buffer pool with a sharded free list
+     *
+     * @param memory The maximum amount of memory that this buffer pool can allocate
+     * @param poolableSize The buffer size to cache in the free list rather than deallocating
+     * @param metrics instance of Metrics
+     * @param time time instance
+     * @param metricGrpName logical group name for metrics
+     * @param freeListShards The number of shards of the free list, 1 keeps a single free list guarded by the pool lock
+     */
+    @SuppressWarnings("unchecked")
+    public BufferPool(long memory, int poolableSize, Metrics metrics, Time time, String metricGrpName, int freeListShards) {
         this.poolableSize = poolableSize;
         this.lock = new ReentrantLock();
         this.free = new ArrayDeque<>();
+        if (freeListShards > 1) {
+            this.freeShards = new Deque[freeListShards];
+            for (int i = 0; i < freeListShards; i++)
+                this.freeShards[i] = new ConcurrentLinkedDeque<>();
+        } else {
+            this.freeShards = null;
+        }
         this.waiters = new ArrayDeque<>();
         this.totalMemory = memory;
         this.nonPooledAvailableMemory = memory;
@@ -103,11 +133,22 @@ public class BufferPool {
                                                + " on memory allocations.");
 
         ByteBuffer buffer = null;
+        // check if a shard has a free buffer of the right size without taking the lock
+        if (freeShards != null && size == poolableSize) {
+            buffer = pollFreeShards();
+            if (buffer != null)
+                return buffer;
+        }
+
         this.lock.lock();
         try {
-            // check if we have a free buffer of the right size pooled
-            if (size == poolableSize && !this.free.isEmpty())
-                return this.free.pollFirst();
+            // check if we have a free buffer of the right size pooled, the shards may be emptied by other
+            // threads without the lock in the meantime
+            if (size == poolableSize && !isFreeEmpty()) {
+                buffer = pollFree();
+                if (buffer != null)
+                    return buffer;
+            }
 
             // now check if the request is immediately satisfiable with the
             // memory on hand or if we need to block
@@ -116,6 +157,10 @@ public class BufferPool {
                 // we have enough unallocated or pooled memory to immediately
                 // satisfy the request, but need to allocate the buffer
                 freeUp(size);
+            }
+            // buffers in the shards are taken without the lock, so the pooled memory counted above may be gone
+            // by the time freeUp gets to it, only take what was actually freed
+            if (this.nonPooledAvailableMemory >= size) {
                 this.nonPooledAvailableMemory -= size;
             } else {
                 // we are out of memory and will have to block
@@ -124,6 +169,21 @@ public class BufferPool {
                 try {
                     long remainingTimeToBlockNs = TimeUnit.MILLISECONDS.toNanos(maxTimeToBlockMs);
                     this.waiters.addLast(moreMemory);
+                    this.numWaiters = this.waiters.size();
+                    if (freeShards != null) {
+                        // a buffer may have been returned to a shard without the lock since the check above, while
+                        // this thread was not registered as a waiter yet, so nobody is going to signal us for it.
+                        // If other threads were waiting already, the first of them got signalled instead, and only
+                        // the first waiter may hold on to part of the memory, otherwise waiters could starve each other
+                        if (size == this.poolableSize && (buffer = pollFreeShards()) != null) {
+                            accumulated = size;
+                        } else if (this.waiters.peekFirst() == moreMemory) {
+                            freeUp(size);
+                            int got = (int) Math.min(size, this.nonPooledAvailableMemory);
+                            this.nonPooledAvailableMemory -= got;
+                            accumulated += got;
+                        }
+                    }
                     // loop over and over until we have a buffer or have reserved
                     // enough memory to allocate one
                     while (accumulated < size) {
@@ -146,9 +206,9 @@ public class BufferPool {
 
                         // check if we can satisfy this request from the free list,
                         // otherwise allocate memory
-                        if (accumulated == 0 && size == this.poolableSize && !this.free.isEmpty()) {
-                            // just grab a buffer from the free list
-                            buffer = this.free.pollFirst();
+                        if (accumulated == 0 && size == this.poolableSize && !isFreeEmpty()
+                                && (buffer = pollFree()) != null) {
+                            // just grabbed a buffer from the free list
                             accumulated = size;
                         } else {
                             // we'll need to allocate memory, but we may only get
@@ -165,13 +225,14 @@ public class BufferPool {
                     // When this loop was not able to successfully terminate don't loose available memory
                     this.nonPooledAvailableMemory += accumulated;
                     this.waiters.remove(moreMemory);
+                    this.numWaiters = this.waiters.size();
                 }
             }
         } finally {
             // signal any additional waiters if there is more memory left
             // over for them
             try {
-                if (!(this.nonPooledAvailableMemory == 0 && this.free.isEmpty()) && !this.waiters.isEmpty())
+                if (!(this.nonPooledAvailableMemory == 0 && isFreeEmpty()) && !this.waiters.isEmpty())
                     this.waiters.peekFirst().signal();
             } finally {
                 // Another finally... otherwise find bugs complains
@@ -224,8 +285,40 @@ public class BufferPool {
      * buffers (if needed)
      */
     private void freeUp(int size) {
-        while (!this.free.isEmpty() && this.nonPooledAvailableMemory < size)
-            this.nonPooledAvailableMemory += this.free.pollLast().capacity();
+        while (!isFreeEmpty() && this.nonPooledAvailableMemory < size) {
+            ByteBuffer buffer = freeShards == null ? this.free.pollLast() : pollFreeShards();
+            if (buffer == null)
+                break;
+            this.nonPooledAvailableMemory += buffer.capacity();
+        }
+    }
+
+    // Protected for testing.
+    protected boolean isFreeEmpty() {
+        if (freeShards == null)
+            return this.free.isEmpty();
+        for (Deque<ByteBuffer> shard : freeShards) {
+            if (!shard.isEmpty())
+                return false;
+        }
+        return true;
+    }
+
+    private ByteBuffer pollFree() {
+        return freeShards == null ? this.free.pollFirst() : pollFreeShards();
+    }
+
+    /**
+     * Take a buffer from the shards, starting with a random one so that threads spread over the shards
+     */
+    private ByteBuffer pollFreeShards() {
+        int start = ThreadLocalRandom.current().nextInt(freeShards.length);
+        for (int i = 0; i < freeShards.length; i++) {
+            ByteBuffer buffer = freeShards[(start + i) % freeShards.length].pollFirst();
+            if (buffer != null)
+                return buffer;
+        }
+        return null;
     }
 
     /**
@@ -237,6 +330,23 @@ public class BufferPool {
      *             since the buffer may re-allocate itself during in-place compression
      */
     public void deallocate(ByteBuffer buffer, int size) {
+        if (freeShards != null && size == this.poolableSize && size == buffer.capacity()) {
+            buffer.clear();
+            freeShards[ThreadLocalRandom.current().nextInt(freeShards.length)].addFirst(buffer);
+            // A thread registers as waiter before checking the shards a last time, so either it finds this buffer
+            // or we see it here and wake it up.
+            if (numWaiters > 0) {
+                lock.lock();
+                try {
+                    Condition moreMem = this.waiters.peekFirst();
+                    if (moreMem != null)
+                        moreMem.signal();
+                } finally {
+                    lock.unlock();
+                }
+            }
+            return;
+        }
         lock.lock();
         try {
             if (size == this.poolableSize && size == buffer.capacity()) {
@@ -271,7 +381,12 @@ public class BufferPool {
 
     // Protected for testing.
     protected int freeSize() {
-        return this.free.size();
+        if (freeShards == null)
+            return this.free.size();
+        int size = 0;
+        for (Deque<ByteBuffer> shard : freeShards)
+            size += shard.size();
+        return size;
     }
 
     /**
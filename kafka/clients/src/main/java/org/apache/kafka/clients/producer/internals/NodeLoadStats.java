@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.kafka.clients.producer.internals;
+
+import org.apache.kafka.common.utils.Time;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * An internal class that tracks the load of every broker the producer sends to: the number of batches queued in the
+ * {@link RecordAccumulator} for partitions led by the broker, an exponentially weighted moving average of the produce
+ * request latency observed by the {@link Sender}, and since when the broker has had sendable data but no ready
+ * connection. It is used by {@link org.apache.kafka.clients.producer.AdaptivePartitioner} to steer records without
+ * keys away from slow brokers. This class should not be used externally.
+ * <p>
+ * Queue sizes and readiness are updated by the sender thread, the weights are read by the application threads.
+ */
+public final class NodeLoadStats {
+    // weight of the latest latency sample in the moving average
+    private static final double LATENCY_EWMA_ALPHA = 0.2;
+    private static final long NOT_LAGGING = -1L;
+
+    private final Time time;
+    private final long availabilityTimeoutMs;
+    private final ConcurrentMap<Integer, NodeLoad> loads;
+
+    /**
+     * @param time The time instance to use
+     * @param availabilityTimeoutMs If a broker has had data to send but could not be sent to for this long, it is
+     *        considered lagging and gets no new records. Zero disables the check.
+     */
+    public NodeLoadStats(Time time, long availabilityTimeoutMs) {
+        this.time = time;
+        this.availabilityTimeoutMs = availabilityTimeoutMs;
+        this.loads = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Replace the queued batch counts with the ones computed by the latest ready check. Brokers that are not present
+     * in the given map have no queued batches.
+     * <p>
+     * A lagging broker gets no new records, and once its queued batches are sent or expired it no longer shows up in
+     * the ready check, so its readiness would never be updated again. A broker without queued batches is therefore no
+     * longer considered lagging: it gets new records again, and is only marked lagging once more if those cannot be
+     * sent within the availability timeout.
+     */
+    public void updateQueuedBatches(Map<Integer, Integer> queuedBatchesByNode) {
+        for (Map.Entry<Integer, NodeLoad> entry : loads.entrySet()) {
+            Integer queued = queuedBatchesByNode.get(entry.getKey());
+            NodeLoad load = entry.getValue();
+            if (queued == null) {
+                load.queuedBatches = 0;
+                load.notReadySinceMs = NOT_LAGGING;
+            } else {
+                load.queuedBatches = queued;
+            }
+        }
+        for (Map.Entry<Integer, Integer> entry : queuedBatchesByNode.entrySet())
+            load(entry.getKey()).queuedBatches = entry.getValue();
+    }
+
+    /**
+     * Record the latency of a completed produce request to the given broker.
+     */
+    public void recordLatency(int nodeId, long latencyMs) {
+        NodeLoad load = load(nodeId);
+        if (load.latencyEwmaMs < 0)
+            load.latencyEwmaMs = latencyMs;
+        else
+            load.latencyEwmaMs = LATENCY_EWMA_ALPHA * latencyMs + (1 - LATENCY_EWMA_ALPHA) * load.latencyEwmaMs;
+    }
+
+    /**
+     * Record whether a broker with sendable data had a ready connection at the given time.
+     */
+    public void updateReadiness(int nodeId, boolean ready, long nowMs) {
+        NodeLoad load = load(nodeId);
+        if (ready)
+            load.notReadySinceMs = NOT_LAGGING;
+        else if (load.notReadySinceMs == NOT_LAGGING)
+            load.notReadySinceMs = nowMs;
+    }
+
+    /**
+     * Check whether the broker has had sendable data without a ready connection for longer than the availability
+     * timeout.
+     */
+    public boolean isLagging(int nodeId) {
+        if (availabilityTimeoutMs <= 0)
+            return false;
+        NodeLoad load = loads.get(nodeId);
+        return load != null && load.notReadySinceMs != NOT_LAGGING
+            && time.milliseconds() - load.notReadySinceMs >= availabilityTimeoutMs;
+    }
+
+    /**
+     * The relative weight of the broker when choosing a partition: inversely proportional to both the number of
+     * queued batches and the average produce latency, and zero if the broker is lagging.
+     */
+    public double weight(int nodeId) {
+        if (isLagging(nodeId))
+            return 0.0;
+        NodeLoad load = loads.get(nodeId);
+        if (load == null)
+            return 1.0;
+        double latencyMs = Math.max(load.latencyEwmaMs, 0.0);
+        return 1.0 / ((1 + load.queuedBatches) * (1 + latencyMs));
+    }
+
+    // visible for testing
+    int queuedBatches(int nodeId) {
+        NodeLoad load = loads.get(nodeId);
+        return load == null ? 0 : load.queuedBatches;
+    }
+
+    // visible for testing
+    double latencyEwmaMs(int nodeId) {
+        NodeLoad load = loads.get(nodeId);
+        return load == null ? -1 : load.latencyEwmaMs;
+    }
+
+    private NodeLoad load(int nodeId) {
+        NodeLoad load = loads.get(nodeId);
+        if (load == null) {
+            NodeLoad newLoad = new NodeLoad();
+            load = loads.putIfAbsent(nodeId, newLoad);
+            if (load == null)
+                load = newLoad;
+        }
+        return load;
+    }
+
+    private static final class NodeLoad {
+        private volatile int queuedBatches = 0;
+        private volatile double latencyEwmaMs = -1;
+        private volatile long notReadySinceMs = NOT_LAGGING;
+    }
+}
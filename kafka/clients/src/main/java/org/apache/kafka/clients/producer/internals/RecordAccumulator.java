@@ -28,6 +28,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import org.apache.kafka.clients.ApiVersions;
 import org.apache.kafka.clients.producer.Callback;
 import org.apache.kafka.common.Cluster;
@@ -63,6 +64,10 @@ import org.slf4j.Logger;
  * <p>
  * The accumulator uses a bounded amount of memory and append calls will block when that memory is exhausted, unless
  * this behavior is explicitly disabled.
+ * <p>
+ * Appending threads are spread over a number of append stripes. Every stripe has its own open batch per partition,
+ * and a record is appended while holding the lock of that batch only, the lock of the partition deque is taken once
+ * per batch, when a new batch is queued. The sender thread locks the batch as well before closing it.
  */
 public final class RecordAccumulator {
 
@@ -79,12 +84,16 @@ public final class RecordAccumulator {
     private final Time time;
     private final ApiVersions apiVersions;
     private final ConcurrentMap<TopicPartition, Deque<ProducerBatch>> batches;
+    // The batch currently open for appends of every append stripe, per partition
+    private final ConcurrentMap<TopicPartition, AtomicReferenceArray<ProducerBatch>> openBatches;
+    private final int appendStripes;
     private final IncompleteBatches incomplete;
     // The following variables are only accessed by the sender thread, so we don't need to protect them.
     private final Map<TopicPartition, Long> muted;
     private int drainIndex;
     private final TransactionManager transactionManager;
     private long nextBatchExpiryTimeMs = Long.MAX_VALUE; // the earliest time (absolute) a batch will expire.
+    private final NodeLoadStats nodeLoadStats;
 
     /**
      * Create a new record accumulator
@@ -115,6 +124,33 @@ public final class RecordAccumulator {
                              ApiVersions apiVersions,
                              TransactionManager transactionManager,
                              BufferPool bufferPool) {
+        this(logContext, batchSize, compression, lingerMs, retryBackoffMs, deliveryTimeoutMs, metrics, metricGrpName,
+            time, apiVersions, transactionManager, bufferPool, 1, null);
+    }
+
+    /**
+     * Create a new record accumulator with several append stripes which also reports the number of queued batches
+     * per broker
+     *
+     * @param appendStripes The number of batches per partition which can be appended to concurrently
+     * @param nodeLoadStats The broker load to update on every ready check, or null if it is not tracked
+     * @see #RecordAccumulator(LogContext, int, CompressionType, int, long, int, Metrics, String, Time, ApiVersions,
+     *      TransactionManager, BufferPool)
+     */
+    public RecordAccumulator(LogContext logContext,
+                             int batchSize,
+                             CompressionType compression,
+                             int lingerMs,
+                             long retryBackoffMs,
+                             int deliveryTimeoutMs,
+                             Metrics metrics,
+                             String metricGrpName,
+                             Time time,
+                             ApiVersions apiVersions,
+                             TransactionManager transactionManager,
+                             BufferPool bufferPool,
+                             int appendStripes,
+                             NodeLoadStats nodeLoadStats) {
         this.log = logContext.logger(RecordAccumulator.class);
         this.drainIndex = 0;
         this.closed = false;
@@ -126,12 +162,15 @@ public final class RecordAccumulator {
         this.retryBackoffMs = retryBackoffMs;
         this.deliveryTimeoutMs = deliveryTimeoutMs;
         this.batches = new CopyOnWriteMap<>();
+        this.openBatches = new CopyOnWriteMap<>();
+        this.appendStripes = Math.max(1, appendStripes);
         this.free = bufferPool;
         this.incomplete = new IncompleteBatches();
         this.muted = new HashMap<>();
         this.time = time;
         this.apiVersions = apiVersions;
         this.transactionManager = transactionManager;
+        this.nodeLoadStats = nodeLoadStats;
         registerMetrics(metrics, metricGrpName);
     }
 
@@ -187,6 +226,61 @@ public final class RecordAccumulator {
                                      Header[] headers,
                                      Callback callback,
                                      long maxTimeToBlock) throws InterruptedException {
+        return append(tp, timestamp, key, value, headers, callback, maxTimeToBlock, false);
+    }
+
+    /**
+     * Add a record to the accumulator, return the append result
+     * <p>
+     * The append result will contain the future metadata, and flag for whether the appended batch is full or a new batch is created
+     * <p>
+     *
+     * @param tp The topic/partition to which this record is being sent
+     * @param timestamp The timestamp of the record
+     * @param key The key for the record
+     * @param value The value for the record
+     * @param headers the Headers for the record
+     * @param callback The user-supplied callback to execute when the request is complete
+     * @param maxTimeToBlock The maximum time in milliseconds to block for buffer memory to be available
+     * @param abortOnNewBatch A boolean that indicates returning before a new batch is created and
+     *                        running the partitioner's onNewBatch method before trying to append again
+     */
+    public RecordAppendResult append(TopicPartition tp,
+                                     long timestamp,
+                                     byte[] key,
+                                     byte[] value,
+                                     Header[] headers,
+                                     Callback callback,
+                                     long maxTimeToBlock,
+                                     boolean abortOnNewBatch) throws InterruptedException {
+        return append(tp, timestamp, Utils.wrapNullable(key), Utils.wrapNullable(value), headers, callback,
+                maxTimeToBlock, abortOnNewBatch);
+    }
+
+    /**
+     * Add a record to the accumulator, return the append result
+     * <p>
+     * The append result will contain the future metadata, and flag for whether the appended batch is full or a new batch is created
+     * <p>
+     *
+     * @param tp The topic/partition to which this record is being sent
+     * @param timestamp The timestamp of the record
+     * @param key The key for the record, the bytes between its position and its limit are copied into the batch
+     * @param value The value for the record, the bytes between its position and its limit are copied into the batch
+     * @param headers the Headers for the record
+     * @param callback The user-supplied callback to execute when the request is complete
+     * @param maxTimeToBlock The maximum time in milliseconds to block for buffer memory to be available
+     * @param abortOnNewBatch A boolean that indicates returning before a new batch is created and
+     *                        running the partitioner's onNewBatch method before trying to append again
+     */
+    public RecordAppendResult append(TopicPartition tp,
+                                     long timestamp,
+                                     ByteBuffer key,
+                                     ByteBuffer value,
+                                     Header[] headers,
+                                     Callback callback,
+                                     long maxTimeToBlock,
+                                     boolean abortOnNewBatch) throws InterruptedException {
         // We keep track of the number of appending thread to make sure we do not miss batches in
         // abortIncompleteBatches().
         appendsInProgress.incrementAndGet();
@@ -195,15 +289,25 @@ public final class RecordAccumulator {
         try {
             // check if we have an in-progress batch
             Deque<ProducerBatch> dq = getOrCreateDeque(tp);
-            synchronized (dq) {
-                if (closed)
-                    throw new KafkaException("Producer closed while send in progress");
-                RecordAppendResult appendResult = tryAppend(timestamp, key, value, headers, callback, dq);
-                if (appendResult != null)
-                    return appendResult;
+            AtomicReferenceArray<ProducerBatch> open = getOrCreateOpenBatches(tp);
+            int stripe = appendStripe();
+            ProducerBatch last = open.get(stripe);
+            if (last != null) {
+                synchronized (last) {
+                    if (closed)
+                        throw new KafkaException("Producer closed while send in progress");
+                    RecordAppendResult appendResult = tryAppend(timestamp, key, value, headers, callback, last);
+                    if (appendResult != null)
+                        return appendResult;
+                }
             }
 
             // we don't have an in-progress record batch try to allocate a new batch
+            if (abortOnNewBatch) {
+                // Return a result that will cause another call to append.
+                return new RecordAppendResult(null, false, false, true);
+            }
+
             byte maxUsableMagic = apiVersions.maxUsableProduceMagic();
             int size = Math.max(this.batchSize, AbstractRecords.estimateSizeInBytesUpperBound(maxUsableMagic, compression, key, value, headers));
             log.trace("Allocating a new {} byte message buffer for topic {} partition {}", size, tp.topic(), tp.partition());
@@ -213,22 +317,33 @@ public final class RecordAccumulator {
                 if (closed)
                     throw new KafkaException("Producer closed while send in progress");
 
-                RecordAppendResult appendResult = tryAppend(timestamp, key, value, headers, callback, dq);
-                if (appendResult != null) {
-                    // Somebody else found us a batch, return the one we waited for! Hopefully this doesn't happen often...
-                    return appendResult;
+                last = open.get(stripe);
+                if (last != null) {
+                    synchronized (last) {
+                        RecordAppendResult appendResult = tryAppend(timestamp, key, value, headers, callback, last);
+                        if (appendResult != null) {
+                            // Somebody else found us a batch, return the one we waited for! Hopefully this doesn't happen often...
+                            return appendResult;
+                        }
+                    }
                 }
 
                 MemoryRecordsBuilder recordsBuilder = recordsBuilder(buffer, maxUsableMagic);
                 ProducerBatch batch = new ProducerBatch(tp, recordsBuilder, time.milliseconds());
-                FutureRecordMetadata future = Utils.notNull(batch.tryAppend(timestamp, key, value, headers, callback, time.milliseconds()));
+                FutureRecordMetadata future;
+                boolean batchIsFull;
+                synchronized (batch) {
+                    future = Utils.notNull(batch.tryAppend(timestamp, key, value, headers, callback, time.milliseconds()));
+                    batchIsFull = batch.isFull();
+                }
 
                 dq.addLast(batch);
+                open.set(stripe, batch);
                 incomplete.add(batch);
 
                 // Don't deallocate this buffer in the finally block as it's being used in the record batch
                 buffer = null;
-                return new RecordAppendResult(future, dq.size() > 1 || batch.isFull(), true);
+                return new RecordAppendResult(future, dq.size() > 1 || batchIsFull, true, false);
             }
         } finally {
             if (buffer != null)
@@ -246,24 +361,32 @@ public final class RecordAccumulator {
     }
 
     /**
-     *  Try to append to a ProducerBatch.
+     *  Try to append to a ProducerBatch, the caller must hold the lock of the batch.
      *
      *  If it is full, we return null and a new batch is created. We also close the batch for record appends to free up
      *  resources like compression buffers. The batch will be fully closed (ie. the record batch headers will be written
      *  and memory records built) in one of the following cases (whichever comes first): right before send,
      *  if it is expired, or when the producer is closed.
      */
-    private RecordAppendResult tryAppend(long timestamp, byte[] key, byte[] value, Header[] headers,
-                                         Callback callback, Deque<ProducerBatch> deque) {
-        ProducerBatch last = deque.peekLast();
-        if (last != null) {
-            FutureRecordMetadata future = last.tryAppend(timestamp, key, value, headers, callback, time.milliseconds());
-            if (future == null)
-                last.closeForRecordAppends();
-            else
-                return new RecordAppendResult(future, deque.size() > 1 || last.isFull(), false);
+    private RecordAppendResult tryAppend(long timestamp, ByteBuffer key, ByteBuffer value, Header[] headers,
+                                         Callback callback, ProducerBatch last) {
+        FutureRecordMetadata future = last.tryAppend(timestamp, key, value, headers, callback, time.milliseconds());
+        if (future == null) {
+            last.closeForRecordAppends();
+            return null;
         }
-        return null;
+        // the older batches of the partition were reported as full when this batch was created
+        return new RecordAppendResult(future, last.isFull(), false, false);
+    }
+
+    /**
+     * The append stripe of the current thread, a thread always appends to the same stripe so that its records stay
+     * in order within a partition.
+     */
+    private int appendStripe() {
+        if (appendStripes == 1)
+            return 0;
+        return (int) (Thread.currentThread().getId() % appendStripes);
     }
 
     private boolean isMuted(TopicPartition tp, long now) {
@@ -301,7 +424,9 @@ public final class RecordAccumulator {
                     ProducerBatch batch = deque.getFirst();
                     if (batch.hasReachedDeliveryTimeout(deliveryTimeoutMs, now)) {
                         deque.poll();
-                        batch.abortRecordAppends();
+                        synchronized (batch) {
+                            batch.abortRecordAppends();
+                        }
                         expiredBatches.add(batch);
                     } else {
                         maybeUpdateNextBatchExpiryTime(batch);
@@ -441,12 +566,17 @@ public final class RecordAccumulator {
         Set<String> unknownLeaderTopics = new HashSet<>();
 
         boolean exhausted = this.free.queued() > 0;
+        Map<Integer, Integer> queuedBatchesByNode = nodeLoadStats == null ? null : new HashMap<Integer, Integer>();
         for (Map.Entry<TopicPartition, Deque<ProducerBatch>> entry : this.batches.entrySet()) {
             TopicPartition part = entry.getKey();
             Deque<ProducerBatch> deque = entry.getValue();
 
             Node leader = cluster.leaderFor(part);
             synchronized (deque) {
+                if (queuedBatchesByNode != null && leader != null && !deque.isEmpty()) {
+                    Integer queued = queuedBatchesByNode.get(leader.id());
+                    queuedBatchesByNode.put(leader.id(), (queued == null ? 0 : queued) + deque.size());
+                }
                 if (leader == null && !deque.isEmpty()) {
                     // This is a partition for which leader is not known, but messages are available to send.
                     // Note that entries are currently not removed from batches when deque is empty.
@@ -457,7 +587,13 @@ public final class RecordAccumulator {
                         long waitedTimeMs = batch.waitedTimeMs(nowMs);
                         boolean backingOff = batch.attempts() > 0 && waitedTimeMs < retryBackoffMs;
                         long timeToWaitMs = backingOff ? retryBackoffMs : lingerMs;
-                        boolean full = deque.size() > 1 || batch.isFull();
+                        boolean full = deque.size() > appendStripes;
+                        if (!full) {
+                            // the batch may still be open for appends, which only hold the batch lock
+                            synchronized (batch) {
+                                full = batch.isFull();
+                            }
+                        }
                         boolean expired = waitedTimeMs >= timeToWaitMs;
                         boolean sendable = full || expired || exhausted || closed || flushInProgress();
                         if (sendable && !backingOff) {
@@ -473,6 +609,8 @@ public final class RecordAccumulator {
                 }
             }
         }
+        if (queuedBatchesByNode != null)
+            nodeLoadStats.updateQueuedBatches(queuedBatchesByNode);
         return new ReadyCheckResult(readyNodes, nextReadyCheckDelayMs, unknownLeaderTopics);
     }
 
@@ -550,7 +688,12 @@ public final class RecordAccumulator {
                 if (backoff)
                     continue;
 
-                if (size + first.estimatedSizeInBytes() > maxSize && !ready.isEmpty()) {
+                // the batch may still be open for appends, which only hold the batch lock
+                int firstSizeInBytes;
+                synchronized (first) {
+                    firstSizeInBytes = first.estimatedSizeInBytes();
+                }
+                if (size + firstSizeInBytes > maxSize && !ready.isEmpty()) {
                     // there is a rare case that a single batch size is larger than the request size due to
                     // compression; in this case we will still eventually send this batch in a single request
                     break;
@@ -562,6 +705,10 @@ public final class RecordAccumulator {
                     ProducerIdAndEpoch producerIdAndEpoch =
                         transactionManager != null ? transactionManager.producerIdAndEpoch() : null;
                     ProducerBatch batch = deque.pollFirst();
+                    // wait for a thread still appending to the batch, no record can be appended afterwards
+                    synchronized (batch) {
+                        batch.closeForRecordAppends();
+                    }
                     if (producerIdAndEpoch != null && !batch.hasSequence()) {
                         // If the batch already has an assigned sequence, then we should not change the producer id and
                         // sequence number, since this may introduce duplicates. In particular, the previous attempt
@@ -623,6 +770,21 @@ public final class RecordAccumulator {
         return batches.get(tp);
     }
 
+    /**
+     * Get the open batches of the append stripes for the given topic-partition, creating them if necessary.
+     */
+    private AtomicReferenceArray<ProducerBatch> getOrCreateOpenBatches(TopicPartition tp) {
+        AtomicReferenceArray<ProducerBatch> open = this.openBatches.get(tp);
+        if (open != null)
+            return open;
+        open = new AtomicReferenceArray<>(appendStripes);
+        AtomicReferenceArray<ProducerBatch> previous = this.openBatches.putIfAbsent(tp, open);
+        if (previous == null)
+            return open;
+        else
+            return previous;
+    }
+
     /**
      * Get the deque for the given topic-partition, creating it if necessary.
      */
@@ -720,6 +882,7 @@ public final class RecordAccumulator {
         // batch appended by the last appending thread.
         abortBatches();
         this.batches.clear();
+        this.openBatches.clear();
     }
 
     /**
@@ -736,7 +899,9 @@ public final class RecordAccumulator {
         for (ProducerBatch batch : incomplete.copyAll()) {
             Deque<ProducerBatch> dq = getDeque(batch.topicPartition);
             synchronized (dq) {
-                batch.abortRecordAppends();
+                synchronized (batch) {
+                    batch.abortRecordAppends();
+                }
                 dq.remove(batch);
             }
             batch.abort(reason);
@@ -754,7 +919,9 @@ public final class RecordAccumulator {
             synchronized (dq) {
                 if ((transactionManager != null && !batch.hasSequence()) || (transactionManager == null && !batch.isClosed())) {
                     aborted = true;
-                    batch.abortRecordAppends();
+                    synchronized (batch) {
+                        batch.abortRecordAppends();
+                    }
                     dq.remove(batch);
                 }
             }
@@ -787,11 +954,13 @@ public final class RecordAccumulator {
         public final FutureRecordMetadata future;
         public final boolean batchIsFull;
         public final boolean newBatchCreated;
+        public final boolean abortForNewBatch;
 
-        public RecordAppendResult(FutureRecordMetadata future, boolean batchIsFull, boolean newBatchCreated) {
+        public RecordAppendResult(FutureRecordMetadata future, boolean batchIsFull, boolean newBatchCreated, boolean abortForNewBatch) {
             this.future = future;
             this.batchIsFull = batchIsFull;
             this.newBatchCreated = newBatchCreated;
+            this.abortForNewBatch = abortForNewBatch;
         }
     }
 
@@ -40,8 +40,11 @@ import org.apache.kafka.common.errors.UnsupportedVersionException;
 import org.apache.kafka.common.message.InitProducerIdRequestData;
 import org.apache.kafka.common.metrics.Sensor;
 import org.apache.kafka.common.metrics.stats.Avg;
+import org.apache.kafka.common.metrics.stats.Histogram.LogLinearBinScheme;
 import org.apache.kafka.common.metrics.stats.Max;
 import org.apache.kafka.common.metrics.stats.Meter;
+import org.apache.kafka.common.metrics.stats.Percentile;
+import org.apache.kafka.common.metrics.stats.Percentiles;
 import org.apache.kafka.common.protocol.Errors;
 import org.apache.kafka.common.record.MemoryRecords;
 import org.apache.kafka.common.record.RecordBatch;
@@ -63,6 +66,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import static org.apache.kafka.common.record.RecordBatch.NO_TIMESTAMP;
 
@@ -122,6 +126,9 @@ public class Sender implements Runnable {
     // A per-partition queue of batches ordered by creation time for tracking the in-flight batches
     private final Map<TopicPartition, List<ProducerBatch>> inFlightBatches;
 
+    /* the load of each broker used by the partitioner, null if it is not tracked */
+    private final NodeLoadStats nodeLoadStats;
+
     public Sender(LogContext logContext,
                   KafkaClient client,
                   ProducerMetadata metadata,
@@ -136,6 +143,25 @@ public class Sender implements Runnable {
                   long retryBackoffMs,
                   TransactionManager transactionManager,
                   ApiVersions apiVersions) {
+        this(logContext, client, metadata, accumulator, guaranteeMessageOrder, maxRequestSize, acks, retries,
+            metricsRegistry, time, requestTimeoutMs, retryBackoffMs, transactionManager, apiVersions, null);
+    }
+
+    public Sender(LogContext logContext,
+                  KafkaClient client,
+                  ProducerMetadata metadata,
+                  RecordAccumulator accumulator,
+                  boolean guaranteeMessageOrder,
+                  int maxRequestSize,
+                  short acks,
+                  int retries,
+                  SenderMetricsRegistry metricsRegistry,
+                  Time time,
+                  int requestTimeoutMs,
+                  long retryBackoffMs,
+                  TransactionManager transactionManager,
+                  ApiVersions apiVersions,
+                  NodeLoadStats nodeLoadStats) {
         this.log = logContext.logger(Sender.class);
         this.client = client;
         this.accumulator = accumulator;
@@ -152,6 +178,7 @@ public class Sender implements Runnable {
         this.apiVersions = apiVersions;
         this.transactionManager = transactionManager;
         this.inFlightBatches = new HashMap<>();
+        this.nodeLoadStats = nodeLoadStats;
     }
 
     public List<ProducerBatch> inFlightBatches(TopicPartition tp) {
@@ -354,7 +381,10 @@ public class Sender implements Runnable {
         long notReadyTimeout = Long.MAX_VALUE;
         while (iter.hasNext()) {
             Node node = iter.next();
-            if (!this.client.ready(node, now)) {
+            boolean ready = this.client.ready(node, now);
+            if (nodeLoadStats != null)
+                nodeLoadStats.updateReadiness(node.id(), ready, now);
+            if (!ready) {
                 iter.remove();
                 notReadyTimeout = Math.min(notReadyTimeout, this.client.pollDelayMs(node, now));
             }
@@ -585,6 +615,8 @@ public class Sender implements Runnable {
                     completeBatch(batch, partResp, correlationId, now, receivedTimeMs + produceResponse.throttleTimeMs());
                 }
                 this.sensors.recordLatency(response.destination(), response.requestLatencyMs());
+                if (nodeLoadStats != null)
+                    nodeLoadStats.recordLatency(Integer.parseInt(response.destination()), response.requestLatencyMs());
             } else {
                 // this is the acks = 0 case, just complete all requests
                 for (ProducerBatch batch : batches.values()) {
@@ -845,6 +877,9 @@ public class Sender implements Runnable {
             this.requestTimeSensor = metrics.sensor("request-time");
             this.requestTimeSensor.add(metrics.requestLatencyAvg, new Avg());
             this.requestTimeSensor.add(metrics.requestLatencyMax, new Max());
+            this.requestTimeSensor.add(new Percentiles(new LogLinearBinScheme(1.0, TimeUnit.MINUTES.toMillis(5), 2),
+                new Percentile(metrics.requestLatencyP99, 99.0),
+                new Percentile(metrics.requestLatencyP999, 99.9)));
 
             this.recordsPerRequestSensor = metrics.sensor("records-per-request");
             this.recordsPerRequestSensor.add(new Meter(metrics.recordSendRate, metrics.recordSendTotal));
@@ -42,6 +42,8 @@ public class SenderMetricsRegistry {
     public final MetricName recordQueueTimeMax;
     public final MetricName requestLatencyAvg;
     public final MetricName requestLatencyMax;   
+    public final MetricName requestLatencyP99;
+    public final MetricName requestLatencyP999;
     public final MetricName produceThrottleTimeAvg;
     public final MetricName produceThrottleTimeMax;
     public final MetricName recordSendRate;
@@ -93,6 +95,10 @@ public class SenderMetricsRegistry {
                 "The average request latency in ms");
         this.requestLatencyMax = createMetricName("request-latency-max", 
                 "The maximum request latency in ms");
+        this.requestLatencyP99 = createMetricName("request-latency-p99",
+                "The 99th percentile request latency in ms");
+        this.requestLatencyP999 = createMetricName("request-latency-p999",
+                "The 99.9th percentile request latency in ms");
         this.recordSendRate = createMetricName("record-send-rate", 
                 "The average number of records sent per second.");
         this.recordSendTotal = createMetricName("record-send-total", 
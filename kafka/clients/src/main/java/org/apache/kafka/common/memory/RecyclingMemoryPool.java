@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.kafka.common.memory;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.kafka.common.metrics.Sensor;
+import org.apache.kafka.common.utils.Utils;
+
+
+/**
+ * a pool implementation which recycles released buffers instead of leaving them to the garbage collector.
+ * buffers are handed out as views of chunks whose sizes are powers of two (capped to the max single allocation size),
+ * and the limit on the total outstanding memory applies to the chunks. released chunks are kept for later allocations
+ * of the same size as long as the outstanding and kept chunks together don't exceed the size of the pool, so the pool
+ * never holds on to more memory than it was configured with (plus a single allocation in non-strict mode).
+ * requests larger than the max single allocation size are served with unpooled buffers, for which release() is a nop.
+ */
+public class RecyclingMemoryPool extends SimpleMemoryPool {
+    private static final int MIN_CHUNK_SIZE = 1024;
+
+    //all guarded by this
+    private final Map<Integer, Deque<byte[]>> freeChunks = new HashMap<>();
+    private final Set<byte[]> chunksInUse = Collections.newSetFromMap(new IdentityHashMap<>());
+    private long freeBytes = 0;
+
+    public RecyclingMemoryPool(long sizeInBytes, int maxSingleAllocationBytes, boolean strict, Sensor oomPeriodSensor) {
+        super(sizeInBytes, maxSingleAllocationBytes, strict, oomPeriodSensor);
+    }
+
+    @Override
+    public ByteBuffer tryAllocate(int sizeBytes) {
+        if (sizeBytes < 1)
+            throw new IllegalArgumentException("requested size " + sizeBytes + "<=0");
+        if (sizeBytes > maxSingleAllocationSize) {
+            log.trace("allocating unpooled buffer of size {} larger than maxSingleAllocationSize {}", sizeBytes, maxSingleAllocationSize);
+            return ByteBuffer.allocate(sizeBytes);
+        }
+
+        int chunkSize = chunkSize(sizeBytes);
+        if (!reserve(chunkSize)) {
+            log.trace("refused to allocate buffer of size {}", sizeBytes);
+            return null;
+        }
+
+        byte[] chunk;
+        synchronized (this) {
+            Deque<byte[]> free = freeChunks.get(chunkSize);
+            chunk = free == null ? null : free.pollFirst();
+            if (chunk != null) {
+                freeBytes -= chunkSize;
+            } else {
+                //the reserved memory may have been counted as available because of free chunks of other sizes
+                evictFreeChunks();
+                chunk = new byte[chunkSize];
+            }
+            chunksInUse.add(chunk);
+        }
+
+        ByteBuffer allocated = ByteBuffer.wrap(chunk, 0, sizeBytes).slice();
+        bufferToBeReturned(allocated);
+        return allocated;
+    }
+
+    @Override
+    public void release(ByteBuffer previouslyAllocated) {
+        if (previouslyAllocated == null)
+            throw new IllegalArgumentException("provided null buffer");
+        if (!previouslyAllocated.hasArray()) {
+            throw new IllegalArgumentException("returned buffer was never allocated by this pool");
+        }
+
+        byte[] chunk = previouslyAllocated.array();
+        synchronized (this) {
+            if (!chunksInUse.remove(chunk)) {
+                if (previouslyAllocated.capacity() > maxSingleAllocationSize)
+                    return; //unpooled
+                //either a double free or not our buffer, recycling it could hand out memory which is still in use
+                throw new IllegalArgumentException("returned buffer was never allocated by this pool or released already");
+            }
+            bufferToBeReleased(previouslyAllocated);
+            availableMemory.addAndGet(chunk.length);
+            if (freeBytes + chunk.length <= availableMemory.get()) {
+                freeChunks.computeIfAbsent(chunk.length, size -> new ArrayDeque<>()).addFirst(chunk);
+                freeBytes += chunk.length;
+            }
+        }
+        maybeRecordEndOfDrySpell();
+    }
+
+    /**
+     * Returns the amount of memory held by released buffers which is kept for later allocations
+     * @return free bytes
+     */
+    public synchronized long freeMemory() {
+        return freeBytes;
+    }
+
+    //drop free chunks until the outstanding and free chunks fit into the pool
+    private void evictFreeChunks() {
+        Iterator<Deque<byte[]>> iterator = freeChunks.values().iterator();
+        while (freeBytes > Math.max(availableMemory.get(), 0) && iterator.hasNext()) {
+            Deque<byte[]> free = iterator.next();
+            while (freeBytes > Math.max(availableMemory.get(), 0) && !free.isEmpty())
+                freeBytes -= free.pollLast().length;
+            if (free.isEmpty())
+                iterator.remove();
+        }
+    }
+
+    private int chunkSize(int sizeBytes) {
+        if (sizeBytes <= MIN_CHUNK_SIZE)
+            return Math.min(MIN_CHUNK_SIZE, maxSingleAllocationSize);
+        if (sizeBytes > 1 << 30)
+            return maxSingleAllocationSize;
+        return Math.min(Integer.highestOneBit(sizeBytes - 1) << 1, maxSingleAllocationSize);
+    }
+
+    @Override
+    public String toString() {
+        long allocated = sizeBytes - availableMemory.get();
+        return "RecyclingMemoryPool{" + Utils.formatBytes(allocated) + "/" + Utils.formatBytes(sizeBytes) + " used, "
+            + Utils.formatBytes(freeMemory()) + " free}";
+    }
+}
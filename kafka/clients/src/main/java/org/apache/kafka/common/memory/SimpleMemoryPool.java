@@ -57,6 +57,18 @@ public class SimpleMemoryPool implements MemoryPool {
         if (sizeBytes > maxSingleAllocationSize)
             throw new IllegalArgumentException("requested size " + sizeBytes + " is larger than maxSingleAllocationSize " + maxSingleAllocationSize);
 
+        if (!reserve(sizeBytes)) {
+            log.trace("refused to allocate buffer of size {}", sizeBytes);
+            return null;
+        }
+
+        ByteBuffer allocated = ByteBuffer.allocate(sizeBytes);
+        bufferToBeReturned(allocated);
+        return allocated;
+    }
+
+    //marks the given amount of memory as allocated if available, allows subclasses to allocate differently sized chunks.
+    protected boolean reserve(long sizeBytes) {
         long available;
         boolean success = false;
         //in strict mode we will only allocate memory if we have at least the size required.
@@ -71,17 +83,10 @@ public class SimpleMemoryPool implements MemoryPool {
 
         if (success) {
             maybeRecordEndOfDrySpell();
-        } else {
-            if (oomTimeSensor != null) {
-                startOfNoMemPeriod.compareAndSet(0, System.nanoTime());
-            }
-            log.trace("refused to allocate buffer of size {}", sizeBytes);
-            return null;
+        } else if (oomTimeSensor != null) {
+            startOfNoMemPeriod.compareAndSet(0, System.nanoTime());
         }
-
-        ByteBuffer allocated = ByteBuffer.allocate(sizeBytes);
-        bufferToBeReturned(allocated);
-        return allocated;
+        return success;
     }
 
     @Override
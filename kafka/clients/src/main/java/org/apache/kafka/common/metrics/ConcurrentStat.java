@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.kafka.common.metrics;
+
+/**
+ * A Stat which can also be recorded without holding the metric lock. Values recorded this way are buffered in
+ * striped aggregates and applied to the stat when it is next measured or recorded while holding the metric lock.
+ * A sensor records into its stats this way when {@link MetricConfig#concurrentRecording()} is enabled and all of
+ * its stats support it.
+ */
+public interface ConcurrentStat extends Stat {
+
+    /**
+     * Whether this stat can be recorded with {@link #tryRecordConcurrently(MetricConfig, double, long)}, which may
+     * depend on the stats it delegates to
+     */
+    default boolean supportsConcurrentRecording() {
+        return true;
+    }
+
+    /**
+     * Buffer the given value without holding the metric lock
+     * @param config The configuration to use for this metric
+     * @param value The value to record
+     * @param timeMs The POSIX time in milliseconds this value occurred
+     * @return false if values of an earlier time window are buffered by the calling thread, in which case the value
+     *         is not recorded and {@link #applyBuffered(MetricConfig)} must be called before trying again
+     */
+    boolean tryRecordConcurrently(MetricConfig config, double value, long timeMs);
+
+    /**
+     * Apply the buffered values to this stat, the caller must hold the metric lock
+     * @param config The configuration to use for this metric
+     */
+    void applyBuffered(MetricConfig config);
+
+}
@@ -31,6 +31,7 @@ public class MetricConfig {
     private long timeWindowMs;
     private Map<String, String> tags;
     private Sensor.RecordingLevel recordingLevel;
+    private boolean concurrentRecording;
 
     public MetricConfig() {
         super();
@@ -40,6 +41,7 @@ public class MetricConfig {
         this.timeWindowMs = TimeUnit.MILLISECONDS.convert(30, TimeUnit.SECONDS);
         this.tags = new LinkedHashMap<>();
         this.recordingLevel = Sensor.RecordingLevel.INFO;
+        this.concurrentRecording = false;
     }
 
     public Quota quota() {
@@ -98,5 +100,17 @@ public class MetricConfig {
         return this;
     }
 
+    public boolean concurrentRecording() {
+        return this.concurrentRecording;
+    }
+
+    /**
+     * Let sensors whose stats all implement {@link ConcurrentStat} record without holding the sensor lock
+     */
+    public MetricConfig concurrentRecording(boolean concurrentRecording) {
+        this.concurrentRecording = concurrentRecording;
+        return this;
+    }
+
 
 }
@@ -22,6 +22,7 @@ import org.apache.kafka.common.utils.Time;
 import org.apache.kafka.common.utils.Utils;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
@@ -51,6 +52,9 @@ public final class Sensor {
     private volatile long lastRecordTime;
     private final long inactiveSensorExpirationTimeMs;
     private final Object metricLock;
+    private boolean concurrentRecordingSupported;
+    private volatile ConcurrentStat[] concurrentStats;
+    private volatile List<KafkaMetric> concurrentMetrics;
 
     public enum RecordingLevel {
         INFO(0, "INFO"), DEBUG(1, "DEBUG");
@@ -117,6 +121,7 @@ public final class Sensor {
         this.lastRecordTime = time.milliseconds();
         this.recordingLevel = recordingLevel;
         this.metricLock = new Object();
+        this.concurrentRecordingSupported = config.concurrentRecording() && config.eventWindow() == Long.MAX_VALUE;
         checkForest(new HashSet<Sensor>());
     }
 
@@ -181,14 +186,29 @@ public final class Sensor {
     public void record(double value, long timeMs, boolean checkQuotas) {
         if (shouldRecord()) {
             this.lastRecordTime = timeMs;
-            synchronized (this) {
-                synchronized (metricLock()) {
-                    // increment all the stats
-                    for (Stat stat : this.stats)
-                        stat.record(config, value, timeMs);
+            ConcurrentStat[] concurrentStats = this.concurrentStats;
+            if (concurrentStats != null) {
+                // record without the sensor lock, the metric lock is only taken to apply the values a thread
+                // buffered in a previous time window
+                for (ConcurrentStat stat : concurrentStats) {
+                    while (!stat.tryRecordConcurrently(config, value, timeMs)) {
+                        synchronized (metricLock()) {
+                            stat.applyBuffered(config);
+                        }
+                    }
                 }
                 if (checkQuotas)
-                    checkQuotas(timeMs);
+                    checkQuotas(this.concurrentMetrics, timeMs);
+            } else {
+                synchronized (this) {
+                    synchronized (metricLock()) {
+                        // increment all the stats
+                        for (Stat stat : this.stats)
+                            stat.record(config, value, timeMs);
+                    }
+                    if (checkQuotas)
+                        checkQuotas(timeMs);
+                }
             }
             for (Sensor parent : parents)
                 parent.record(value, timeMs, checkQuotas);
@@ -203,7 +223,11 @@ public final class Sensor {
     }
 
     public void checkQuotas(long timeMs) {
-        for (KafkaMetric metric : this.metrics.values()) {
+        checkQuotas(this.metrics.values(), timeMs);
+    }
+
+    private static void checkQuotas(Collection<KafkaMetric> metrics, long timeMs) {
+        for (KafkaMetric metric : metrics) {
             MetricConfig config = metric.config();
             if (config != null) {
                 Quota quota = config.quota();
@@ -247,6 +271,7 @@ public final class Sensor {
                 metrics.put(metric.metricName(), metric);
             }
         }
+        updateConcurrentStats(stat, config);
         return true;
     }
 
@@ -284,10 +309,38 @@ public final class Sensor {
             registry.registerMetric(metric);
             metrics.put(metric.metricName(), metric);
             stats.add(stat);
+            updateConcurrentStats(stat, config);
             return true;
         }
     }
 
+    /**
+     * Sensors only record without holding the sensor lock while all of their stats support it. Recording falls
+     * back to the locked path for good once a stat which doesn't is added, after the values already buffered
+     * have been applied.
+     */
+    private void updateConcurrentStats(Stat stat, MetricConfig config) {
+        if (config != null && config.eventWindow() != Long.MAX_VALUE)
+            concurrentRecordingSupported = false;
+        if (!(stat instanceof ConcurrentStat) || !((ConcurrentStat) stat).supportsConcurrentRecording())
+            concurrentRecordingSupported = false;
+
+        if (concurrentRecordingSupported) {
+            ConcurrentStat[] concurrentStats = new ConcurrentStat[stats.size()];
+            for (int i = 0; i < concurrentStats.length; i++)
+                concurrentStats[i] = (ConcurrentStat) stats.get(i);
+            this.concurrentMetrics = unmodifiableList(new ArrayList<>(metrics.values()));
+            this.concurrentStats = concurrentStats;
+        } else if (this.concurrentStats != null) {
+            ConcurrentStat[] concurrentStats = this.concurrentStats;
+            this.concurrentStats = null;
+            synchronized (metricLock()) {
+                for (ConcurrentStat concurrentStat : concurrentStats)
+                    concurrentStat.applyBuffered(this.config);
+            }
+        }
+    }
+
     /**
      * Return true if the Sensor is eligible for removal due to inactivity.
      *        false otherwise
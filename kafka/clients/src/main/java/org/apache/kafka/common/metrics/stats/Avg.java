@@ -34,6 +34,16 @@ public class Avg extends SampledStat {
         sample.value += value;
     }
 
+    @Override
+    protected void update(Sample sample, MetricConfig config, long count, double sum, double max, long now) {
+        sample.value += sum;
+    }
+
+    @Override
+    public boolean supportsConcurrentRecording() {
+        return true;
+    }
+
     @Override
     public double combine(List<Sample> samples, MetricConfig config, long now) {
         double total = 0.0;
@@ -212,4 +212,82 @@ public class Histogram {
             }
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * A scheme for calculating the bins where the range of values is divided into buckets whose widths double, each
+     * split into the same number of equally wide sub-buckets, like <a href="http://hdrhistogram.org/">HdrHistogram</a>.
+     * A bin is never wider than the lowest discernible value or the configured number of significant decimal digits
+     * relative to the values it counts, using a number of bins that only grows with the logarithm of the range. Since
+     * the bins only depend on the parameters of the scheme, histograms with equal schemes can be merged by adding
+     * up the counts of their bins.
+     */
+    public static class LogLinearBinScheme implements BinScheme {
+        private final double unit;
+        private final int subBucketBits;
+        private final int subBucketHalfCount;
+        private final long highestUnits;
+        private final int bins;
+
+        /**
+         * Create a log-linear bin scheme
+         *
+         * @param lowestDiscernibleValue the width of the bins of the smallest values; must be positive
+         * @param highestTrackableValue the maximum value to be counted in the bins, larger values are counted in the
+         *        last bin; must be at least twice the lowest discernible value
+         * @param significantDigits the number of significant decimal digits of the upper ends of the bins; must be
+         *        between 1 and 5
+         */
+        public LogLinearBinScheme(double lowestDiscernibleValue, double highestTrackableValue, int significantDigits) {
+            if (lowestDiscernibleValue <= 0.0d)
+                throw new IllegalArgumentException("The lowest discernible value must be positive.");
+            if (highestTrackableValue < 2 * lowestDiscernibleValue)
+                throw new IllegalArgumentException("The highest trackable value must be at least twice the lowest discernible value.");
+            if (significantDigits < 1 || significantDigits > 5)
+                throw new IllegalArgumentException("The number of significant digits must be between 1 and 5.");
+            long largestValueWithSingleUnitResolution = 2 * (long) Math.pow(10, significantDigits);
+            this.unit = lowestDiscernibleValue;
+            this.subBucketBits = 64 - Long.numberOfLeadingZeros(largestValueWithSingleUnitResolution - 1);
+            this.subBucketHalfCount = 1 << (subBucketBits - 1);
+            this.highestUnits = (long) (highestTrackableValue / lowestDiscernibleValue);
+            this.bins = binOfUnits(highestUnits) + 1;
+        }
+
+        public int bins() {
+            return this.bins;
+        }
+
+        public double fromBin(int b) {
+            if (b < 0) {
+                return Float.NEGATIVE_INFINITY;
+            } else if (b > this.bins - 1) {
+                return Float.POSITIVE_INFINITY;
+            } else {
+                return lowestUnitsOfBin(b) * this.unit;
+            }
+        }
+
+        public int toBin(double x) {
+            if (!(x > 0.0d))
+                return 0;
+            long units = (long) (x / this.unit);
+            return binOfUnits(Math.min(units, this.highestUnits));
+        }
+
+        private int binOfUnits(long units) {
+            // the first bucket counts values below twice the half count with unit resolution, every following bucket
+            // only adds half as many sub-buckets since its lower half is covered by the previous buckets
+            if (units < 2 * subBucketHalfCount)
+                return (int) units;
+            int bucket = 63 - Long.numberOfLeadingZeros(units) - (subBucketBits - 1);
+            return (bucket + 1) * subBucketHalfCount + (int) ((units >>> bucket) - subBucketHalfCount);
+        }
+
+        private long lowestUnitsOfBin(int b) {
+            if (b < 2 * subBucketHalfCount)
+                return b;
+            int bucket = b / subBucketHalfCount - 1;
+            long subBucket = b % subBucketHalfCount + subBucketHalfCount;
+            return subBucket << bucket;
+        }
+    }
+}
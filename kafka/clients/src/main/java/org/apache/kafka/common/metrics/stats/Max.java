@@ -34,6 +34,16 @@ public final class Max extends SampledStat {
         sample.value = Math.max(sample.value, value);
     }
 
+    @Override
+    protected void update(Sample sample, MetricConfig config, long count, double sum, double max, long now) {
+        sample.value = Math.max(sample.value, max);
+    }
+
+    @Override
+    public boolean supportsConcurrentRecording() {
+        return true;
+    }
+
     @Override
     public double combine(List<Sample> samples, MetricConfig config, long now) {
         double max = Double.NEGATIVE_INFINITY;
@@ -22,6 +22,7 @@ import java.util.concurrent.TimeUnit;
 
 import org.apache.kafka.common.MetricName;
 import org.apache.kafka.common.metrics.CompoundStat;
+import org.apache.kafka.common.metrics.ConcurrentStat;
 import org.apache.kafka.common.metrics.MetricConfig;
 import org.apache.kafka.common.metrics.stats.Rate.SampledTotal;
 
@@ -29,7 +30,7 @@ import org.apache.kafka.common.metrics.stats.Rate.SampledTotal;
 /**
  * A compound stat that includes a rate metric and a cumulative total metric.
  */
-public class Meter implements CompoundStat {
+public class Meter implements CompoundStat, ConcurrentStat {
 
     private final MetricName rateMetricName;
     private final MetricName totalMetricName;
@@ -84,4 +85,23 @@ public class Meter implements CompoundStat {
         double totalValue = (rate.stat instanceof Count) ? 1.0 : value;
         total.record(config, totalValue, timeMs);
     }
+
+    @Override
+    public boolean supportsConcurrentRecording() {
+        return rate.supportsConcurrentRecording();
+    }
+
+    @Override
+    public boolean tryRecordConcurrently(MetricConfig config, double value, long timeMs) {
+        if (!rate.tryRecordConcurrently(config, value, timeMs))
+            return false;
+        double totalValue = (rate.stat instanceof Count) ? 1.0 : value;
+        return total.tryRecordConcurrently(config, totalValue, timeMs);
+    }
+
+    @Override
+    public void applyBuffered(MetricConfig config) {
+        rate.applyBuffered(config);
+        total.applyBuffered(config);
+    }
 }
@@ -44,15 +44,27 @@ public class Percentiles extends SampledStat implements CompoundStat {
     }
 
     public Percentiles(int sizeInBytes, double min, double max, BucketSizing bucketing, Percentile... percentiles) {
+        this(binScheme(sizeInBytes / 4, min, max, bucketing), percentiles);
+    }
+
+    /**
+     * Create percentiles of the values counted in bins of the given scheme, such as a {@link Histogram.LogLinearBinScheme}
+     * whose percentiles have a bounded relative error
+     */
+    public Percentiles(BinScheme binScheme, Percentile... percentiles) {
         super(0.0);
         this.percentiles = percentiles;
-        this.buckets = sizeInBytes / 4;
+        this.buckets = binScheme.bins();
+        this.binScheme = binScheme;
+    }
+
+    private static BinScheme binScheme(int buckets, double min, double max, BucketSizing bucketing) {
         if (bucketing == BucketSizing.CONSTANT) {
-            this.binScheme = new ConstantBinScheme(buckets, min, max);
+            return new ConstantBinScheme(buckets, min, max);
         } else if (bucketing == BucketSizing.LINEAR) {
             if (min != 0.0d)
                 throw new IllegalArgumentException("Linear bucket sizing requires min to be 0.0.");
-            this.binScheme = new LinearBinScheme(buckets, max);
+            return new LinearBinScheme(buckets, max);
         } else {
             throw new IllegalArgumentException("Unknown bucket type: " + bucketing);
         }
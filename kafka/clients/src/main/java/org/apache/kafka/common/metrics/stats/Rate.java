@@ -20,6 +20,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.concurrent.TimeUnit;
 
+import org.apache.kafka.common.metrics.ConcurrentStat;
 import org.apache.kafka.common.metrics.MeasurableStat;
 import org.apache.kafka.common.metrics.MetricConfig;
 
@@ -30,7 +31,7 @@ import org.apache.kafka.common.metrics.MetricConfig;
  * however, to record the rate of occurrences (e.g. the count of values measured over the time interval) or other such
  * values.
  */
-public class Rate implements MeasurableStat {
+public class Rate implements MeasurableStat, ConcurrentStat {
 
     protected final TimeUnit unit;
     protected final SampledStat stat;
@@ -61,6 +62,21 @@ public class Rate implements MeasurableStat {
         this.stat.record(config, value, timeMs);
     }
 
+    @Override
+    public boolean supportsConcurrentRecording() {
+        return stat.supportsConcurrentRecording();
+    }
+
+    @Override
+    public boolean tryRecordConcurrently(MetricConfig config, double value, long timeMs) {
+        return stat.tryRecordConcurrently(config, value, timeMs);
+    }
+
+    @Override
+    public void applyBuffered(MetricConfig config) {
+        stat.applyBuffered(config);
+    }
+
     @Override
     public double measure(MetricConfig config, long now) {
         double value = stat.measure(config, now);
@@ -126,6 +142,16 @@ public class Rate implements MeasurableStat {
             sample.value += value;
         }
 
+        @Override
+        protected void update(Sample sample, MetricConfig config, long count, double sum, double max, long timeMs) {
+            sample.value += sum;
+        }
+
+        @Override
+        public boolean supportsConcurrentRecording() {
+            return true;
+        }
+
         @Override
         public double combine(List<Sample> samples, MetricConfig config, long now) {
             double total = 0.0;
@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.kafka.common.metrics.stats;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Values recorded concurrently into a stat, aggregated per time window in a few independently locked stripes until
+ * they are applied to the stat while holding the metric lock. Threads are assigned to stripes by their id so that
+ * threads recording into the same stat rarely contend. The stripes are only allocated when first recorded into.
+ */
+final class RecordStripes {
+
+    private static final int STRIPES = stripeCount(Runtime.getRuntime().availableProcessors());
+
+    private volatile Stripe[] stripes;
+
+    interface AggregateConsumer {
+        void accept(long count, double sum, double max, long timeMs);
+    }
+
+    /**
+     * Buffer a value in the stripe of the calling thread
+     * @return false if the stripe holds values of another time window, which have to be drained first
+     */
+    boolean tryRecord(double value, long timeMs, long windowMs) {
+        Stripe stripe = stripes()[(int) (Thread.currentThread().getId() & (STRIPES - 1))];
+        long window = timeMs / windowMs;
+        synchronized (stripe) {
+            if (stripe.count > 0 && stripe.window != window)
+                return false;
+            stripe.window = window;
+            stripe.count++;
+            stripe.sum += value;
+            stripe.max = Math.max(stripe.max, value);
+            stripe.lastTimeMs = Math.max(stripe.lastTimeMs, timeMs);
+            return true;
+        }
+    }
+
+    /**
+     * Remove the buffered aggregates and pass them to the consumer, oldest first
+     */
+    void drain(AggregateConsumer consumer) {
+        Stripe[] stripes = this.stripes;
+        if (stripes == null)
+            return;
+
+        List<Stripe> drained = null;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                if (stripe.count > 0) {
+                    if (drained == null)
+                        drained = new ArrayList<>(STRIPES);
+                    drained.add(stripe.copyAndReset());
+                }
+            }
+        }
+        if (drained == null)
+            return;
+
+        drained.sort(Comparator.comparingLong(stripe -> stripe.lastTimeMs));
+        for (Stripe stripe : drained)
+            consumer.accept(stripe.count, stripe.sum, stripe.max, stripe.lastTimeMs);
+    }
+
+    private Stripe[] stripes() {
+        Stripe[] stripes = this.stripes;
+        if (stripes == null) {
+            synchronized (this) {
+                stripes = this.stripes;
+                if (stripes == null) {
+                    stripes = new Stripe[STRIPES];
+                    for (int i = 0; i < STRIPES; i++)
+                        stripes[i] = new Stripe();
+                    this.stripes = stripes;
+                }
+            }
+        }
+        return stripes;
+    }
+
+    private static int stripeCount(int processors) {
+        int count = 1;
+        while (count < processors && count < 16)
+            count <<= 1;
+        return count;
+    }
+
+    private static final class Stripe {
+        private long window;
+        private long count;
+        private double sum;
+        private double max = Double.NEGATIVE_INFINITY;
+        private long lastTimeMs = Long.MIN_VALUE;
+
+        private Stripe copyAndReset() {
+            Stripe copy = new Stripe();
+            copy.window = window;
+            copy.count = count;
+            copy.sum = sum;
+            copy.max = max;
+            copy.lastTimeMs = lastTimeMs;
+            count = 0;
+            sum = 0;
+            max = Double.NEGATIVE_INFINITY;
+            lastTimeMs = Long.MIN_VALUE;
+            return copy;
+        }
+    }
+}
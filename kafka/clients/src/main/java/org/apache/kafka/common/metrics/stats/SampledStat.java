@@ -19,6 +19,7 @@ package org.apache.kafka.common.metrics.stats;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.apache.kafka.common.metrics.ConcurrentStat;
 import org.apache.kafka.common.metrics.MeasurableStat;
 import org.apache.kafka.common.metrics.MetricConfig;
 
@@ -30,13 +31,15 @@ import org.apache.kafka.common.metrics.MetricConfig;
  * All the samples are combined to produce the measurement. When a window is complete the oldest sample is cleared and
  * recycled to begin recording the next sample.
  * 
- * Subclasses of this class define different statistics measured using this basic pattern.
+ * Subclasses of this class define different statistics measured using this basic pattern. Subclasses which can
+ * update a sample with the count, sum and max of many values at once support concurrent recording.
  */
-public abstract class SampledStat implements MeasurableStat {
+public abstract class SampledStat implements MeasurableStat, ConcurrentStat {
 
     private double initialValue;
     private int current = 0;
     protected List<Sample> samples;
+    private final RecordStripes stripes = new RecordStripes();
 
     public SampledStat(double initialValue) {
         this.initialValue = initialValue;
@@ -45,11 +48,36 @@ public abstract class SampledStat implements MeasurableStat {
 
     @Override
     public void record(MetricConfig config, double value, long timeMs) {
+        applyBuffered(config);
+        Sample sample = sampleFor(config, timeMs);
+        update(sample, config, value, timeMs);
+        sample.eventCount += 1;
+    }
+
+    @Override
+    public boolean supportsConcurrentRecording() {
+        return false;
+    }
+
+    @Override
+    public boolean tryRecordConcurrently(MetricConfig config, double value, long timeMs) {
+        return stripes.tryRecord(value, timeMs, config.timeWindowMs());
+    }
+
+    @Override
+    public void applyBuffered(MetricConfig config) {
+        stripes.drain((count, sum, max, timeMs) -> {
+            Sample sample = sampleFor(config, timeMs);
+            update(sample, config, count, sum, max, timeMs);
+            sample.eventCount += count;
+        });
+    }
+
+    private Sample sampleFor(MetricConfig config, long timeMs) {
         Sample sample = current(timeMs);
         if (sample.isComplete(timeMs, config))
             sample = advance(config, timeMs);
-        update(sample, config, value, timeMs);
-        sample.eventCount += 1;
+        return sample;
     }
 
     private Sample advance(MetricConfig config, long timeMs) {
@@ -71,6 +99,7 @@ public abstract class SampledStat implements MeasurableStat {
 
     @Override
     public double measure(MetricConfig config, long now) {
+        applyBuffered(config);
         purgeObsoleteSamples(config, now);
         return combine(this.samples, config, now);
     }
@@ -95,6 +124,14 @@ public abstract class SampledStat implements MeasurableStat {
 
     protected abstract void update(Sample sample, MetricConfig config, double value, long timeMs);
 
+    /**
+     * Update the sample with the aggregate of many values recorded concurrently, only called if
+     * {@link #supportsConcurrentRecording()} is overridden to return true.
+     */
+    protected void update(Sample sample, MetricConfig config, long count, double sum, double max, long timeMs) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " doesn't support concurrent recording");
+    }
+
     public abstract double combine(List<Sample> samples, MetricConfig config, long now);
 
     /* Timeout any windows that have expired in the absence of any events */
@@ -16,15 +16,17 @@
  */
 package org.apache.kafka.common.metrics.stats;
 
+import org.apache.kafka.common.metrics.ConcurrentStat;
 import org.apache.kafka.common.metrics.MeasurableStat;
 import org.apache.kafka.common.metrics.MetricConfig;
 
 /**
  * An un-windowed cumulative total maintained over all time.
  */
-public class Total implements MeasurableStat {
+public class Total implements MeasurableStat, ConcurrentStat {
 
     private double total;
+    private final RecordStripes stripes = new RecordStripes();
 
     public Total() {
         this.total = 0.0;
@@ -36,11 +38,24 @@ public class Total implements MeasurableStat {
 
     @Override
     public void record(MetricConfig config, double value, long now) {
+        applyBuffered(config);
         this.total += value;
     }
 
+    @Override
+    public boolean tryRecordConcurrently(MetricConfig config, double value, long timeMs) {
+        // a single window spanning all time, so buffered values never have to be drained before recording
+        return stripes.tryRecord(value, timeMs, Long.MAX_VALUE);
+    }
+
+    @Override
+    public void applyBuffered(MetricConfig config) {
+        stripes.drain((count, sum, max, timeMs) -> this.total += sum);
+    }
+
     @Override
     public double measure(MetricConfig config, long now) {
+        applyBuffered(config);
         return this.total;
     }
 
@@ -146,6 +146,14 @@ public class NetworkReceive implements Receive {
         return this.buffer;
     }
 
+    /**
+     * Returns true if the payload was allocated from a memory pool, in which case it may be reused
+     * once this receive is closed and must not be referenced afterwards
+     */
+    public boolean isPooled() {
+        return memoryPool != MemoryPool.NONE && buffer != null && buffer != EMPTY_BUFFER;
+    }
+
     /**
      * Returns the total size of the receive including payload and size buffer
      * for use in metrics. This is consistent with {@link NetworkSend#size()}
@@ -54,6 +54,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
 
 /**
  * A nioSelector interface for doing non-blocking multi-connection network I/O.
@@ -123,6 +124,7 @@ public class Selector implements Selectable, AutoCloseable {
     private final IdleExpiryManager idleExpiryManager;
     private final LinkedHashMap<String, DelayedAuthenticationFailureClose> delayedClosingChannels;
     private final MemoryPool memoryPool;
+    private final Predicate<String> pooledConnections;
     private final long lowMemThreshold;
     private final int failedAuthenticationDelayMs;
 
@@ -142,6 +144,9 @@ public class Selector implements Selectable, AutoCloseable {
      * @param metricTags Additional tags to add to metrics registered by Selector
      * @param metricsPerConnection Whether or not to enable per-connection metrics
      * @param channelBuilder Channel builder for every new connection
+     * @param memoryPool Pool the buffers of network receives are allocated from
+     * @param pooledConnections Whether the receives of a connection, by id, are allocated from the memory pool. Other
+     *                          connections use unpooled buffers and are never muted when the pool is exhausted
      * @param logContext Context for logging with additional info
      */
     public Selector(int maxReceiveSize,
@@ -155,6 +160,7 @@ public class Selector implements Selectable, AutoCloseable {
             boolean recordTimePerConnection,
             ChannelBuilder channelBuilder,
             MemoryPool memoryPool,
+            Predicate<String> pooledConnections,
             LogContext logContext) {
         try {
             this.nioSelector = java.nio.channels.Selector.open();
@@ -180,12 +186,29 @@ public class Selector implements Selectable, AutoCloseable {
         this.recordTimePerConnection = recordTimePerConnection;
         this.idleExpiryManager = connectionMaxIdleMs < 0 ? null : new IdleExpiryManager(time, connectionMaxIdleMs);
         this.memoryPool = memoryPool;
+        this.pooledConnections = pooledConnections;
         this.lowMemThreshold = (long) (0.1 * this.memoryPool.size());
         this.log = logContext.logger(Selector.class);
         this.failedAuthenticationDelayMs = failedAuthenticationDelayMs;
         this.delayedClosingChannels = (failedAuthenticationDelayMs > NO_FAILED_AUTHENTICATION_DELAY) ? new LinkedHashMap<String, DelayedAuthenticationFailureClose>() : null;
     }
 
+    public Selector(int maxReceiveSize,
+            long connectionMaxIdleMs,
+            int failedAuthenticationDelayMs,
+            Metrics metrics,
+            Time time,
+            String metricGrpPrefix,
+            Map<String, String> metricTags,
+            boolean metricsPerConnection,
+            boolean recordTimePerConnection,
+            ChannelBuilder channelBuilder,
+            MemoryPool memoryPool,
+            LogContext logContext) {
+        this(maxReceiveSize, connectionMaxIdleMs, failedAuthenticationDelayMs, metrics, time, metricGrpPrefix, metricTags,
+                metricsPerConnection, recordTimePerConnection, channelBuilder, memoryPool, connectionId -> true, logContext);
+    }
+
     public Selector(int maxReceiveSize,
                     long connectionMaxIdleMs,
                     Metrics metrics,
@@ -231,6 +254,17 @@ public class Selector implements Selectable, AutoCloseable {
         this(NetworkReceive.UNLIMITED, connectionMaxIdleMS, metrics, time, metricGrpPrefix, Collections.emptyMap(), true, channelBuilder, logContext);
     }
 
+    public Selector(long connectionMaxIdleMS, Metrics metrics, Time time, String metricGrpPrefix, ChannelBuilder channelBuilder, MemoryPool memoryPool, LogContext logContext) {
+        this(NetworkReceive.UNLIMITED, connectionMaxIdleMS, NO_FAILED_AUTHENTICATION_DELAY, metrics, time, metricGrpPrefix, Collections.emptyMap(),
+                true, false, channelBuilder, memoryPool, logContext);
+    }
+
+    public Selector(long connectionMaxIdleMS, Metrics metrics, Time time, String metricGrpPrefix, ChannelBuilder channelBuilder, MemoryPool memoryPool,
+                    Predicate<String> pooledConnections, LogContext logContext) {
+        this(NetworkReceive.UNLIMITED, connectionMaxIdleMS, NO_FAILED_AUTHENTICATION_DELAY, metrics, time, metricGrpPrefix, Collections.emptyMap(),
+                true, false, channelBuilder, memoryPool, pooledConnections, logContext);
+    }
+
     public Selector(long connectionMaxIdleMS, int failedAuthenticationDelayMs, Metrics metrics, Time time, String metricGrpPrefix, ChannelBuilder channelBuilder, LogContext logContext) {
         this(NetworkReceive.UNLIMITED, connectionMaxIdleMS, failedAuthenticationDelayMs, metrics, time, metricGrpPrefix, Collections.<String, String>emptyMap(), true, channelBuilder, logContext);
     }
@@ -333,7 +367,8 @@ public class Selector implements Selectable, AutoCloseable {
 
     private KafkaChannel buildAndAttachKafkaChannel(SocketChannel socketChannel, String id, SelectionKey key) throws IOException {
         try {
-            KafkaChannel channel = channelBuilder.buildChannel(id, key, maxReceiveSize, memoryPool);
+            MemoryPool channelMemoryPool = pooledConnections.test(id) ? memoryPool : MemoryPool.NONE;
+            KafkaChannel channel = channelBuilder.buildChannel(id, key, maxReceiveSize, channelMemoryPool);
             key.attach(channel);
             return channel;
         } catch (Exception e) {
@@ -883,7 +918,12 @@ public class Selector implements Selectable, AutoCloseable {
             key.attach(null);
         }
         this.sensors.connectionClosed.record();
-        this.stagedReceives.remove(channel);
+        Deque<NetworkReceive> stagedDeque = this.stagedReceives.remove(channel);
+        if (stagedDeque != null) {
+            // receives which will never be processed must give their memory back to the pool
+            for (NetworkReceive receive : stagedDeque)
+                Utils.closeQuietly(receive, "staged receive from " + channel.id());
+        }
         this.explicitlyMutedChannels.remove(channel);
         if (notifyDisconnect)
             this.disconnected.put(channel.id(), channel.state());
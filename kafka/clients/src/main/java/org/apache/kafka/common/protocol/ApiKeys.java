@@ -225,6 +225,7 @@ public enum ApiKeys {
     public final Schema[] requestSchemas;
     public final Schema[] responseSchemas;
     public final boolean requiresDelayedAllocation;
+    public final boolean responseRetainsBufferReference;
 
     ApiKeys(int id, String name, Schema[] requestSchemas, Schema[] responseSchemas) {
         this(id, name, false, requestSchemas, responseSchemas);
@@ -262,6 +263,15 @@ public enum ApiKeys {
             }
         }
         this.requiresDelayedAllocation = requestRetainsBufferReference;
+
+        boolean responseRetainsBufferReference = false;
+        for (Schema responseVersionSchema : responseSchemas) {
+            if (retainsBufferReference(responseVersionSchema)) {
+                responseRetainsBufferReference = true;
+                break;
+            }
+        }
+        this.responseRetainsBufferReference = responseRetainsBufferReference;
         this.requestSchemas = requestSchemas;
         this.responseSchemas = responseSchemas;
     }
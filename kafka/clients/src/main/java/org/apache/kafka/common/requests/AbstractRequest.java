@@ -21,6 +21,7 @@ import org.apache.kafka.common.network.NetworkSend;
 import org.apache.kafka.common.network.Send;
 import org.apache.kafka.common.protocol.ApiKeys;
 import org.apache.kafka.common.protocol.Errors;
+import org.apache.kafka.common.protocol.Message;
 import org.apache.kafka.common.protocol.types.Struct;
 
 import java.nio.ByteBuffer;
@@ -100,11 +101,27 @@ public abstract class AbstractRequest extends AbstractRequestResponse {
      * Use with care, typically {@link #toSend(String, RequestHeader)} should be used instead.
      */
     public ByteBuffer serialize(RequestHeader header) {
+        Message data = data();
+        if (data != null) {
+            try {
+                return serialize(header.toStruct(), data, version);
+            } catch (UnsupportedVersionException e) {
+                // the message has fields this version doesn't support, which toStruct() leaves out
+            }
+        }
         return serialize(header.toStruct(), toStruct());
     }
 
     protected abstract Struct toStruct();
 
+    /**
+     * Get the generated message of this request, which is then serialized without building a {@link Struct}.
+     * Returns null if the request is only represented by its Struct.
+     */
+    public Message data() {
+        return null;
+    }
+
     public String toString(boolean verbose) {
         return toStruct().toString();
     }
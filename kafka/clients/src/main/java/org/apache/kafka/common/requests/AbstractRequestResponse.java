@@ -16,6 +16,8 @@
  */
 package org.apache.kafka.common.requests;
 
+import org.apache.kafka.common.protocol.ByteBufferAccessor;
+import org.apache.kafka.common.protocol.Message;
 import org.apache.kafka.common.protocol.types.Struct;
 
 import java.nio.ByteBuffer;
@@ -31,4 +33,15 @@ public abstract class AbstractRequestResponse {
         buffer.rewind();
         return buffer;
     }
+
+    /**
+     * Serialize a generated message directly, without converting it to a {@link Struct} first.
+     */
+    public static ByteBuffer serialize(Struct headerStruct, Message body, short version) {
+        ByteBuffer buffer = ByteBuffer.allocate(headerStruct.sizeOf() + body.size(version));
+        headerStruct.writeTo(buffer);
+        body.write(new ByteBufferAccessor(buffer), version);
+        buffer.rewind();
+        return buffer;
+    }
 }
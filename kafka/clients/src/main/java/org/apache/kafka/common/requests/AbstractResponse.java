@@ -16,10 +16,12 @@
  */
 package org.apache.kafka.common.requests;
 
+import org.apache.kafka.common.errors.UnsupportedVersionException;
 import org.apache.kafka.common.network.NetworkSend;
 import org.apache.kafka.common.network.Send;
 import org.apache.kafka.common.protocol.ApiKeys;
 import org.apache.kafka.common.protocol.Errors;
+import org.apache.kafka.common.protocol.Message;
 import org.apache.kafka.common.protocol.types.Struct;
 
 import java.nio.ByteBuffer;
@@ -38,6 +40,14 @@ public abstract class AbstractResponse extends AbstractRequestResponse {
      * Visible for testing, typically {@link #toSend(String, ResponseHeader, short)} should be used instead.
      */
     public ByteBuffer serialize(short version, ResponseHeader responseHeader) {
+        Message data = data();
+        if (data != null) {
+            try {
+                return serialize(responseHeader.toStruct(), data, version);
+            } catch (UnsupportedVersionException e) {
+                // the message has fields this version doesn't support, which toStruct() leaves out
+            }
+        }
         return serialize(responseHeader.toStruct(), toStruct(version));
     }
 
@@ -68,6 +78,14 @@ public abstract class AbstractResponse extends AbstractRequestResponse {
 
     protected abstract Struct toStruct(short version);
 
+    /**
+     * Get the generated message of this response, which is then serialized without building a {@link Struct}.
+     * Returns null if the response is only represented by its Struct.
+     */
+    public Message data() {
+        return null;
+    }
+
     public static AbstractResponse parseResponse(ApiKeys apiKey, Struct struct, short version) {
         switch (apiKey) {
             case PRODUCE:
@@ -88,6 +88,7 @@ public class ControlledShutdownRequest extends AbstractRequest {
         return data.toStruct(version);
     }
 
+    @Override
     public ControlledShutdownRequestData data() {
         return data;
     }
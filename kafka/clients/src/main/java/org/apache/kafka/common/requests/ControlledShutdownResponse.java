@@ -66,6 +66,7 @@ public class ControlledShutdownResponse extends AbstractResponse {
         return data.toStruct(version);
     }
 
+    @Override
     public ControlledShutdownResponseData data() {
         return data;
     }
@@ -64,6 +64,7 @@ public class CreateTopicsRequest extends AbstractRequest {
         this.data = new CreateTopicsRequestData(struct, version);
     }
 
+    @Override
     public CreateTopicsRequestData data() {
         return data;
     }
@@ -54,6 +54,7 @@ public class CreateTopicsResponse extends AbstractResponse {
         this.data = new CreateTopicsResponseData(struct, version);
     }
 
+    @Override
     public CreateTopicsResponseData data() {
         return data;
     }
@@ -98,6 +98,7 @@ public class DeleteTopicsRequest extends AbstractRequest {
         return data.toStruct(version);
     }
 
+    @Override
     public DeleteTopicsRequestData data() {
         return data;
     }
@@ -60,6 +60,7 @@ public class DescribeGroupsRequest extends AbstractRequest {
         this.version = version;
     }
 
+    @Override
     public DescribeGroupsRequestData data() {
         return data;
     }
@@ -104,6 +104,7 @@ public class DescribeGroupsResponse extends AbstractResponse {
         return  groupMetada;
     }
 
+    @Override
     public DescribeGroupsResponseData data() {
         return data;
     }
@@ -93,6 +93,7 @@ public class ElectPreferredLeadersRequest extends AbstractRequest {
         this.version = version;
     }
 
+    @Override
     public ElectPreferredLeadersRequestData data() {
         return data;
     }
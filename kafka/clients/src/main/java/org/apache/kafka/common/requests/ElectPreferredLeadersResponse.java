@@ -45,6 +45,7 @@ public class ElectPreferredLeadersResponse extends AbstractResponse {
         this.data = new ElectPreferredLeadersResponseData(struct, latestVersion);
     }
 
+    @Override
     public ElectPreferredLeadersResponseData data() {
         return data;
     }
@@ -87,6 +87,7 @@ public class FindCoordinatorRequest extends AbstractRequest {
         return data.toStruct(version());
     }
 
+    @Override
     public FindCoordinatorRequestData data() {
         return data;
     }
@@ -49,6 +49,7 @@ public class FindCoordinatorResponse extends AbstractResponse {
         this.data = new FindCoordinatorResponseData(struct, version);
     }
 
+    @Override
     public FindCoordinatorResponseData data() {
         return data;
     }
@@ -90,4 +90,9 @@ public class HeartbeatRequest extends AbstractRequest {
     protected Struct toStruct() {
         return data.toStruct(version());
     }
+
+    @Override
+    public HeartbeatRequestData data() {
+        return data;
+    }
 }
@@ -67,6 +67,11 @@ public class HeartbeatResponse extends AbstractResponse {
         return data.toStruct(version);
     }
 
+    @Override
+    public HeartbeatResponseData data() {
+        return data;
+    }
+
     public static HeartbeatResponse parse(ByteBuffer buffer, short version) {
         return new HeartbeatResponse(ApiKeys.HEARTBEAT.parseResponse(version, buffer), version);
     }
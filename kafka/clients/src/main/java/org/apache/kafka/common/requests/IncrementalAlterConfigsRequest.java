@@ -66,6 +66,7 @@ public class IncrementalAlterConfigsRequest extends AbstractRequest {
         return new IncrementalAlterConfigsRequest(ApiKeys.INCREMENTAL_ALTER_CONFIGS.parseRequest(version, buffer), version);
     }
 
+    @Override
     public IncrementalAlterConfigsRequestData data() {
         return data;
     }
@@ -83,4 +83,9 @@ public class InitProducerIdRequest extends AbstractRequest {
         return data.toStruct(version());
     }
 
+    @Override
+    public InitProducerIdRequestData data() {
+        return data;
+    }
+
 }
@@ -58,6 +58,11 @@ public class InitProducerIdResponse extends AbstractResponse {
         return data.toStruct(version);
     }
 
+    @Override
+    public InitProducerIdResponseData data() {
+        return data;
+    }
+
     public static InitProducerIdResponse parse(ByteBuffer buffer, short version) {
         return new InitProducerIdResponse(ApiKeys.INIT_PRODUCER_ID.parseResponse(version, buffer), version);
     }
@@ -104,6 +104,7 @@ public class JoinGroupRequest extends AbstractRequest {
         this.version = version;
     }
 
+    @Override
     public JoinGroupRequestData data() {
         return data;
     }
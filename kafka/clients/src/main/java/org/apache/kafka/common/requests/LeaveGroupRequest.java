@@ -59,6 +59,7 @@ public class LeaveGroupRequest extends AbstractRequest {
         this.version = version;
     }
 
+    @Override
     public LeaveGroupRequestData data() {
         return data;
     }
@@ -41,6 +41,7 @@ public class LeaveGroupResponse extends AbstractResponse {
         this.data = new LeaveGroupResponseData(struct, version);
     }
 
+    @Override
     public LeaveGroupResponseData data() {
         return data;
     }
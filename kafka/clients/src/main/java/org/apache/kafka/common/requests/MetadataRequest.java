@@ -116,6 +116,7 @@ public class MetadataRequest extends AbstractRequest {
         this.version = version;
     }
 
+    @Override
     public MetadataRequestData data() {
         return data;
     }
@@ -77,6 +77,7 @@ public class MetadataResponse extends AbstractResponse {
         return data.toStruct(version);
     }
 
+    @Override
     public MetadataResponseData data() {
         return data;
     }
@@ -82,6 +82,7 @@ public class OffsetCommitRequest extends AbstractRequest {
         this.version = version;
     }
 
+    @Override
     public OffsetCommitRequestData data() {
         return data;
     }
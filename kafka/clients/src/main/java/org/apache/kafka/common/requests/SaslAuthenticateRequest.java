@@ -74,6 +74,7 @@ public class SaslAuthenticateRequest extends AbstractRequest {
         this.version = version;
     }
 
+    @Override
     public SaslAuthenticateRequestData data() {
         return data;
     }
@@ -72,6 +72,11 @@ public class SaslAuthenticateResponse extends AbstractResponse {
         return data.toStruct(version);
     }
 
+    @Override
+    public SaslAuthenticateResponseData data() {
+        return data;
+    }
+
     public static SaslAuthenticateResponse parse(ByteBuffer buffer, short version) {
         return new SaslAuthenticateResponse(ApiKeys.SASL_AUTHENTICATE.parseResponse(version, buffer), version);
     }
@@ -73,6 +73,7 @@ public class SaslHandshakeRequest extends AbstractRequest {
         this.version = version;
     }
 
+    @Override
     public SaslHandshakeRequestData data() {
         return data;
     }
@@ -61,6 +61,11 @@ public class SaslHandshakeResponse extends AbstractResponse {
         return data.toStruct(version);
     }
 
+    @Override
+    public SaslHandshakeResponseData data() {
+        return data;
+    }
+
     public List<String> enabledMechanisms() {
         return data.mechanisms();
     }
@@ -106,4 +106,9 @@ public class SyncGroupRequest extends AbstractRequest {
     protected Struct toStruct() {
         return data.toStruct(version());
     }
+
+    @Override
+    public SyncGroupRequestData data() {
+        return data;
+    }
 }
@@ -61,6 +61,11 @@ public class SyncGroupResponse extends AbstractResponse {
         return data.toStruct(version);
     }
 
+    @Override
+    public SyncGroupResponseData data() {
+        return data;
+    }
+
     public static SyncGroupResponse parse(ByteBuffer buffer, short version) {
         return new SyncGroupResponse(ApiKeys.SYNC_GROUP.parseResponse(version, buffer));
     }
@@ -16,6 +16,9 @@
  */
 package org.apache.kafka.common.serialization;
 
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.utils.Utils;
+
 import java.nio.ByteBuffer;
 
 public class ByteBufferDeserializer implements Deserializer<ByteBuffer> {
@@ -25,4 +28,10 @@ public class ByteBufferDeserializer implements Deserializer<ByteBuffer> {
 
         return ByteBuffer.wrap(data);
     }
+
+    @Override
+    public ByteBuffer deserialize(String topic, Headers headers, ByteBuffer data) {
+        // the given buffer may be reused once the records are returned, so it can't be handed out
+        return data == null ? null : ByteBuffer.wrap(Utils.toArray(data));
+    }
 }
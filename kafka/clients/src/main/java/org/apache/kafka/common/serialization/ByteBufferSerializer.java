@@ -16,6 +16,8 @@
  */
 package org.apache.kafka.common.serialization;
 
+import org.apache.kafka.common.header.Headers;
+
 import java.nio.ByteBuffer;
 
 public class ByteBufferSerializer implements Serializer<ByteBuffer> {
@@ -37,4 +39,14 @@ public class ByteBufferSerializer implements Serializer<ByteBuffer> {
         data.rewind();
         return ret;
     }
+
+    @Override
+    public ByteBuffer serializeToByteBuffer(String topic, Headers headers, ByteBuffer data) {
+        if (data == null)
+            return null;
+
+        ByteBuffer buffer = data.duplicate();
+        buffer.rewind();
+        return buffer;
+    }
 }
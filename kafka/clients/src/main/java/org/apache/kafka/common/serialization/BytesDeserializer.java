@@ -16,7 +16,11 @@
  */
 package org.apache.kafka.common.serialization;
 
+import org.apache.kafka.common.header.Headers;
 import org.apache.kafka.common.utils.Bytes;
+import org.apache.kafka.common.utils.Utils;
+
+import java.nio.ByteBuffer;
 
 public class BytesDeserializer implements Deserializer<Bytes> {
     public Bytes deserialize(String topic, byte[] data) {
@@ -25,4 +29,12 @@ public class BytesDeserializer implements Deserializer<Bytes> {
 
         return new Bytes(data);
     }
+
+    @Override
+    public Bytes deserialize(String topic, Headers headers, ByteBuffer data) {
+        if (data == null)
+            return null;
+
+        return new Bytes(Utils.toArray(data));
+    }
 }
@@ -16,8 +16,11 @@
  */
 package org.apache.kafka.common.serialization;
 
+import org.apache.kafka.common.header.Headers;
 import org.apache.kafka.common.utils.Bytes;
 
+import java.nio.ByteBuffer;
+
 public class BytesSerializer implements Serializer<Bytes> {
     public byte[] serialize(String topic, Bytes data) {
         if (data == null)
@@ -25,5 +28,13 @@ public class BytesSerializer implements Serializer<Bytes> {
 
         return data.get();
     }
+
+    @Override
+    public ByteBuffer serializeToByteBuffer(String topic, Headers headers, Bytes data) {
+        if (data == null)
+            return null;
+
+        return ByteBuffer.wrap(data.get());
+    }
 }
 
@@ -17,8 +17,10 @@
 package org.apache.kafka.common.serialization;
 
 import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.utils.Utils;
 
 import java.io.Closeable;
+import java.nio.ByteBuffer;
 import java.util.Map;
 
 /**
@@ -60,6 +62,24 @@ public interface Deserializer<T> extends Closeable {
         return deserialize(topic, data);
     }
 
+    /**
+     * Deserialize a record value from a ByteBuffer into a value or object.
+     * <p>
+     * The bytes to deserialize are those between the position and the limit of the buffer, which may be a view of a
+     * larger buffer such as a fetch response. Implementations must neither modify nor retain the buffer, since it
+     * keeps the whole underlying buffer in memory and the buffer is reused for later responses if the consumer pools
+     * its receive buffers (see {@code receive.memory.pool.bytes}). The default implementation copies the bytes into a byte
+     * array and calls {@link #deserialize(String, Headers, byte[])}, implementations can override it to read the
+     * buffer directly and avoid the copy.
+     * @param topic topic associated with the data
+     * @param headers headers associated with the record; may be empty.
+     * @param data serialized bytes; may be null; implementations are recommended to handle null by returning a value or null rather than throwing an exception.
+     * @return deserialized typed data; may be null
+     */
+    default T deserialize(String topic, Headers headers, ByteBuffer data) {
+        return deserialize(topic, headers, Utils.toNullableArray(data));
+    }
+
     /**
      * Close this deserializer.
      * <p>
@@ -17,6 +17,9 @@
 package org.apache.kafka.common.serialization;
 
 import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+
+import java.nio.ByteBuffer;
 
 public class LongDeserializer implements Deserializer<Long> {
     public Long deserialize(String topic, byte[] data) {
@@ -33,4 +36,20 @@ public class LongDeserializer implements Deserializer<Long> {
         }
         return value;
     }
+
+    @Override
+    public Long deserialize(String topic, Headers headers, ByteBuffer data) {
+        if (data == null)
+            return null;
+        if (data.remaining() != 8) {
+            throw new SerializationException("Size of data received by LongDeserializer is not 8");
+        }
+
+        long value = 0;
+        for (int i = data.position(); i < data.limit(); i++) {
+            value <<= 8;
+            value |= data.get(i) & 0xFF;
+        }
+        return value;
+    }
 }
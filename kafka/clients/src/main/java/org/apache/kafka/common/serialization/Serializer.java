@@ -17,8 +17,10 @@
 package org.apache.kafka.common.serialization;
 
 import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.utils.Utils;
 
 import java.io.Closeable;
+import java.nio.ByteBuffer;
 import java.util.Map;
 
 /**
@@ -62,6 +64,23 @@ public interface Serializer<T> extends Closeable {
         return serialize(topic, data);
     }
 
+    /**
+     * Convert {@code data} into a ByteBuffer, the serialized bytes are those between its position and its limit.
+     * <p>
+     * This is used by the producer, which writes the buffer into a record batch without copying it to a byte array
+     * first. The returned buffer must not be modified until the record is sent. The default implementation wraps
+     * the result of {@link #serialize(String, Headers, Object)}, implementations which already hold the serialized
+     * bytes in a buffer can override it to avoid the copy.
+     *
+     * @param topic topic associated with data
+     * @param headers headers associated with the record
+     * @param data typed data
+     * @return serialized bytes; may be null
+     */
+    default ByteBuffer serializeToByteBuffer(String topic, Headers headers, T data) {
+        return Utils.wrapNullable(serialize(topic, headers, data));
+    }
+
     /**
      * Close this serializer.
      * <p>
@@ -17,8 +17,11 @@
 package org.apache.kafka.common.serialization;
 
 import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.utils.Utils;
 
 import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
 import java.util.Map;
 
 /**
@@ -49,4 +52,18 @@ public class StringDeserializer implements Deserializer<String> {
             throw new SerializationException("Error when deserializing byte[] to string due to unsupported encoding " + encoding);
         }
     }
+
+    @Override
+    public String deserialize(String topic, Headers headers, ByteBuffer data) {
+        try {
+            if (data == null)
+                return null;
+            else if (data.hasArray())
+                return new String(data.array(), data.arrayOffset() + data.position(), data.remaining(), encoding);
+            else
+                return new String(Utils.toArray(data), encoding);
+        } catch (UnsupportedEncodingException e) {
+            throw new SerializationException("Error when deserializing ByteBuffer to string due to unsupported encoding " + encoding);
+        }
+    }
 }
@@ -247,6 +247,19 @@ public final class Utils {
         return buffer == null ? null : toArray(buffer);
     }
 
+    /**
+     * Convert a ByteBuffer to a nullable array, returning the backing array of the buffer without a copy if it
+     * holds exactly the bytes between the position and the limit of the buffer.
+     * @param buffer The buffer to convert
+     * @return The resulting array or null if the buffer is null
+     */
+    public static byte[] toNullableArrayNoCopy(ByteBuffer buffer) {
+        if (buffer != null && buffer.hasArray() && buffer.arrayOffset() == 0 && buffer.position() == 0
+                && buffer.remaining() == buffer.array().length)
+            return buffer.array();
+        return toNullableArray(buffer);
+    }
+
     /**
      * Wrap an array as a nullable ByteBuffer.
      * @param array The nullable array to wrap
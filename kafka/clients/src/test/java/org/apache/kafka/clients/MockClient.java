@@ -57,17 +57,20 @@ public class MockClient implements KafkaClient {
         private final AbstractResponse responseBody;
         private final boolean disconnected;
         private final boolean isUnsupportedRequest;
+        private final ReceiveBufferReference receiveBuffer;
 
         public FutureResponse(Node node,
                               RequestMatcher requestMatcher,
                               AbstractResponse responseBody,
                               boolean disconnected,
-                              boolean isUnsupportedRequest) {
+                              boolean isUnsupportedRequest,
+                              ReceiveBufferReference receiveBuffer) {
             this.node = node;
             this.requestMatcher = requestMatcher;
             this.responseBody = responseBody;
             this.disconnected = disconnected;
             this.isUnsupportedRequest = isUnsupportedRequest;
+            this.receiveBuffer = receiveBuffer;
         }
 
     }
@@ -230,7 +233,7 @@ public class MockClient implements KafkaClient {
 
             ClientResponse resp = new ClientResponse(request.makeHeader(version), request.callback(), request.destination(),
                     request.createdTimeMs(), time.milliseconds(), futureResp.disconnected,
-                    unsupportedVersionException, null, futureResp.responseBody);
+                    unsupportedVersionException, null, futureResp.responseBody, futureResp.receiveBuffer);
             responses.add(resp);
             iterator.remove();
             return;
@@ -407,6 +410,16 @@ public class MockClient implements KafkaClient {
         prepareResponseFrom(matcher, response, null, disconnected, false);
     }
 
+    /**
+     * Prepare a response whose body refers to a pooled receive buffer. The reference is handed over to the
+     * handler of the response, like {@link NetworkClient} does for responses read into a memory pool.
+     * @param response The response body
+     * @param receiveBuffer The reference on the buffer the response body refers to
+     */
+    public void prepareResponse(AbstractResponse response, ReceiveBufferReference receiveBuffer) {
+        futureResponses.add(new FutureResponse(null, ALWAYS_TRUE, response, false, false, receiveBuffer));
+    }
+
     /**
      * Raise an unsupported version error on the next request if it matches the given matcher.
      * If the matcher does not match, {@link KafkaClient#send(ClientRequest, long)} will throw IllegalStateException.
@@ -421,7 +434,7 @@ public class MockClient implements KafkaClient {
                                      Node node,
                                      boolean disconnected,
                                      boolean isUnsupportedVersion) {
-        futureResponses.add(new FutureResponse(node, matcher, response, disconnected, isUnsupportedVersion));
+        futureResponses.add(new FutureResponse(node, matcher, response, disconnected, isUnsupportedVersion, null));
     }
 
     public void waitForRequests(final int minRequests, long maxWaitMs) throws InterruptedException {
@@ -25,6 +25,7 @@ import org.apache.kafka.clients.Metadata;
 import org.apache.kafka.clients.MockClient;
 import org.apache.kafka.clients.NetworkClient;
 import org.apache.kafka.clients.NodeApiVersions;
+import org.apache.kafka.clients.ReceiveBufferReference;
 import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.OffsetAndTimestamp;
@@ -329,6 +330,57 @@ public class FetcherTest {
         assertFalse(fetcher.hasCompletedFetches());
     }
 
+    @Test
+    public void testReceiveBufferReleasedOnClose() {
+        buildFetcher();
+        NetworkReceive receive = fetchIntoReceiveBuffer();
+
+        fetcher.close();
+        assertNull("Pooled buffer should be released when the fetcher is closed", receive.payload());
+    }
+
+    @Test
+    public void testReceiveBufferReleasedOnSeek() {
+        buildFetcher();
+        NetworkReceive receive = fetchIntoReceiveBuffer();
+
+        // the completed fetch doesn't match the position anymore and is dropped by the next poll
+        subscriptions.seek(tp0, 10);
+        assertTrue(fetchedRecords().isEmpty());
+        assertFalse(fetcher.hasCompletedFetches());
+        assertNull("Pooled buffer should be released when a stale fetch is dropped", receive.payload());
+    }
+
+    @Test
+    public void testReceiveBufferReleasedOnPartitionRevocation() {
+        buildFetcher();
+        NetworkReceive receive = fetchIntoReceiveBuffer();
+
+        subscriptions.assignFromUser(singleton(tp1));
+        fetcher.clearBufferedDataForUnassignedPartitions(singleton(tp1));
+        assertFalse(fetcher.hasCompletedFetches());
+        assertNull("Pooled buffer should be released when the partition is revoked", receive.payload());
+    }
+
+    /**
+     * Fetch the records of tp0 with a response which refers to a pooled receive buffer, and leave them buffered.
+     * @return the receive whose payload is cleared once the buffer is given back to the pool
+     */
+    private NetworkReceive fetchIntoReceiveBuffer() {
+        assignFromUser(singleton(tp0));
+        subscriptions.seek(tp0, 0);
+        assertEquals(1, fetcher.sendFetches());
+
+        Node node = metadata.fetch().nodes().get(0);
+        NetworkReceive receive = new NetworkReceive(node.idString(), ByteBuffer.allocate(16));
+        client.prepareResponse(fullFetchResponse(tp0, this.records, Errors.NONE, 100L, 0),
+                new ReceiveBufferReference(receive));
+        consumerClient.poll(time.timer(0));
+        assertTrue(fetcher.hasCompletedFetches());
+        assertNotNull("Buffered records should hold on to the pooled buffer", receive.payload());
+        return receive;
+    }
+
     @Test
     public void testFetchSkipsBlackedOutNodes() {
         buildFetcher();
@@ -702,6 +754,59 @@ public class FetcherTest {
         assertEquals(5, records.get(1).offset());
     }
 
+    @Test
+    public void testFetchWithDecodeThreads() throws Exception {
+        // the records at or after the fetch offset are deserialized by a decode thread before poll() gets to them
+        final CountDownLatch decoded = new CountDownLatch(6);
+        final Set<String> deserializingThreads = Collections.synchronizedSet(new HashSet<>());
+        Deserializer<String> valueDeserializer = new StringDeserializer() {
+            @Override
+            public String deserialize(String topic, byte[] data) {
+                deserializingThreads.add(Thread.currentThread().getName());
+                decoded.countDown();
+                return super.deserialize(topic, data);
+            }
+        };
+        LogContext logContext = new LogContext();
+        buildFetcher(new MetricConfig(), new StringDeserializer(), valueDeserializer, 3,
+                IsolationLevel.READ_UNCOMMITTED, Long.MAX_VALUE,
+                new SubscriptionState(logContext, OffsetResetStrategy.EARLIEST), logContext, 2);
+
+        MemoryRecordsBuilder builder = MemoryRecords.builder(ByteBuffer.allocate(1024), CompressionType.GZIP,
+                TimestampType.CREATE_TIME, 0L);
+        for (int i = 0; i < 8; i++)
+            builder.append(0L, ("key-" + i).getBytes(), ("value-" + i).getBytes());
+        MemoryRecords records = builder.build();
+
+        assignFromUser(singleton(tp0));
+        subscriptions.seek(tp0, 2);
+
+        client.prepareResponse(matchesOffset(tp0, 2), fullFetchResponse(tp0, records, Errors.NONE, 100L, 0));
+        assertEquals(1, fetcher.sendFetches());
+        consumerClient.poll(time.timer(0));
+
+        // otherwise poll() would cancel the decoding which has not started yet and decode the records itself
+        assertTrue("Records should be decoded by a decode thread", decoded.await(10, TimeUnit.SECONDS));
+
+        List<ConsumerRecord<String, String>> consumed = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            Map<TopicPartition, List<ConsumerRecord<String, String>>> recordsByPartition = fetchedRecords();
+            List<ConsumerRecord<String, String>> fetched = recordsByPartition.get(tp0);
+            assertEquals(3, fetched.size());
+            consumed.addAll(fetched);
+        }
+        assertEquals(8L, subscriptions.position(tp0).offset);
+        for (int i = 0; i < consumed.size(); i++) {
+            ConsumerRecord<String, String> record = consumed.get(i);
+            assertEquals(i + 2, record.offset());
+            assertEquals("key-" + (i + 2), record.key());
+            assertEquals("value-" + (i + 2), record.value());
+        }
+        // poll() used the decoded records instead of deserializing them again
+        assertEquals(1, deserializingThreads.size());
+        assertTrue(deserializingThreads.iterator().next().startsWith("kafka-fetch-decoder-"));
+    }
+
     /**
      * Test the scenario where a partition with fetched but not consumed records (i.e. max.poll.records is
      * less than the number of fetched records) is unassigned and a different partition is assigned. This is a
@@ -3724,6 +3829,19 @@ public class FetcherTest {
                                      long metadataExpireMs,
                                      SubscriptionState subscriptionState,
                                      LogContext logContext) {
+        buildFetcher(metricConfig, keyDeserializer, valueDeserializer, maxPollRecords, isolationLevel, metadataExpireMs,
+                subscriptionState, logContext, 0);
+    }
+
+    private <K, V> void buildFetcher(MetricConfig metricConfig,
+                                     Deserializer<K> keyDeserializer,
+                                     Deserializer<V> valueDeserializer,
+                                     int maxPollRecords,
+                                     IsolationLevel isolationLevel,
+                                     long metadataExpireMs,
+                                     SubscriptionState subscriptionState,
+                                     LogContext logContext,
+                                     int decodeThreads) {
         buildDependencies(metricConfig, metadataExpireMs, subscriptionState, logContext);
         fetcher = new Fetcher<>(
                 new LogContext(),
@@ -3745,7 +3863,8 @@ public class FetcherTest {
                 retryBackoffMs,
                 requestTimeoutMs,
                 isolationLevel,
-                apiVersions);
+                apiVersions,
+                decodeThreads);
     }
 
     private void buildDependencies(MetricConfig metricConfig,
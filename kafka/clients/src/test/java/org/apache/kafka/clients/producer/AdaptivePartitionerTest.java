@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.kafka.clients.producer;
+
+import org.apache.kafka.clients.producer.internals.NodeLoadStats;
+import org.apache.kafka.common.Cluster;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.utils.MockTime;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class AdaptivePartitionerTest {
+    private final static Node[] NODES = new Node[] {
+        new Node(0, "localhost", 99),
+        new Node(1, "localhost", 100),
+        new Node(2, "localhost", 101)
+    };
+    private final static String TOPIC_A = "topicA";
+
+    private final List<PartitionInfo> allPartitions = asList(new PartitionInfo(TOPIC_A, 0, NODES[0], NODES, NODES),
+        new PartitionInfo(TOPIC_A, 1, NODES[1], NODES, NODES),
+        new PartitionInfo(TOPIC_A, 2, NODES[2], NODES, NODES)
+    );
+    private final Cluster testCluster = new Cluster("clusterId", asList(NODES), allPartitions,
+        Collections.<String>emptySet(), Collections.<String>emptySet());
+
+    private final MockTime time = new MockTime();
+
+    @Test
+    public void testKeyPartitionIsStable() {
+        AdaptivePartitioner partitioner = new AdaptivePartitioner();
+        partitioner.setLoadStats(new NodeLoadStats(time, 0));
+        byte[] keyBytes = "key".getBytes();
+        int partition = partitioner.partition(TOPIC_A, null, keyBytes, null, null, testCluster);
+        partitioner.onNewBatch(TOPIC_A, testCluster, partition);
+        assertEquals("Same key should yield same partition", partition,
+            partitioner.partition(TOPIC_A, null, keyBytes, null, null, testCluster));
+    }
+
+    @Test
+    public void testStickyPartitionChangesOnlyOnNewBatch() {
+        AdaptivePartitioner partitioner = new AdaptivePartitioner();
+        int partition = partitioner.partition(TOPIC_A, null, null, null, null, testCluster);
+        assertEquals(partition, partitioner.partition(TOPIC_A, null, null, null, null, testCluster));
+
+        // a new batch for another partition does not change the sticky partition
+        partitioner.onNewBatch(TOPIC_A, testCluster, (partition + 1) % allPartitions.size());
+        assertEquals(partition, partitioner.partition(TOPIC_A, null, null, null, null, testCluster));
+
+        partitioner.onNewBatch(TOPIC_A, testCluster, partition);
+        assertNotEquals(partition, partitioner.partition(TOPIC_A, null, null, null, null, testCluster));
+    }
+
+    @Test
+    public void testLessLoadedBrokersGetMoreBatches() {
+        NodeLoadStats loadStats = new NodeLoadStats(time, 0);
+        Map<Integer, Integer> queuedBatches = new HashMap<>();
+        queuedBatches.put(NODES[0].id(), 50);
+        loadStats.updateQueuedBatches(queuedBatches);
+        loadStats.recordLatency(NODES[0].id(), 500);
+        loadStats.recordLatency(NODES[1].id(), 5);
+        loadStats.recordLatency(NODES[2].id(), 5);
+
+        AdaptivePartitioner partitioner = new AdaptivePartitioner();
+        partitioner.setLoadStats(loadStats);
+        int[] partitionCount = new int[allPartitions.size()];
+        int partition = partitioner.partition(TOPIC_A, null, null, null, null, testCluster);
+        for (int i = 0; i < 3000; ++i) {
+            partitionCount[partition]++;
+            partitioner.onNewBatch(TOPIC_A, testCluster, partition);
+            partition = partitioner.partition(TOPIC_A, null, null, null, null, testCluster);
+        }
+        assertTrue("The loaded broker should get far fewer batches, got " + partitionCount[0],
+            partitionCount[0] < 100);
+        assertTrue(partitionCount[1] > 1000);
+        assertTrue(partitionCount[2] > 1000);
+    }
+
+    @Test
+    public void testLaggingBrokerIsSkipped() {
+        NodeLoadStats loadStats = new NodeLoadStats(time, 1000);
+        AdaptivePartitioner partitioner = new AdaptivePartitioner();
+        partitioner.setLoadStats(loadStats);
+
+        loadStats.updateReadiness(NODES[0].id(), false, time.milliseconds());
+        time.sleep(1000);
+        int partition = partitioner.partition(TOPIC_A, null, null, null, null, testCluster);
+        for (int i = 0; i < 100; ++i) {
+            assertNotEquals(0, partition);
+            partitioner.onNewBatch(TOPIC_A, testCluster, partition);
+            partition = partitioner.partition(TOPIC_A, null, null, null, null, testCluster);
+        }
+
+        // once the broker can be sent to again, it gets batches again
+        loadStats.updateReadiness(NODES[0].id(), true, time.milliseconds());
+        boolean chosen = false;
+        for (int i = 0; i < 100 && !chosen; ++i) {
+            partitioner.onNewBatch(TOPIC_A, testCluster, partition);
+            partition = partitioner.partition(TOPIC_A, null, null, null, null, testCluster);
+            chosen = partition == 0;
+        }
+        assertTrue(chosen);
+    }
+}
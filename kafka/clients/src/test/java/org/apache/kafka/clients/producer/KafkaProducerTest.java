@@ -544,6 +544,8 @@ public class KafkaProducerTest {
                 invocation.<String>getArgument(2).getBytes());
         when(valueSerializer.serialize(any(), any(), any())).then(invocation ->
                 invocation.<String>getArgument(2).getBytes());
+        when(keySerializer.serializeToByteBuffer(any(), any(), any())).thenCallRealMethod();
+        when(valueSerializer.serializeToByteBuffer(any(), any(), any())).thenCallRealMethod();
 
         String value = "value";
         String key = "key";
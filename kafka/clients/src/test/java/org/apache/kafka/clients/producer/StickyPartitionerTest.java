@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.kafka.clients.producer;
+
+import org.apache.kafka.common.Cluster;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.PartitionInfo;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+public class StickyPartitionerTest {
+    private final static Node[] NODES = new Node[] {
+        new Node(0, "localhost", 99),
+        new Node(1, "localhost", 100),
+        new Node(2, "localhost", 101)
+    };
+    private final static String TOPIC_A = "topicA";
+    private final static String TOPIC_B = "topicB";
+
+    private final List<PartitionInfo> allPartitions = asList(new PartitionInfo(TOPIC_A, 0, NODES[0], NODES, NODES),
+        new PartitionInfo(TOPIC_A, 1, NODES[1], NODES, NODES),
+        new PartitionInfo(TOPIC_A, 2, NODES[2], NODES, NODES),
+        new PartitionInfo(TOPIC_B, 0, NODES[0], NODES, NODES)
+    );
+    private final Cluster testCluster = new Cluster("clusterId", asList(NODES), allPartitions,
+        Collections.<String>emptySet(), Collections.<String>emptySet());
+
+    @Test
+    public void testKeyPartitionIsStable() {
+        Partitioner partitioner = new StickyPartitioner();
+        byte[] keyBytes = "key".getBytes();
+        int partition = partitioner.partition(TOPIC_A, null, keyBytes, null, null, testCluster);
+        partitioner.onNewBatch(TOPIC_A, testCluster, partition);
+        assertEquals("Same key should yield same partition", partition,
+            partitioner.partition(TOPIC_A, null, keyBytes, null, null, testCluster));
+    }
+
+    @Test
+    public void testStickyPartitionChangesOnlyOnNewBatch() {
+        Partitioner partitioner = new StickyPartitioner();
+        final Map<Integer, Integer> partitionCount = new HashMap<>();
+
+        int partition = partitioner.partition(TOPIC_A, null, null, null, null, testCluster);
+        for (int i = 0; i < 30; ++i) {
+            assertEquals(partition, partitioner.partition(TOPIC_A, null, null, null, null, testCluster));
+            Integer count = partitionCount.get(partition);
+            if (null == count) count = 0;
+            partitionCount.put(partition, count + 1);
+
+            if (i % 10 == 9) {
+                // a new batch is created for the sticky partition, so switch to another one
+                partitioner.onNewBatch(TOPIC_A, testCluster, partition);
+                int nextPartition = partitioner.partition(TOPIC_A, null, null, null, null, testCluster);
+                assertNotEquals(partition, nextPartition);
+                partition = nextPartition;
+            }
+        }
+
+        // topic B only has one partition, so it stays sticky to it
+        assertEquals(0, partitioner.partition(TOPIC_B, null, null, null, null, testCluster));
+        partitioner.onNewBatch(TOPIC_B, testCluster, 0);
+        assertEquals(0, partitioner.partition(TOPIC_B, null, null, null, null, testCluster));
+
+        int total = 0;
+        for (int count : partitionCount.values())
+            total += count;
+        assertEquals(30, total);
+    }
+}
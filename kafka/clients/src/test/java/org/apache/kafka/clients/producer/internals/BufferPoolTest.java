@@ -32,10 +32,13 @@ import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Condition;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.anyLong;
@@ -297,6 +300,182 @@ public class BufferPoolTest {
         assertEquals(totalMemory, pool.availableMemory());
     }
 
+    @Test
+    public void testShardedStressfulSituation() throws Exception {
+        int numThreads = 10;
+        final int iterations = 50000;
+        final int poolableSize = 1024;
+        final long totalMemory = numThreads / 2 * poolableSize;
+        final BufferPool pool = new BufferPool(totalMemory, poolableSize, metrics, time, metricGroup, 4);
+        List<StressTestThread> threads = new ArrayList<StressTestThread>();
+        for (int i = 0; i < numThreads; i++)
+            threads.add(new StressTestThread(pool, iterations));
+        for (StressTestThread thread : threads)
+            thread.start();
+        for (StressTestThread thread : threads)
+            thread.join();
+        for (StressTestThread thread : threads)
+            assertTrue("Thread should have completed all iterations successfully.", thread.success.get());
+        assertEquals(totalMemory, pool.availableMemory());
+    }
+
+    /**
+     * Test that buffers returned to the shards of the free list are recycled and count as available memory
+     */
+    @Test
+    public void testShardedFreeList() throws Exception {
+        long totalMemory = 4 * 1024;
+        int size = 1024;
+        BufferPool pool = new BufferPool(totalMemory, size, metrics, time, metricGroup, 4);
+        ByteBuffer buffer = pool.allocate(size, maxBlockTimeMs);
+        pool.deallocate(buffer);
+        assertEquals("All memory should be available", totalMemory, pool.availableMemory());
+        assertEquals("But now some is on the free list", totalMemory - size, pool.unallocatedMemory());
+        assertEquals("Recycled buffer should be taken from the shards", buffer, pool.allocate(size, maxBlockTimeMs));
+        pool.deallocate(buffer);
+
+        // a larger allocation reclaims the buffer on the free list
+        buffer = pool.allocate(4 * size, maxBlockTimeMs);
+        assertEquals(0, pool.availableMemory());
+        pool.deallocate(buffer);
+        assertEquals(totalMemory, pool.unallocatedMemory());
+    }
+
+    /**
+     * Test that a thread waiting for memory is woken up by a buffer returned to a shard without the lock
+     */
+    @Test
+    public void testShardedDelayedAllocation() throws Exception {
+        BufferPool pool = new BufferPool(2 * 1024, 1024, metrics, time, metricGroup, 4);
+        ByteBuffer buffer1 = pool.allocate(1024, maxBlockTimeMs);
+        ByteBuffer buffer2 = pool.allocate(1024, maxBlockTimeMs);
+        CountDownLatch doDealloc = asyncDeallocate(pool, buffer1);
+        CountDownLatch allocation = asyncAllocate(pool, 1024);
+        assertEquals("Allocation shouldn't have happened yet, waiting on memory.", 1L, allocation.getCount());
+        doDealloc.countDown(); // return the memory
+        assertTrue("Allocation should succeed soon after de-allocation", allocation.await(1, TimeUnit.SECONDS));
+        pool.deallocate(buffer2);
+    }
+
+    /**
+     * Test that memory counted on a shard of the free list is not handed out if another thread takes the buffer from
+     * the shard before the allocation can free it up
+     */
+    @Test
+    public void testShardedFreeListDrainedConcurrently() throws Exception {
+        final int size = 1024;
+        final AtomicBoolean takeFreeBuffer = new AtomicBoolean(false);
+        final AtomicReference<ByteBuffer> takenBuffer = new AtomicReference<>();
+        BufferPool pool = new BufferPool(2 * size, size, metrics, time, metricGroup, 4) {
+            @Override
+            protected int freeSize() {
+                int freeSize = super.freeSize();
+                // emulate another thread taking the buffer from the shard without the lock right after it was counted
+                if (takeFreeBuffer.compareAndSet(true, false)) {
+                    try {
+                        takenBuffer.set(allocate(size, 0));
+                    } catch (InterruptedException e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+                return freeSize;
+            }
+        };
+        pool.deallocate(pool.allocate(size, maxBlockTimeMs));
+        assertEquals(2 * size, pool.availableMemory());
+
+        takeFreeBuffer.set(true);
+        try {
+            pool.allocate(2 * size, 10);
+            fail("The pool allocated more memory than its maximum value");
+        } catch (TimeoutException e) {
+            // this is good
+        }
+        assertNotNull(takenBuffer.get());
+        assertEquals(0, pool.queued());
+        assertEquals(size, pool.availableMemory());
+        pool.deallocate(takenBuffer.get());
+        assertEquals(2 * size, pool.availableMemory());
+    }
+
+    /**
+     * Test that an allocation which sees a buffer on the shards, but finds them emptied by other threads by the time
+     * it polls them, reserves memory instead of returning null
+     */
+    @Test
+    public void testShardedFreeListEmptiedBeforePoll() throws Exception {
+        final int size = 1024;
+        final AtomicBoolean reportFreeBuffer = new AtomicBoolean(false);
+        BufferPool pool = new BufferPool(2 * size, size, metrics, time, metricGroup, 4) {
+            @Override
+            protected boolean isFreeEmpty() {
+                // emulate a buffer that another thread takes from the shard right after this check
+                if (reportFreeBuffer.compareAndSet(true, false))
+                    return false;
+                return super.isFreeEmpty();
+            }
+        };
+
+        reportFreeBuffer.set(true);
+        ByteBuffer buffer = pool.allocate(size, maxBlockTimeMs);
+        assertNotNull(buffer);
+        assertEquals(size, pool.availableMemory());
+        pool.deallocate(buffer);
+        assertEquals(2 * size, pool.availableMemory());
+    }
+
+    /**
+     * Test that a waiter which loses the buffer returned to a shard to a concurrent poller keeps waiting, instead of
+     * allocating memory it did not reserve
+     */
+    @Test
+    public void testShardedWaiterLosesFreeBufferToConcurrentPoller() throws Exception {
+        final int size = 1024;
+        final AtomicBoolean takeFreeBuffer = new AtomicBoolean(false);
+        final AtomicReference<ByteBuffer> takenBuffer = new AtomicReference<>();
+        final BufferPool pool = new BufferPool(size, size, metrics, time, metricGroup, 4) {
+            @Override
+            protected boolean isFreeEmpty() {
+                boolean isFreeEmpty = super.isFreeEmpty();
+                // another thread takes the buffer from the shard without the lock right after it was seen
+                if (!isFreeEmpty && takeFreeBuffer.compareAndSet(true, false))
+                    takenBuffer.set(allocateOnOtherThread(this, size));
+                return isFreeEmpty;
+            }
+        };
+        ByteBuffer buffer = pool.allocate(size, maxBlockTimeMs);
+        CountDownLatch allocation = asyncAllocate(pool, size);
+        TestUtils.waitForCondition(() -> pool.queued() == 1, "Allocation should wait for memory");
+
+        takeFreeBuffer.set(true);
+        pool.deallocate(buffer);
+        TestUtils.waitForCondition(() -> takenBuffer.get() != null, "The buffer should be taken by the other thread");
+        assertFalse("Allocation should still wait for memory", allocation.await(100, TimeUnit.MILLISECONDS));
+        assertEquals(0, pool.availableMemory());
+
+        pool.deallocate(takenBuffer.get());
+        assertTrue("Allocation should succeed soon after de-allocation", allocation.await(1, TimeUnit.SECONDS));
+        assertEquals(0, pool.availableMemory());
+    }
+
+    private static ByteBuffer allocateOnOtherThread(final BufferPool pool, final int size) {
+        final AtomicReference<ByteBuffer> buffer = new AtomicReference<>();
+        Thread thread = new Thread(() -> {
+            try {
+                buffer.set(pool.allocate(size, 0));
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        thread.start();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+        return buffer.get();
+    }
+
     @Test
     public void testLargeAvailableMemory() throws Exception {
         long memory = 20_000_000_000L;
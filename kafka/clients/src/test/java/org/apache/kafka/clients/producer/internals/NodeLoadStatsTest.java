@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.kafka.clients.producer.internals;
+
+import org.apache.kafka.common.utils.MockTime;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class NodeLoadStatsTest {
+
+    private final MockTime time = new MockTime();
+
+    @Test
+    public void testQueuedBatchesAreReplaced() {
+        NodeLoadStats loadStats = new NodeLoadStats(time, 0);
+        loadStats.updateQueuedBatches(Collections.singletonMap(0, 3));
+        assertEquals(3, loadStats.queuedBatches(0));
+        loadStats.updateQueuedBatches(Collections.singletonMap(1, 2));
+        assertEquals(0, loadStats.queuedBatches(0));
+        assertEquals(2, loadStats.queuedBatches(1));
+        assertTrue(loadStats.weight(0) > loadStats.weight(1));
+    }
+
+    @Test
+    public void testLatencyMovingAverage() {
+        NodeLoadStats loadStats = new NodeLoadStats(time, 0);
+        assertEquals(1.0, loadStats.weight(0), 0.0);
+        loadStats.recordLatency(0, 10);
+        assertEquals(10.0, loadStats.latencyEwmaMs(0), 0.001);
+        loadStats.recordLatency(0, 60);
+        assertEquals(20.0, loadStats.latencyEwmaMs(0), 0.001);
+        assertEquals(1.0 / 21, loadStats.weight(0), 0.001);
+    }
+
+    @Test
+    public void testLaggingAfterAvailabilityTimeout() {
+        NodeLoadStats loadStats = new NodeLoadStats(time, 100);
+        loadStats.updateReadiness(0, false, time.milliseconds());
+        time.sleep(50);
+        // the start of the not ready period is kept
+        loadStats.updateReadiness(0, false, time.milliseconds());
+        assertFalse(loadStats.isLagging(0));
+        time.sleep(50);
+        assertTrue(loadStats.isLagging(0));
+        assertEquals(0.0, loadStats.weight(0), 0.0);
+        loadStats.updateReadiness(0, true, time.milliseconds());
+        assertFalse(loadStats.isLagging(0));
+    }
+
+    @Test
+    public void testLaggingNodeRecoversWhenItHasNoQueuedBatches() {
+        NodeLoadStats loadStats = new NodeLoadStats(time, 100);
+        loadStats.updateQueuedBatches(Collections.singletonMap(0, 1));
+        loadStats.updateReadiness(0, false, time.milliseconds());
+        time.sleep(100);
+        assertTrue(loadStats.isLagging(0));
+
+        // still lagging while batches are waiting for the broker
+        loadStats.updateQueuedBatches(Collections.singletonMap(0, 1));
+        assertTrue(loadStats.isLagging(0));
+
+        // the queued batches expired, the broker gets new records again
+        loadStats.updateQueuedBatches(Collections.<Integer, Integer>emptyMap());
+        assertFalse(loadStats.isLagging(0));
+        assertEquals(1.0, loadStats.weight(0), 0.0);
+
+        // and is lagging again if those cannot be sent either
+        loadStats.updateQueuedBatches(Collections.singletonMap(0, 1));
+        loadStats.updateReadiness(0, false, time.milliseconds());
+        assertFalse(loadStats.isLagging(0));
+        time.sleep(100);
+        assertTrue(loadStats.isLagging(0));
+    }
+
+    @Test
+    public void testAvailabilityCheckDisabled() {
+        NodeLoadStats loadStats = new NodeLoadStats(time, 0);
+        loadStats.updateReadiness(0, false, time.milliseconds());
+        time.sleep(10000);
+        assertFalse(loadStats.isLagging(0));
+    }
+}
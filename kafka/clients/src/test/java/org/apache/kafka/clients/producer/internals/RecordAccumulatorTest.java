@@ -63,6 +63,7 @@ import static java.util.Arrays.asList;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -991,6 +992,80 @@ public class RecordAccumulatorTest {
     }
 
 
+    @Test
+    public void testAbortOnNewBatch() throws Exception {
+        long totalSize = 1024 * 1024;
+        int batchSize = 1024;
+        RecordAccumulator accum = createTestRecordAccumulator(batchSize, totalSize, CompressionType.NONE, 10);
+
+        // no batch exists yet, so the append is aborted before allocating one
+        RecordAccumulator.RecordAppendResult result = accum.append(tp1, 0L, key, value, Record.EMPTY_HEADERS,
+            null, maxBlockTimeMs, true);
+        assertTrue(result.abortForNewBatch);
+        assertNull(result.future);
+        assertTrue(accum.batches().get(tp1).isEmpty());
+
+        result = accum.append(tp1, 0L, key, value, Record.EMPTY_HEADERS, null, maxBlockTimeMs, false);
+        assertFalse(result.abortForNewBatch);
+        assertTrue(result.newBatchCreated);
+
+        // the open batch has room, so the append is not aborted
+        result = accum.append(tp1, 0L, key, value, Record.EMPTY_HEADERS, null, maxBlockTimeMs, true);
+        assertFalse(result.abortForNewBatch);
+        assertFalse(result.newBatchCreated);
+        assertEquals(1, accum.batches().get(tp1).size());
+    }
+
+    @Test
+    public void testAppendStripesKeepOrderPerThread() throws Exception {
+        final int numThreads = 8;
+        final int msgs = 2000;
+        int batchSize = 1024 + DefaultRecordBatch.RECORD_BATCH_OVERHEAD;
+        String metricGrpName = "producer-metrics";
+        final RecordAccumulator accum = new RecordAccumulator(logContext, batchSize, CompressionType.NONE,
+            Integer.MAX_VALUE, 100L, Integer.MAX_VALUE, metrics, metricGrpName, time, new ApiVersions(), null,
+            new BufferPool(64 * 1024 * 1024, batchSize, metrics, time, metricGrpName, 4), 4, null);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < numThreads; t++) {
+            final int thread = t;
+            threads.add(new Thread() {
+                public void run() {
+                    for (int i = 0; i < msgs; i++) {
+                        ByteBuffer recordValue = ByteBuffer.allocate(8).putInt(thread).putInt(i);
+                        try {
+                            accum.append(tp1, 0L, key, recordValue.array(), Record.EMPTY_HEADERS, null, maxBlockTimeMs);
+                        } catch (Exception e) {
+                            e.printStackTrace();
+                        }
+                    }
+                }
+            });
+        }
+        for (Thread t : threads)
+            t.start();
+        for (Thread t : threads)
+            t.join();
+
+        accum.beginFlush();
+        RecordAccumulator.ReadyCheckResult result = accum.ready(cluster, time.milliseconds());
+        assertEquals(Collections.singleton(node1), result.readyNodes);
+        int[] nextSequence = new int[numThreads];
+        int read = 0;
+        while (accum.hasUndrained()) {
+            List<ProducerBatch> batches = accum.drain(cluster, result.readyNodes, Integer.MAX_VALUE, time.milliseconds()).get(node1.id());
+            for (ProducerBatch batch : batches) {
+                for (Record record : batch.records().records()) {
+                    ByteBuffer recordValue = record.value();
+                    int thread = recordValue.getInt(0);
+                    assertEquals("Records of a thread should stay in order", nextSequence[thread]++, recordValue.getInt(4));
+                    read++;
+                }
+                accum.deallocate(batch);
+            }
+        }
+        assertEquals(numThreads * msgs, read);
+    }
+
     private RecordAccumulator createTestRecordAccumulator(int batchSize, long totalSize, CompressionType type, int lingerMs) {
         int deliveryTimeoutMs = 3200;
         return createTestRecordAccumulator(deliveryTimeoutMs, batchSize, totalSize, type, lingerMs);
@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.kafka.common.memory;
+
+import java.nio.ByteBuffer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+
+public class RecyclingMemoryPoolTest {
+
+    @Test
+    public void testBufferHasRequestedCapacity() throws Exception {
+        RecyclingMemoryPool pool = new RecyclingMemoryPool(10000, 5000, true, null);
+        ByteBuffer buffer = pool.tryAllocate(1500);
+        Assert.assertNotNull(buffer);
+        Assert.assertEquals(1500, buffer.capacity());
+        Assert.assertEquals(0, buffer.position());
+        Assert.assertEquals(1500, buffer.limit());
+        //accounted by the size of the chunk backing the buffer
+        Assert.assertEquals(10000 - 2048, pool.availableMemory());
+        pool.release(buffer);
+        Assert.assertEquals(10000, pool.availableMemory());
+    }
+
+    @Test
+    public void testReleasedBufferIsRecycled() throws Exception {
+        RecyclingMemoryPool pool = new RecyclingMemoryPool(10000, 5000, true, null);
+        ByteBuffer buffer = pool.tryAllocate(1500);
+        byte[] chunk = buffer.array();
+        pool.release(buffer);
+        Assert.assertEquals(2048, pool.freeMemory());
+
+        //any size in the same class reuses the chunk
+        ByteBuffer recycled = pool.tryAllocate(1100);
+        Assert.assertSame(chunk, recycled.array());
+        Assert.assertEquals(1100, recycled.capacity());
+        Assert.assertEquals(0, pool.freeMemory());
+
+        //other sizes don't
+        ByteBuffer other = pool.tryAllocate(500);
+        Assert.assertNotSame(chunk, other.array());
+    }
+
+    @Test
+    public void testFreeChunksDoNotExceedPoolSize() throws Exception {
+        RecyclingMemoryPool pool = new RecyclingMemoryPool(4096, 4096, true, null);
+        ByteBuffer buf1 = pool.tryAllocate(2048);
+        ByteBuffer buf2 = pool.tryAllocate(2048);
+        Assert.assertNull(pool.tryAllocate(1));
+        pool.release(buf1);
+        pool.release(buf2);
+        Assert.assertEquals(4096, pool.freeMemory());
+
+        //allocating a chunk of another size evicts free chunks to stay within the pool
+        ByteBuffer buf3 = pool.tryAllocate(3000);
+        Assert.assertNotNull(buf3);
+        Assert.assertEquals(0, pool.freeMemory());
+        Assert.assertEquals(0, pool.availableMemory());
+        pool.release(buf3);
+        Assert.assertEquals(4096, pool.freeMemory());
+    }
+
+    @Test
+    public void testChunkSizeCappedToMaxAllocation() throws Exception {
+        RecyclingMemoryPool pool = new RecyclingMemoryPool(10000, 3000, true, null);
+        ByteBuffer buffer = pool.tryAllocate(2500);
+        Assert.assertEquals(2500, buffer.capacity());
+        Assert.assertEquals(3000, buffer.array().length);
+        Assert.assertEquals(7000, pool.availableMemory());
+    }
+
+    @Test
+    public void testAllocationOverMaxAllocationIsUnpooled() throws Exception {
+        RecyclingMemoryPool pool = new RecyclingMemoryPool(10000, 3000, true, null);
+        ByteBuffer buffer = pool.tryAllocate(5000);
+        Assert.assertNotNull(buffer);
+        Assert.assertEquals(5000, buffer.capacity());
+        Assert.assertEquals(10000, pool.availableMemory());
+        pool.release(buffer);
+        Assert.assertEquals(10000, pool.availableMemory());
+        Assert.assertEquals(0, pool.freeMemory());
+    }
+
+    @Test
+    public void testNonStrictAllocation() throws Exception {
+        RecyclingMemoryPool pool = new RecyclingMemoryPool(3000, 3000, false, null);
+        ByteBuffer buf1 = pool.tryAllocate(2000);
+        Assert.assertNotNull(buf1);
+        //allowed to dip into the negative while some memory is available
+        ByteBuffer buf2 = pool.tryAllocate(2000);
+        Assert.assertNotNull(buf2);
+        Assert.assertTrue(pool.isOutOfMemory());
+        Assert.assertNull(pool.tryAllocate(1));
+        pool.release(buf1);
+        //not retained since the outstanding chunks exceed the pool already
+        Assert.assertEquals(0, pool.freeMemory());
+        pool.release(buf2);
+        Assert.assertEquals(3000, pool.availableMemory());
+        Assert.assertEquals(2048, pool.freeMemory());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testReleaseForeignBuffer() throws Exception {
+        RecyclingMemoryPool pool = new RecyclingMemoryPool(10000, 3000, true, null);
+        pool.release(ByteBuffer.allocate(1000));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDoubleFree() throws Exception {
+        RecyclingMemoryPool pool = new RecyclingMemoryPool(10000, 3000, true, null);
+        ByteBuffer buffer = pool.tryAllocate(1000);
+        pool.release(buffer);
+        pool.release(buffer);
+    }
+}
@@ -45,6 +45,7 @@ import org.apache.kafka.common.Metric;
 import org.apache.kafka.common.MetricName;
 import org.apache.kafka.common.metrics.stats.Avg;
 import org.apache.kafka.common.metrics.stats.Count;
+import org.apache.kafka.common.metrics.stats.Histogram.LogLinearBinScheme;
 import org.apache.kafka.common.metrics.stats.Max;
 import org.apache.kafka.common.metrics.stats.Meter;
 import org.apache.kafka.common.metrics.stats.Min;
@@ -493,6 +494,34 @@ public class MetricsTest {
         assertEquals(75, (Double) p75.metricValue(), 1.0);
     }
 
+    @Test
+    public void testLogLinearPercentiles() {
+        Percentiles percs = new Percentiles(new LogLinearBinScheme(1.0, 100000.0, 2),
+                                            new Percentile(metrics.metricName("test.p50", "grp1"), 50),
+                                            new Percentile(metrics.metricName("test.p99", "grp1"), 99),
+                                            new Percentile(metrics.metricName("test.p999", "grp1"), 99.9));
+        Sensor sensor = metrics.sensor("test", new MetricConfig().samples(2));
+        sensor.add(percs);
+        Metric p50 = this.metrics.metrics().get(metrics.metricName("test.p50", "grp1"));
+        Metric p99 = this.metrics.metrics().get(metrics.metricName("test.p99", "grp1"));
+        Metric p999 = this.metrics.metrics().get(metrics.metricName("test.p999", "grp1"));
+
+        // a long tail of latencies which a constant or linear bin scheme of the same size couldn't resolve
+        for (int i = 1; i <= 100000; i++)
+            sensor.record(i < 99000 ? i % 100 : i);
+
+        assertEquals(50, (Double) p50.metricValue(), 1.0);
+        assertEquals(99000, (Double) p99.metricValue(), 99000 * 0.01);
+        assertEquals(99900, (Double) p999.metricValue(), 99900 * 0.01);
+
+        // values from samples recorded in other windows are merged
+        time.sleep(new MetricConfig().timeWindowMs());
+        for (int i = 0; i < 100000; i++)
+            sensor.record(1.0);
+        assertEquals(1, (Double) p50.metricValue(), 0.0);
+        assertEquals(99800, (Double) p999.metricValue(), 99800 * 0.01);
+    }
+
     @Test
     public void testRateWindowing() throws Exception {
         // Use the default time window. Set 3 samples
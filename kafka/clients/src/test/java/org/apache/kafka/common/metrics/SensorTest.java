@@ -18,7 +18,11 @@ package org.apache.kafka.common.metrics;
 
 import org.apache.kafka.common.MetricName;
 import org.apache.kafka.common.metrics.stats.Avg;
+import org.apache.kafka.common.metrics.stats.Count;
+import org.apache.kafka.common.metrics.stats.Max;
 import org.apache.kafka.common.metrics.stats.Meter;
+import org.apache.kafka.common.metrics.stats.Percentile;
+import org.apache.kafka.common.metrics.stats.Percentiles;
 import org.apache.kafka.common.metrics.stats.Rate;
 import org.apache.kafka.common.metrics.stats.Sum;
 import org.apache.kafka.common.utils.MockTime;
@@ -186,4 +190,103 @@ public class SensorTest {
             }
         }
     }
+
+    @Test
+    public void testConcurrentRecordingMatchesLockedRecording() {
+        MockTime time = new MockTime();
+        Metrics locked = new Metrics(new MetricConfig(), Collections.<MetricsReporter>emptyList(), time);
+        Metrics concurrent = new Metrics(new MetricConfig().concurrentRecording(true),
+            Collections.<MetricsReporter>emptyList(), time);
+        Sensor lockedSensor = addMeasurableStats(locked);
+        Sensor concurrentSensor = addMeasurableStats(concurrent);
+
+        for (int i = 0; i < 100; i++) {
+            time.sleep(1000);
+            lockedSensor.record(i);
+            concurrentSensor.record(i);
+            assertMetricValuesEqual(locked, concurrent);
+        }
+        assertEquals(4950.0, (double) concurrent.metric(concurrent.metricName("total", "test")).metricValue(), 0.0);
+
+        locked.close();
+        concurrent.close();
+    }
+
+    @Test
+    public void testConcurrentRecordingInMultiThreads() throws InterruptedException {
+        final Metrics metrics = new Metrics(new MetricConfig().concurrentRecording(true)
+            // a short time window makes recording threads apply the values buffered in previous windows
+            .timeWindow(1, TimeUnit.MILLISECONDS)
+            .samples(Integer.MAX_VALUE));
+        final Sensor sensor = metrics.sensor("sensor");
+        assertTrue(sensor.add(metrics.metricName("count", "test"), new Count()));
+        assertTrue(sensor.add(metrics.metricName("max", "test"), new Max()));
+
+        final int threadCount = 8;
+        final int recordsPerThread = 10000;
+        final CountDownLatch latch = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>(threadCount);
+        for (int i = 0; i < threadCount; i++) {
+            final int index = i;
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        latch.await();
+                        for (int j = 0; j < recordsPerThread; j++)
+                            sensor.record(index);
+                    } catch (InterruptedException e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        latch.countDown();
+        for (Thread thread : threads)
+            thread.join();
+
+        assertEquals((double) threadCount * recordsPerThread,
+            (double) metrics.metric(metrics.metricName("count", "test")).metricValue(), 0.0);
+        assertEquals(threadCount - 1.0, (double) metrics.metric(metrics.metricName("max", "test")).metricValue(), 0.0);
+        metrics.close();
+    }
+
+    @Test
+    public void testConcurrentRecordingFallsBackToLockedRecording() {
+        MockTime time = new MockTime();
+        Metrics metrics = new Metrics(new MetricConfig().concurrentRecording(true),
+            Collections.<MetricsReporter>emptyList(), time);
+        Sensor sensor = metrics.sensor("sensor");
+        assertTrue(sensor.add(metrics.metricName("count", "test"), new Count()));
+        sensor.record(1.0);
+        sensor.record(2.0);
+
+        assertTrue(sensor.add(new Percentiles(100, 10.0, Percentiles.BucketSizing.CONSTANT,
+            new Percentile(metrics.metricName("p50", "test"), 50.0))));
+        sensor.record(3.0);
+
+        assertEquals(3.0, (double) metrics.metric(metrics.metricName("count", "test")).metricValue(), 0.0);
+        assertEquals(3.0, (double) metrics.metric(metrics.metricName("p50", "test")).metricValue(), 1.0);
+        metrics.close();
+    }
+
+    private static Sensor addMeasurableStats(Metrics metrics) {
+        Sensor sensor = metrics.sensor("sensor");
+        sensor.add(metrics.metricName("avg", "test"), new Avg());
+        sensor.add(metrics.metricName("max", "test"), new Max());
+        sensor.add(metrics.metricName("count", "test"), new Count());
+        sensor.add(metrics.metricName("sum", "test"), new Sum());
+        sensor.add(metrics.metricName("rate", "test"), new Rate());
+        sensor.add(new Meter(metrics.metricName("meter-rate", "test"), metrics.metricName("total", "test")));
+        return sensor;
+    }
+
+    private static void assertMetricValuesEqual(Metrics expected, Metrics actual) {
+        for (Map.Entry<MetricName, KafkaMetric> entry : expected.metrics().entrySet()) {
+            assertEquals(entry.getKey().name(), (double) entry.getValue().metricValue(),
+                (double) actual.metric(entry.getKey()).metricValue(), 0.0);
+        }
+    }
 }
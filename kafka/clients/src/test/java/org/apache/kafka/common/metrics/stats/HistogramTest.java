@@ -25,6 +25,7 @@ import java.util.Random;
 import org.apache.kafka.common.metrics.stats.Histogram.BinScheme;
 import org.apache.kafka.common.metrics.stats.Histogram.ConstantBinScheme;
 import org.apache.kafka.common.metrics.stats.Histogram.LinearBinScheme;
+import org.apache.kafka.common.metrics.stats.Histogram.LogLinearBinScheme;
 import org.junit.Test;
 
 public class HistogramTest {
@@ -133,6 +134,44 @@ public class HistogramTest {
         checkBinningConsistency(scheme);
     }
 
+    @Test
+    public void testLogLinearBinScheme() {
+        LogLinearBinScheme scheme = new LogLinearBinScheme(1, 100000, 1);
+        // 32 values are counted with unit resolution, larger values in 16 sub-buckets per doubling
+        assertEquals(Float.NEGATIVE_INFINITY, scheme.fromBin(-1), 0.001d);
+        assertEquals(Float.POSITIVE_INFINITY, scheme.fromBin(scheme.bins()), 0.001d);
+        assertEquals(0, scheme.toBin(-1.0));
+        assertEquals(0, scheme.toBin(0.0));
+        assertEquals(0, scheme.toBin(0.9));
+        assertEquals(1, scheme.toBin(1.0));
+        assertEquals(31, scheme.toBin(31.0));
+        assertEquals(31.0, scheme.fromBin(31), 0.001d);
+        assertEquals(32, scheme.toBin(32.0));
+        assertEquals(32, scheme.toBin(33.9));
+        assertEquals(32.0, scheme.fromBin(32), 0.001d);
+        assertEquals(33, scheme.toBin(34.0));
+        assertEquals(34.0, scheme.fromBin(33), 0.001d);
+        assertEquals(scheme.bins() - 1, scheme.toBin(100000.0));
+        assertEquals(scheme.bins() - 1, scheme.toBin(1e12));
+        assertEquals(217, scheme.bins());
+        checkBinningConsistency(scheme);
+
+        for (double x = 1.0; x < 100000.0; x *= 1.01) {
+            double lower = scheme.fromBin(scheme.toBin(x));
+            assertEquals("lower end of the bin of " + x, x, lower, Math.max(1.0, x / 10));
+        }
+    }
+
+    @Test
+    public void testLogLinearBinSchemeWithFractionalUnit() {
+        LogLinearBinScheme scheme = new LogLinearBinScheme(0.001, 60000, 3);
+        for (double x = 0.001; x < 60000.0; x *= 1.001) {
+            double lower = scheme.fromBin(scheme.toBin(x));
+            assertEquals("lower end of the bin of " + x, x, lower, Math.max(0.001, x / 1000));
+        }
+        checkBinningConsistency(scheme);
+    }
+
     private void checkBinningConsistency(BinScheme scheme) {
         for (int bin = 0; bin < scheme.bins(); bin++) {
             double fromBin = scheme.fromBin(bin);
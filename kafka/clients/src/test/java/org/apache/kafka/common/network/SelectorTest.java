@@ -46,6 +46,7 @@ import java.nio.channels.SocketChannel;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
@@ -591,6 +592,58 @@ public class SelectorTest {
         }
     }
 
+    @Test
+    public void testUnpooledConnectionReadsWhilePoolIsExhausted() throws Exception {
+        //clean up default selector, replace it with one that only pools the receives of some connections
+        selector.close();
+        MemoryPool pool = new SimpleMemoryPool(900, 900, false, null);
+        selector = new Selector(NetworkReceive.UNLIMITED, 5000, Selector.NO_FAILED_AUTHENTICATION_DELAY, metrics, time,
+            "MetricGroup", new HashMap<String, String>(), true, false, channelBuilder, pool,
+            connectionId -> !connectionId.equals("unpooled"), new LogContext());
+
+        try (ServerSocketChannel ss = ServerSocketChannel.open()) {
+            ss.bind(new InetSocketAddress(0));
+
+            InetSocketAddress serverAddress = (InetSocketAddress) ss.getLocalAddress();
+
+            Thread sender1 = createSender(serverAddress, randomPayload(900));
+            Thread sender2 = createSender(serverAddress, randomPayload(900));
+            Thread sender3 = createSender(serverAddress, randomPayload(900));
+            sender1.start();
+            sender2.start();
+            sender3.start();
+            sender1.join(5000);
+            sender2.join(5000);
+            sender3.join(5000);
+
+            SocketChannel channelX = ss.accept();
+            channelX.configureBlocking(false);
+            SocketChannel channelY = ss.accept();
+            channelY.configureBlocking(false);
+            SocketChannel channelZ = ss.accept();
+            channelZ.configureBlocking(false);
+            selector.register("pooledX", channelX);
+            selector.register("pooledY", channelY);
+            selector.register("unpooled", channelZ);
+
+            //the pool only has room for one of the pooled receives, the unpooled one is read regardless
+            Set<String> completed = new HashSet<>();
+            long deadline = System.currentTimeMillis() + 5000;
+            while (System.currentTimeMillis() < deadline && completed.size() < 2) {
+                selector.poll(1000);
+                for (NetworkReceive receive : selector.completedReceives())
+                    completed.add(receive.source());
+            }
+            assertEquals("could not read two requests within timeout", 2, completed.size());
+            assertTrue(completed.contains("unpooled"));
+            assertEquals(0, pool.availableMemory());
+
+            selector.poll(10);
+            assertTrue(selector.completedReceives().isEmpty());
+            assertTrue(selector.isOutOfMemory());
+        }
+    }
+
     private Thread createSender(InetSocketAddress serverAddress, byte[] payload) {
         return new PlaintextSender(serverAddress, payload);
     }
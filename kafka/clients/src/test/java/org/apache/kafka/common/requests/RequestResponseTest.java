@@ -412,6 +412,8 @@ public class RequestResponseTest {
         // in the request is a HashMap with multiple elements since ordering of the elements may vary)
         try {
             Struct struct = req.toStruct();
+            RequestHeader header = new RequestHeader(req.api, req.version(), "client", 1);
+            assertEquals(AbstractRequestResponse.serialize(header.toStruct(), struct), req.serialize(header));
             AbstractRequest deserialized = AbstractRequest.parseRequest(req.api, req.version(), struct);
             Struct struct2 = deserialized.toStruct();
             if (checkEqualityAndHashCode) {
@@ -429,6 +431,9 @@ public class RequestResponseTest {
         // in the response is a HashMap with multiple elements since ordering of the elements may vary)
         try {
             Struct struct = response.toStruct((short) version);
+            ResponseHeader header = new ResponseHeader(1);
+            assertEquals(AbstractRequestResponse.serialize(header.toStruct(), struct),
+                    response.serialize((short) version, header));
             AbstractResponse deserialized = (AbstractResponse) deserialize(response, struct, (short) version);
             Struct struct2 = deserialized.toStruct((short) version);
             if (checkEqualityAndHashCode) {
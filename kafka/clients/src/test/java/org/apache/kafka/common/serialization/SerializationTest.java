@@ -17,7 +17,9 @@
 package org.apache.kafka.common.serialization;
 
 import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.internals.RecordHeaders;
 import org.apache.kafka.common.utils.Bytes;
+import org.apache.kafka.common.utils.Utils;
 import org.junit.Test;
 
 import java.nio.ByteBuffer;
@@ -30,7 +32,9 @@ import java.util.UUID;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.IsNull.nullValue;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
 
 public class SerializationTest {
 
@@ -67,6 +71,68 @@ public class SerializationTest {
         }
     }
 
+    @SuppressWarnings("unchecked")
+    @Test
+    public void allSerdesShouldRoundtripInputThroughByteBuffers() {
+        for (Map.Entry<Class<?>, List<Object>> test : testData.entrySet()) {
+            try (Serde<Object> serde = Serdes.serdeFrom((Class<Object>) test.getKey())) {
+                for (Object value : test.getValue()) {
+                    Object expected = serde.deserializer().deserialize(topic, serde.serializer().serialize(topic, value));
+                    ByteBuffer serialized = serde.serializer().serializeToByteBuffer(topic, new RecordHeaders(), value);
+                    Object deserialized = serde.deserializer().deserialize(topic, new RecordHeaders(), serialized);
+                    String message = "Should get the same " + test.getKey().getSimpleName() +
+                            " after serialization and deserialization through byte buffers";
+                    if (expected instanceof byte[])
+                        assertArrayEquals(message, (byte[]) expected, (byte[]) deserialized);
+                    else
+                        assertEquals(message, expected, deserialized);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void deserializersShouldOnlyReadBetweenPositionAndLimit() {
+        ByteBuffer buffer = ByteBuffer.allocate(32);
+        buffer.put("prefix".getBytes());
+        buffer.put(Serdes.String().serializer().serialize(topic, "my string"));
+        buffer.put(Serdes.Long().serializer().serialize(topic, 922337203685477580L));
+        buffer.put("suffix".getBytes());
+
+        ByteBuffer stringView = ByteBuffer.wrap(buffer.array(), 6, 9).slice();
+        assertEquals("my string", Serdes.String().deserializer().deserialize(topic, new RecordHeaders(), stringView));
+        assertEquals(0, stringView.position());
+
+        ByteBuffer longView = ByteBuffer.wrap(buffer.array(), 15, 8).slice();
+        assertEquals(Long.valueOf(922337203685477580L),
+                Serdes.Long().deserializer().deserialize(topic, new RecordHeaders(), longView));
+        assertEquals(0, longView.position());
+
+        ByteBuffer bytesView = ByteBuffer.wrap(buffer.array(), 6, 9);
+        assertEquals(new Bytes("my string".getBytes()),
+                Serdes.Bytes().deserializer().deserialize(topic, new RecordHeaders(), bytesView));
+        assertEquals(6, bytesView.position());
+    }
+
+    @Test
+    public void byteBufferDeserializerShouldNotShareTheGivenBuffer() {
+        ByteBuffer buffer = ByteBuffer.wrap("prefixmy string".getBytes());
+        buffer.position(6);
+
+        ByteBuffer deserialized = Serdes.ByteBuffer().deserializer().deserialize(topic, new RecordHeaders(), buffer);
+        assertNotSame(buffer.array(), deserialized.array());
+        assertArrayEquals("my string".getBytes(), Utils.toArray(deserialized));
+        assertEquals(6, buffer.position());
+
+        buffer.put(6, (byte) 'M');
+        assertEquals((byte) 'm', deserialized.get(0));
+    }
+
+    @Test(expected = SerializationException.class)
+    public void longDeserializerShouldThrowSerializationExceptionOnTooFewBytesInByteBuffer() {
+        Serdes.Long().deserializer().deserialize(topic, new RecordHeaders(), ByteBuffer.allocate(7));
+    }
+
     @Test
     public void allSerdesShouldSupportNull() {
         for (Class<?> cls : testData.keySet()) {
@@ -46,6 +46,8 @@ public class ConnectMetricsRegistry {
     public final MetricNameTemplate taskPauseRatio;
     public final MetricNameTemplate taskCommitTimeMax;
     public final MetricNameTemplate taskCommitTimeAvg;
+    public final MetricNameTemplate taskCommitTimeP99;
+    public final MetricNameTemplate taskCommitTimeP999;
     public final MetricNameTemplate taskBatchSizeMax;
     public final MetricNameTemplate taskBatchSizeAvg;
     public final MetricNameTemplate taskCommitFailurePercentage;
@@ -139,6 +141,10 @@ public class ConnectMetricsRegistry {
                                            "The maximum time in milliseconds taken by this task to commit offsets.", workerTaskTags);
         taskCommitTimeAvg = createTemplate("offset-commit-avg-time-ms", TASK_GROUP_NAME,
                                            "The average time in milliseconds taken by this task to commit offsets.", workerTaskTags);
+        taskCommitTimeP99 = createTemplate("offset-commit-p99-time-ms", TASK_GROUP_NAME,
+                                           "The 99th percentile time in milliseconds taken by this task to commit offsets.", workerTaskTags);
+        taskCommitTimeP999 = createTemplate("offset-commit-p999-time-ms", TASK_GROUP_NAME,
+                                            "The 99.9th percentile time in milliseconds taken by this task to commit offsets.", workerTaskTags);
         taskBatchSizeMax = createTemplate("batch-size-max", TASK_GROUP_NAME, "The maximum size of the batches processed by the connector.",
                                           workerTaskTags);
         taskBatchSizeAvg = createTemplate("batch-size-avg", TASK_GROUP_NAME, "The average size of the batches processed by the connector.",
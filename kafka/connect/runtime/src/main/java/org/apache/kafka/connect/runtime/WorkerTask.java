@@ -23,7 +23,10 @@ import org.apache.kafka.common.metrics.MetricConfig;
 import org.apache.kafka.common.metrics.Sensor;
 import org.apache.kafka.common.metrics.stats.Avg;
 import org.apache.kafka.common.metrics.stats.Frequencies;
+import org.apache.kafka.common.metrics.stats.Histogram.LogLinearBinScheme;
 import org.apache.kafka.common.metrics.stats.Max;
+import org.apache.kafka.common.metrics.stats.Percentile;
+import org.apache.kafka.common.metrics.stats.Percentiles;
 import org.apache.kafka.common.utils.Time;
 import org.apache.kafka.connect.runtime.AbstractStatus.State;
 import org.apache.kafka.connect.runtime.ConnectMetrics.LiteralSupplier;
@@ -344,6 +347,9 @@ abstract class WorkerTask implements Runnable {
             commitTime = metricGroup.sensor("commit-time");
             commitTime.add(metricGroup.metricName(registry.taskCommitTimeMax), new Max());
             commitTime.add(metricGroup.metricName(registry.taskCommitTimeAvg), new Avg());
+            commitTime.add(new Percentiles(new LogLinearBinScheme(1.0, TimeUnit.MINUTES.toMillis(5), 2),
+                    new Percentile(metricGroup.metricName(registry.taskCommitTimeP99), 99.0),
+                    new Percentile(metricGroup.metricName(registry.taskCommitTimeP999), 99.9)));
 
             batchSize = metricGroup.sensor("batch-size");
             batchSize.add(metricGroup.metricName(registry.taskBatchSizeMax), new Max());
@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.kafka.jmh.common;
+
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.protocol.ApiKeys;
+import org.apache.kafka.common.protocol.Errors;
+import org.apache.kafka.common.requests.AbstractRequestResponse;
+import org.apache.kafka.common.requests.MetadataResponse;
+import org.apache.kafka.common.requests.ResponseHeader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares serializing a generated protocol message through a {@link org.apache.kafka.common.protocol.types.Struct}
+ * with writing it directly, using a metadata response of a cluster with a growing number of topics.
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 15)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MessageSerializationBenchmark {
+
+    private static final int BROKER_COUNT = 5;
+    private static final int REPLICATION_FACTOR = 3;
+
+    @Param({"10", "500"})
+    private int topicCount;
+
+    @Param({"10"})
+    private int partitionCount;
+
+    private final short version = ApiKeys.METADATA.latestVersion();
+    private final ResponseHeader header = new ResponseHeader(1);
+    private MetadataResponse response;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        List<Node> brokers = new ArrayList<>();
+        for (int i = 0; i < BROKER_COUNT; i++)
+            brokers.add(new Node(i, "broker-" + i, 9092));
+
+        List<MetadataResponse.TopicMetadata> topics = new ArrayList<>();
+        for (int t = 0; t < topicCount; t++) {
+            List<MetadataResponse.PartitionMetadata> partitions = new ArrayList<>();
+            for (int p = 0; p < partitionCount; p++) {
+                List<Node> replicas = new ArrayList<>();
+                for (int r = 0; r < REPLICATION_FACTOR; r++)
+                    replicas.add(brokers.get((p + r) % BROKER_COUNT));
+                partitions.add(new MetadataResponse.PartitionMetadata(Errors.NONE, p, replicas.get(0),
+                        Optional.of(5), replicas, replicas, new ArrayList<>()));
+            }
+            topics.add(new MetadataResponse.TopicMetadata(Errors.NONE, "topic-" + t, false, partitions));
+        }
+        response = MetadataResponse.prepareResponse(brokers, "cluster", 0, topics);
+    }
+
+    @Benchmark
+    public ByteBuffer serializeWithStruct() {
+        return AbstractRequestResponse.serialize(header.toStruct(), response.data().toStruct(version));
+    }
+
+    @Benchmark
+    public ByteBuffer serializeDirect() {
+        return response.serialize(version, header);
+    }
+}
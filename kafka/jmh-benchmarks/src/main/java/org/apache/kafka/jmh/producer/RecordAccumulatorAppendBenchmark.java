@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.kafka.jmh.producer;
+
+import org.apache.kafka.clients.ApiVersions;
+import org.apache.kafka.clients.producer.internals.BufferPool;
+import org.apache.kafka.clients.producer.internals.ProducerBatch;
+import org.apache.kafka.clients.producer.internals.RecordAccumulator;
+import org.apache.kafka.common.Cluster;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.metrics.Metrics;
+import org.apache.kafka.common.record.CompressionType;
+import org.apache.kafka.common.record.Record;
+import org.apache.kafka.common.utils.LogContext;
+import org.apache.kafka.common.utils.Time;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of {@link RecordAccumulator#append} with a growing number of application threads writing
+ * to a few hot partitions, while a background thread drains the accumulator like the sender does. Compare the
+ * results of the single lock per partition ({@code batchStripes = 1}) with striped appends.
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RecordAccumulatorAppendBenchmark {
+
+    private static final String TOPIC = "topic";
+    private static final String METRIC_GROUP = "producer-metrics";
+    private static final int BATCH_SIZE = 16384;
+    private static final long TOTAL_MEMORY = 64 * 1024 * 1024L;
+
+    @Param({"1", "4", "16"})
+    private int batchStripes;
+
+    @Param({"4"})
+    private int partitionCount;
+
+    @Param({"100"})
+    private int valueSize;
+
+    private Metrics metrics;
+    private RecordAccumulator accumulator;
+    private Cluster cluster;
+    private TopicPartition[] partitions;
+    private byte[] value;
+    private Thread drainThread;
+    private volatile boolean running;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Node node = new Node(0, "localhost", 9092);
+        List<PartitionInfo> partitionInfos = new ArrayList<>();
+        partitions = new TopicPartition[partitionCount];
+        for (int i = 0; i < partitionCount; i++) {
+            partitionInfos.add(new PartitionInfo(TOPIC, i, node, new Node[] {node}, new Node[] {node}));
+            partitions[i] = new TopicPartition(TOPIC, i);
+        }
+        cluster = new Cluster("clusterId", Collections.singletonList(node), partitionInfos,
+            Collections.<String>emptySet(), Collections.<String>emptySet());
+        value = new byte[valueSize];
+
+        metrics = new Metrics();
+        accumulator = new RecordAccumulator(new LogContext(), BATCH_SIZE, CompressionType.NONE, 0, 100L,
+            Integer.MAX_VALUE, metrics, METRIC_GROUP, Time.SYSTEM, new ApiVersions(), null,
+            new BufferPool(TOTAL_MEMORY, BATCH_SIZE, metrics, Time.SYSTEM, METRIC_GROUP, batchStripes),
+            batchStripes, null);
+
+        running = true;
+        drainThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                while (running) {
+                    long now = Time.SYSTEM.milliseconds();
+                    RecordAccumulator.ReadyCheckResult result = accumulator.ready(cluster, now);
+                    Map<Integer, List<ProducerBatch>> drained = accumulator.drain(cluster, result.readyNodes,
+                        Integer.MAX_VALUE, now);
+                    for (List<ProducerBatch> batches : drained.values()) {
+                        for (ProducerBatch batch : batches)
+                            accumulator.deallocate(batch);
+                    }
+                }
+            }
+        }, "accumulator-drain");
+        drainThread.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        running = false;
+        drainThread.join();
+        accumulator.close();
+        accumulator.abortIncompleteBatches();
+        metrics.close();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public RecordAccumulator.RecordAppendResult append1Thread() throws InterruptedException {
+        return append();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public RecordAccumulator.RecordAppendResult append8Threads() throws InterruptedException {
+        return append();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public RecordAccumulator.RecordAppendResult append64Threads() throws InterruptedException {
+        return append();
+    }
+
+    private RecordAccumulator.RecordAppendResult append() throws InterruptedException {
+        TopicPartition tp = partitions[ThreadLocalRandom.current().nextInt(partitions.length)];
+        return accumulator.append(tp, 0L, null, value, Record.EMPTY_HEADERS, null, Long.MAX_VALUE);
+    }
+}
@@ -263,6 +263,13 @@ public class StreamsConfig extends AbstractConfig {
     @SuppressWarnings("WeakerAccess")
     public static final String EXACTLY_ONCE = "exactly_once";
 
+    /** {@code acceptable.recovery.lag} */
+    @SuppressWarnings("WeakerAccess")
+    public static final String ACCEPTABLE_RECOVERY_LAG_CONFIG = "acceptable.recovery.lag";
+    private static final String ACCEPTABLE_RECOVERY_LAG_DOC = "The maximum number of changelog offsets the local state of a client may lag behind the most caught-up client" +
+        " for the client to be considered caught-up on a stateful task. Active tasks are only moved to caught-up clients; lagging clients first warm up the state with a warm-up replica." +
+        " Only applies once all instances of the application report their lag, i.e., after all of them have been upgraded.";
+
     /** {@code application.id} */
     @SuppressWarnings("WeakerAccess")
     public static final String APPLICATION_ID_CONFIG = "application.id";
@@ -273,6 +280,19 @@ public class StreamsConfig extends AbstractConfig {
     public static final String APPLICATION_SERVER_CONFIG = "application.server";
     private static final String APPLICATION_SERVER_DOC = "A host:port pair pointing to an embedded user defined endpoint that can be used for discovering the locations of state stores within a single KafkaStreams application";
 
+    /** {@code async.max.in.flight.records} */
+    @SuppressWarnings("WeakerAccess")
+    public static final String ASYNC_MAX_IN_FLIGHT_RECORDS_CONFIG = "async.max.in.flight.records";
+    private static final String ASYNC_MAX_IN_FLIGHT_RECORDS_DOC = "Maximum number of records per task that may wait for the result of an asynchronous transformer." +
+        " A task stops processing new records once the limit is reached, until enough pending results have completed.";
+
+    /** {@code async.timeout.ms} */
+    @SuppressWarnings("WeakerAccess")
+    public static final String ASYNC_TIMEOUT_MS_CONFIG = "async.timeout.ms";
+    private static final String ASYNC_TIMEOUT_MS_DOC = "Maximum amount of time in milliseconds a task waits for all pending results of asynchronous transformers," +
+        " before it is suspended or closed and, if exactly-once is enabled, before every commit." +
+        " Should be lower than <code>max.poll.interval.ms</code>, as the stream thread does not poll while it waits.";
+
     /** {@code bootstrap.servers} */
     @SuppressWarnings("WeakerAccess")
     public static final String BOOTSTRAP_SERVERS_CONFIG = CommonClientConfigs.BOOTSTRAP_SERVERS_CONFIG;
@@ -282,6 +302,12 @@ public class StreamsConfig extends AbstractConfig {
     public static final String BUFFERED_RECORDS_PER_PARTITION_CONFIG = "buffered.records.per.partition";
     private static final String BUFFERED_RECORDS_PER_PARTITION_DOC = "Maximum number of records to buffer per partition.";
 
+    /** {@code cache.concurrency.segments} */
+    @SuppressWarnings("WeakerAccess")
+    public static final String CACHE_CONCURRENCY_SEGMENTS_CONFIG = "cache.concurrency.segments";
+    private static final String CACHE_CONCURRENCY_SEGMENTS_DOC = "The number of lock-striped segments of every store cache. " +
+        "With more than one segment, interactive queries read cached entries without blocking the stream thread and only contend with it on the segment they access.";
+
     /** {@code cache.max.bytes.buffering} */
     @SuppressWarnings("WeakerAccess")
     public static final String CACHE_MAX_BYTES_BUFFERING_CONFIG = "cache.max.bytes.buffering";
@@ -305,6 +331,12 @@ public class StreamsConfig extends AbstractConfig {
     private static final String MAX_TASK_IDLE_MS_DOC = "Maximum amount of time a stream task will stay idle when not all of its partition buffers contain records," +
         " to avoid potential out-of-order record processing across multiple input streams.";
 
+    /** {@code max.warmup.replicas} */
+    @SuppressWarnings("WeakerAccess")
+    public static final String MAX_WARMUP_REPLICAS_CONFIG = "max.warmup.replicas";
+    private static final String MAX_WARMUP_REPLICAS_DOC = "The maximum number of warm-up replicas, i.e., standby replicas in addition to <code>num.standby.replicas</code>," +
+        " that may be assigned at once to restore the state of tasks on clients they should be moved to for balancing the load.";
+
     /** {@code connections.max.idle.ms} */
     @SuppressWarnings("WeakerAccess")
     public static final String CONNECTIONS_MAX_IDLE_MS_CONFIG = CommonClientConfigs.CONNECTIONS_MAX_IDLE_MS_CONFIG;
@@ -394,6 +426,20 @@ public class StreamsConfig extends AbstractConfig {
     public static final String POLL_MS_CONFIG = "poll.ms";
     private static final String POLL_MS_DOC = "The amount of time in milliseconds to block waiting for input.";
 
+    /** {@code probing.rebalance.interval.ms} */
+    @SuppressWarnings("WeakerAccess")
+    public static final String PROBING_REBALANCE_INTERVAL_MS_CONFIG = "probing.rebalance.interval.ms";
+    private static final String PROBING_REBALANCE_INTERVAL_MS_DOC = "The amount of time in milliseconds after which the group leader triggers a rebalance" +
+        " to check whether the warm-up replicas it assigned caught up, so that active tasks can be moved to them.";
+
+    /** {@code processing.batch.size} */
+    @SuppressWarnings("WeakerAccess")
+    public static final String PROCESSING_BATCH_SIZE_CONFIG = "processing.batch.size";
+    private static final String PROCESSING_BATCH_SIZE_DOC = "The maximum number of records a task processes from one partition in a single batch" +
+        " if all processors downstream of the partition's source are stateless (<code>map</code>, <code>mapValues</code>, <code>flatMap</code>, <code>filter</code>, <code>filterNot</code>)." +
+        " Within a batch, records are not interleaved with records of other partitions by timestamp, and processor-node latency metrics report the average latency within a batch." +
+        " The default of 1 disables batching.";
+
     /** {@code processing.guarantee} */
     @SuppressWarnings("WeakerAccess")
     public static final String PROCESSING_GUARANTEE_CONFIG = "processing.guarantee";
@@ -430,11 +476,25 @@ public class StreamsConfig extends AbstractConfig {
     @SuppressWarnings("WeakerAccess")
     public static final String RETRY_BACKOFF_MS_CONFIG = CommonClientConfigs.RETRY_BACKOFF_MS_CONFIG;
 
+    /** {@code rocksdb.block.cache.size.bytes} */
+    @SuppressWarnings("WeakerAccess")
+    public static final String ROCKSDB_BLOCK_CACHE_SIZE_CONFIG = "rocksdb.block.cache.size.bytes";
+    private static final String ROCKSDB_BLOCK_CACHE_SIZE_DOC = "The size in bytes of a block cache shared by all RocksDB stores of this process, including every segment of window and session stores. " +
+        "Index and filter blocks are charged against the shared cache as well. " +
+        "If <code>0</code>, each RocksDB store allocates its own block cache.";
+
     /** {@code rocksdb.config.setter} */
     @SuppressWarnings("WeakerAccess")
     public static final String ROCKSDB_CONFIG_SETTER_CLASS_CONFIG = "rocksdb.config.setter";
     private static final String ROCKSDB_CONFIG_SETTER_CLASS_DOC = "A Rocks DB config setter class or class name that implements the <code>org.apache.kafka.streams.state.RocksDBConfigSetter</code> interface";
 
+    /** {@code rocksdb.write.buffer.manager.size.bytes} */
+    @SuppressWarnings("WeakerAccess")
+    public static final String ROCKSDB_WRITE_BUFFER_MANAGER_SIZE_CONFIG = "rocksdb.write.buffer.manager.size.bytes";
+    private static final String ROCKSDB_WRITE_BUFFER_MANAGER_SIZE_DOC = "The total size in bytes of the memtables of all RocksDB stores of this process. " +
+        "The memory of the memtables is charged against the shared block cache, so this requires <code>" + ROCKSDB_BLOCK_CACHE_SIZE_CONFIG + "</code> to be set and should not exceed it. " +
+        "If <code>0</code>, the memtables of each RocksDB store are only bounded by its write buffer settings.";
+
     /** {@code security.protocol} */
     @SuppressWarnings("WeakerAccess")
     public static final String SECURITY_PROTOCOL_CONFIG = CommonClientConfigs.SECURITY_PROTOCOL_CONFIG;
@@ -453,6 +513,13 @@ public class StreamsConfig extends AbstractConfig {
     public static final String STATE_DIR_CONFIG = "state.dir";
     private static final String STATE_DIR_DOC = "Directory location for state store.";
 
+    /** {@code state.restore.thread.enabled} */
+    @SuppressWarnings("WeakerAccess")
+    public static final String STATE_RESTORE_THREAD_ENABLED_CONFIG = "state.restore.thread.enabled";
+    private static final String STATE_RESTORE_THREAD_ENABLED_DOC = "Whether each stream thread restores the state stores of its active tasks on a dedicated restore thread with its own restore consumer. " +
+        "If enabled, the stream thread keeps processing the tasks which are already running while other tasks are restoring, and the <code>StateRestoreListener</code> is called by the restore thread. " +
+        "If disabled, restoration is interleaved with processing on the stream thread.";
+
     /** {@code topology.optimization} */
     public static final String TOPOLOGY_OPTIMIZATION = "topology.optimization";
     private static final String TOPOLOGY_OPTIMIZATION_DOC = "A configuration telling Kafka Streams if it should optimize the topology, disabled by default";
@@ -571,16 +638,40 @@ public class StreamsConfig extends AbstractConfig {
 
             // LOW
 
+            .define(ACCEPTABLE_RECOVERY_LAG_CONFIG,
+                    Type.LONG,
+                    10000L,
+                    atLeast(0),
+                    Importance.LOW,
+                    ACCEPTABLE_RECOVERY_LAG_DOC)
             .define(APPLICATION_SERVER_CONFIG,
                     Type.STRING,
                     "",
                     Importance.LOW,
                     APPLICATION_SERVER_DOC)
+            .define(ASYNC_MAX_IN_FLIGHT_RECORDS_CONFIG,
+                    Type.INT,
+                    100,
+                    atLeast(1),
+                    Importance.LOW,
+                    ASYNC_MAX_IN_FLIGHT_RECORDS_DOC)
+            .define(ASYNC_TIMEOUT_MS_CONFIG,
+                    Type.LONG,
+                    60000L,
+                    atLeast(0),
+                    Importance.LOW,
+                    ASYNC_TIMEOUT_MS_DOC)
             .define(BUFFERED_RECORDS_PER_PARTITION_CONFIG,
                     Type.INT,
                     1000,
                     Importance.LOW,
                     BUFFERED_RECORDS_PER_PARTITION_DOC)
+            .define(CACHE_CONCURRENCY_SEGMENTS_CONFIG,
+                    Type.INT,
+                    1,
+                    atLeast(1),
+                    Importance.LOW,
+                    CACHE_CONCURRENCY_SEGMENTS_DOC)
             .define(COMMIT_INTERVAL_MS_CONFIG,
                     Type.LONG,
                     DEFAULT_COMMIT_INTERVAL_MS,
@@ -592,6 +683,12 @@ public class StreamsConfig extends AbstractConfig {
                     9 * 60 * 1000L,
                     ConfigDef.Importance.LOW,
                     CommonClientConfigs.CONNECTIONS_MAX_IDLE_MS_DOC)
+            .define(MAX_WARMUP_REPLICAS_CONFIG,
+                    Type.INT,
+                    2,
+                    atLeast(1),
+                    Importance.LOW,
+                    MAX_WARMUP_REPLICAS_DOC)
             .define(METADATA_MAX_AGE_CONFIG,
                     ConfigDef.Type.LONG,
                     5 * 60 * 1000L,
@@ -631,6 +728,18 @@ public class StreamsConfig extends AbstractConfig {
                     100L,
                     Importance.LOW,
                     POLL_MS_DOC)
+            .define(PROBING_REBALANCE_INTERVAL_MS_CONFIG,
+                    Type.LONG,
+                    10 * 60 * 1000L,
+                    atLeast(60 * 1000L),
+                    Importance.LOW,
+                    PROBING_REBALANCE_INTERVAL_MS_DOC)
+            .define(PROCESSING_BATCH_SIZE_CONFIG,
+                    Type.INT,
+                    1,
+                    atLeast(1),
+                    Importance.LOW,
+                    PROCESSING_BATCH_SIZE_DOC)
             .define(RECEIVE_BUFFER_CONFIG,
                     Type.INT,
                     32 * 1024,
@@ -667,11 +776,23 @@ public class StreamsConfig extends AbstractConfig {
                     atLeast(0),
                     ConfigDef.Importance.LOW,
                     CommonClientConfigs.REQUEST_TIMEOUT_MS_DOC)
+            .define(ROCKSDB_BLOCK_CACHE_SIZE_CONFIG,
+                    Type.LONG,
+                    0L,
+                    atLeast(0L),
+                    Importance.LOW,
+                    ROCKSDB_BLOCK_CACHE_SIZE_DOC)
             .define(ROCKSDB_CONFIG_SETTER_CLASS_CONFIG,
                     Type.CLASS,
                     null,
                     Importance.LOW,
                     ROCKSDB_CONFIG_SETTER_CLASS_DOC)
+            .define(ROCKSDB_WRITE_BUFFER_MANAGER_SIZE_CONFIG,
+                    Type.LONG,
+                    0L,
+                    atLeast(0L),
+                    Importance.LOW,
+                    ROCKSDB_WRITE_BUFFER_MANAGER_SIZE_DOC)
             .define(SEND_BUFFER_CONFIG,
                     Type.INT,
                     128 * 1024,
@@ -683,6 +804,11 @@ public class StreamsConfig extends AbstractConfig {
                     10 * 60 * 1000L,
                     Importance.LOW,
                     STATE_CLEANUP_DELAY_MS_DOC)
+            .define(STATE_RESTORE_THREAD_ENABLED_CONFIG,
+                    Type.BOOLEAN,
+                    false,
+                    Importance.LOW,
+                    STATE_RESTORE_THREAD_ENABLED_DOC)
             .define(UPGRADE_FROM_CONFIG,
                     ConfigDef.Type.STRING,
                     null,
@@ -857,6 +983,12 @@ public class StreamsConfig extends AbstractConfig {
             configUpdates.put(COMMIT_INTERVAL_MS_CONFIG, EOS_DEFAULT_COMMIT_INTERVAL_MS);
         }
 
+        final long writeBufferManagerSize = (Long) parsedValues.get(ROCKSDB_WRITE_BUFFER_MANAGER_SIZE_CONFIG);
+        if (writeBufferManagerSize > 0L && (Long) parsedValues.get(ROCKSDB_BLOCK_CACHE_SIZE_CONFIG) == 0L) {
+            throw new ConfigException(ROCKSDB_WRITE_BUFFER_MANAGER_SIZE_CONFIG, writeBufferManagerSize,
+                "Requires " + ROCKSDB_BLOCK_CACHE_SIZE_CONFIG + " to be set, since the memtables are charged against the shared block cache");
+        }
+
         return configUpdates;
     }
 
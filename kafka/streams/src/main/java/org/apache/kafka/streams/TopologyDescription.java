@@ -19,6 +19,8 @@ package org.apache.kafka.streams;
 import org.apache.kafka.streams.processor.TopicNameExtractor;
 import org.apache.kafka.streams.processor.internals.StreamTask;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 import java.util.regex.Pattern;
 
@@ -175,5 +177,14 @@ public interface TopologyDescription {
      */
     Set<GlobalStore> globalStores();
 
+    /**
+     * Descriptions of the rewrites that were applied to the topology, if it was built with
+     * {@link StreamsConfig#TOPOLOGY_OPTIMIZATION} set to {@link StreamsConfig#OPTIMIZE}.
+     * @return list of applied optimizations, empty if none were applied
+     */
+    default List<String> appliedOptimizations() {
+        return Collections.emptyList();
+    }
+
 }
 
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.kafka.streams.kstream;
+
+import org.apache.kafka.streams.processor.ProcessorContext;
+
+import java.util.concurrent.CompletionStage;
+
+/**
+ * The {@code AsyncTransformer} interface is for asynchronously transforming a record, e.g., by looking up data in an
+ * external service.
+ * In contrast to a {@link Transformer}, {@link #transform(Object, Object) transform()} does not return the result
+ * itself but a {@link CompletionStage} of it, so the stream thread can continue processing further records while
+ * the result is computed.
+ * <p>
+ * Results are forwarded on the stream thread once they complete, with the timestamp, headers, and offset of the
+ * record they were computed for. Results of records with the same (input) key are forwarded in the order the records
+ * were processed, while results of different keys may be reordered.
+ * The offset of a record is only committed after its result was forwarded.
+ * The number of records that may wait for a result is bounded per task by
+ * {@link org.apache.kafka.streams.StreamsConfig#ASYNC_MAX_IN_FLIGHT_RECORDS_CONFIG async.max.in.flight.records}.
+ * <p>
+ * The returned {@link CompletionStage} must eventually complete, as the task waits for all pending results before it
+ * is suspended or closed, and, if exactly-once is enabled, before every commit.
+ * If a result does not complete within
+ * {@link org.apache.kafka.streams.StreamsConfig#ASYNC_TIMEOUT_MS_CONFIG async.timeout.ms}, the stream thread fails with
+ * a {@link org.apache.kafka.streams.errors.StreamsException}.
+ * Use a timeout for remote calls.
+ * <p>
+ * The {@link ProcessorContext} and any state store must only be accessed in {@link #transform(Object, Object)
+ * transform()}, but not when completing the {@link CompletionStage}, as this may happen on a different thread.
+ * <p>
+ * Use {@link AsyncTransformerSupplier} to provide new instances of {@code AsyncTransformer} to Kafka Stream's runtime.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ * @param <R> {@link org.apache.kafka.streams.KeyValue KeyValue} return type (both key and value type can be set
+ *            arbitrarily)
+ * @see AsyncTransformerSupplier
+ * @see KStream#transformAsync(AsyncTransformerSupplier, String...)
+ */
+public interface AsyncTransformer<K, V, R> {
+
+    /**
+     * Initialize this transformer.
+     * This is called once per instance when the topology gets initialized.
+     *
+     * @param context the context
+     */
+    void init(final ProcessorContext context);
+
+    /**
+     * Start transforming the record with the given key and value.
+     * If the returned {@link CompletionStage} completes with {@code null}, no record is forwarded.
+     * If it completes exceptionally, the stream thread fails with a
+     * {@link org.apache.kafka.streams.errors.StreamsException StreamsException}.
+     *
+     * @param key the key for the record
+     * @param value the value for the record
+     * @return the pending new {@link org.apache.kafka.streams.KeyValue key-value pair}
+     */
+    CompletionStage<R> transform(final K key, final V value);
+
+    /**
+     * Close this transformer and clean up any resources.
+     * All pending results have been forwarded (or dropped, if the task is closed uncleanly) when this is called.
+     */
+    void close();
+}
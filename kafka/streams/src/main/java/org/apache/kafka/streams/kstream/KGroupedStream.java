@@ -330,6 +330,15 @@ public interface KGroupedStream<K, V> {
      */
     <W extends Window> TimeWindowedKStream<K, V> windowedBy(final Windows<W> windows);
 
+    /**
+     * Create a new {@link TimeWindowedKStream} instance that can be used to perform sliding windowed aggregations.
+     * In contrast to hopping {@link TimeWindows}, windows are only created on record boundaries, so every window
+     * contains a distinct set of records and existing windows are updated incrementally.
+     * @param windows the specification of the aggregation {@link SlidingWindows}
+     * @return an instance of {@link TimeWindowedKStream}
+     */
+    TimeWindowedKStream<K, V> windowedBy(final SlidingWindows windows);
+
     /**
      * Create a new {@link SessionWindowedKStream} instance that can be used to perform session windowed aggregations.
      * @param windows the specification of the aggregation {@link SessionWindows}
@@ -681,6 +681,52 @@ public interface KStream<K, V> {
     <K1, V1> KStream<K1, V1> flatTransform(final TransformerSupplier<? super K, ? super V, Iterable<KeyValue<K1, V1>>> transformerSupplier,
                                            final String... stateStoreNames);
 
+    /**
+     * Transform each record of the input stream into zero or one record in the output stream (both key and value type
+     * can be altered arbitrarily), where the result is computed asynchronously.
+     * An {@link AsyncTransformer} (provided by the given {@link AsyncTransformerSupplier}) is applied to each input
+     * record and returns a {@link java.util.concurrent.CompletionStage CompletionStage} of the result.
+     * This is useful to enrich records via an external service without blocking the stream thread on every lookup:
+     * <pre>{@code
+     * KStream<String, Order> orders = ...;
+     * KStream<String, EnrichedOrder> enriched = orders.transformAsync(() -> new AsyncTransformer<String, Order, KeyValue<String, EnrichedOrder>>() {
+     *     void init(ProcessorContext context) {}
+     *
+     *     CompletionStage<KeyValue<String, EnrichedOrder>> transform(String key, Order order) {
+     *         return customerService.lookup(order.customerId())
+     *             .thenApply(customer -> KeyValue.pair(key, new EnrichedOrder(order, customer)));
+     *     }
+     *
+     *     void close() {}
+     * });
+     * }</pre>
+     * Up to {@link org.apache.kafka.streams.StreamsConfig#ASYNC_MAX_IN_FLIGHT_RECORDS_CONFIG async.max.in.flight.records}
+     * records per task may wait for their result at the same time.
+     * Results of records with the same input key are emitted in input order; results of different keys are emitted
+     * as they complete, so downstream time-based operations may observe them out of order.
+     * Offsets are only committed up to the lowest record whose result is still pending.
+     * <p>
+     * In order to assign a state, the state must be created and registered beforehand and can only be accessed in
+     * {@link AsyncTransformer#transform(Object, Object) AsyncTransformer#transform()} itself, but not when the result
+     * completes.
+     * <p>
+     * Even if any upstream operation was key-changing, no auto-repartition is triggered.
+     * If repartitioning is required, a call to {@link #through(String) through()} should be performed before
+     * {@code transformAsync()}.
+     * <p>
+     * Transforming records might result in an internal data redistribution if a key based operator (like an aggregation
+     * or join) is applied to the result {@code KStream}.
+     *
+     * @param transformerSupplier an instance of {@link AsyncTransformerSupplier} that generates an {@link AsyncTransformer}
+     * @param stateStoreNames     the names of the state stores used by the processor
+     * @param <K1>                the key type of the new stream
+     * @param <V1>                the value type of the new stream
+     * @return a {@code KStream} that contains records with new key and value (possibly of different type)
+     * @see #transform(TransformerSupplier, String...)
+     */
+    <K1, V1> KStream<K1, V1> transformAsync(final AsyncTransformerSupplier<? super K, ? super V, KeyValue<K1, V1>> transformerSupplier,
+                                            final String... stateStoreNames);
+
     /**
      * Transform the value of each input record into a new value (with possibly a new type) of the output record.
      * A {@link ValueTransformer} (provided by the given {@link ValueTransformerSupplier}) is applied to each input
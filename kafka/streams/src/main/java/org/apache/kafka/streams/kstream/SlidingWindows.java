@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.kafka.streams.kstream;
+
+import org.apache.kafka.streams.internals.ApiUtils;
+import org.apache.kafka.streams.processor.TimestampExtractor;
+
+import java.time.Duration;
+import java.util.Objects;
+
+import static org.apache.kafka.streams.internals.ApiUtils.prepareMillisCheckFailMsgPrefix;
+
+/**
+ * A sliding window specification used for aggregating events over the most recent period of time.
+ * <p>
+ * Sliding windows are fixed-size windows whose boundaries are aligned to the record timestamps instead of the epoch.
+ * For each record with timestamp {@code t} there is a window {@code [t - timeDifference, t]} that ends with the record,
+ * and, if later records exist within {@code timeDifference}, a window {@code [t + 1, t + 1 + timeDifference]} that
+ * starts right after the record. Both window boundaries are inclusive.
+ * Hence, a window is only created when the set of records it contains changes, in contrast to hopping
+ * {@link TimeWindows} with a tiny advance that create (and store) a window per advance step.
+ * <p>
+ * For example, if we have a time difference of 5 and the following data arrives:
+ * <pre>
+ * +--------------------------------------+
+ * |    key    |    value    |    time    |
+ * +-----------+-------------+------------+
+ * |    A      |     1       |     10     |
+ * +-----------+-------------+------------+
+ * |    A      |     2       |     13     |
+ * +-----------+-------------+------------+
+ * |    A      |     3       |     20     |
+ * +-----------+-------------+------------+
+ * </pre>
+ * We'd have 4 windows for key A: {@code [5,10]} with value 1, {@code [8,13]} with values 1 and 2, {@code [11,16]}
+ * with value 2, and {@code [15,20]} with value 3.
+ * There is no window {@code [14,19]} after the second record, because it would not contain any record.
+ * <p>
+ * Records with a timestamp smaller than the time difference share the window {@code [0, timeDifference]},
+ * as windows never start before the epoch.
+ * <p>
+ * Windows are updated incrementally: a new record is added to all existing windows that contain it, and the windows
+ * that did not exist before are derived from the aggregates of neighbouring windows, without re-reading any record.
+ * <p>
+ * For time semantics, see {@link TimestampExtractor}.
+ *
+ * @see TimeWindows
+ * @see SessionWindows
+ * @see KGroupedStream#windowedBy(SlidingWindows)
+ * @see TimestampExtractor
+ */
+public final class SlidingWindows {
+
+    private final long timeDifferenceMs;
+    private final long graceMs;
+
+    private SlidingWindows(final long timeDifferenceMs, final long graceMs) {
+        this.timeDifferenceMs = timeDifferenceMs;
+        this.graceMs = graceMs;
+    }
+
+    /**
+     * Create a new sliding window specification with the specified maximum time difference between the records of
+     * a window and the grace period for out-of-order records.
+     *
+     * @param timeDifference the maximum time difference (inclusive) between records in the same window
+     * @param afterWindowEnd the grace period to admit out-of-order events to a window
+     * @return a new window specification
+     * @throws IllegalArgumentException if {@code timeDifference} is zero or negative, if {@code afterWindowEnd} is
+     *                                  negative, or if either can't be represented as {@code long milliseconds}
+     */
+    public static SlidingWindows withTimeDifferenceAndGrace(final Duration timeDifference,
+                                                            final Duration afterWindowEnd) throws IllegalArgumentException {
+        final String timeDifferenceMsgPrefix = prepareMillisCheckFailMsgPrefix(timeDifference, "timeDifference");
+        final long timeDifferenceMs = ApiUtils.validateMillisecondDuration(timeDifference, timeDifferenceMsgPrefix);
+        if (timeDifferenceMs <= 0) {
+            throw new IllegalArgumentException("Window time difference (timeDifference) must be larger than zero.");
+        }
+
+        final String afterWindowEndMsgPrefix = prepareMillisCheckFailMsgPrefix(afterWindowEnd, "afterWindowEnd");
+        final long afterWindowEndMs = ApiUtils.validateMillisecondDuration(afterWindowEnd, afterWindowEndMsgPrefix);
+        if (afterWindowEndMs < 0) {
+            throw new IllegalArgumentException("Grace period must not be negative.");
+        }
+
+        return new SlidingWindows(timeDifferenceMs, afterWindowEndMs);
+    }
+
+    /**
+     * Return the maximum time difference between records in the same window in milliseconds.
+     * This is also the size of every window.
+     *
+     * @return the time difference of the specified windows
+     */
+    public long timeDifferenceMs() {
+        return timeDifferenceMs;
+    }
+
+    /**
+     * Return the window grace period (the time to admit out-of-order events after the end of the window).
+     *
+     * @return the grace period in milliseconds
+     */
+    public long gracePeriodMs() {
+        return graceMs;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final SlidingWindows that = (SlidingWindows) o;
+        return timeDifferenceMs == that.timeDifferenceMs &&
+            graceMs == that.graceMs;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(timeDifferenceMs, graceMs);
+    }
+
+    @Override
+    public String toString() {
+        return "SlidingWindows{" +
+            "timeDifferenceMs=" + timeDifferenceMs +
+            ", graceMs=" + graceMs +
+            '}';
+    }
+}
@@ -231,6 +231,72 @@ public interface TimeWindowedKStream<K, V> {
                                            final Aggregator<? super K, ? super V, VR> aggregator,
                                            final Materialized<K, VR, WindowStore<Bytes, byte[]>> materialized);
 
+    /**
+     * Aggregate the values of records in this stream by the grouped key, storing every record in a single pane.
+     * Records with {@code null} key or value are ignored.
+     * <p>
+     * Instead of updating every window a record falls into, the record is aggregated into one non-overlapping pane,
+     * whose size is the greatest common divisor of the window size and advance.
+     * The result of a window is computed by merging the consecutive panes it is made up of with the specified
+     * {@link Merger}, which must be associative, i.e., merging {@code a} with the merge of {@code b} and {@code c}
+     * must equal merging the merge of {@code a} and {@code b} with {@code c}.
+     * For hopping windows that overlap many times, e.g., one hour windows advancing by ten seconds, this reduces the
+     * state store reads and writes per record from one per window to a single pane read, write, and range fetch.
+     * Only {@link TimeWindows} are supported.
+     * <p>
+     * The default value serde from config will be used for serializing the result.
+     * If a different serde is required then you should use
+     * {@link #aggregate(Initializer, Aggregator, Merger, Materialized)}.
+     * <p>
+     * Every update of a window is sent downstream, i.e., the cache does not deduplicate consecutive updates.
+     *
+     * @param initializer   an {@link Initializer} that computes an initial intermediate aggregation result of a pane
+     * @param aggregator    an {@link Aggregator} that computes a new aggregate result of a pane
+     * @param paneMerger    an associative {@link Merger} that combines the aggregates of two consecutive panes
+     * @param <VR>          the value type of the resulting {@link KTable}
+     * @return a {@link KTable} that contains "update" records with unmodified keys, and values that represent the
+     * latest (rolling) aggregate for each key
+     * @throws IllegalArgumentException if the windows of this stream are not {@link TimeWindows}
+     */
+    <VR> KTable<Windowed<K>, VR> aggregate(final Initializer<VR> initializer,
+                                           final Aggregator<? super K, ? super V, VR> aggregator,
+                                           final Merger<? super K, VR> paneMerger);
+
+    /**
+     * Aggregate the values of records in this stream by the grouped key, storing every record in a single pane.
+     * Records with {@code null} key or value are ignored.
+     * <p>
+     * Instead of updating every window a record falls into, the record is aggregated into one non-overlapping pane,
+     * whose size is the greatest common divisor of the window size and advance.
+     * The result of a window is computed by merging the consecutive panes it is made up of with the specified
+     * {@link Merger}, which must be associative.
+     * Only {@link TimeWindows} are supported.
+     * <p>
+     * The local {@link WindowStore} defined by the Materialized instance holds the aggregates of the panes rather
+     * than of the windows, i.e., fetching a key via Interactive Queries returns one aggregate per pane, keyed by the
+     * start time of the pane.
+     * Every update of a window is sent downstream; if caching is enabled, the cache only buffers writes to the store.
+     * <p>
+     * For failure and recovery the store will be backed by an internal changelog topic that will be created in Kafka.
+     * The changelog topic will be named "${applicationId}-${storeName}-changelog", where "applicationId" is
+     * user-specified in {@link StreamsConfig} via parameter
+     * {@link StreamsConfig#APPLICATION_ID_CONFIG APPLICATION_ID_CONFIG}, "storeName" is the
+     * provide store name defined in {@code Materialized}, and "-changelog" is a fixed suffix.
+     *
+     * @param initializer   an {@link Initializer} that computes an initial intermediate aggregation result of a pane
+     * @param aggregator    an {@link Aggregator} that computes a new aggregate result of a pane
+     * @param paneMerger    an associative {@link Merger} that combines the aggregates of two consecutive panes
+     * @param materialized  an instance of {@link Materialized} used to materialize the pane store. Cannot be {@code null}.
+     * @param <VR>          the value type of the resulting {@link KTable}
+     * @return a {@link KTable} that contains "update" records with unmodified keys, and values that represent the
+     * latest (rolling) aggregate for each key
+     * @throws IllegalArgumentException if the windows of this stream are not {@link TimeWindows}
+     */
+    <VR> KTable<Windowed<K>, VR> aggregate(final Initializer<VR> initializer,
+                                           final Aggregator<? super K, ? super V, VR> aggregator,
+                                           final Merger<? super K, VR> paneMerger,
+                                           final Materialized<K, VR, WindowStore<Bytes, byte[]>> materialized);
+
     /**
      * Combine the values of records in this stream by the grouped key.
      * Records with {@code null} key or value are ignored.
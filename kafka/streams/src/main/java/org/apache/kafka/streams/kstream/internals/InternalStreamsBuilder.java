@@ -26,6 +26,7 @@ import org.apache.kafka.streams.kstream.KStream;
 import org.apache.kafka.streams.kstream.KTable;
 import org.apache.kafka.streams.kstream.internals.graph.GlobalStoreNode;
 import org.apache.kafka.streams.kstream.internals.graph.OptimizableRepartitionNode;
+import org.apache.kafka.streams.kstream.internals.graph.ProcessorGraphNode;
 import org.apache.kafka.streams.kstream.internals.graph.ProcessorParameters;
 import org.apache.kafka.streams.kstream.internals.graph.StateStoreNode;
 import org.apache.kafka.streams.kstream.internals.graph.StreamSourceNode;
@@ -38,6 +39,7 @@ import org.apache.kafka.streams.state.StoreBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
@@ -45,6 +47,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
@@ -62,6 +65,7 @@ public class InternalStreamsBuilder implements InternalNameProvider {
 
     private final AtomicInteger buildPriorityIndex = new AtomicInteger(0);
     private final LinkedHashMap<StreamsGraphNode, LinkedHashSet<OptimizableRepartitionNode>> keyChangingOperationsToOptimizableRepartitionNodes = new LinkedHashMap<>();
+    private final LinkedHashMap<StreamsGraphNode, LinkedHashSet<OptimizableRepartitionNode>> valueChangingOperationsToOptimizableRepartitionNodes = new LinkedHashMap<>();
     private final LinkedHashSet<StreamsGraphNode> mergeNodes = new LinkedHashSet<>();
     private final LinkedHashSet<StreamsGraphNode> tableSourceNodes = new LinkedHashSet<>();
 
@@ -257,6 +261,12 @@ public class InternalStreamsBuilder implements InternalNameProvider {
             final StreamsGraphNode parentNode = getKeyChangingParentNode(node);
             if (parentNode != null) {
                 keyChangingOperationsToOptimizableRepartitionNodes.get(parentNode).add((OptimizableRepartitionNode) node);
+            } else {
+                final StreamsGraphNode valueChangingParentNode = getValueChangingParentNode(node);
+                if (valueChangingParentNode != null) {
+                    valueChangingOperationsToOptimizableRepartitionNodes.computeIfAbsent(valueChangingParentNode, k -> new LinkedHashSet<>())
+                        .add((OptimizableRepartitionNode) node);
+                }
             }
         } else if (node.isMergeNode()) {
             mergeNodes.add(node);
@@ -307,10 +317,12 @@ public class InternalStreamsBuilder implements InternalNameProvider {
 
     private void optimizeKTableSourceTopics() {
         LOG.debug("Marking KTable source nodes to optimize using source topic for changelogs ");
-        tableSourceNodes.forEach(node -> ((TableSourceNode) node).reuseSourceTopicForChangeLog(true));
+        for (final StreamsGraphNode node : tableSourceNodes) {
+            ((TableSourceNode) node).reuseSourceTopicForChangeLog(true);
+            internalTopologyBuilder.addAppliedOptimization("Reused source topic as changelog for " + node.nodeName());
+        }
     }
 
-    @SuppressWarnings("unchecked")
     private void maybeOptimizeRepartitionOperations() {
         maybeUpdateKeyChangingRepartitionNodeMap();
         final Iterator<Entry<StreamsGraphNode, LinkedHashSet<OptimizableRepartitionNode>>> entryIterator =  keyChangingOperationsToOptimizableRepartitionNodes.entrySet().iterator();
@@ -318,62 +330,116 @@ public class InternalStreamsBuilder implements InternalNameProvider {
         while (entryIterator.hasNext()) {
             final Map.Entry<StreamsGraphNode, LinkedHashSet<OptimizableRepartitionNode>> entry = entryIterator.next();
 
-            final StreamsGraphNode keyChangingNode = entry.getKey();
-
             if (entry.getValue().isEmpty()) {
                 continue;
             }
 
-            final GroupedInternal groupedInternal = new GroupedInternal(getRepartitionSerdes(entry.getValue()));
+            mergeRepartitionNodes(entry.getKey(), entry.getValue());
+            entryIterator.remove();
+        }
+
+        // repartition topics downstream of the same value-changing operation contain the same records,
+        // but a single one is already placed as early as possible, so only merge two or more
+        final Iterator<Entry<StreamsGraphNode, LinkedHashSet<OptimizableRepartitionNode>>> valueChangingEntryIterator =  valueChangingOperationsToOptimizableRepartitionNodes.entrySet().iterator();
+
+        while (valueChangingEntryIterator.hasNext()) {
+            final Map.Entry<StreamsGraphNode, LinkedHashSet<OptimizableRepartitionNode>> entry = valueChangingEntryIterator.next();
+
+            if (entry.getValue().size() > 1) {
+                mergeRepartitionNodes(entry.getKey(), entry.getValue());
+            }
+            valueChangingEntryIterator.remove();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void mergeRepartitionNodes(final StreamsGraphNode changingNode,
+                                       final Collection<OptimizableRepartitionNode> repartitionNodes) {
+        final List<String> filterNodeNames = new ArrayList<>();
+        final StreamsGraphNode repartitionParentNode = findLastCommonFilterNode(changingNode, filterNodeNames);
 
-            final String repartitionTopicName = getFirstRepartitionTopicName(entry.getValue());
-            //passing in the name of the first repartition topic, re-used to create the optimized repartition topic
-            final StreamsGraphNode optimizedSingleRepartition = createRepartitionNode(repartitionTopicName,
-                                                                                      groupedInternal.keySerde(),
-                                                                                      groupedInternal.valueSerde());
+        final GroupedInternal groupedInternal = new GroupedInternal(getRepartitionSerdes(repartitionNodes));
 
-            // re-use parent buildPriority to make sure the single repartition graph node is evaluated before downstream nodes
-            optimizedSingleRepartition.setBuildPriority(keyChangingNode.buildPriority());
+        final String repartitionTopicName = getFirstRepartitionTopicName(repartitionNodes);
+        //passing in the name of the first repartition topic, re-used to create the optimized repartition topic
+        final StreamsGraphNode optimizedSingleRepartition = createRepartitionNode(repartitionTopicName,
+                                                                                  groupedInternal.keySerde(),
+                                                                                  groupedInternal.valueSerde());
 
-            for (final OptimizableRepartitionNode repartitionNodeToBeReplaced : entry.getValue()) {
+        // re-use parent buildPriority to make sure the single repartition graph node is evaluated before downstream nodes
+        optimizedSingleRepartition.setBuildPriority(repartitionParentNode.buildPriority());
 
-                final StreamsGraphNode keyChangingNodeChild = findParentNodeMatching(repartitionNodeToBeReplaced, gn -> gn.parentNodes().contains(keyChangingNode));
+        final Set<String> mergedRepartitionTopicNames = new LinkedHashSet<>();
+        for (final OptimizableRepartitionNode repartitionNodeToBeReplaced : repartitionNodes) {
+            mergedRepartitionTopicNames.add(repartitionNodeToBeReplaced.repartitionTopic());
 
-                if (keyChangingNodeChild == null) {
-                    throw new StreamsException(String.format("Found a null keyChangingChild node for %s", repartitionNodeToBeReplaced));
-                }
+            final StreamsGraphNode changingNodeChild = findParentNodeMatching(repartitionNodeToBeReplaced, gn -> gn.parentNodes().contains(repartitionParentNode));
 
-                LOG.debug("Found the child node of the key changer {} from the repartition {}.", keyChangingNodeChild, repartitionNodeToBeReplaced);
+            if (changingNodeChild == null) {
+                throw new StreamsException(String.format("Found a null keyChangingChild node for %s", repartitionNodeToBeReplaced));
+            }
 
-                // need to add children of key-changing node as children of optimized repartition
-                // in order to process records from re-partitioning
-                optimizedSingleRepartition.addChild(keyChangingNodeChild);
+            LOG.debug("Found the child node of the key or value changer {} from the repartition {}.", changingNodeChild, repartitionNodeToBeReplaced);
 
-                LOG.debug("Removing {} from {}  children {}", keyChangingNodeChild, keyChangingNode, keyChangingNode.children());
-                // now remove children from key-changing node
-                keyChangingNode.removeChild(keyChangingNodeChild);
+            // need to add children of key-changing node as children of optimized repartition
+            // in order to process records from re-partitioning
+            optimizedSingleRepartition.addChild(changingNodeChild);
 
-                // now need to get children of repartition node so we can remove repartition node
-                final Collection<StreamsGraphNode> repartitionNodeToBeReplacedChildren = repartitionNodeToBeReplaced.children();
-                final Collection<StreamsGraphNode> parentsOfRepartitionNodeToBeReplaced = repartitionNodeToBeReplaced.parentNodes();
+            LOG.debug("Removing {} from {}  children {}", changingNodeChild, repartitionParentNode, repartitionParentNode.children());
+            // now remove children from key-changing node
+            repartitionParentNode.removeChild(changingNodeChild);
 
-                for (final StreamsGraphNode repartitionNodeToBeReplacedChild : repartitionNodeToBeReplacedChildren) {
-                    for (final StreamsGraphNode parentNode : parentsOfRepartitionNodeToBeReplaced) {
-                        parentNode.addChild(repartitionNodeToBeReplacedChild);
-                    }
-                }
+            // now need to get children of repartition node so we can remove repartition node
+            final Collection<StreamsGraphNode> repartitionNodeToBeReplacedChildren = repartitionNodeToBeReplaced.children();
+            final Collection<StreamsGraphNode> parentsOfRepartitionNodeToBeReplaced = repartitionNodeToBeReplaced.parentNodes();
 
+            for (final StreamsGraphNode repartitionNodeToBeReplacedChild : repartitionNodeToBeReplacedChildren) {
                 for (final StreamsGraphNode parentNode : parentsOfRepartitionNodeToBeReplaced) {
-                    parentNode.removeChild(repartitionNodeToBeReplaced);
+                    parentNode.addChild(repartitionNodeToBeReplacedChild);
                 }
-                repartitionNodeToBeReplaced.clearChildren();
+            }
 
-                LOG.debug("Updated node {} children {}", optimizedSingleRepartition, optimizedSingleRepartition.children());
+            for (final StreamsGraphNode parentNode : parentsOfRepartitionNodeToBeReplaced) {
+                parentNode.removeChild(repartitionNodeToBeReplaced);
             }
+            repartitionNodeToBeReplaced.clearChildren();
 
-            keyChangingNode.addChild(optimizedSingleRepartition);
-            entryIterator.remove();
+            LOG.debug("Updated node {} children {}", optimizedSingleRepartition, optimizedSingleRepartition.children());
+        }
+
+        repartitionParentNode.addChild(optimizedSingleRepartition);
+
+        if (repartitionNodes.size() > 1) {
+            internalTopologyBuilder.addAppliedOptimization("Merged repartition topics " + mergedRepartitionTopicNames + " into " + repartitionTopicName);
+        }
+        if (!filterNodeNames.isEmpty()) {
+            internalTopologyBuilder.addAppliedOptimization("Placed repartition topic " + repartitionTopicName + " after filters " + filterNodeNames);
+        }
+    }
+
+    /**
+     * Filters that all records of the given node pass through can stay in front of the repartition topic,
+     * so that filtered out records are not written to it.
+     *
+     * @return the last filter node of the chain starting at the given node, or the node itself if it is not followed by a filter
+     */
+    private StreamsGraphNode findLastCommonFilterNode(final StreamsGraphNode node,
+                                                      final List<String> filterNodeNames) {
+        StreamsGraphNode lastFilterNode = node;
+        while (lastFilterNode.children().size() == 1) {
+            final StreamsGraphNode childNode = lastFilterNode.children().iterator().next();
+            if (!isStreamFilterNode(childNode)) {
+                break;
+            }
+            filterNodeNames.add(childNode.nodeName());
+            lastFilterNode = childNode;
         }
+        return lastFilterNode;
+    }
+
+    private static boolean isStreamFilterNode(final StreamsGraphNode node) {
+        return node instanceof ProcessorGraphNode
+            && ((ProcessorGraphNode) node).processorParameters().processorSupplier() instanceof KStreamFilter;
     }
 
     private void maybeUpdateKeyChangingRepartitionNodeMap() {
@@ -433,6 +499,24 @@ public class InternalStreamsBuilder implements InternalNameProvider {
         return null;
     }
 
+    /**
+     * @return the closest value-changing node upstream of the repartition node, if every record of the repartition
+     *         node comes from it; null if a key-changing node or a merge node lies in between
+     */
+    private StreamsGraphNode getValueChangingParentNode(final StreamsGraphNode repartitionNode) {
+        StreamsGraphNode node = repartitionNode;
+        while (node.parentNodes().size() == 1) {
+            node = node.parentNodes().iterator().next();
+            if (node.isKeyChangingOperation()) {
+                return null;
+            }
+            if (node.isValueChangingOperation()) {
+                return node;
+            }
+        }
+        return null;
+    }
+
     private String getFirstRepartitionTopicName(final Collection<OptimizableRepartitionNode> repartitionNodes) {
         return repartitionNodes.iterator().next().repartitionTopic();
     }
@@ -20,6 +20,7 @@ import org.apache.kafka.streams.processor.AbstractProcessor;
 import org.apache.kafka.streams.processor.Processor;
 import org.apache.kafka.streams.kstream.Predicate;
 import org.apache.kafka.streams.processor.ProcessorSupplier;
+import org.apache.kafka.streams.processor.internals.StatelessProcessor;
 
 class KStreamFilter<K, V> implements ProcessorSupplier<K, V> {
 
@@ -36,7 +37,7 @@ class KStreamFilter<K, V> implements ProcessorSupplier<K, V> {
         return new KStreamFilterProcessor();
     }
 
-    private class KStreamFilterProcessor extends AbstractProcessor<K, V> {
+    private class KStreamFilterProcessor extends AbstractProcessor<K, V> implements StatelessProcessor {
         @Override
         public void process(final K key, final V value) {
             if (filterNot ^ predicate.test(key, value)) {
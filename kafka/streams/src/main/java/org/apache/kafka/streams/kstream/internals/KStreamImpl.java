@@ -18,6 +18,7 @@ package org.apache.kafka.streams.kstream.internals;
 
 import org.apache.kafka.common.serialization.Serde;
 import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.kstream.AsyncTransformerSupplier;
 import org.apache.kafka.streams.kstream.ForeachAction;
 import org.apache.kafka.streams.kstream.GlobalKTable;
 import org.apache.kafka.streams.kstream.Grouped;
@@ -109,6 +110,8 @@ public class KStreamImpl<K, V> extends AbstractStream<K, V> implements KStream<K
 
     private static final String TRANSFORMVALUES_NAME = "KSTREAM-TRANSFORMVALUES-";
 
+    private static final String TRANSFORMASYNC_NAME = "KSTREAM-TRANSFORMASYNC-";
+
     private static final String WINDOWED_NAME = "KSTREAM-WINDOWED-";
 
     private static final String FOREACH_NAME = "KSTREAM-FOREACH-";
@@ -489,6 +492,24 @@ public class KStreamImpl<K, V> extends AbstractStream<K, V> implements KStream<K
         return doFlatTransform(transformerSupplier, stateStoreNames);
     }
 
+    @Override
+    public <K1, V1> KStream<K1, V1> transformAsync(final AsyncTransformerSupplier<? super K, ? super V, KeyValue<K1, V1>> transformerSupplier,
+                                                   final String... stateStoreNames) {
+        Objects.requireNonNull(transformerSupplier, "transformerSupplier can't be null");
+        final String name = builder.newProcessorName(TRANSFORMASYNC_NAME);
+        final StatefulProcessorNode<? super K, ? super V> transformNode = new StatefulProcessorNode<>(
+            name,
+            new ProcessorParameters<>(new KStreamTransformAsync<>(transformerSupplier), name),
+            stateStoreNames
+        );
+
+        transformNode.keyChangingOperation(true);
+        builder.addGraphNode(this.streamsGraphNode, transformNode);
+
+        // cannot inherit key and value serde
+        return new KStreamImpl<>(name, null, null, sourceNodes, true, transformNode, builder);
+    }
+
     @Override
     public <VR> KStream<K, VR> transformValues(final ValueTransformerSupplier<? super V, ? extends VR> valueTransformerSupplier,
                                                final String... stateStoreNames) {
@@ -21,6 +21,7 @@ import org.apache.kafka.streams.processor.Processor;
 import org.apache.kafka.streams.KeyValue;
 import org.apache.kafka.streams.kstream.KeyValueMapper;
 import org.apache.kafka.streams.processor.ProcessorSupplier;
+import org.apache.kafka.streams.processor.internals.StatelessProcessor;
 
 class KStreamMap<K, V, K1, V1> implements ProcessorSupplier<K, V> {
 
@@ -35,7 +36,7 @@ class KStreamMap<K, V, K1, V1> implements ProcessorSupplier<K, V> {
         return new KStreamMapProcessor();
     }
 
-    private class KStreamMapProcessor extends AbstractProcessor<K, V> {
+    private class KStreamMapProcessor extends AbstractProcessor<K, V> implements StatelessProcessor {
         @Override
         public void process(final K key, final V value) {
             final KeyValue<? extends K1, ? extends V1> newPair = mapper.apply(key, value);
@@ -20,6 +20,7 @@ import org.apache.kafka.streams.kstream.ValueMapperWithKey;
 import org.apache.kafka.streams.processor.AbstractProcessor;
 import org.apache.kafka.streams.processor.Processor;
 import org.apache.kafka.streams.processor.ProcessorSupplier;
+import org.apache.kafka.streams.processor.internals.StatelessProcessor;
 
 class KStreamMapValues<K, V, V1> implements ProcessorSupplier<K, V> {
 
@@ -34,7 +35,7 @@ class KStreamMapValues<K, V, V1> implements ProcessorSupplier<K, V> {
         return new KStreamMapProcessor();
     }
 
-    private class KStreamMapProcessor extends AbstractProcessor<K, V> {
+    private class KStreamMapProcessor extends AbstractProcessor<K, V> implements StatelessProcessor {
         @Override
         public void process(final K readOnlyKey, final V value) {
             final V1 newValue = mapper.apply(readOnlyKey, value);
@@ -0,0 +1,311 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.kafka.streams.kstream.internals;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.metrics.Sensor;
+import org.apache.kafka.streams.kstream.Aggregator;
+import org.apache.kafka.streams.kstream.Initializer;
+import org.apache.kafka.streams.kstream.Merger;
+import org.apache.kafka.streams.kstream.TimeWindows;
+import org.apache.kafka.streams.kstream.Windowed;
+import org.apache.kafka.streams.kstream.internals.metrics.Sensors;
+import org.apache.kafka.streams.processor.AbstractProcessor;
+import org.apache.kafka.streams.processor.Processor;
+import org.apache.kafka.streams.processor.ProcessorContext;
+import org.apache.kafka.streams.processor.To;
+import org.apache.kafka.streams.processor.internals.InternalProcessorContext;
+import org.apache.kafka.streams.processor.internals.metrics.StreamsMetricsImpl;
+import org.apache.kafka.streams.state.TimestampedWindowStore;
+import org.apache.kafka.streams.state.ValueAndTimestamp;
+import org.apache.kafka.streams.state.WindowStoreIterator;
+import org.apache.kafka.streams.KeyValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.apache.kafka.streams.state.ValueAndTimestamp.getValueOrNull;
+
+/**
+ * A hopping window aggregation which stores every record in exactly one pane instead of in every window it falls into.
+ * Panes are non-overlapping windows whose size is the greatest common divisor of the window size and advance, so
+ * that every window is made up of a fixed number of consecutive panes. Window results are assembled from the panes
+ * with the pane {@link Merger}, which must be associative.
+ * <p>
+ * Per record, the processor reads and writes a single pane and fetches the panes of all affected windows with one
+ * range query, rather than reading and writing every overlapping window. The results of all affected windows are then
+ * computed with a linear number of merges, using per-block prefix and suffix aggregates of the panes.
+ */
+public class KStreamPaneWindowAggregate<K, V, Agg> implements KStreamAggProcessorSupplier<K, Windowed<K>, V, Agg> {
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final String storeName;
+    private final TimeWindows windows;
+    private final long paneSize;
+    private final Initializer<Agg> initializer;
+    private final Aggregator<? super K, ? super V, Agg> aggregator;
+    private final Merger<? super K, Agg> merger;
+
+    private boolean sendOldValues = false;
+
+    public KStreamPaneWindowAggregate(final TimeWindows windows,
+                                      final String storeName,
+                                      final Initializer<Agg> initializer,
+                                      final Aggregator<? super K, ? super V, Agg> aggregator,
+                                      final Merger<? super K, Agg> merger) {
+        this.windows = windows;
+        this.paneSize = paneSize(windows);
+        this.storeName = storeName;
+        this.initializer = initializer;
+        this.aggregator = aggregator;
+        this.merger = merger;
+    }
+
+    /**
+     * Returns the size of the panes of the given windows, i.e., the greatest common divisor of window size and advance.
+     */
+    public static long paneSize(final TimeWindows windows) {
+        long a = windows.sizeMs;
+        long b = windows.advanceMs;
+        while (b != 0) {
+            final long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
+    @Override
+    public Processor<K, V> get() {
+        return new KStreamPaneWindowAggregateProcessor();
+    }
+
+    public TimeWindows windows() {
+        return windows;
+    }
+
+    @Override
+    public void enableSendingOldValues() {
+        sendOldValues = true;
+    }
+
+    private ValueAndTimestamp<Agg> merge(final K key, final ValueAndTimestamp<Agg> one, final ValueAndTimestamp<Agg> two) {
+        if (one == null) {
+            return two;
+        }
+        if (two == null) {
+            return one;
+        }
+        return ValueAndTimestamp.make(
+            merger.apply(key, one.value(), two.value()),
+            Math.max(one.timestamp(), two.timestamp()));
+    }
+
+    /**
+     * Merges every {@code windowPanes} consecutive panes starting at multiples of {@code stride}, where
+     * {@code panes.size()} is a multiple of {@code stride} plus {@code windowPanes}. Panes are split into blocks of
+     * {@code windowPanes}, so that every window is the suffix of one block merged with the prefix of the next.
+     */
+    private List<ValueAndTimestamp<Agg>> mergeWindows(final K key,
+                                                      final List<ValueAndTimestamp<Agg>> panes,
+                                                      final int windowPanes,
+                                                      final int stride) {
+        final int numPanes = panes.size();
+        final List<ValueAndTimestamp<Agg>> prefix = new ArrayList<>(numPanes);
+        for (int i = 0; i < numPanes; i++) {
+            prefix.add(i % windowPanes == 0 ? panes.get(i) : merge(key, prefix.get(i - 1), panes.get(i)));
+        }
+        final List<ValueAndTimestamp<Agg>> suffix = new ArrayList<>(panes);
+        for (int i = numPanes - 2; i >= 0; i--) {
+            if ((i + 1) % windowPanes != 0) {
+                suffix.set(i, merge(key, panes.get(i), suffix.get(i + 1)));
+            }
+        }
+        final List<ValueAndTimestamp<Agg>> results = new ArrayList<>();
+        for (int start = 0; start + windowPanes <= numPanes; start += stride) {
+            final int end = start + windowPanes - 1;
+            results.add(start % windowPanes == 0 ? suffix.get(start) : merge(key, suffix.get(start), prefix.get(end)));
+        }
+        return results;
+    }
+
+    private class KStreamPaneWindowAggregateProcessor extends AbstractProcessor<K, V> {
+        private TimestampedWindowStore<K, Agg> windowStore;
+        private StreamsMetricsImpl metrics;
+        private InternalProcessorContext internalProcessorContext;
+        private Sensor lateRecordDropSensor;
+        private long observedStreamTime = ConsumerRecord.NO_TIMESTAMP;
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public void init(final ProcessorContext context) {
+            super.init(context);
+            internalProcessorContext = (InternalProcessorContext) context;
+            metrics = (StreamsMetricsImpl) context.metrics();
+            lateRecordDropSensor = Sensors.lateRecordDropSensor(internalProcessorContext);
+            windowStore = (TimestampedWindowStore<K, Agg>) context.getStateStore(storeName);
+            // the store holds panes rather than windows, so results are always forwarded directly and
+            // a caching store is only used to buffer writes
+        }
+
+        @Override
+        public void process(final K key, final V value) {
+            if (key == null) {
+                log.warn(
+                    "Skipping record due to null key. value=[{}] topic=[{}] partition=[{}] offset=[{}]",
+                    value, context().topic(), context().partition(), context().offset()
+                );
+                metrics.skippedRecordsSensor().record();
+                return;
+            }
+
+            final long timestamp = context().timestamp();
+            observedStreamTime = Math.max(observedStreamTime, timestamp);
+            final long closeTime = observedStreamTime - windows.gracePeriodMs();
+
+            // the matching windows are ordered by start time, so the open ones are a suffix of them
+            final List<TimeWindow> openWindows = new ArrayList<>();
+            for (final Map.Entry<Long, TimeWindow> entry : windows.windowsFor(timestamp).entrySet()) {
+                final long windowStart = entry.getKey();
+                final long windowEnd = entry.getValue().end();
+                if (windowEnd > closeTime) {
+                    openWindows.add(entry.getValue());
+                } else {
+                    log.debug(
+                        "Skipping record for expired window. " +
+                            "key=[{}] " +
+                            "topic=[{}] " +
+                            "partition=[{}] " +
+                            "offset=[{}] " +
+                            "timestamp=[{}] " +
+                            "window=[{},{}) " +
+                            "expiration=[{}] " +
+                            "streamTime=[{}]",
+                        key,
+                        context().topic(),
+                        context().partition(),
+                        context().offset(),
+                        context().timestamp(),
+                        windowStart, windowEnd,
+                        closeTime,
+                        observedStreamTime
+                    );
+                    lateRecordDropSensor.record();
+                }
+            }
+            if (openWindows.isEmpty()) {
+                return;
+            }
+
+            // update the single pane the record belongs to
+            final long paneStart = timestamp - timestamp % paneSize;
+            final ValueAndTimestamp<Agg> oldPane = windowStore.fetch(key, paneStart);
+            final Agg oldPaneAgg = getValueOrNull(oldPane);
+            final Agg newPaneAgg = aggregator.apply(key, value, oldPaneAgg == null ? initializer.apply() : oldPaneAgg);
+            final long newPaneTimestamp = oldPane == null ? timestamp : Math.max(timestamp, oldPane.timestamp());
+            final ValueAndTimestamp<Agg> newPane = ValueAndTimestamp.make(newPaneAgg, newPaneTimestamp);
+            windowStore.put(key, newPane, paneStart);
+
+            // assemble the open windows from their panes
+            final long firstStart = openWindows.get(0).start();
+            final long lastEnd = openWindows.get(openWindows.size() - 1).end();
+            final List<ValueAndTimestamp<Agg>> panes = fetchPanes(windowStore, key, firstStart, lastEnd);
+            final int updatedPane = (int) ((paneStart - firstStart) / paneSize);
+            panes.set(updatedPane, newPane);
+            final int windowPanes = (int) (windows.sizeMs / paneSize);
+            final int stride = (int) (windows.advanceMs / paneSize);
+            final List<ValueAndTimestamp<Agg>> newWindows = mergeWindows(key, panes, windowPanes, stride);
+            List<ValueAndTimestamp<Agg>> oldWindows = null;
+            if (sendOldValues) {
+                panes.set(updatedPane, oldPane);
+                oldWindows = mergeWindows(key, panes, windowPanes, stride);
+            }
+
+            for (int i = 0; i < openWindows.size(); i++) {
+                final ValueAndTimestamp<Agg> newWindow = newWindows.get(i);
+                final Agg oldAgg = sendOldValues ? getValueOrNull(oldWindows.get(i)) : null;
+                context().forward(
+                    new Windowed<>(key, openWindows.get(i)),
+                    new Change<>(newWindow.value(), sendOldValues && oldAgg == null ? initializer.apply() : oldAgg),
+                    To.all().withTimestamp(newWindow.timestamp()));
+            }
+        }
+    }
+
+    /**
+     * Returns one entry per pane in {@code [windowStart, windowEnd)}, which is {@code null} for empty panes.
+     */
+    private List<ValueAndTimestamp<Agg>> fetchPanes(final TimestampedWindowStore<K, Agg> windowStore,
+                                                    final K key,
+                                                    final long windowStart,
+                                                    final long windowEnd) {
+        final int numPanes = (int) ((windowEnd - windowStart) / paneSize);
+        final List<ValueAndTimestamp<Agg>> panes = new ArrayList<>(numPanes);
+        for (int i = 0; i < numPanes; i++) {
+            panes.add(null);
+        }
+        try (final WindowStoreIterator<ValueAndTimestamp<Agg>> iterator = windowStore.fetch(key, windowStart, windowEnd - 1)) {
+            while (iterator.hasNext()) {
+                final KeyValue<Long, ValueAndTimestamp<Agg>> pane = iterator.next();
+                panes.set((int) ((pane.key - windowStart) / paneSize), pane.value);
+            }
+        }
+        return panes;
+    }
+
+    @Override
+    public KTableValueGetterSupplier<Windowed<K>, Agg> view() {
+        return new KTableValueGetterSupplier<Windowed<K>, Agg>() {
+
+            public KTableValueGetter<Windowed<K>, Agg> get() {
+                return new KStreamPaneWindowAggregateValueGetter();
+            }
+
+            @Override
+            public String[] storeNames() {
+                return new String[] {storeName};
+            }
+        };
+    }
+
+
+    private class KStreamPaneWindowAggregateValueGetter implements KTableValueGetter<Windowed<K>, Agg> {
+        private TimestampedWindowStore<K, Agg> windowStore;
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public void init(final ProcessorContext context) {
+            windowStore = (TimestampedWindowStore<K, Agg>) context.getStateStore(storeName);
+        }
+
+        @Override
+        public ValueAndTimestamp<Agg> get(final Windowed<K> windowedKey) {
+            final K key = windowedKey.key();
+            ValueAndTimestamp<Agg> result = null;
+            for (final ValueAndTimestamp<Agg> pane : fetchPanes(windowStore, key, windowedKey.window().start(), windowedKey.window().end())) {
+                result = merge(key, result, pane);
+            }
+            return result;
+        }
+
+        @Override
+        public void close() {}
+    }
+}
@@ -0,0 +1,290 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.kafka.streams.kstream.internals;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.metrics.Sensor;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.kstream.Aggregator;
+import org.apache.kafka.streams.kstream.Initializer;
+import org.apache.kafka.streams.kstream.SlidingWindows;
+import org.apache.kafka.streams.kstream.Windowed;
+import org.apache.kafka.streams.kstream.internals.metrics.Sensors;
+import org.apache.kafka.streams.processor.AbstractProcessor;
+import org.apache.kafka.streams.processor.Processor;
+import org.apache.kafka.streams.processor.ProcessorContext;
+import org.apache.kafka.streams.processor.internals.InternalProcessorContext;
+import org.apache.kafka.streams.processor.internals.metrics.StreamsMetricsImpl;
+import org.apache.kafka.streams.state.TimestampedWindowStore;
+import org.apache.kafka.streams.state.ValueAndTimestamp;
+import org.apache.kafka.streams.state.WindowStoreIterator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.apache.kafka.streams.state.ValueAndTimestamp.getValueOrNull;
+
+/**
+ * Aggregates records into {@link SlidingWindows}.
+ * <p>
+ * The window store is keyed by window start and every stored window {@code [start, start + timeDifference]} contains
+ * at least one record; the timestamp of a stored aggregate is the maximum timestamp of the records in the window.
+ * A record with timestamp {@code t} is added to all stored windows that contain {@code t}. Afterwards, the windows
+ * that did not exist before are created:
+ * <ul>
+ *   <li>the window ending at {@code t}: it holds the records of the window with the largest start before
+ *       {@code t - timeDifference} if that window reaches into {@code [t - timeDifference, t)}, or nothing else</li>
+ *   <li>the window starting right after the previous record: it holds nothing but the new record</li>
+ *   <li>the window starting right after {@code t}, for out-of-order records: it holds the records of the window with
+ *       the largest start that contains {@code t} (before adding the new record), if that window has later records</li>
+ * </ul>
+ * All windows involved start within {@code [t - 2 * timeDifference, t + 1]}, so a single range fetch is enough.
+ * Records before {@code timeDifference} share the window {@code [0, timeDifference]}, as windows never start before
+ * the epoch.
+ */
+public class KStreamSlidingWindowAggregate<K, V, Agg> implements KStreamAggProcessorSupplier<K, Windowed<K>, V, Agg> {
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final String storeName;
+    private final SlidingWindows windows;
+    private final Initializer<Agg> initializer;
+    private final Aggregator<? super K, ? super V, Agg> aggregator;
+
+    private boolean sendOldValues = false;
+
+    public KStreamSlidingWindowAggregate(final SlidingWindows windows,
+                                         final String storeName,
+                                         final Initializer<Agg> initializer,
+                                         final Aggregator<? super K, ? super V, Agg> aggregator) {
+        this.windows = windows;
+        this.storeName = storeName;
+        this.initializer = initializer;
+        this.aggregator = aggregator;
+    }
+
+    @Override
+    public Processor<K, V> get() {
+        return new KStreamSlidingWindowAggregateProcessor();
+    }
+
+    public SlidingWindows windows() {
+        return windows;
+    }
+
+    @Override
+    public void enableSendingOldValues() {
+        sendOldValues = true;
+    }
+
+
+    private class KStreamSlidingWindowAggregateProcessor extends AbstractProcessor<K, V> {
+        private TimestampedWindowStore<K, Agg> windowStore;
+        private TimestampedTupleForwarder<Windowed<K>, Agg> tupleForwarder;
+        private StreamsMetricsImpl metrics;
+        private InternalProcessorContext internalProcessorContext;
+        private Sensor lateRecordDropSensor;
+        private long observedStreamTime = ConsumerRecord.NO_TIMESTAMP;
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public void init(final ProcessorContext context) {
+            super.init(context);
+            internalProcessorContext = (InternalProcessorContext) context;
+            metrics = (StreamsMetricsImpl) context.metrics();
+            lateRecordDropSensor = Sensors.lateRecordDropSensor(internalProcessorContext);
+            windowStore = (TimestampedWindowStore<K, Agg>) context.getStateStore(storeName);
+            tupleForwarder = new TimestampedTupleForwarder<>(
+                windowStore,
+                context,
+                new TimestampedCacheFlushListener<>(context),
+                sendOldValues);
+        }
+
+        @Override
+        public void process(final K key, final V value) {
+            if (key == null) {
+                log.warn(
+                    "Skipping record due to null key. value=[{}] topic=[{}] partition=[{}] offset=[{}]",
+                    value, context().topic(), context().partition(), context().offset()
+                );
+                metrics.skippedRecordsSensor().record();
+                return;
+            }
+
+            final long timestamp = context().timestamp();
+            observedStreamTime = Math.max(observedStreamTime, timestamp);
+            final long closeTime = observedStreamTime - windows.gracePeriodMs();
+            final long timeDifference = windows.timeDifferenceMs();
+
+            // the latest window containing the record starts at the record and ends timeDifference later
+            if (timestamp + timeDifference <= closeTime) {
+                log.debug(
+                    "Skipping record for expired windows. " +
+                        "key=[{}] " +
+                        "topic=[{}] " +
+                        "partition=[{}] " +
+                        "offset=[{}] " +
+                        "timestamp=[{}] " +
+                        "expiration=[{}] " +
+                        "streamTime=[{}]",
+                    key,
+                    context().topic(),
+                    context().partition(),
+                    context().offset(),
+                    timestamp,
+                    closeTime,
+                    observedStreamTime
+                );
+                lateRecordDropSensor.record();
+                return;
+            }
+
+            final long leftWindowStart = Math.max(0L, timestamp - timeDifference);
+            final List<KeyValue<Long, ValueAndTimestamp<Agg>>> existingWindows = new ArrayList<>();
+            try (final WindowStoreIterator<ValueAndTimestamp<Agg>> iterator =
+                     windowStore.fetch(key, Math.max(0L, timestamp - 2 * timeDifference), timestamp + 1)) {
+                while (iterator.hasNext()) {
+                    existingWindows.add(iterator.next());
+                }
+            }
+
+            final Set<Long> windowStartTimes = new HashSet<>();
+            ValueAndTimestamp<Agg> leftWindowBase = null;
+            ValueAndTimestamp<Agg> rightWindowBase = null;
+            long previousRecordTimestamp = ConsumerRecord.NO_TIMESTAMP;
+
+            for (final KeyValue<Long, ValueAndTimestamp<Agg>> existingWindow : existingWindows) {
+                final long windowStart = existingWindow.key;
+                final ValueAndTimestamp<Agg> windowValue = existingWindow.value;
+                windowStartTimes.add(windowStart);
+
+                if (windowValue.timestamp() < timestamp) {
+                    previousRecordTimestamp = Math.max(previousRecordTimestamp, windowValue.timestamp());
+                }
+
+                if (windowStart < leftWindowStart) {
+                    // windows are returned in start order, so this ends up as the latest one
+                    leftWindowBase = windowValue;
+                } else if (windowStart <= timestamp) {
+                    if (windowStart + timeDifference > timestamp) {
+                        rightWindowBase = windowValue;
+                    }
+                    updateWindowAndForward(key, value, windowStart, windowValue, closeTime);
+                }
+            }
+
+            // the right window of the previous record did not contain any record yet
+            if (previousRecordTimestamp != ConsumerRecord.NO_TIMESTAMP
+                && previousRecordTimestamp >= timestamp - timeDifference
+                && !windowStartTimes.contains(previousRecordTimestamp + 1)) {
+                updateWindowAndForward(key, value, previousRecordTimestamp + 1, null, closeTime);
+            }
+
+            if (!windowStartTimes.contains(leftWindowStart)) {
+                if (leftWindowBase != null && leftWindowBase.timestamp() >= timestamp - timeDifference) {
+                    updateWindowAndForward(key, value, leftWindowStart, leftWindowBase, closeTime);
+                } else {
+                    updateWindowAndForward(key, value, leftWindowStart, null, closeTime);
+                }
+            }
+
+            // only out-of-order records have later records that belong into their right window
+            if (!windowStartTimes.contains(timestamp + 1)
+                && rightWindowBase != null
+                && rightWindowBase.timestamp() > timestamp) {
+                final long rightWindowStart = timestamp + 1;
+                final long rightWindowEnd = rightWindowStart + timeDifference;
+                if (rightWindowEnd > closeTime) {
+                    windowStore.put(key, rightWindowBase, rightWindowStart);
+                    tupleForwarder.maybeForward(
+                        new Windowed<>(key, new TimeWindow(rightWindowStart, rightWindowEnd)),
+                        rightWindowBase.value(),
+                        null,
+                        rightWindowBase.timestamp());
+                }
+            }
+        }
+
+        private void updateWindowAndForward(final K key,
+                                            final V value,
+                                            final long windowStart,
+                                            final ValueAndTimestamp<Agg> oldAggAndTimestamp,
+                                            final long closeTime) {
+            final long windowEnd = windowStart + windows.timeDifferenceMs();
+            if (windowEnd <= closeTime) {
+                // the record is still in open windows, so it is not counted as dropped
+                return;
+            }
+
+            Agg oldAgg = getValueOrNull(oldAggAndTimestamp);
+            final long newTimestamp;
+            if (oldAgg == null) {
+                oldAgg = initializer.apply();
+                newTimestamp = context().timestamp();
+            } else {
+                newTimestamp = Math.max(context().timestamp(), oldAggAndTimestamp.timestamp());
+            }
+
+            final Agg newAgg = aggregator.apply(key, value, oldAgg);
+
+            windowStore.put(key, ValueAndTimestamp.make(newAgg, newTimestamp), windowStart);
+            tupleForwarder.maybeForward(
+                new Windowed<>(key, new TimeWindow(windowStart, windowEnd)),
+                newAgg,
+                sendOldValues ? oldAgg : null,
+                newTimestamp);
+        }
+    }
+
+    @Override
+    public KTableValueGetterSupplier<Windowed<K>, Agg> view() {
+        return new KTableValueGetterSupplier<Windowed<K>, Agg>() {
+
+            public KTableValueGetter<Windowed<K>, Agg> get() {
+                return new KStreamSlidingWindowAggregateValueGetter();
+            }
+
+            @Override
+            public String[] storeNames() {
+                return new String[] {storeName};
+            }
+        };
+    }
+
+
+    private class KStreamSlidingWindowAggregateValueGetter implements KTableValueGetter<Windowed<K>, Agg> {
+        private TimestampedWindowStore<K, Agg> windowStore;
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public void init(final ProcessorContext context) {
+            windowStore = (TimestampedWindowStore<K, Agg>) context.getStateStore(storeName);
+        }
+
+        @Override
+        public ValueAndTimestamp<Agg> get(final Windowed<K> windowedKey) {
+            return windowStore.fetch(windowedKey.key(), windowedKey.window().start());
+        }
+
+        @Override
+        public void close() {}
+    }
+}
@@ -23,8 +23,10 @@ import org.apache.kafka.streams.kstream.Aggregator;
 import org.apache.kafka.streams.kstream.Initializer;
 import org.apache.kafka.streams.kstream.KTable;
 import org.apache.kafka.streams.kstream.Materialized;
+import org.apache.kafka.streams.kstream.Merger;
 import org.apache.kafka.streams.kstream.Reducer;
 import org.apache.kafka.streams.kstream.TimeWindowedKStream;
+import org.apache.kafka.streams.kstream.TimeWindows;
 import org.apache.kafka.streams.kstream.Window;
 import org.apache.kafka.streams.kstream.Windowed;
 import org.apache.kafka.streams.kstream.Windows;
@@ -126,6 +128,40 @@ public class TimeWindowedKStreamImpl<K, V, W extends Window> extends AbstractStr
             materializedInternal.valueSerde());
     }
 
+    @Override
+    public <VR> KTable<Windowed<K>, VR> aggregate(final Initializer<VR> initializer,
+                                                  final Aggregator<? super K, ? super V, VR> aggregator,
+                                                  final Merger<? super K, VR> paneMerger) {
+        return aggregate(initializer, aggregator, paneMerger, Materialized.with(keySerde, null));
+    }
+
+    @Override
+    public <VR> KTable<Windowed<K>, VR> aggregate(final Initializer<VR> initializer,
+                                                  final Aggregator<? super K, ? super V, VR> aggregator,
+                                                  final Merger<? super K, VR> paneMerger,
+                                                  final Materialized<K, VR, WindowStore<Bytes, byte[]>> materialized) {
+        Objects.requireNonNull(initializer, "initializer can't be null");
+        Objects.requireNonNull(aggregator, "aggregator can't be null");
+        Objects.requireNonNull(paneMerger, "paneMerger can't be null");
+        Objects.requireNonNull(materialized, "materialized can't be null");
+        if (!(windows instanceof TimeWindows)) {
+            throw new IllegalArgumentException("Pane-based aggregation requires TimeWindows, but got " + windows.getClass().getName());
+        }
+        final TimeWindows timeWindows = (TimeWindows) windows;
+        final MaterializedInternal<K, VR, WindowStore<Bytes, byte[]>> materializedInternal =
+            new MaterializedInternal<>(materialized, builder, AGGREGATE_NAME);
+        if (materializedInternal.keySerde() == null) {
+            materializedInternal.withKeySerde(keySerde);
+        }
+        return aggregateBuilder.build(
+            AGGREGATE_NAME,
+            materialize(materializedInternal, KStreamPaneWindowAggregate.paneSize(timeWindows)),
+            new KStreamPaneWindowAggregate<>(timeWindows, materializedInternal.storeName(), initializer, aggregator, paneMerger),
+            materializedInternal.queryableStoreName(),
+            materializedInternal.keySerde() != null ? new FullTimeWindowedSerde<>(materializedInternal.keySerde(), windows.size()) : null,
+            materializedInternal.valueSerde());
+    }
+
     @Override
     public KTable<Windowed<K>, V> reduce(final Reducer<V> reducer) {
         return reduce(reducer, Materialized.with(keySerde, valSerde));
@@ -155,8 +191,13 @@ public class TimeWindowedKStreamImpl<K, V, W extends Window> extends AbstractStr
             materializedInternal.valueSerde());
     }
 
-    @SuppressWarnings("deprecation") // continuing to support Windows#maintainMs/segmentInterval in fallback mode
     private <VR> StoreBuilder<TimestampedWindowStore<K, VR>> materialize(final MaterializedInternal<K, VR, WindowStore<Bytes, byte[]>> materialized) {
+        return materialize(materialized, windows.size());
+    }
+
+    @SuppressWarnings("deprecation") // continuing to support Windows#maintainMs/segmentInterval in fallback mode
+    private <VR> StoreBuilder<TimestampedWindowStore<K, VR>> materialize(final MaterializedInternal<K, VR, WindowStore<Bytes, byte[]>> materialized,
+                                                                         final long storeWindowSize) {
         WindowBytesStoreSupplier supplier = (WindowBytesStoreSupplier) materialized.storeSupplier();
         if (supplier == null) {
             if (materialized.retention() != null) {
@@ -174,7 +215,7 @@ public class TimeWindowedKStreamImpl<K, V, W extends Window> extends AbstractStr
                 supplier = Stores.persistentTimestampedWindowStore(
                     materialized.storeName(),
                     Duration.ofMillis(retentionPeriod),
-                    Duration.ofMillis(windows.size()),
+                    Duration.ofMillis(storeWindowSize),
                     false
                 );
 
@@ -196,7 +237,7 @@ public class TimeWindowedKStreamImpl<K, V, W extends Window> extends AbstractStr
                     materialized.storeName(),
                     windows.maintainMs(),
                     Math.max(windows.maintainMs() / (windows.segments - 1), 60_000L),
-                    windows.size(),
+                    storeWindowSize,
                     false,
                     true);
             }
@@ -19,7 +19,9 @@ package org.apache.kafka.streams.kstream.internals.graph;
 import org.apache.kafka.streams.errors.TopologyException;
 import org.apache.kafka.streams.kstream.SessionWindows;
 import org.apache.kafka.streams.kstream.Windows;
+import org.apache.kafka.streams.kstream.internals.KStreamPaneWindowAggregate;
 import org.apache.kafka.streams.kstream.internals.KStreamSessionWindowAggregate;
+import org.apache.kafka.streams.kstream.internals.KStreamSlidingWindowAggregate;
 import org.apache.kafka.streams.kstream.internals.KStreamWindowAggregate;
 import org.apache.kafka.streams.processor.ProcessorSupplier;
 
@@ -75,6 +77,12 @@ public final class GraphGraceSearchUtil {
                 final KStreamWindowAggregate kStreamWindowAggregate = (KStreamWindowAggregate) processorSupplier;
                 final Windows windows = kStreamWindowAggregate.windows();
                 return windows.gracePeriodMs();
+            } else if (processorSupplier instanceof KStreamPaneWindowAggregate) {
+                final KStreamPaneWindowAggregate kStreamPaneWindowAggregate = (KStreamPaneWindowAggregate) processorSupplier;
+                return kStreamPaneWindowAggregate.windows().gracePeriodMs();
+            } else if (processorSupplier instanceof KStreamSlidingWindowAggregate) {
+                final KStreamSlidingWindowAggregate kStreamSlidingWindowAggregate = (KStreamSlidingWindowAggregate) processorSupplier;
+                return kStreamSlidingWindowAggregate.windows().gracePeriodMs();
             } else if (processorSupplier instanceof KStreamSessionWindowAggregate) {
                 final KStreamSessionWindowAggregate kStreamSessionWindowAggregate = (KStreamSessionWindowAggregate) processorSupplier;
                 final SessionWindows windows = kStreamSessionWindowAggregate.windows();
@@ -278,4 +278,11 @@ public abstract class AbstractTask implements Task {
     public Collection<TopicPartition> changelogPartitions() {
         return stateMgr.changelogPartitions();
     }
+
+    /**
+     * @return the offsets of the changelog partitions the local state of this task caught up to
+     */
+    Map<TopicPartition, Long> changelogOffsets() {
+        return stateMgr.checkpointed();
+    }
 }
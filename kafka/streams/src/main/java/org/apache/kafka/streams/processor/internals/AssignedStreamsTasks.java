@@ -196,6 +196,7 @@ class AssignedStreamsTasks extends AssignedTasks<StreamTask> implements Restorin
         while (it.hasNext()) {
             final StreamTask task = it.next().getValue();
             try {
+                task.forwardCompletedAsyncResults();
                 if (task.isProcessable(now) && task.process()) {
                     processed++;
                 }
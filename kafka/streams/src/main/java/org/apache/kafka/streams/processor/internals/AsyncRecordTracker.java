@@ -0,0 +1,267 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.kafka.streams.processor.internals;
+
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.utils.Time;
+import org.apache.kafka.streams.errors.StreamsException;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Keeps track of the records of a task that wait for the result of an asynchronous processor.
+ * <p>
+ * Results complete on arbitrary threads, but are only handed back to their processor on the stream thread, via
+ * {@link #forwardCompleted()} or {@link #forwardAll()}, with the record context and current node of the record
+ * that started the computation. Results of the same processor and key are handed back in the order the records were
+ * processed, even if they complete out of order.
+ * <p>
+ * The tracker also remembers the source offsets of all incomplete records, so that offsets are only committed up to
+ * the lowest incomplete record of each partition (see {@link #committableOffset(TopicPartition, long)}).
+ */
+public class AsyncRecordTracker {
+
+    /**
+     * A supplier of the {@link AsyncRecordTracker} of the current task.
+     */
+    public interface Supplier {
+        /**
+         * Get the async record tracker.
+         * @return the async record tracker
+         */
+        AsyncRecordTracker asyncRecordTracker();
+    }
+
+    private final InternalProcessorContext processorContext;
+    private final int maxInFlight;
+    private final long timeoutMs;
+    private final Time time;
+    // per processor and key, the records in processing order
+    private final Map<ProcessorNode, Map<Object, Deque<InFlightRecord<?>>>> inFlightRecords = new LinkedHashMap<>();
+    // per source partition, the number of incomplete records by offset
+    private final Map<TopicPartition, TreeMap<Long, Integer>> inFlightOffsets = new HashMap<>();
+    private int numInFlight = 0;
+
+    AsyncRecordTracker(final InternalProcessorContext processorContext,
+                       final int maxInFlight,
+                       final long timeoutMs,
+                       final Time time) {
+        this.processorContext = processorContext;
+        this.maxInFlight = maxInFlight;
+        this.timeoutMs = timeoutMs;
+        this.time = time;
+    }
+
+    /**
+     * Track the asynchronous result of the record that is currently processed.
+     *
+     * @param key           the key that defines the order in which results are handed back
+     * @param result        the pending result
+     * @param resultHandler called on the stream thread with the completed result
+     */
+    public <T> void track(final Object key, final CompletionStage<T> result, final Consumer<? super T> resultHandler) {
+        final ProcessorNode node = processorContext.currentNode();
+        final ProcessorRecordContext recordContext = processorContext.recordContext();
+        final InFlightRecord<T> record = new InFlightRecord<>(recordContext, resultHandler);
+        inFlightRecords
+            .computeIfAbsent(node, n -> new HashMap<>())
+            .computeIfAbsent(key, k -> new ArrayDeque<>())
+            .add(record);
+        if (recordContext.partition() >= 0) {
+            inFlightOffsets
+                .computeIfAbsent(new TopicPartition(recordContext.topic(), recordContext.partition()), p -> new TreeMap<>())
+                .merge(recordContext.offset(), 1, Integer::sum);
+        }
+        numInFlight++;
+        result.whenComplete(record::complete);
+    }
+
+    /**
+     * @return {@code true} if the task should not process new records before some pending results completed
+     */
+    boolean isFull() {
+        return numInFlight >= maxInFlight;
+    }
+
+    int numInFlight() {
+        return numInFlight;
+    }
+
+    /**
+     * @return the offset to commit for the given partition, i.e., the offset of the lowest incomplete record or the
+     *         offset after the last consumed record if all records of the partition completed
+     */
+    long committableOffset(final TopicPartition partition, final long consumedOffset) {
+        final TreeMap<Long, Integer> offsets = inFlightOffsets.get(partition);
+        if (offsets == null || offsets.isEmpty()) {
+            return consumedOffset + 1;
+        }
+        return Math.min(consumedOffset + 1, offsets.firstKey());
+    }
+
+    /**
+     * Hand back all results that completed and are not preceded by an incomplete result for the same key.
+     *
+     * @return the number of forwarded results
+     * @throws StreamsException if an asynchronous computation failed
+     */
+    int forwardCompleted() {
+        if (numInFlight == 0) {
+            return 0;
+        }
+
+        int forwarded = 0;
+        // forwarded results may start new asynchronous computations in downstream processors
+        for (final ProcessorNode node : new ArrayList<>(inFlightRecords.keySet())) {
+            final Iterator<Deque<InFlightRecord<?>>> queues = inFlightRecords.get(node).values().iterator();
+            while (queues.hasNext()) {
+                final Deque<InFlightRecord<?>> queue = queues.next();
+                while (!queue.isEmpty() && queue.peekFirst().isDone()) {
+                    forward(node, queue.pollFirst());
+                    forwarded++;
+                }
+                if (queue.isEmpty()) {
+                    queues.remove();
+                }
+            }
+        }
+        return forwarded;
+    }
+
+    /**
+     * Wait for all pending results and hand them back.
+     *
+     * @throws StreamsException if an asynchronous computation failed, did not complete within the timeout, or the
+     *                          stream thread got interrupted
+     */
+    void forwardAll() {
+        final long deadlineMs = time.milliseconds() + timeoutMs;
+        // forwarded results may start new asynchronous computations in downstream processors
+        while (numInFlight > 0) {
+            for (final Map.Entry<ProcessorNode, Map<Object, Deque<InFlightRecord<?>>>> entry : inFlightRecords.entrySet()) {
+                for (final Deque<InFlightRecord<?>> queue : entry.getValue().values()) {
+                    for (final InFlightRecord<?> record : queue) {
+                        if (!record.await(Math.max(deadlineMs - time.milliseconds(), 0L))) {
+                            final ProcessorRecordContext recordContext = record.recordContext;
+                            throw new StreamsException(String.format("Asynchronous processing did not complete within %d ms. " +
+                                    "processor=%s, topic=%s, partition=%d, offset=%d",
+                                timeoutMs,
+                                entry.getKey().name(),
+                                recordContext.topic(),
+                                recordContext.partition(),
+                                recordContext.offset()
+                            ));
+                        }
+                    }
+                }
+            }
+            forwardCompleted();
+        }
+    }
+
+    /**
+     * Drop all pending results without handing them back, e.g., when the task is closed uncleanly.
+     * The records will be reprocessed, as their offsets have not been committed.
+     */
+    void clear() {
+        inFlightRecords.clear();
+        inFlightOffsets.clear();
+        numInFlight = 0;
+    }
+
+    private void forward(final ProcessorNode node, final InFlightRecord<?> record) {
+        final ProcessorRecordContext recordContext = record.recordContext;
+        numInFlight--;
+        if (recordContext.partition() >= 0) {
+            final TopicPartition partition = new TopicPartition(recordContext.topic(), recordContext.partition());
+            final TreeMap<Long, Integer> offsets = inFlightOffsets.get(partition);
+            if (offsets.merge(recordContext.offset(), -1, Integer::sum) == 0) {
+                offsets.remove(recordContext.offset());
+            }
+        }
+
+        final ProcessorNode previousNode = processorContext.currentNode();
+        final ProcessorRecordContext previousContext = processorContext.recordContext();
+        processorContext.setRecordContext(recordContext);
+        processorContext.setCurrentNode(node);
+        try {
+            record.forward();
+        } catch (final CompletionException e) {
+            throw new StreamsException(String.format("Asynchronous processing failed. " +
+                    "processor=%s, topic=%s, partition=%d, offset=%d",
+                node.name(),
+                recordContext.topic(),
+                recordContext.partition(),
+                recordContext.offset()
+            ), e.getCause());
+        } finally {
+            processorContext.setRecordContext(previousContext);
+            processorContext.setCurrentNode(previousNode);
+        }
+    }
+
+    private static final class InFlightRecord<T> {
+        private final ProcessorRecordContext recordContext;
+        private final Consumer<? super T> resultHandler;
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private T result;
+        private Throwable exception;
+
+        private InFlightRecord(final ProcessorRecordContext recordContext, final Consumer<? super T> resultHandler) {
+            this.recordContext = recordContext;
+            this.resultHandler = resultHandler;
+        }
+
+        private void complete(final T result, final Throwable exception) {
+            this.result = result;
+            this.exception = exception;
+            completed.countDown();
+        }
+
+        private boolean isDone() {
+            return completed.getCount() == 0;
+        }
+
+        private boolean await(final long timeoutMs) {
+            try {
+                return completed.await(timeoutMs, TimeUnit.MILLISECONDS);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new StreamsException("Interrupted while waiting for asynchronous results", e);
+            }
+        }
+
+        private void forward() {
+            if (exception != null) {
+                throw exception instanceof CompletionException ? (CompletionException) exception : new CompletionException(exception);
+            }
+            resultHandler.accept(result);
+        }
+    }
+}
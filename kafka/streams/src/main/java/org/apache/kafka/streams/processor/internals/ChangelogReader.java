@@ -45,4 +45,16 @@ public interface ChangelogReader {
     Map<TopicPartition, Long> restoredOffsets();
 
     void reset();
+
+    /**
+     * Stop restoring until the next {@link #reset()}, such that the restoring tasks can be closed.
+     */
+    default void pause() {
+    }
+
+    /**
+     * Release the resources held by this reader.
+     */
+    default void close() {
+    }
 }
@@ -193,7 +193,11 @@ public class GlobalStreamThread extends Thread {
         this.logPrefix = String.format("global-stream-thread [%s] ", threadClientId);
         this.logContext = new LogContext(logPrefix);
         this.log = logContext.logger(getClass());
-        this.cache = new ThreadCache(logContext, cacheSizeBytes, streamsMetrics);
+        this.cache = new ThreadCache(
+            logContext,
+            cacheSizeBytes,
+            streamsMetrics,
+            config.getInt(StreamsConfig.CACHE_CONCURRENCY_SEGMENTS_CONFIG));
         this.stateRestoreListener = stateRestoreListener;
     }
 
@@ -115,6 +115,9 @@ public class InternalTopologyBuilder {
 
     private final QuickUnion<String> nodeGrouper = new QuickUnion<>();
 
+    // descriptions of the rewrites applied by the topology optimization
+    private final List<String> appliedOptimizations = new ArrayList<>();
+
     private SubscriptionUpdates subscriptionUpdates = new SubscriptionUpdates();
 
     private String applicationId = null;
@@ -359,6 +362,10 @@ public class InternalTopologyBuilder {
         return this;
     }
 
+    public final void addAppliedOptimization(final String optimization) {
+        appliedOptimizations.add(optimization);
+    }
+
     public final void addSource(final Topology.AutoOffsetReset offsetReset,
                                 final String name,
                                 final TimestampExtractor timestampExtractor,
@@ -1227,6 +1234,7 @@ public class InternalTopologyBuilder {
 
     public TopologyDescription describe() {
         final TopologyDescription description = new TopologyDescription();
+        description.addAppliedOptimizations(appliedOptimizations);
 
         for (final Map.Entry<Integer, Set<String>> nodeGroup : makeNodeGroups().entrySet()) {
 
@@ -1746,6 +1754,7 @@ public class InternalTopologyBuilder {
     public final static class TopologyDescription implements org.apache.kafka.streams.TopologyDescription {
         private final TreeSet<TopologyDescription.Subtopology> subtopologies = new TreeSet<>(SUBTOPOLOGY_COMPARATOR);
         private final TreeSet<TopologyDescription.GlobalStore> globalStores = new TreeSet<>(GLOBALSTORE_COMPARATOR);
+        private final List<String> appliedOptimizations = new ArrayList<>();
 
         public void addSubtopology(final TopologyDescription.Subtopology subtopology) {
             subtopologies.add(subtopology);
@@ -1760,11 +1769,20 @@ public class InternalTopologyBuilder {
             return Collections.unmodifiableSet(subtopologies);
         }
 
+        public void addAppliedOptimizations(final List<String> optimizations) {
+            appliedOptimizations.addAll(optimizations);
+        }
+
         @Override
         public Set<TopologyDescription.GlobalStore> globalStores() {
             return Collections.unmodifiableSet(globalStores);
         }
 
+        @Override
+        public List<String> appliedOptimizations() {
+            return Collections.unmodifiableList(appliedOptimizations);
+        }
+
         @Override
         public String toString() {
             final StringBuilder sb = new StringBuilder();
@@ -22,6 +22,7 @@ import org.apache.kafka.common.metrics.Sensor;
 
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
 import java.util.PriorityQueue;
 import java.util.Set;
@@ -109,19 +110,79 @@ public class PartitionGroup {
                     nonEmptyQueuesByTime.offer(queue);
                 }
 
-                // always update the stream time to the record's timestamp yet to be processed if it is larger
-                if (record.timestamp > streamTime) {
-                    streamTime = record.timestamp;
-                    recordLatenessSensor.record(0);
-                } else {
-                    recordLatenessSensor.record(streamTime - record.timestamp);
-                }
+                recordLatenessSensor.record(updateStreamTime(record));
             }
         }
 
         return record;
     }
 
+    /**
+     * Get up to {@code maxRecords} consecutive records from the queue that {@link #nextRecord(RecordInfo)}
+     * would pick next, without comparing the timestamps of later records against the other queues.
+     * The record lateness is recorded once for the whole batch, as the largest lateness within it.
+     *
+     * @param records the list to add the records to
+     * @return the number of records added
+     */
+    int nextRecords(final RecordInfo info, final List<StampedRecord> records, final int maxRecords) {
+        final RecordQueue queue = nonEmptyQueuesByTime.poll();
+        info.queue = queue;
+
+        if (queue == null) {
+            return 0;
+        }
+
+        int polled = 0;
+        long maxLateness = 0L;
+        while (polled < maxRecords) {
+            final StampedRecord record = queue.poll();
+            if (record == null) {
+                break;
+            }
+            records.add(record);
+            polled++;
+            maxLateness = Math.max(maxLateness, updateStreamTime(record));
+        }
+
+        if (polled > 0) {
+            totalBuffered -= polled;
+
+            if (queue.isEmpty()) {
+                // if a certain queue has been drained, reset the flag
+                allBuffered = false;
+            } else {
+                nonEmptyQueuesByTime.offer(queue);
+            }
+
+            recordLatenessSensor.record(maxLateness);
+        }
+
+        return polled;
+    }
+
+    /**
+     * Return the source node of the queue that {@link #nextRecord(RecordInfo)} would pick next,
+     * or {@code null} if there are no buffered records
+     */
+    SourceNode nextSource() {
+        final RecordQueue queue = nonEmptyQueuesByTime.peek();
+        return queue == null ? null : queue.source();
+    }
+
+    /**
+     * @return the lateness of the record relative to the stream time before it was polled
+     */
+    private long updateStreamTime(final StampedRecord record) {
+        // always update the stream time to the record's timestamp yet to be processed if it is larger
+        if (record.timestamp > streamTime) {
+            streamTime = record.timestamp;
+            return 0L;
+        } else {
+            return streamTime - record.timestamp;
+        }
+    }
+
     /**
      * Adds raw records to this partition group
      *
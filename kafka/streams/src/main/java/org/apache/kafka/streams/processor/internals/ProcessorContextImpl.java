@@ -16,6 +16,7 @@
  */
 package org.apache.kafka.streams.processor.internals;
 
+import org.apache.kafka.common.serialization.Serializer;
 import org.apache.kafka.streams.KeyValue;
 import org.apache.kafka.streams.StreamsConfig;
 import org.apache.kafka.streams.errors.StreamsException;
@@ -45,7 +46,7 @@ import java.util.List;
 
 import static org.apache.kafka.streams.internals.ApiUtils.prepareMillisCheckFailMsgPrefix;
 
-public class ProcessorContextImpl extends AbstractProcessorContext implements RecordCollector.Supplier {
+public class ProcessorContextImpl extends AbstractProcessorContext implements RecordCollector.Supplier, AsyncRecordTracker.Supplier {
 
     private final StreamTask task;
     private final RecordCollector collector;
@@ -73,6 +74,11 @@ public class ProcessorContextImpl extends AbstractProcessorContext implements Re
         return collector;
     }
 
+    @Override
+    public AsyncRecordTracker asyncRecordTracker() {
+        return task.asyncRecordTracker();
+    }
+
     /**
      * @throws StreamsException if an attempt is made to access this state store from an unknown node
      */
@@ -276,6 +282,12 @@ public class ProcessorContextImpl extends AbstractProcessorContext implements Re
             return wrapped().all();
         }
 
+        @Override
+        public <PS extends Serializer<P>, P> KeyValueIterator<K, V> prefixScan(final P prefix,
+                                                                               final PS prefixKeySerializer) {
+            return wrapped().prefixScan(prefix, prefixKeySerializer);
+        }
+
         @Override
         public long approximateNumEntries() {
             return wrapped().approximateNumEntries();
@@ -475,6 +487,12 @@ public class ProcessorContextImpl extends AbstractProcessorContext implements Re
             return wrapped().all();
         }
 
+        @Override
+        public <PS extends Serializer<P>, P> KeyValueIterator<K, V> prefixScan(final P prefix,
+                                                                               final PS prefixKeySerializer) {
+            return wrapped().prefixScan(prefix, prefixKeySerializer);
+        }
+
         @Override
         public long approximateNumEntries() {
             return wrapped().approximateNumEntries();
@@ -47,6 +47,10 @@ public class ProcessorNode<K, V> {
     private final String name;
     private final Time time;
 
+    private boolean batching;
+    private long batchedProcessNs;
+    private int batchedRecords;
+
     public final Set<String> stateStores;
 
     public ProcessorNode(final String name) {
@@ -115,7 +119,50 @@ public class ProcessorNode<K, V> {
     public void process(final K key, final V value) {
         final long startNs = time.nanoseconds();
         processor.process(key, value);
-        nodeMetrics.nodeProcessTimeSensor.record(time.nanoseconds() - startNs);
+        final long processNs = time.nanoseconds() - startNs;
+        if (batching) {
+            batchedProcessNs += processNs;
+            batchedRecords++;
+        } else {
+            nodeMetrics.nodeProcessTimeSensor.record(processNs);
+        }
+    }
+
+    /**
+     * Defer recording of the node sensors until {@link #endBatch()} is called.
+     */
+    void startBatch() {
+        batching = true;
+        batchedProcessNs = 0L;
+        batchedRecords = 0;
+    }
+
+    /**
+     * Record the node sensors for all records processed since {@link #startBatch()},
+     * using the average process latency of those records.
+     */
+    void endBatch() {
+        batching = false;
+        if (batchedRecords > 0) {
+            recordPerRecord(nodeMetrics.nodeProcessTimeSensor, batchedProcessNs / (double) batchedRecords, batchedRecords);
+        }
+    }
+
+    /**
+     * Record the value once for each record of a batch, so that the rate and total of the sensor still count
+     * records rather than batches. The current time is only looked up once.
+     */
+    void recordPerRecord(final Sensor sensor, final double value, final int records) {
+        if (sensor.shouldRecord()) {
+            final long nowMs = time.milliseconds();
+            for (int i = 0; i < records; i++) {
+                sensor.record(value, nowMs);
+            }
+        }
+    }
+
+    boolean batching() {
+        return batching;
     }
 
     public void punctuate(final long timestamp, final Punctuator punctuator) {
@@ -32,6 +32,7 @@ public class SourceNode<K, V> extends ProcessorNode<K, V> {
     private Deserializer<K> keyDeserializer;
     private Deserializer<V> valDeserializer;
     private final TimestampExtractor timestampExtractor;
+    private int batchedForwards;
 
     public SourceNode(final String name,
                       final List<String> topics,
@@ -85,7 +86,23 @@ public class SourceNode<K, V> extends ProcessorNode<K, V> {
     @Override
     public void process(final K key, final V value) {
         context.forward(key, value);
-        sourceNodeForwardSensor().record();
+        if (batching()) {
+            batchedForwards++;
+        } else {
+            sourceNodeForwardSensor().record();
+        }
+    }
+
+    @Override
+    void startBatch() {
+        super.startBatch();
+        batchedForwards = 0;
+    }
+
+    @Override
+    void endBatch() {
+        super.endBatch();
+        recordPerRecord(sourceNodeForwardSensor(), 1.0, batchedForwards);
     }
 
     /**
@@ -0,0 +1,228 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.kafka.streams.processor.internals;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.utils.LogContext;
+import org.apache.kafka.streams.processor.StateRestoreListener;
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A {@link ChangelogReader} which restores the state stores of active tasks on a dedicated thread with its own
+ * restore consumer, so that the stream thread keeps processing its running tasks while other tasks are restoring.
+ * <p>
+ * Restorers registered by the stream thread are handed over to the restore thread on the next call to
+ * {@link #restore(RestoringTasks)}, which returns the changelog partitions restored so far and rethrows any
+ * exception the restore thread ran into. The restoring tasks are only touched by the restore thread until all
+ * their changelog partitions are restored, or until {@link #pause()} returns.
+ */
+public class StateRestoreThread extends Thread implements ChangelogReader {
+
+    private final Logger log;
+    private final Consumer<byte[], byte[]> restoreConsumer;
+    private final StoreChangelogReader changelogReader;
+    private final Duration pollTime;
+
+    // stream thread only
+    private final List<StateRestorer> registered = new ArrayList<>();
+
+    // shared between the stream thread and the restore thread
+    private final BlockingQueue<Registration> handover = new LinkedBlockingQueue<>();
+    private final Set<TopicPartition> restored = ConcurrentHashMap.newKeySet();
+    private final AtomicReference<RuntimeException> restoreException = new AtomicReference<>();
+    private final ReentrantLock restoreLock = new ReentrantLock();
+    private volatile Map<TopicPartition, Long> restoredOffsets = Collections.emptyMap();
+    private volatile boolean paused = false;
+    private volatile boolean running = true;
+
+    // restore thread only, or whoever holds the restore lock
+    private final Map<TopicPartition, StreamTask> restoringTasks = new HashMap<>();
+    private final Set<TopicPartition> outstanding = new HashSet<>();
+
+    public StateRestoreThread(final String threadName,
+                              final Consumer<byte[], byte[]> restoreConsumer,
+                              final Duration pollTime,
+                              final StateRestoreListener userStateRestoreListener,
+                              final LogContext logContext) {
+        super(threadName);
+        setDaemon(true);
+        this.log = logContext.logger(getClass());
+        this.restoreConsumer = restoreConsumer;
+        this.pollTime = pollTime;
+        this.changelogReader = new StoreChangelogReader(restoreConsumer, pollTime, userStateRestoreListener, logContext);
+    }
+
+    @Override
+    public void register(final StateRestorer restorer) {
+        if (Thread.currentThread() == this) {
+            // a task re-registers its stores when it is reinitialized during restoration
+            changelogReader.register(restorer);
+        } else {
+            registered.add(restorer);
+        }
+    }
+
+    /**
+     * Hand over the restorers registered since the last call to the restore thread.
+     * @return all topic partitions that have been restored so far
+     * @throws org.apache.kafka.streams.errors.StreamsException if the restore thread failed to restore a changelog,
+     *         or {@link org.apache.kafka.streams.errors.TaskMigratedException} if the changelog was written by another thread
+     */
+    @Override
+    public Collection<TopicPartition> restore(final RestoringTasks active) {
+        final RuntimeException exception = restoreException.get();
+        if (exception != null) {
+            throw exception;
+        }
+
+        if (!registered.isEmpty()) {
+            for (final StateRestorer restorer : registered) {
+                handover.add(new Registration(restorer, active.restoringTaskFor(restorer.partition())));
+            }
+            registered.clear();
+            if (getState() == State.NEW) {
+                start();
+            }
+        }
+
+        return new HashSet<>(restored);
+    }
+
+    @Override
+    public Map<TopicPartition, Long> restoredOffsets() {
+        return restoredOffsets;
+    }
+
+    /**
+     * Stop restoring until the next {@link #reset()}. Once this returns, the restore thread doesn't touch
+     * the restoring tasks anymore, and their restored offsets are final.
+     */
+    @Override
+    public void pause() {
+        restoreLock.lock();
+        try {
+            paused = true;
+        } finally {
+            restoreLock.unlock();
+        }
+    }
+
+    @Override
+    public void reset() {
+        restoreLock.lock();
+        try {
+            registered.clear();
+            handover.clear();
+            changelogReader.reset();
+            restoringTasks.clear();
+            outstanding.clear();
+            restored.clear();
+            restoredOffsets = Collections.emptyMap();
+            restoreException.set(null);
+            restoreConsumer.unsubscribe();
+            paused = false;
+        } finally {
+            restoreLock.unlock();
+        }
+    }
+
+    /**
+     * Stop the restore thread and close its restore consumer.
+     */
+    @Override
+    public void close() {
+        running = false;
+        restoreConsumer.wakeup();
+        try {
+            join();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        restoreConsumer.close();
+    }
+
+    @Override
+    public void run() {
+        log.info("Starting");
+        try {
+            while (running) {
+                final boolean idle = outstanding.isEmpty() || paused || restoreException.get() != null;
+                Registration registration = idle ? handover.poll(pollTime.toMillis(), TimeUnit.MILLISECONDS) : handover.poll();
+
+                restoreLock.lock();
+                try {
+                    while (registration != null) {
+                        changelogReader.register(registration.restorer);
+                        restoringTasks.put(registration.restorer.partition(), registration.task);
+                        outstanding.add(registration.restorer.partition());
+                        registration = handover.poll();
+                    }
+                    if (running && !paused && !outstanding.isEmpty() && restoreException.get() == null) {
+                        restoreOnce();
+                    }
+                } finally {
+                    restoreLock.unlock();
+                }
+            }
+        } catch (final InterruptedException e) {
+            log.debug("Interrupted while waiting for changelogs to restore");
+        } finally {
+            log.info("Shutdown complete");
+        }
+    }
+
+    private void restoreOnce() {
+        try {
+            final Collection<TopicPartition> completed = changelogReader.restore(restoringTasks::get);
+            outstanding.removeAll(completed);
+            restored.addAll(completed);
+            restoredOffsets = changelogReader.restoredOffsets();
+        } catch (final RuntimeException e) {
+            if (running) {
+                log.debug("Failed to restore changelogs {}, handing the error to the stream thread", outstanding, e);
+                restoreException.set(e);
+            }
+        }
+    }
+
+    private static class Registration {
+        private final StateRestorer restorer;
+        private final StreamTask task;
+
+        private Registration(final StateRestorer restorer, final StreamTask task) {
+            this.restorer = restorer;
+            this.task = task;
+        }
+    }
+}
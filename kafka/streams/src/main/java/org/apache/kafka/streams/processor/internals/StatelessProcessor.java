@@ -0,0 +1,27 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.kafka.streams.processor.internals;
+
+/**
+ * Marker interface for processors that do not access state stores, do not schedule punctuations, and forward
+ * every output record synchronously from within {@link org.apache.kafka.streams.processor.Processor#process(Object, Object)}.
+ *
+ * A {@link StreamTask} may push batches of records through a source node whose downstream processors all
+ * implement this interface, see {@link org.apache.kafka.streams.StreamsConfig#PROCESSING_BATCH_SIZE_CONFIG}.
+ */
+public interface StatelessProcessor {
+}
@@ -50,9 +50,13 @@ import org.apache.kafka.streams.state.internals.ThreadCache;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 import static java.lang.String.format;
@@ -69,6 +73,7 @@ public class StreamTask extends AbstractTask implements ProcessorNodePunctuator
     private final Time time;
     private final long maxTaskIdleMs;
     private final int maxBufferedSize;
+    private final int maxBatchSize;
     private final TaskMetrics taskMetrics;
     private final PartitionGroup partitionGroup;
     private final RecordCollector recordCollector;
@@ -77,6 +82,9 @@ public class StreamTask extends AbstractTask implements ProcessorNodePunctuator
     private final PunctuationQueue streamTimePunctuationQueue;
     private final PunctuationQueue systemTimePunctuationQueue;
     private final ProducerSupplier producerSupplier;
+    private final AsyncRecordTracker asyncRecordTracker;
+    private final Map<SourceNode, Set<ProcessorNode>> statelessSubtopologies;
+    private final List<StampedRecord> recordBatch;
 
     private Sensor closeSensor;
     private long idleStartTime;
@@ -222,6 +230,11 @@ public class StreamTask extends AbstractTask implements ProcessorNodePunctuator
         // initialize the topology with its own context
         final ProcessorContextImpl processorContextImpl = new ProcessorContextImpl(id, this, config, this.recordCollector, stateMgr, metrics, cache);
         processorContext = processorContextImpl;
+        asyncRecordTracker = new AsyncRecordTracker(
+            processorContextImpl,
+            config.getInt(StreamsConfig.ASYNC_MAX_IN_FLIGHT_RECORDS_CONFIG),
+            config.getLong(StreamsConfig.ASYNC_TIMEOUT_MS_CONFIG),
+            time);
 
         final TimestampExtractor defaultTimestampExtractor = config.defaultTimestampExtractor();
         final DeserializationExceptionHandler defaultDeserializationExceptionHandler = config.defaultDeserializationExceptionHandler();
@@ -242,6 +255,19 @@ public class StreamTask extends AbstractTask implements ProcessorNodePunctuator
         recordInfo = new PartitionGroup.RecordInfo();
         partitionGroup = new PartitionGroup(partitionQueues, recordLatenessSensor(processorContextImpl));
 
+        // only sources whose downstream processors are all stateless are eligible for batch processing
+        maxBatchSize = config.getInt(StreamsConfig.PROCESSING_BATCH_SIZE_CONFIG);
+        statelessSubtopologies = new HashMap<>();
+        if (maxBatchSize > 1) {
+            for (final SourceNode source : topology.sources()) {
+                final Set<ProcessorNode> nodes = new HashSet<>();
+                if (collectStatelessNodes(source, nodes)) {
+                    statelessSubtopologies.put(source, nodes);
+                }
+            }
+        }
+        recordBatch = new ArrayList<>();
+
         stateMgr.registerGlobalStateStores(topology.globalStateStores());
 
         // initialize transactions if eos is turned on, which will block if the previous transaction has not
@@ -317,10 +343,13 @@ public class StreamTask extends AbstractTask implements ProcessorNodePunctuator
 
     /**
      * An active task is processable if its buffer contains data for all of its input
-     * source topic partitions, or if it is enforced to be processable
+     * source topic partitions, or if it is enforced to be processable, and if not too many
+     * records wait for the result of an asynchronous processor
      */
     boolean isProcessable(final long now) {
-        if (partitionGroup.allPartitionsBuffered()) {
+        if (asyncRecordTracker.isFull()) {
+            return false;
+        } else if (partitionGroup.allPartitionsBuffered()) {
             idleStartTime = RecordQueue.UNKNOWN;
             return true;
         } else if (partitionGroup.numBuffered() > 0) {
@@ -347,6 +376,13 @@ public class StreamTask extends AbstractTask implements ProcessorNodePunctuator
      */
     @SuppressWarnings("unchecked")
     public boolean process() {
+        if (maxBatchSize > 1) {
+            final Set<ProcessorNode> statelessNodes = statelessSubtopologies.get(partitionGroup.nextSource());
+            if (statelessNodes != null) {
+                return processBatch(statelessNodes);
+            }
+        }
+
         // get the next record to process
         final StampedRecord record = partitionGroup.nextRecord(recordInfo);
 
@@ -379,16 +415,7 @@ public class StreamTask extends AbstractTask implements ProcessorNodePunctuator
         } catch (final ProducerFencedException fatal) {
             throw new TaskMigratedException(this, fatal);
         } catch (final KafkaException e) {
-            final String stackTrace = getStacktraceString(e);
-            throw new StreamsException(format("Exception caught in process. taskId=%s, " +
-                    "processor=%s, topic=%s, partition=%d, offset=%d, stacktrace=%s",
-                id(),
-                processorContext.currentNode().name(),
-                record.topic(),
-                record.partition(),
-                record.offset(),
-                stackTrace
-            ), e);
+            throw processException(record, e);
         } finally {
             processorContext.setCurrentNode(null);
         }
@@ -396,6 +423,124 @@ public class StreamTask extends AbstractTask implements ProcessorNodePunctuator
         return true;
     }
 
+    /**
+     * Process a batch of records of the next partition, whose downstream processors are all stateless.
+     * In contrast to {@link #process()}, the processor node latency sensors record the average latency of the batch.
+     *
+     * @return true if this method processes at least one record, false if it does not process any record.
+     * @throws TaskMigratedException if the task producer got fenced (EOS only)
+     */
+    @SuppressWarnings("unchecked")
+    private boolean processBatch(final Set<ProcessorNode> statelessNodes) {
+        if (partitionGroup.nextRecords(recordInfo, recordBatch, maxBatchSize) == 0) {
+            return false;
+        }
+
+        final ProcessorNode currNode = recordInfo.node();
+        final TopicPartition partition = recordInfo.partition();
+        StampedRecord record = null;
+
+        for (final ProcessorNode node : statelessNodes) {
+            node.startBatch();
+        }
+        try {
+            log.trace("Start processing a batch of {} records", recordBatch.size());
+
+            for (final StampedRecord batchRecord : recordBatch) {
+                record = batchRecord;
+                updateProcessorContext(record, currNode);
+                currNode.process(record.key(), record.value());
+            }
+
+            log.trace("Completed processing a batch of {} records", recordBatch.size());
+
+            // update the consumed offset map after processing is done
+            consumedOffsets.put(partition, record.offset());
+            commitNeeded = true;
+
+            // after processing this batch, if its partition queue's buffered size has been
+            // decreased to the threshold, we can then resume the consumption on this partition
+            final int queueSize = recordInfo.queue().size();
+            if (queueSize <= maxBufferedSize && queueSize + recordBatch.size() > maxBufferedSize) {
+                consumer.resume(singleton(partition));
+            }
+        } catch (final ProducerFencedException fatal) {
+            throw new TaskMigratedException(this, fatal);
+        } catch (final KafkaException e) {
+            throw processException(record, e);
+        } finally {
+            for (final ProcessorNode node : statelessNodes) {
+                node.endBatch();
+            }
+            processorContext.setCurrentNode(null);
+            recordBatch.clear();
+        }
+
+        return true;
+    }
+
+    private StreamsException processException(final StampedRecord record, final KafkaException e) {
+        final String stackTrace = getStacktraceString(e);
+        return new StreamsException(format("Exception caught in process. taskId=%s, " +
+                "processor=%s, topic=%s, partition=%d, offset=%d, stacktrace=%s",
+            id(),
+            processorContext.currentNode().name(),
+            record.topic(),
+            record.partition(),
+            record.offset(),
+            stackTrace
+        ), e);
+    }
+
+    /**
+     * Add the given node and all its descendants to {@code nodes}.
+     *
+     * @return true if all descendants are sink nodes or run a {@link StatelessProcessor}
+     */
+    private static boolean collectStatelessNodes(final ProcessorNode<?, ?> node, final Set<ProcessorNode> nodes) {
+        if (!nodes.add(node)) {
+            return true;
+        }
+        for (final ProcessorNode<?, ?> child : node.children()) {
+            final boolean stateless = child instanceof SinkNode || child.processor() instanceof StatelessProcessor;
+            if (!stateless || !collectStatelessNodes(child, nodes)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Forward the results of asynchronous processors that completed since the last call.
+     *
+     * @return the number of forwarded results
+     * @throws TaskMigratedException if the task producer got fenced (EOS only)
+     */
+    int forwardCompletedAsyncResults() {
+        try {
+            final int forwarded = asyncRecordTracker.forwardCompleted();
+            if (forwarded > 0) {
+                commitNeeded = true;
+            }
+            return forwarded;
+        } catch (final ProducerFencedException fatal) {
+            throw new TaskMigratedException(this, fatal);
+        }
+    }
+
+    /**
+     * Wait for all pending results of asynchronous processors and forward them.
+     *
+     * @throws TaskMigratedException if the task producer got fenced (EOS only)
+     */
+    private void forwardAllAsyncResults() {
+        try {
+            asyncRecordTracker.forwardAll();
+        } catch (final ProducerFencedException fatal) {
+            throw new TaskMigratedException(this, fatal);
+        }
+    }
+
     private String getStacktraceString(final KafkaException e) {
         String stacktrace = null;
         try (final StringWriter stringWriter = new StringWriter();
@@ -470,6 +615,14 @@ public class StreamTask extends AbstractTask implements ProcessorNodePunctuator
         final long startNs = time.nanoseconds();
         log.debug("Committing");
 
+        // with eos, offsets and the output of all records before them are committed atomically,
+        // so we cannot commit while results are pending; otherwise, we commit up to the lowest pending record
+        if (eosEnabled) {
+            forwardAllAsyncResults();
+        } else {
+            forwardCompletedAsyncResults();
+        }
+
         flushState();
 
         if (!eosEnabled) {
@@ -479,7 +632,7 @@ public class StreamTask extends AbstractTask implements ProcessorNodePunctuator
         final Map<TopicPartition, OffsetAndMetadata> consumedOffsetsAndMetadata = new HashMap<>(consumedOffsets.size());
         for (final Map.Entry<TopicPartition, Long> entry : consumedOffsets.entrySet()) {
             final TopicPartition partition = entry.getKey();
-            final long offset = entry.getValue() + 1;
+            final long offset = asyncRecordTracker.committableOffset(partition, entry.getValue());
             consumedOffsetsAndMetadata.put(partition, new OffsetAndMetadata(offset));
             stateMgr.putOffsetLimit(partition, offset);
         }
@@ -515,6 +668,20 @@ public class StreamTask extends AbstractTask implements ProcessorNodePunctuator
         return checkpointableOffsets;
     }
 
+    @Override
+    Map<TopicPartition, Long> changelogOffsets() {
+        // the state manager only learns the offsets written to the changelogs when the task checkpoints
+        final Map<TopicPartition, Long> changelogOffsets = super.changelogOffsets();
+        final Map<TopicPartition, Long> checkpointableOffsets = activeTaskCheckpointableOffsets();
+        for (final Map.Entry<TopicPartition, Long> entry : changelogOffsets.entrySet()) {
+            final Long offset = checkpointableOffsets.get(entry.getKey());
+            if (offset != null) {
+                entry.setValue(Math.max(entry.getValue(), offset + 1));
+            }
+        }
+        return changelogOffsets;
+    }
+
     @Override
     protected void flushState() {
         log.trace("Flushing state and producer");
@@ -531,7 +698,7 @@ public class StreamTask extends AbstractTask implements ProcessorNodePunctuator
         for (final Map.Entry<TopicPartition, Long> entry : consumedOffsets.entrySet()) {
             final TopicPartition tp = entry.getKey();
             if (topology.isRepartitionTopic(tp.topic())) {
-                purgableConsumedOffsets.put(tp, entry.getValue() + 1);
+                purgableConsumedOffsets.put(tp, asyncRecordTracker.committableOffset(tp, entry.getValue()));
             }
         }
 
@@ -585,6 +752,9 @@ public class StreamTask extends AbstractTask implements ProcessorNodePunctuator
     void suspend(final boolean clean,
                  final boolean isZombie) {
         try {
+            if (clean) {
+                forwardAllAsyncResults();
+            }
             closeTopology(); // should we call this only on clean suspend?
         } catch (final RuntimeException fatal) {
             if (clean) {
@@ -614,6 +784,8 @@ public class StreamTask extends AbstractTask implements ProcessorNodePunctuator
                 throw taskMigratedException;
             }
         } else {
+            // pending records will be reprocessed, as their offsets were not committed
+            asyncRecordTracker.clear();
             maybeAbortTransactionAndCloseRecordCollector(isZombie);
         }
     }
@@ -819,6 +991,8 @@ public class StreamTask extends AbstractTask implements ProcessorNodePunctuator
      * @throws TaskMigratedException if the task producer got fenced (EOS only)
      */
     public boolean maybePunctuateStreamTime() {
+        forwardCompletedAsyncResults();
+
         final long timestamp = partitionGroup.timestamp();
 
         // if the timestamp is not known yet, meaning there is not enough data accumulated
@@ -844,6 +1018,8 @@ public class StreamTask extends AbstractTask implements ProcessorNodePunctuator
      * @throws TaskMigratedException if the task producer got fenced (EOS only)
      */
     public boolean maybePunctuateSystemTime() {
+        forwardCompletedAsyncResults();
+
         final long timestamp = time.milliseconds();
 
         final boolean punctuated = systemTimePunctuationQueue.mayPunctuate(timestamp, PunctuationType.WALL_CLOCK_TIME, this);
@@ -869,6 +1045,10 @@ public class StreamTask extends AbstractTask implements ProcessorNodePunctuator
         return commitRequested;
     }
 
+    AsyncRecordTracker asyncRecordTracker() {
+        return asyncRecordTracker;
+    }
+
     // visible for testing only
     RecordCollector recordCollector() {
         return recordCollector;
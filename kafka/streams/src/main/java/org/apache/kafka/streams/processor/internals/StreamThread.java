@@ -277,6 +277,11 @@ public class StreamThread extends Thread {
                 if (streamThread.assignmentErrorCode.get() == StreamsPartitionAssignor.Error.NONE.code()) {
                     taskManager.createTasks(assignment);
                 }
+                if (taskManager.pollProbingRebalanceRequest()) {
+                    streamThread.nextProbingRebalanceMs = start + streamThread.probingRebalanceIntervalMs;
+                } else {
+                    streamThread.nextProbingRebalanceMs = Long.MAX_VALUE;
+                }
             } catch (final Throwable t) {
                 log.error(
                     "Error caught during partition assignment, " +
@@ -563,6 +568,7 @@ public class StreamThread extends Thread {
     private final Object stateLock;
     private final Duration pollTime;
     private final long commitTimeMs;
+    private final long probingRebalanceIntervalMs;
     private final int maxPollTimeMs;
     private final String originalReset;
     private final TaskManager taskManager;
@@ -572,6 +578,7 @@ public class StreamThread extends Thread {
     private long now;
     private long lastPollMs;
     private long lastCommitMs;
+    private long nextProbingRebalanceMs = Long.MAX_VALUE;
     private int numIterations;
     private Throwable rebalanceException = null;
     private boolean processStandbyRecords = false;
@@ -610,7 +617,20 @@ public class StreamThread extends Thread {
         final Map<String, Object> restoreConsumerConfigs = config.getRestoreConsumerConfigs(getRestoreConsumerClientId(threadClientId));
         final Consumer<byte[], byte[]> restoreConsumer = clientSupplier.getRestoreConsumer(restoreConsumerConfigs);
         final Duration pollTime = Duration.ofMillis(config.getLong(StreamsConfig.POLL_MS_CONFIG));
-        final StoreChangelogReader changelogReader = new StoreChangelogReader(restoreConsumer, pollTime, userStateRestoreListener, logContext);
+        final ChangelogReader changelogReader;
+        if (config.getBoolean(StreamsConfig.STATE_RESTORE_THREAD_ENABLED_CONFIG)) {
+            log.info("Creating state restore consumer client");
+            final Map<String, Object> stateRestoreConsumerConfigs = config.getRestoreConsumerConfigs(getStateRestoreConsumerClientId(threadClientId));
+            final String stateRestoreThreadName = threadClientId + "-StateRestoreThread";
+            changelogReader = new StateRestoreThread(
+                stateRestoreThreadName,
+                clientSupplier.getRestoreConsumer(stateRestoreConsumerConfigs),
+                pollTime,
+                userStateRestoreListener,
+                new LogContext(String.format("state-restore-thread [%s] ", stateRestoreThreadName)));
+        } else {
+            changelogReader = new StoreChangelogReader(restoreConsumer, pollTime, userStateRestoreListener, logContext);
+        }
 
         Producer<byte[], byte[]> threadProducer = null;
         final boolean eosEnabled = StreamsConfig.EXACTLY_ONCE.equals(config.getString(StreamsConfig.PROCESSING_GUARANTEE_CONFIG));
@@ -625,7 +645,11 @@ public class StreamThread extends Thread {
             threadClientId
         );
 
-        final ThreadCache cache = new ThreadCache(logContext, cacheSizeBytes, streamsMetrics);
+        final ThreadCache cache = new ThreadCache(
+            logContext,
+            cacheSizeBytes,
+            streamsMetrics,
+            config.getInt(StreamsConfig.CACHE_CONCURRENCY_SEGMENTS_CONFIG));
 
         final AbstractTaskCreator<StreamTask> activeTaskCreator = new TaskCreator(
             builder,
@@ -725,6 +749,7 @@ public class StreamThread extends Thread {
         this.maxPollTimeMs = new InternalConsumerConfig(config.getMainConsumerConfigs("dummyGroupId", "dummyClientId", dummyThreadIdx))
                 .getInt(ConsumerConfig.MAX_POLL_INTERVAL_MS_CONFIG);
         this.commitTimeMs = config.getLong(StreamsConfig.COMMIT_INTERVAL_MS_CONFIG);
+        this.probingRebalanceIntervalMs = config.getLong(StreamsConfig.PROBING_REBALANCE_INTERVAL_MS_CONFIG);
 
         this.numIterations = 1;
     }
@@ -751,6 +776,10 @@ public class StreamThread extends Thread {
         return threadClientId + "-restore-consumer";
     }
 
+    private static String getStateRestoreConsumerClientId(final String threadClientId) {
+        return threadClientId + "-state-restore-consumer";
+    }
+
     // currently admin client is shared among all threads
     public static String getSharedAdminClientId(final String clientId) {
         return clientId + "-admin";
@@ -806,6 +835,10 @@ public class StreamThread extends Thread {
                 if (assignmentErrorCode.get() == StreamsPartitionAssignor.Error.VERSION_PROBING.code()) {
                     log.info("Version probing detected. Triggering new rebalance.");
                     enforceRebalance();
+                } else if (now >= nextProbingRebalanceMs) {
+                    log.info("Triggering probing rebalance to move tasks to the clients that warmed up their state.");
+                    nextProbingRebalanceMs = Long.MAX_VALUE;
+                    enforceRebalance();
                 }
             } catch (final TaskMigratedException ignoreAndRejoinGroup) {
                 log.warn("Detected task {} that got migrated to another thread. " +
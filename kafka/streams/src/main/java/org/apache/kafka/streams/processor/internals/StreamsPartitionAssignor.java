@@ -63,6 +63,7 @@ public class StreamsPartitionAssignor implements PartitionAssignor, Configurable
     private final static int VERSION_TWO = 2;
     private final static int VERSION_THREE = 3;
     private final static int VERSION_FOUR = 4;
+    private final static int VERSION_FIVE = 5;
     private final static int EARLIEST_PROBEABLE_VERSION = VERSION_THREE;
     protected final Set<Integer> supportedVersions = new HashSet<>();
 
@@ -161,6 +162,7 @@ public class StreamsPartitionAssignor implements PartitionAssignor, Configurable
             consumers.add(consumerMemberId);
             state.addPreviousActiveTasks(info.prevTasks());
             state.addPreviousStandbyTasks(info.standbyTasks());
+            state.addPreviousTaskOffsetSums(info.taskOffsetSums());
             state.incrementCapacity();
         }
 
@@ -211,6 +213,8 @@ public class StreamsPartitionAssignor implements PartitionAssignor, Configurable
 
     private String userEndPoint;
     private int numStandbyReplicas;
+    private long acceptableRecoveryLag;
+    private int maxWarmupReplicas;
 
     private TaskManager taskManager;
     private PartitionGrouper partitionGrouper;
@@ -295,6 +299,8 @@ public class StreamsPartitionAssignor implements PartitionAssignor, Configurable
         assignmentErrorCode = (AtomicInteger) ai;
 
         numStandbyReplicas = streamsConfig.getInt(StreamsConfig.NUM_STANDBY_REPLICAS_CONFIG);
+        acceptableRecoveryLag = streamsConfig.getLong(StreamsConfig.ACCEPTABLE_RECOVERY_LAG_CONFIG);
+        maxWarmupReplicas = streamsConfig.getInt(StreamsConfig.MAX_WARMUP_REPLICAS_CONFIG);
 
         partitionGrouper = streamsConfig.getConfiguredInstance(StreamsConfig.PARTITION_GROUPER_CLASS_CONFIG, PartitionGrouper.class);
 
@@ -333,6 +339,7 @@ public class StreamsPartitionAssignor implements PartitionAssignor, Configurable
         // 1. Client UUID (a unique id assigned to an instance of KafkaStreams)
         // 2. Task ids of previously running tasks
         // 3. Task ids of valid local states on the client's state directory.
+        // 4. Changelog offset sums of these local states.
 
         final Set<TaskId> previousActiveTasks = taskManager.prevActiveTaskIds();
         final Set<TaskId> standbyTasks = taskManager.cachedTasksIds();
@@ -342,7 +349,8 @@ public class StreamsPartitionAssignor implements PartitionAssignor, Configurable
             taskManager.processId(),
             previousActiveTasks,
             standbyTasks,
-            this.userEndPoint);
+            this.userEndPoint,
+            taskManager.taskOffsetSums());
 
         taskManager.updateSubscriptionsFromMetadata(topics);
 
@@ -385,6 +393,9 @@ public class StreamsPartitionAssignor implements PartitionAssignor, Configurable
      *    - A client may have more than one stream threads.
      *      The assignor tries to assign tasks to a client proportionally to the number of threads.
      *    - We try not to assign the same set of tasks to two different clients
+     *    - If all clients report the changelog offsets of their local states, we do not move a stateful
+     *      task to a client lagging behind; we assign it a warm-up replica instead and schedule a
+     *      probing rebalance to move the task once the client caught up.
      *    We do the assignment in one-pass. The result may not satisfy above all.
      *
      * 3. within each client, tasks are assigned to consumer clients in round-robin manner.
@@ -630,9 +641,25 @@ public class StreamsPartitionAssignor implements PartitionAssignor, Configurable
         log.debug("Assigning tasks {} to clients {} with number of replicas {}",
                 partitionsForTask.keySet(), states, numStandbyReplicas);
 
-        final StickyTaskAssignor<UUID> taskAssignor = new StickyTaskAssignor<>(states, partitionsForTask.keySet());
+        final StickyTaskAssignor<UUID> taskAssignor;
+        if (minReceivedMetadataVersion >= VERSION_FIVE) {
+            final Set<TaskId> statefulTasks = new HashSet<>();
+            for (final Map.Entry<Integer, InternalTopologyBuilder.TopicsInfo> entry : topicGroups.entrySet()) {
+                if (!entry.getValue().stateChangelogTopics.isEmpty() && tasksByTopicGroup.get(entry.getKey()) != null) {
+                    statefulTasks.addAll(tasksByTopicGroup.get(entry.getKey()));
+                }
+            }
+            taskAssignor = new StickyTaskAssignor<>(states, partitionsForTask.keySet(), statefulTasks, acceptableRecoveryLag, maxWarmupReplicas);
+        } else {
+            taskAssignor = new StickyTaskAssignor<>(states, partitionsForTask.keySet());
+        }
         taskAssignor.assign(numStandbyReplicas);
 
+        if (taskAssignor.probingRebalanceNeeded()) {
+            log.info("Assigned warm-up replicas to clients that lag behind. Scheduling a probing rebalance.");
+            taskManager.requestProbingRebalance();
+        }
+
         log.info("Assigned tasks to clients as {}.", states);
 
         // ---------------- Step Three ---------------- //
@@ -865,6 +892,7 @@ public class StreamsPartitionAssignor implements PartitionAssignor, Configurable
                 partitionsByHost = info.partitionsByHost();
                 break;
             case VERSION_FOUR:
+            case VERSION_FIVE:
                 if (leaderSupportedVersion > usedSubscriptionMetadataVersion) {
                     log.info("Sent a version {} subscription and group leader's latest supported version is {}. " +
                         "Upgrading subscription metadata version to {} for next rebalance.",
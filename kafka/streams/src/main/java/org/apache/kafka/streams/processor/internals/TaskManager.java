@@ -28,9 +28,11 @@ import org.apache.kafka.streams.errors.TaskIdFormatException;
 import org.apache.kafka.streams.errors.TaskMigratedException;
 import org.apache.kafka.streams.processor.TaskId;
 import org.apache.kafka.streams.state.HostInfo;
+import org.apache.kafka.streams.state.internals.OffsetCheckpoint;
 import org.slf4j.Logger;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -64,6 +66,7 @@ public class TaskManager {
     private Cluster cluster;
     private Map<TaskId, Set<TopicPartition>> assignedActiveTasks;
     private Map<TaskId, Set<TopicPartition>> assignedStandbyTasks;
+    private boolean probingRebalanceRequested = false;
 
     private Consumer<byte[], byte[]> consumer;
 
@@ -221,6 +224,53 @@ public class TaskManager {
         return tasks;
     }
 
+    /**
+     * Returns the sum of the changelog offsets the local state of each task caught up to, for all tasks
+     * whose states are kept on the local storage. The offsets of the tasks assigned to this thread are
+     * taken from the tasks, as their checkpoint files may be behind; all others are read from the checkpoint files.
+     */
+    public Map<TaskId, Long> taskOffsetSums() {
+        final Map<TaskId, Long> taskOffsetSums = new HashMap<>();
+
+        final File[] stateDirs = taskCreator.stateDirectory().listTaskDirectories();
+        if (stateDirs != null) {
+            for (final File dir : stateDirs) {
+                try {
+                    final TaskId id = TaskId.parse(dir.getName());
+                    final File checkpointFile = new File(dir, ProcessorStateManager.CHECKPOINT_FILE_NAME);
+                    if (checkpointFile.exists()) {
+                        taskOffsetSums.put(id, sumOfOffsets(new OffsetCheckpoint(checkpointFile).read()));
+                    }
+                } catch (final TaskIdFormatException e) {
+                    // there may be some unknown files that sits in the same directory,
+                    // we should ignore these files instead trying to delete them as well
+                } catch (final IOException | IllegalArgumentException e) {
+                    log.warn("Could not read the checkpoint file in {}; reporting no local state for the task", dir, e);
+                }
+            }
+        }
+
+        for (final StreamTask task : active.allTasks()) {
+            taskOffsetSums.put(task.id(), sumOfOffsets(task.changelogOffsets()));
+        }
+        for (final StandbyTask task : standby.allTasks()) {
+            taskOffsetSums.put(task.id(), sumOfOffsets(task.changelogOffsets()));
+        }
+
+        return taskOffsetSums;
+    }
+
+    private static long sumOfOffsets(final Map<TopicPartition, Long> offsets) {
+        long offsetSum = 0L;
+        for (final long offset : offsets.values()) {
+            // offsets are unknown (-1) for changelogs that did not get any records yet
+            if (offset > 0) {
+                offsetSum += offset;
+            }
+        }
+        return offsetSum;
+    }
+
     public UUID processId() {
         return processId;
     }
@@ -243,6 +293,7 @@ public class TaskManager {
         // close all restoring tasks as well and then reset changelog reader;
         // for those restoring and still assigned tasks, they will be re-created
         // in addStreamTasks.
+        changelogReader.pause();
         firstException.compareAndSet(null, active.closeAllRestoringTasks());
         changelogReader.reset();
 
@@ -264,6 +315,7 @@ public class TaskManager {
                   active.previousTaskIds(), standby.previousTaskIds());
 
         try {
+            changelogReader.pause();
             active.close(clean);
         } catch (final RuntimeException fatalException) {
             firstException.compareAndSet(null, fatalException);
@@ -278,6 +330,11 @@ public class TaskManager {
         }
         taskCreator.close();
         standbyTaskCreator.close();
+        try {
+            changelogReader.close();
+        } catch (final RuntimeException fatalException) {
+            firstException.compareAndSet(null, fatalException);
+        }
 
         final RuntimeException fatalException = firstException.get();
         if (fatalException != null) {
@@ -380,6 +437,23 @@ public class TaskManager {
         this.assignedStandbyTasks = standbyTasks;
     }
 
+    /**
+     * Called by the partition assignor of the group leader if it assigned warm-up replicas,
+     * such that the thread triggers a probing rebalance after the current one.
+     */
+    void requestProbingRebalance() {
+        probingRebalanceRequested = true;
+    }
+
+    /**
+     * @return whether a probing rebalance was requested during the last rebalance; clears the request
+     */
+    boolean pollProbingRebalanceRequest() {
+        final boolean requested = probingRebalanceRequested;
+        probingRebalanceRequested = false;
+        return requested;
+    }
+
     public void updateSubscriptionsFromAssignment(final List<TopicPartition> partitions) {
         if (builder().sourceTopicPattern() != null) {
             final Set<String> assignedTopics = new HashSet<>();
@@ -18,7 +18,9 @@ package org.apache.kafka.streams.processor.internals.assignment;
 
 import org.apache.kafka.streams.processor.TaskId;
 
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 public class ClientState {
@@ -28,6 +30,7 @@ public class ClientState {
     private final Set<TaskId> prevActiveTasks;
     private final Set<TaskId> prevStandbyTasks;
     private final Set<TaskId> prevAssignedTasks;
+    private final Map<TaskId, Long> taskOffsetSums;
 
     private int capacity;
 
@@ -37,7 +40,7 @@ public class ClientState {
     }
 
     ClientState(final int capacity) {
-        this(new HashSet<>(), new HashSet<>(), new HashSet<>(), new HashSet<>(), new HashSet<>(), new HashSet<>(), capacity);
+        this(new HashSet<>(), new HashSet<>(), new HashSet<>(), new HashSet<>(), new HashSet<>(), new HashSet<>(), new HashMap<>(), capacity);
     }
 
     private ClientState(final Set<TaskId> activeTasks,
@@ -46,6 +49,7 @@ public class ClientState {
                         final Set<TaskId> prevActiveTasks,
                         final Set<TaskId> prevStandbyTasks,
                         final Set<TaskId> prevAssignedTasks,
+                        final Map<TaskId, Long> taskOffsetSums,
                         final int capacity) {
         this.activeTasks = activeTasks;
         this.standbyTasks = standbyTasks;
@@ -53,6 +57,7 @@ public class ClientState {
         this.prevActiveTasks = prevActiveTasks;
         this.prevStandbyTasks = prevStandbyTasks;
         this.prevAssignedTasks = prevAssignedTasks;
+        this.taskOffsetSums = taskOffsetSums;
         this.capacity = capacity;
     }
 
@@ -64,6 +69,7 @@ public class ClientState {
             new HashSet<>(prevActiveTasks),
             new HashSet<>(prevStandbyTasks),
             new HashSet<>(prevAssignedTasks),
+            new HashMap<>(taskOffsetSums),
             capacity);
     }
 
@@ -77,6 +83,12 @@ public class ClientState {
         assignedTasks.add(taskId);
     }
 
+    void unassignActive(final TaskId taskId) {
+        if (activeTasks.remove(taskId)) {
+            assignedTasks.remove(taskId);
+        }
+    }
+
     public Set<TaskId> activeTasks() {
         return activeTasks;
     }
@@ -117,6 +129,14 @@ public class ClientState {
         prevAssignedTasks.addAll(standbyTasks);
     }
 
+    public void addPreviousTaskOffsetSums(final Map<TaskId, Long> offsetSums) {
+        // threads of the same client share the state directory, so the thread that owned a task
+        // reports the most recent offsets while the others read them from the checkpoint file
+        for (final Map.Entry<TaskId, Long> entry : offsetSums.entrySet()) {
+            taskOffsetSums.merge(entry.getKey(), entry.getValue(), Math::max);
+        }
+    }
+
     @Override
     public String toString() {
         return "[activeTasks: (" + activeTasks +
@@ -125,6 +145,7 @@ public class ClientState {
                 ") prevActiveTasks: (" + prevActiveTasks +
                 ") prevStandbyTasks: (" + prevStandbyTasks +
                 ") prevAssignedTasks: (" + prevAssignedTasks +
+                ") taskOffsetSums: (" + taskOffsetSums +
                 ") capacity: " + capacity +
                 "]";
     }
@@ -177,6 +198,14 @@ public class ClientState {
         return prevAssignedTasks;
     }
 
+    /**
+     * @return the sum of the changelog offsets the local state of the task has caught up to,
+     *         or {@code null} if this client did not report any local state for it
+     */
+    Long offsetSum(final TaskId taskId) {
+        return taskOffsetSums.get(taskId);
+    }
+
     int capacity() {
         return capacity;
     }
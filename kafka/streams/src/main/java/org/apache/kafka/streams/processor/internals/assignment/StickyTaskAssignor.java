@@ -30,6 +30,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.TreeMap;
 
 public class StickyTaskAssignor<ID> implements TaskAssignor<ID, TaskId> {
 
@@ -39,10 +40,32 @@ public class StickyTaskAssignor<ID> implements TaskAssignor<ID, TaskId> {
     private final Map<TaskId, ID> previousActiveTaskAssignment = new HashMap<>();
     private final Map<TaskId, Set<ID>> previousStandbyTaskAssignment = new HashMap<>();
     private final TaskPairs taskPairs;
+    private final Set<TaskId> statefulTaskIds;
+    private final long acceptableRecoveryLag;
+    private final int maxWarmupReplicas;
+    private final Set<TaskId> warmupTaskIds = new HashSet<>();
 
     public StickyTaskAssignor(final Map<ID, ClientState> clients, final Set<TaskId> taskIds) {
+        this(clients, taskIds, Collections.emptySet(), Long.MAX_VALUE, 0);
+    }
+
+    /**
+     * Creates an assignor that also takes into account how far the local state of each client lags behind
+     * for the given stateful tasks, as reported via {@link ClientState#addPreviousTaskOffsetSums(Map)}.
+     * An active task is never moved to a client lagging more than {@code acceptableRecoveryLag} offsets behind
+     * the most caught-up client; instead, up to {@code maxWarmupReplicas} extra standby replicas are assigned
+     * to warm up the state on such clients until a later rebalance can move the active task.
+     */
+    public StickyTaskAssignor(final Map<ID, ClientState> clients,
+                              final Set<TaskId> taskIds,
+                              final Set<TaskId> statefulTaskIds,
+                              final long acceptableRecoveryLag,
+                              final int maxWarmupReplicas) {
         this.clients = clients;
         this.taskIds = taskIds;
+        this.statefulTaskIds = statefulTaskIds;
+        this.acceptableRecoveryLag = acceptableRecoveryLag;
+        this.maxWarmupReplicas = maxWarmupReplicas;
         taskPairs = new TaskPairs(taskIds.size() * (taskIds.size() - 1) / 2);
         mapPreviousTaskAssignment(clients);
     }
@@ -50,7 +73,102 @@ public class StickyTaskAssignor<ID> implements TaskAssignor<ID, TaskId> {
     @Override
     public void assign(final int numStandbyReplicas) {
         assignActive();
+        final Map<TaskId, ID> laggingClients = keepActiveTasksOnCaughtUpClients();
         assignStandby(numStandbyReplicas);
+        assignWarmupReplicas(laggingClients);
+    }
+
+    /**
+     * @return whether some active tasks were kept away from the client they should be balanced to, because that
+     *         client is still warming up their state; a follow-up rebalance should then check if it caught up
+     */
+    public boolean probingRebalanceNeeded() {
+        return !warmupTaskIds.isEmpty();
+    }
+
+    private Map<TaskId, ID> keepActiveTasksOnCaughtUpClients() {
+        final Map<TaskId, ID> laggingClients = new TreeMap<>();
+        final List<TaskId> sortedTasks = new ArrayList<>(statefulTaskIds);
+        Collections.sort(sortedTasks);
+        for (final TaskId taskId : sortedTasks) {
+            final Long caughtUpOffsetSum = caughtUpOffsetSum(taskId);
+            final ID assignee = findActiveAssignee(taskId);
+            // if no client has any local state of the task, every client needs to restore it from scratch
+            if (caughtUpOffsetSum == null || assignee == null || isCaughtUp(clients.get(assignee), taskId, caughtUpOffsetSum)) {
+                continue;
+            }
+
+            final ClientState caughtUpClient = findCaughtUpClient(taskId, caughtUpOffsetSum);
+            log.debug("Keeping active task {} on a caught-up client instead of moving it to lagging client {}", taskId, assignee);
+            clients.get(assignee).unassignActive(taskId);
+            taskPairs.addPairs(taskId, caughtUpClient.assignedTasks());
+            caughtUpClient.assign(taskId, true);
+            laggingClients.put(taskId, assignee);
+        }
+        return laggingClients;
+    }
+
+    private void assignWarmupReplicas(final Map<TaskId, ID> laggingClients) {
+        int numWarmupReplicas = 0;
+        for (final Map.Entry<TaskId, ID> entry : laggingClients.entrySet()) {
+            final TaskId taskId = entry.getKey();
+            final ClientState client = clients.get(entry.getValue());
+            if (client.hasAssignedTask(taskId)) {
+                // a regular standby replica warms up the state just as well
+                warmupTaskIds.add(taskId);
+            } else if (numWarmupReplicas < maxWarmupReplicas) {
+                client.assign(taskId, false);
+                warmupTaskIds.add(taskId);
+                numWarmupReplicas++;
+            }
+        }
+        if (warmupTaskIds.size() < laggingClients.size()) {
+            log.info("Reached the maximum of {} warm-up replicas. The state of {} more tasks will be warmed up " +
+                         "after a following rebalance.", maxWarmupReplicas, laggingClients.size() - warmupTaskIds.size());
+        }
+    }
+
+    private Long caughtUpOffsetSum(final TaskId taskId) {
+        Long caughtUpOffsetSum = null;
+        for (final ClientState client : clients.values()) {
+            final Long offsetSum = client.offsetSum(taskId);
+            if (offsetSum != null && (caughtUpOffsetSum == null || offsetSum > caughtUpOffsetSum)) {
+                caughtUpOffsetSum = offsetSum;
+            }
+        }
+        return caughtUpOffsetSum;
+    }
+
+    private boolean isCaughtUp(final ClientState client, final TaskId taskId, final long caughtUpOffsetSum) {
+        // a client without local state of the task has to restore it from scratch
+        final Long offsetSum = client.offsetSum(taskId);
+        final long lag = offsetSum == null ? caughtUpOffsetSum : caughtUpOffsetSum - offsetSum;
+        return lag <= acceptableRecoveryLag;
+    }
+
+    private ID findActiveAssignee(final TaskId taskId) {
+        for (final Map.Entry<ID, ClientState> client : clients.entrySet()) {
+            if (client.getValue().activeTasks().contains(taskId)) {
+                return client.getKey();
+            }
+        }
+        return null;
+    }
+
+    private ClientState findCaughtUpClient(final TaskId taskId, final long caughtUpOffsetSum) {
+        final ID previous = previousActiveTaskAssignment.get(taskId);
+        if (previous != null && isCaughtUp(clients.get(previous), taskId, caughtUpOffsetSum)) {
+            return clients.get(previous);
+        }
+
+        ClientState leastLoaded = null;
+        for (final ClientState client : clients.values()) {
+            if (isCaughtUp(client, taskId, caughtUpOffsetSum)
+                    && (leastLoaded == null || client.hasMoreAvailableCapacityThan(leastLoaded))) {
+                leastLoaded = client;
+            }
+        }
+        return leastLoaded;
     }
 
     private void assignStandby(final int numStandbyReplicas) {
@@ -24,7 +24,10 @@ import org.slf4j.LoggerFactory;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 
@@ -32,7 +35,7 @@ public class SubscriptionInfo {
 
     private static final Logger log = LoggerFactory.getLogger(SubscriptionInfo.class);
 
-    public static final int LATEST_SUPPORTED_VERSION = 4;
+    public static final int LATEST_SUPPORTED_VERSION = 5;
     static final int UNKNOWN = -1;
 
     private final int usedVersion;
@@ -41,6 +44,7 @@ public class SubscriptionInfo {
     private Set<TaskId> prevTasks;
     private Set<TaskId> standbyTasks;
     private String userEndPoint;
+    private Map<TaskId, Long> taskOffsetSums;
 
     // used for decoding; don't apply version checks
     private SubscriptionInfo(final int version,
@@ -61,7 +65,16 @@ public class SubscriptionInfo {
                             final Set<TaskId> prevTasks,
                             final Set<TaskId> standbyTasks,
                             final String userEndPoint) {
-        this(version, LATEST_SUPPORTED_VERSION, processId, prevTasks, standbyTasks, userEndPoint);
+        this(version, processId, prevTasks, standbyTasks, userEndPoint, Collections.emptyMap());
+    }
+
+    public SubscriptionInfo(final int version,
+                            final UUID processId,
+                            final Set<TaskId> prevTasks,
+                            final Set<TaskId> standbyTasks,
+                            final String userEndPoint,
+                            final Map<TaskId, Long> taskOffsetSums) {
+        this(version, LATEST_SUPPORTED_VERSION, processId, prevTasks, standbyTasks, userEndPoint, taskOffsetSums);
 
         if (version < 1 || version > LATEST_SUPPORTED_VERSION) {
             throw new IllegalArgumentException("version must be between 1 and " + LATEST_SUPPORTED_VERSION
@@ -76,12 +89,24 @@ public class SubscriptionInfo {
                                final Set<TaskId> prevTasks,
                                final Set<TaskId> standbyTasks,
                                final String userEndPoint) {
+        this(version, latestSupportedVersion, processId, prevTasks, standbyTasks, userEndPoint, Collections.emptyMap());
+    }
+
+    // for testing only; don't apply version checks
+    protected SubscriptionInfo(final int version,
+                               final int latestSupportedVersion,
+                               final UUID processId,
+                               final Set<TaskId> prevTasks,
+                               final Set<TaskId> standbyTasks,
+                               final String userEndPoint,
+                               final Map<TaskId, Long> taskOffsetSums) {
         this.usedVersion = version;
         this.latestSupportedVersion = latestSupportedVersion;
         this.processId = processId;
         this.prevTasks = prevTasks;
         this.standbyTasks = standbyTasks;
         this.userEndPoint = userEndPoint;
+        this.taskOffsetSums = taskOffsetSums;
     }
 
     public int version() {
@@ -108,6 +133,14 @@ public class SubscriptionInfo {
         return userEndPoint;
     }
 
+    /**
+     * Returns, for each task with local state, the sum of the changelog offsets this state has caught up to.
+     * Empty for subscriptions of version 4 and lower.
+     */
+    public Map<TaskId, Long> taskOffsetSums() {
+        return taskOffsetSums;
+    }
+
     /**
      * @throws TaskAssignmentException if method fails to encode the data
      */
@@ -127,6 +160,9 @@ public class SubscriptionInfo {
             case 4:
                 buf = encodeVersionFour();
                 break;
+            case 5:
+                buf = encodeVersionFive();
+                break;
             default:
                 throw new IllegalStateException("Unknown metadata version: " + usedVersion
                     + "; latest supported version: " + LATEST_SUPPORTED_VERSION);
@@ -244,6 +280,35 @@ public class SubscriptionInfo {
                4 + endPointBytes.length; // length + userEndPoint
     }
 
+    private ByteBuffer encodeVersionFive() {
+        final byte[] endPointBytes = prepareUserEndPoint();
+
+        final ByteBuffer buf = ByteBuffer.allocate(getVersionFiveByteLength(endPointBytes));
+
+        buf.putInt(5); // used version
+        buf.putInt(LATEST_SUPPORTED_VERSION); // supported version
+        encodeClientUUID(buf);
+        encodeTasks(buf, prevTasks);
+        encodeTasks(buf, standbyTasks);
+        encodeUserEndPoint(buf, endPointBytes);
+        encodeTaskOffsetSums(buf);
+
+        return buf;
+    }
+
+    protected int getVersionFiveByteLength(final byte[] endPointBytes) {
+        return getVersionThreeAndFourByteLength(endPointBytes) +
+               4 + taskOffsetSums.size() * (8 + 8); // length + task offset sums
+    }
+
+    protected void encodeTaskOffsetSums(final ByteBuffer buf) {
+        buf.putInt(taskOffsetSums.size());
+        for (final Map.Entry<TaskId, Long> entry : taskOffsetSums.entrySet()) {
+            entry.getKey().writeTo(buf);
+            buf.putLong(entry.getValue());
+        }
+    }
+
     /**
      * @throws TaskAssignmentException if method fails to decode the data
      */
@@ -270,6 +335,11 @@ public class SubscriptionInfo {
                 subscriptionInfo = new SubscriptionInfo(usedVersion, latestSupportedVersion);
                 decodeVersionThreeData(subscriptionInfo, data);
                 break;
+            case 5:
+                latestSupportedVersion = data.getInt();
+                subscriptionInfo = new SubscriptionInfo(usedVersion, latestSupportedVersion);
+                decodeVersionFiveData(subscriptionInfo, data);
+                break;
             default:
                 latestSupportedVersion = data.getInt();
                 subscriptionInfo = new SubscriptionInfo(usedVersion, latestSupportedVersion);
@@ -283,6 +353,7 @@ public class SubscriptionInfo {
                                              final ByteBuffer data) {
         decodeClientUUID(subscriptionInfo, data);
         decodeTasks(subscriptionInfo, data);
+        subscriptionInfo.taskOffsetSums = Collections.emptyMap();
     }
 
     private static void decodeClientUUID(final SubscriptionInfo subscriptionInfo,
@@ -310,6 +381,7 @@ public class SubscriptionInfo {
         decodeClientUUID(subscriptionInfo, data);
         decodeTasks(subscriptionInfo, data);
         decodeUserEndPoint(subscriptionInfo, data);
+        subscriptionInfo.taskOffsetSums = Collections.emptyMap();
     }
 
     private static void decodeUserEndPoint(final SubscriptionInfo subscriptionInfo,
@@ -327,11 +399,30 @@ public class SubscriptionInfo {
         decodeClientUUID(subscriptionInfo, data);
         decodeTasks(subscriptionInfo, data);
         decodeUserEndPoint(subscriptionInfo, data);
+        subscriptionInfo.taskOffsetSums = Collections.emptyMap();
+    }
+
+    private static void decodeVersionFiveData(final SubscriptionInfo subscriptionInfo,
+                                              final ByteBuffer data) {
+        decodeClientUUID(subscriptionInfo, data);
+        decodeTasks(subscriptionInfo, data);
+        decodeUserEndPoint(subscriptionInfo, data);
+        decodeTaskOffsetSums(subscriptionInfo, data);
+    }
+
+    private static void decodeTaskOffsetSums(final SubscriptionInfo subscriptionInfo,
+                                             final ByteBuffer data) {
+        subscriptionInfo.taskOffsetSums = new HashMap<>();
+        final int numTasks = data.getInt();
+        for (int i = 0; i < numTasks; i++) {
+            subscriptionInfo.taskOffsetSums.put(TaskId.readFrom(data), data.getLong());
+        }
     }
 
     @Override
     public int hashCode() {
-        final int hashCode = usedVersion ^ latestSupportedVersion ^ processId.hashCode() ^ prevTasks.hashCode() ^ standbyTasks.hashCode();
+        final int hashCode = usedVersion ^ latestSupportedVersion ^ processId.hashCode() ^ prevTasks.hashCode() ^ standbyTasks.hashCode()
+            ^ taskOffsetSums.hashCode();
         if (userEndPoint == null) {
             return hashCode;
         }
@@ -347,6 +438,7 @@ public class SubscriptionInfo {
                     this.processId.equals(other.processId) &&
                     this.prevTasks.equals(other.prevTasks) &&
                     this.standbyTasks.equals(other.standbyTasks) &&
+                    this.taskOffsetSums.equals(other.taskOffsetSums) &&
                     this.userEndPoint != null ? this.userEndPoint.equals(other.userEndPoint) : other.userEndPoint == null;
         } else {
             return false;
@@ -360,6 +452,7 @@ public class SubscriptionInfo {
             + ", process ID=" + processId
             + ", prev tasks=" + prevTasks
             + ", standby tasks=" + standbyTasks
-            + ", user endpoint=" + userEndPoint + "]";
+            + ", user endpoint=" + userEndPoint
+            + ", task offset sums=" + taskOffsetSums + "]";
     }
 }
@@ -16,6 +16,7 @@
  */
 package org.apache.kafka.streams.state;
 
+import org.apache.kafka.common.serialization.Serializer;
 import org.apache.kafka.streams.errors.InvalidStateStoreException;
 
 /**
@@ -64,6 +65,25 @@ public interface ReadOnlyKeyValueStore<K, V> {
      */
     KeyValueIterator<K, V> all();
 
+    /**
+     * Return an iterator over all keys whose serialized form starts with the serialized form of the given prefix.
+     * This iterator must be closed after use.
+     * The returned iterator must be safe from {@link java.util.ConcurrentModificationException}s
+     * and must not return null values.
+     * Stores that keep their keys in byte order return the keys in that order, without scanning keys outside of the prefix.
+     * @param prefix The prefix of the keys to return
+     * @param prefixKeySerializer Serializer for the prefix; note that the prefix may have a different type than the keys
+     * @param <PS> Prefix serializer type
+     * @param <P> Prefix type
+     * @return The iterator for keys having the specified prefix.
+     * @throws NullPointerException If null is used for prefix or prefixKeySerializer.
+     * @throws InvalidStateStoreException if the store is not initialized
+     * @throws UnsupportedOperationException if the store does not support prefix scans
+     */
+    default <PS extends Serializer<P>, P> KeyValueIterator<K, V> prefixScan(final P prefix, final PS prefixKeySerializer) {
+        throw new UnsupportedOperationException("prefixScan() is not supported by " + getClass().getName());
+    }
+
     /**
      * Return an approximate count of key-value mappings in this store.
      *
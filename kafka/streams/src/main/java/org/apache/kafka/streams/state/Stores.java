@@ -26,6 +26,7 @@ import org.apache.kafka.streams.state.internals.InMemorySessionBytesStoreSupplie
 import org.apache.kafka.streams.state.internals.InMemoryWindowBytesStoreSupplier;
 import org.apache.kafka.streams.state.internals.KeyValueStoreBuilder;
 import org.apache.kafka.streams.state.internals.MemoryNavigableLRUCache;
+import org.apache.kafka.streams.state.internals.OffHeapKeyValueBytesStoreSupplier;
 import org.apache.kafka.streams.state.internals.RocksDbKeyValueBytesStoreSupplier;
 import org.apache.kafka.streams.state.internals.RocksDbSessionBytesStoreSupplier;
 import org.apache.kafka.streams.state.internals.RocksDbWindowBytesStoreSupplier;
@@ -142,6 +143,27 @@ public final class Stores {
         };
     }
 
+    /**
+     * Create an in-memory {@link KeyValueBytesStoreSupplier} whose records are kept in direct memory outside of
+     * the Java heap.
+     * <p>
+     * Unlike the store of {@link #inMemoryKeyValueStore(String)} it does not create any objects per record, so large
+     * stores do not increase garbage collection pauses. The direct memory held by the store is reported by the
+     * {@code off-heap-allocated-bytes} and {@code off-heap-used-bytes} store metrics, which are updated when the store
+     * is flushed. Note that the JVM limits direct memory via {@code -XX:MaxDirectMemorySize}.
+     * <p>
+     * This store supplier can be passed into a {@link #keyValueStoreBuilder(KeyValueBytesStoreSupplier, Serde, Serde)}
+     * or {@link #timestampedKeyValueStoreBuilder(KeyValueBytesStoreSupplier, Serde, Serde)}.
+     *
+     * @param name  name of the store (cannot be {@code null})
+     * @return an instance of a {@link KeyValueBytesStoreSupplier} than can be used to
+     * build an off-heap in-memory store
+     */
+    public static KeyValueBytesStoreSupplier inMemoryOffHeapKeyValueStore(final String name) {
+        Objects.requireNonNull(name, "name cannot be null");
+        return new OffHeapKeyValueBytesStoreSupplier(name);
+    }
+
     /**
      * Create a LRU Map {@link KeyValueBytesStoreSupplier}.
      * <p>
@@ -19,6 +19,7 @@ package org.apache.kafka.streams.state.internals;
 import java.util.List;
 import java.util.concurrent.ConcurrentNavigableMap;
 import java.util.concurrent.ConcurrentSkipListMap;
+import org.apache.kafka.common.serialization.Serializer;
 import org.apache.kafka.common.utils.Bytes;
 import org.apache.kafka.streams.KeyValue;
 import org.apache.kafka.streams.processor.ProcessorContext;
@@ -28,6 +29,7 @@ import org.apache.kafka.streams.state.KeyValueStore;
 
 import java.util.Iterator;
 import java.util.Map;
+import java.util.Objects;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -133,6 +135,19 @@ public class InMemoryKeyValueStore implements KeyValueStore<Bytes, byte[]> {
             new InMemoryKeyValueIterator(map.entrySet().iterator()));
     }
 
+    @Override
+    public <PS extends Serializer<P>, P> KeyValueIterator<Bytes, byte[]> prefixScan(final P prefix, final PS prefixKeySerializer) {
+        Objects.requireNonNull(prefix, "prefix cannot be null");
+        Objects.requireNonNull(prefixKeySerializer, "prefixKeySerializer cannot be null");
+
+        final Bytes from = Bytes.wrap(prefixKeySerializer.serialize(null, prefix));
+        final Bytes to = OrderedBytes.prefixUpperBound(from);
+        final ConcurrentNavigableMap<Bytes, byte[]> subMap = to == null ? map.tailMap(from, true) : map.subMap(from, true, to, false);
+        return new DelegatingPeekingKeyValueIterator<>(
+            name,
+            new InMemoryKeyValueIterator(subMap.entrySet().iterator()));
+    }
+
     @Override
     public long approximateNumEntries() {
         return map.size();
@@ -16,6 +16,7 @@
  */
 package org.apache.kafka.streams.state.internals;
 
+import org.apache.kafka.common.serialization.Serializer;
 import org.apache.kafka.common.utils.Bytes;
 import org.apache.kafka.streams.KeyValue;
 import org.apache.kafka.streams.processor.ProcessorContext;
@@ -123,6 +124,12 @@ public class KeyValueToTimestampedKeyValueByteStoreAdapter implements KeyValueSt
         return new KeyValueToTimestampedKeyValueIteratorAdapter<>(store.all());
     }
 
+    @Override
+    public <PS extends Serializer<P>, P> KeyValueIterator<Bytes, byte[]> prefixScan(final P prefix,
+                                                                                    final PS prefixKeySerializer) {
+        return new KeyValueToTimestampedKeyValueIteratorAdapter<>(store.prefixScan(prefix, prefixKeySerializer));
+    }
+
     @Override
     public long approximateNumEntries() {
         return store.approximateNumEntries();
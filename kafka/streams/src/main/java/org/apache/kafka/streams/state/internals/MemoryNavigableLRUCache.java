@@ -16,12 +16,15 @@
  */
 package org.apache.kafka.streams.state.internals;
 
+import org.apache.kafka.common.serialization.Serializer;
 import org.apache.kafka.common.utils.Bytes;
 import org.apache.kafka.streams.KeyValue;
 import org.apache.kafka.streams.state.KeyValueIterator;
 
 import java.util.Iterator;
 import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
 import java.util.TreeMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -56,6 +59,21 @@ public class MemoryNavigableLRUCache extends MemoryLRUCache {
         return new MemoryNavigableLRUCache.CacheIterator(treeMap.navigableKeySet().iterator(), treeMap);
     }
 
+    @Override
+    public <PS extends Serializer<P>, P> KeyValueIterator<Bytes, byte[]> prefixScan(final P prefix, final PS prefixKeySerializer) {
+        Objects.requireNonNull(prefix, "prefix cannot be null");
+        Objects.requireNonNull(prefixKeySerializer, "prefixKeySerializer cannot be null");
+
+        final Bytes from = Bytes.wrap(prefixKeySerializer.serialize(null, prefix));
+        final Bytes to = OrderedBytes.prefixUpperBound(from);
+        final TreeMap<Bytes, byte[]> treeMap = toTreeMap();
+        final NavigableSet<Bytes> keys = to == null
+            ? treeMap.navigableKeySet().tailSet(from, true)
+            : treeMap.navigableKeySet().subSet(from, true, to, false);
+        return new DelegatingPeekingKeyValueIterator<>(name(),
+            new MemoryNavigableLRUCache.CacheIterator(keys.iterator(), treeMap));
+    }
+
     private synchronized TreeMap<Bytes, byte[]> toTreeMap() {
         return new TreeMap<>(this.map);
     }
@@ -18,6 +18,9 @@ package org.apache.kafka.streams.state.internals;
 
 import java.util.NavigableMap;
 import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
 import org.apache.kafka.common.MetricName;
 import org.apache.kafka.common.metrics.Sensor;
 import org.apache.kafka.common.metrics.stats.Avg;
@@ -30,55 +33,79 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+/**
+ * A named cache whose entries are partitioned by key hash into lock-striped segments. Every segment
+ * keeps its own LRU list and dirty key set, while lookups and range scans go through a concurrent
+ * sorted map and do not take a lock, so interactive queries do not block the stream thread.
+ * Recency updates from readers are best effort: a reader which finds the segment locked skips the
+ * LRU update rather than waiting. Entries become dirty in the order of a cache wide sequence, which
+ * is used to hand dirty entries to the {@link ThreadCache.DirtyEntryFlushListener} in arrival order.
+ */
 class NamedCache {
     private static final Logger log = LoggerFactory.getLogger(NamedCache.class);
+    private static final Comparator<LRUNode> DIRTY_ORDER = Comparator.comparingLong(node -> node.dirtySequence);
+
     private final String name;
     private final NavigableMap<Bytes, LRUNode> cache = new ConcurrentSkipListMap<>();
-    private final Set<Bytes> dirtyKeys = new LinkedHashSet<>();
-    private ThreadCache.DirtyEntryFlushListener listener;
-    private LRUNode tail;
-    private LRUNode head;
-    private long currentSizeBytes;
+    private final Segment[] segments;
+    private final AtomicLong sequence = new AtomicLong();
+    private volatile ThreadCache.DirtyEntryFlushListener listener;
     private final NamedCacheMetrics namedCacheMetrics;
 
     // internal stats
-    private long numReadHits = 0;
-    private long numReadMisses = 0;
-    private long numOverwrites = 0;
-    private long numFlushes = 0;
+    private final LongAdder numReadHits = new LongAdder();
+    private final LongAdder numReadMisses = new LongAdder();
+    private final AtomicLong numOverwrites = new AtomicLong();
+    private final AtomicLong numFlushes = new AtomicLong();
 
     NamedCache(final String name, final StreamsMetricsImpl metrics) {
+        this(name, metrics, 1);
+    }
+
+    NamedCache(final String name, final StreamsMetricsImpl metrics, final int numSegments) {
+        if (numSegments < 1) {
+            throw new IllegalArgumentException("Number of segments must be at least 1, but was " + numSegments);
+        }
         this.name = name;
+        this.segments = new Segment[numSegments];
+        for (int i = 0; i < numSegments; i++) {
+            segments[i] = new Segment();
+        }
         this.namedCacheMetrics = new NamedCacheMetrics(metrics, name);
     }
 
-    synchronized final String name() {
+    final String name() {
         return name;
     }
 
-    synchronized long hits() {
-        return numReadHits;
+    int numSegments() {
+        return segments.length;
+    }
+
+    long hits() {
+        return numReadHits.sum();
     }
 
-    synchronized long misses() {
-        return numReadMisses;
+    long misses() {
+        return numReadMisses.sum();
     }
 
-    synchronized long overwrites() {
-        return numOverwrites;
+    long overwrites() {
+        return numOverwrites.get();
     }
 
-    synchronized long flushes() {
-        return numFlushes;
+    long flushes() {
+        return numFlushes.get();
     }
 
-    synchronized LRUCacheEntry get(final Bytes key) {
+    LRUCacheEntry get(final Bytes key) {
         if (key == null) {
             return null;
         }
@@ -87,232 +114,391 @@ class NamedCache {
         if (node == null) {
             return null;
         }
-        updateLRU(node);
+        final Segment segment = segmentFor(key);
+        if (segment.lock.tryLock()) {
+            try {
+                // the node may have been evicted or deleted since the lookup
+                if (cache.get(key) == node) {
+                    segment.updateLRU(node);
+                }
+            } finally {
+                segment.lock.unlock();
+            }
+        }
         return node.entry;
     }
 
-    synchronized void setListener(final ThreadCache.DirtyEntryFlushListener listener) {
+    void setListener(final ThreadCache.DirtyEntryFlushListener listener) {
         this.listener = listener;
     }
 
-    synchronized void flush() {
+    void flush() {
         flush(null);
     }
 
     private void flush(final LRUNode evicted) {
-        numFlushes++;
+        numFlushes.incrementAndGet();
 
         if (log.isTraceEnabled()) {
             log.trace("Named cache {} stats on flush: #hits={}, #misses={}, #overwrites={}, #flushes={}",
                 name, hits(), misses(), overwrites(), flushes());
         }
 
+        final ThreadCache.DirtyEntryFlushListener listener = this.listener;
         if (listener == null) {
             throw new IllegalArgumentException("No listener for namespace " + name + " registered with cache");
         }
 
-        if (dirtyKeys.isEmpty()) {
-            return;
-        }
-
         final List<ThreadCache.DirtyEntry> entries = new ArrayList<>();
         final List<Bytes> deleted = new ArrayList<>();
 
-        // evicted already been removed from the cache so add it to the list of
-        // flushed entries and remove from dirtyKeys.
-        if (evicted != null) {
-            entries.add(new ThreadCache.DirtyEntry(evicted.key, evicted.entry.value(), evicted.entry));
-            dirtyKeys.remove(evicted.key);
-        }
+        lockAll();
+        try {
+            final List<LRUNode> dirtyNodes = new ArrayList<>();
+            boolean empty = true;
+            for (final Segment segment : segments) {
+                empty &= segment.dirtyKeys.isEmpty();
+            }
+            if (empty) {
+                return;
+            }
 
-        for (final Bytes key : dirtyKeys) {
-            final LRUNode node = getInternal(key);
-            if (node == null) {
-                throw new IllegalStateException("Key = " + key + " found in dirty key set, but entry is null");
+            // evicted already been removed from the cache so add it to the list of
+            // flushed entries and remove from dirtyKeys.
+            if (evicted != null) {
+                entries.add(new ThreadCache.DirtyEntry(evicted.key, evicted.entry.value(), evicted.entry));
+                segmentFor(evicted.key).dirtyKeys.remove(evicted.key);
+            }
+
+            for (final Segment segment : segments) {
+                for (final Bytes key : segment.dirtyKeys) {
+                    final LRUNode node = cache.get(key);
+                    if (node == null) {
+                        throw new IllegalStateException("Key = " + key + " found in dirty key set, but entry is null");
+                    }
+                    dirtyNodes.add(node);
+                }
+                // clear dirtyKeys before the listener is applied as it may be re-entrant.
+                segment.dirtyKeys.clear();
+            }
+            // every segment keeps its dirty keys in arrival order, so restore the order across segments
+            if (segments.length > 1) {
+                dirtyNodes.sort(DIRTY_ORDER);
             }
-            entries.add(new ThreadCache.DirtyEntry(key, node.entry.value(), node.entry));
-            node.entry.markClean();
-            if (node.entry.value() == null) {
-                deleted.add(node.key);
+
+            for (final LRUNode node : dirtyNodes) {
+                entries.add(new ThreadCache.DirtyEntry(node.key, node.entry.value(), node.entry));
+                node.entry.markClean();
+                if (node.entry.value() == null) {
+                    deleted.add(node.key);
+                }
             }
+        } finally {
+            unlockAll();
         }
-        // clear dirtyKeys before the listener is applied as it may be re-entrant.
-        dirtyKeys.clear();
+
         listener.apply(entries);
         for (final Bytes key : deleted) {
             delete(key);
         }
     }
 
-    synchronized void put(final Bytes key, final LRUCacheEntry value) {
-        if (!value.isDirty() && dirtyKeys.contains(key)) {
-            throw new IllegalStateException(
-                String.format(
-                    "Attempting to put a clean entry for key [%s] into NamedCache [%s] when it already contains a dirty entry for the same key",
-                    key, name
-                )
-            );
-        }
-        LRUNode node = cache.get(key);
-        if (node != null) {
-            numOverwrites++;
-
-            currentSizeBytes -= node.size();
-            node.update(value);
-            updateLRU(node);
-        } else {
-            node = new LRUNode(key, value);
-            // put element
-            putHead(node);
-            cache.put(key, node);
-        }
-        if (value.isDirty()) {
-            // first remove and then add so we can maintain ordering as the arrival order of the records.
-            dirtyKeys.remove(key);
-            dirtyKeys.add(key);
+    void put(final Bytes key, final LRUCacheEntry value) {
+        final Segment segment = segmentFor(key);
+        segment.lock.lock();
+        try {
+            if (!value.isDirty() && segment.dirtyKeys.contains(key)) {
+                throw new IllegalStateException(
+                    String.format(
+                        "Attempting to put a clean entry for key [%s] into NamedCache [%s] when it already contains a dirty entry for the same key",
+                        key, name
+                    )
+                );
+            }
+            LRUNode node = cache.get(key);
+            if (node != null) {
+                numOverwrites.incrementAndGet();
+
+                segment.sizeBytes -= node.size();
+                node.update(value);
+                segment.updateLRU(node);
+            } else {
+                node = new LRUNode(key, value);
+                // put element
+                segment.putHead(node);
+                cache.put(key, node);
+            }
+            if (value.isDirty()) {
+                // first remove and then add so we can maintain ordering as the arrival order of the records.
+                segment.dirtyKeys.remove(key);
+                segment.dirtyKeys.add(key);
+                node.dirtySequence = sequence.incrementAndGet();
+            }
+            segment.sizeBytes += node.size();
+        } finally {
+            segment.lock.unlock();
         }
-        currentSizeBytes += node.size();
     }
 
-    synchronized long sizeInBytes() {
-        return currentSizeBytes;
+    long sizeInBytes() {
+        long sizeInBytes = 0;
+        for (final Segment segment : segments) {
+            sizeInBytes += segment.sizeBytes;
+        }
+        return sizeInBytes;
     }
 
     private LRUNode getInternal(final Bytes key) {
         final LRUNode node = cache.get(key);
         if (node == null) {
-            numReadMisses++;
+            numReadMisses.increment();
 
             return null;
         } else {
-            numReadHits++;
-            namedCacheMetrics.hitRatioSensor.record((double) numReadHits / (double) (numReadHits + numReadMisses));
+            numReadHits.increment();
+            final double hits = numReadHits.sum();
+            namedCacheMetrics.hitRatioSensor.record(hits / (hits + numReadMisses.sum()));
         }
         return node;
     }
 
-    private void updateLRU(final LRUNode node) {
-        remove(node);
-
-        putHead(node);
+    private Segment segmentFor(final Bytes key) {
+        if (segments.length == 1) {
+            return segments[0];
+        }
+        return segments[(key.hashCode() & 0x7fffffff) % segments.length];
     }
 
-    private void remove(final LRUNode node) {
-        if (node.previous != null) {
-            node.previous.next = node.next;
-        } else {
-            head = node.next;
-        }
-        if (node.next != null) {
-            node.next.previous = node.previous;
-        } else {
-            tail = node.previous;
+    private void lockAll() {
+        for (final Segment segment : segments) {
+            segment.lock.lock();
         }
     }
 
-    private void putHead(final LRUNode node) {
-        node.next = head;
-        node.previous = null;
-        if (head != null) {
-            head.previous = node;
-        }
-        head = node;
-        if (tail == null) {
-            tail = head;
+    private void unlockAll() {
+        for (int i = segments.length - 1; i >= 0; i--) {
+            segments[i].lock.unlock();
         }
     }
 
-    synchronized void evict() {
-        if (tail == null) {
+    void evict() {
+        final Segment segment = eldestSegment();
+        if (segment == null) {
             return;
         }
-        final LRUNode eldest = tail;
-        currentSizeBytes -= eldest.size();
-        remove(eldest);
-        cache.remove(eldest.key);
+        final LRUNode eldest;
+        segment.lock.lock();
+        try {
+            eldest = segment.tail;
+            if (eldest == null) {
+                return;
+            }
+            segment.sizeBytes -= eldest.size();
+            segment.remove(eldest);
+            cache.remove(eldest.key);
+        } finally {
+            segment.lock.unlock();
+        }
         if (eldest.entry.isDirty()) {
             flush(eldest);
         }
     }
 
-    synchronized LRUCacheEntry putIfAbsent(final Bytes key, final LRUCacheEntry value) {
-        final LRUCacheEntry originalValue = get(key);
-        if (originalValue == null) {
-            put(key, value);
+    /**
+     * Returns the segment whose least recently used entry is the least recently used entry of this cache.
+     */
+    private Segment eldestSegment() {
+        Segment eldest = null;
+        long eldestAccess = Long.MAX_VALUE;
+        for (final Segment segment : segments) {
+            segment.lock.lock();
+            try {
+                if (segment.tail != null && segment.tail.accessSequence < eldestAccess) {
+                    eldest = segment;
+                    eldestAccess = segment.tail.accessSequence;
+                }
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return eldest;
+    }
+
+    LRUCacheEntry putIfAbsent(final Bytes key, final LRUCacheEntry value) {
+        final Segment segment = segmentFor(key);
+        segment.lock.lock();
+        try {
+            final LRUCacheEntry originalValue = get(key);
+            if (originalValue == null) {
+                put(key, value);
+            }
+            return originalValue;
+        } finally {
+            segment.lock.unlock();
         }
-        return originalValue;
     }
 
-    synchronized void putAll(final List<KeyValue<byte[], LRUCacheEntry>> entries) {
+    void putAll(final List<KeyValue<byte[], LRUCacheEntry>> entries) {
         for (final KeyValue<byte[], LRUCacheEntry> entry : entries) {
             put(Bytes.wrap(entry.key), entry.value);
         }
     }
 
-    synchronized LRUCacheEntry delete(final Bytes key) {
-        final LRUNode node = cache.remove(key);
+    LRUCacheEntry delete(final Bytes key) {
+        final Segment segment = segmentFor(key);
+        segment.lock.lock();
+        try {
+            final LRUNode node = cache.remove(key);
 
-        if (node == null) {
-            return null;
-        }
+            if (node == null) {
+                return null;
+            }
 
-        remove(node);
-        dirtyKeys.remove(key);
-        currentSizeBytes -= node.size();
-        return node.entry();
+            segment.remove(node);
+            segment.dirtyKeys.remove(key);
+            segment.sizeBytes -= node.size();
+            return node.entry();
+        } finally {
+            segment.lock.unlock();
+        }
     }
 
     public long size() {
         return cache.size();
     }
 
-    synchronized Iterator<Map.Entry<Bytes, LRUNode>> subMapIterator(final Bytes from, final Bytes to) {
+    Iterator<Map.Entry<Bytes, LRUNode>> subMapIterator(final Bytes from, final Bytes to) {
         return cache.subMap(from, true, to, true).entrySet().iterator();
     }
 
-    synchronized Iterator<Map.Entry<Bytes, LRUNode>> allIterator() {
+    Iterator<Map.Entry<Bytes, LRUNode>> prefixIterator(final Bytes prefix) {
+        final Bytes upperBound = OrderedBytes.prefixUpperBound(prefix);
+        if (upperBound == null) {
+            return cache.tailMap(prefix, true).entrySet().iterator();
+        }
+        return cache.subMap(prefix, true, upperBound, false).entrySet().iterator();
+    }
+
+    Iterator<Map.Entry<Bytes, LRUNode>> allIterator() {
         return cache.entrySet().iterator();
     }
 
-    synchronized LRUCacheEntry first() {
+    LRUCacheEntry first() {
+        final LRUNode head = head();
         if (head == null) {
             return null;
         }
         return head.entry;
     }
 
-    synchronized LRUCacheEntry last() {
+    LRUCacheEntry last() {
+        final LRUNode tail = tail();
         if (tail == null) {
             return null;
         }
         return tail.entry;
     }
 
-    synchronized LRUNode head() {
+    LRUNode head() {
+        LRUNode head = null;
+        for (final Segment segment : segments) {
+            segment.lock.lock();
+            try {
+                if (segment.head != null && (head == null || segment.head.accessSequence > head.accessSequence)) {
+                    head = segment.head;
+                }
+            } finally {
+                segment.lock.unlock();
+            }
+        }
         return head;
     }
 
-    synchronized LRUNode tail() {
+    LRUNode tail() {
+        LRUNode tail = null;
+        for (final Segment segment : segments) {
+            segment.lock.lock();
+            try {
+                if (segment.tail != null && (tail == null || segment.tail.accessSequence < tail.accessSequence)) {
+                    tail = segment.tail;
+                }
+            } finally {
+                segment.lock.unlock();
+            }
+        }
         return tail;
     }
 
-    synchronized void close() {
-        head = tail = null;
-        listener = null;
-        currentSizeBytes = 0;
-        dirtyKeys.clear();
-        cache.clear();
+    void close() {
+        lockAll();
+        try {
+            for (final Segment segment : segments) {
+                segment.head = segment.tail = null;
+                segment.sizeBytes = 0;
+                segment.dirtyKeys.clear();
+            }
+            listener = null;
+            cache.clear();
+        } finally {
+            unlockAll();
+        }
         namedCacheMetrics.removeAllSensors();
     }
 
+    /**
+     * A lock-striped part of the cache with its own LRU list and dirty keys. All fields except
+     * {@code sizeBytes} must only be accessed while holding {@code lock}.
+     */
+    private final class Segment {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Set<Bytes> dirtyKeys = new LinkedHashSet<>();
+        private LRUNode tail;
+        private LRUNode head;
+        private volatile long sizeBytes;
+
+        private void updateLRU(final LRUNode node) {
+            remove(node);
+
+            putHead(node);
+        }
+
+        private void remove(final LRUNode node) {
+            if (node.previous != null) {
+                node.previous.next = node.next;
+            } else {
+                head = node.next;
+            }
+            if (node.next != null) {
+                node.next.previous = node.previous;
+            } else {
+                tail = node.previous;
+            }
+        }
+
+        private void putHead(final LRUNode node) {
+            node.next = head;
+            node.previous = null;
+            node.accessSequence = sequence.incrementAndGet();
+            if (head != null) {
+                head.previous = node;
+            }
+            head = node;
+            if (tail == null) {
+                tail = head;
+            }
+        }
+    }
+
     /**
      * A simple wrapper class to implement a doubly-linked list around MemoryLRUCacheBytesEntry
      */
     static class LRUNode {
         private final Bytes key;
-        private LRUCacheEntry entry;
+        private volatile LRUCacheEntry entry;
         private LRUNode previous;
         private LRUNode next;
+        private long accessSequence;
+        private long dirtySequence;
 
         LRUNode(final Bytes key, final LRUCacheEntry entry) {
             this.key = key;
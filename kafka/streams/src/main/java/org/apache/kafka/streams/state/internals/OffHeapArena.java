@@ -0,0 +1,254 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.kafka.streams.state.internals;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Allocates variable sized blocks out of chunks of direct memory. Block sizes are rounded up to a size class,
+ * freed blocks are kept in a free list per size class and handed out again by later allocations of the same
+ * class. A block larger than a chunk gets a dedicated chunk, which is dropped when the block is freed.
+ * <p>
+ * A block is addressed by a {@code long} holding the chunk index in the upper and the offset within the chunk
+ * in the lower 32 bits. This class is not thread-safe.
+ */
+class OffHeapArena {
+    static final long NULL = -1L;
+
+    private static final int MIN_BLOCK_SIZE = 16;
+
+    private final int chunkSize;
+    private final int[] classSizes;
+    private final long[] freeLists;
+    private final List<ByteBuffer> chunks = new ArrayList<>();
+    private final Deque<Integer> freeChunkIndexes = new ArrayDeque<>();
+    private int currentChunk = -1;
+    private int currentOffset = 0;
+    private long allocatedBytes = 0;
+    private long usedBytes = 0;
+
+    OffHeapArena(final int chunkSize) {
+        if (chunkSize < MIN_BLOCK_SIZE) {
+            throw new IllegalArgumentException("chunkSize must be at least " + MIN_BLOCK_SIZE + " bytes");
+        }
+        this.chunkSize = chunkSize;
+        this.classSizes = classSizes(chunkSize);
+        this.freeLists = new long[classSizes.length];
+        Arrays.fill(freeLists, NULL);
+    }
+
+    /**
+     * Size classes are multiples of 16 bytes up to 128 bytes and four classes per power of two above,
+     * which bounds the space wasted by rounding up to a quarter of the block.
+     */
+    private static int[] classSizes(final int chunkSize) {
+        final List<Integer> sizes = new ArrayList<>();
+        int size = MIN_BLOCK_SIZE;
+        while (size < chunkSize) {
+            sizes.add(size);
+            size += size < 128 ? MIN_BLOCK_SIZE : Integer.highestOneBit(size) / 4;
+        }
+        sizes.add(chunkSize);
+        final int[] result = new int[sizes.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = sizes.get(i);
+        }
+        return result;
+    }
+
+    private int sizeClass(final int size) {
+        final int index = Arrays.binarySearch(classSizes, size);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    /**
+     * Returns the number of bytes actually reserved for a block of the given size.
+     */
+    int blockSize(final int size) {
+        return size > chunkSize ? size : classSizes[sizeClass(size)];
+    }
+
+    long allocate(final int size) {
+        if (size > chunkSize) {
+            usedBytes += size;
+            return address(newChunk(size), 0);
+        }
+        final int sizeClass = sizeClass(size);
+        final int blockSize = classSizes[sizeClass];
+        long address = freeLists[sizeClass];
+        if (address != NULL) {
+            freeLists[sizeClass] = getLong(address, 0);
+        } else {
+            if (currentChunk == -1 || currentOffset + blockSize > chunkSize) {
+                retireCurrentChunk();
+                currentChunk = newChunk(chunkSize);
+                currentOffset = 0;
+            }
+            address = address(currentChunk, currentOffset);
+            currentOffset += blockSize;
+        }
+        usedBytes += blockSize;
+        return address;
+    }
+
+    /**
+     * Frees a block, {@code size} must be the size the block was allocated with.
+     */
+    void free(final long address, final int size) {
+        if (size > chunkSize) {
+            final int chunk = chunkIndex(address);
+            chunks.set(chunk, null);
+            freeChunkIndexes.push(chunk);
+            allocatedBytes -= size;
+            usedBytes -= size;
+            return;
+        }
+        final int sizeClass = sizeClass(size);
+        pushFree(address, sizeClass);
+        usedBytes -= classSizes[sizeClass];
+    }
+
+    private void pushFree(final long address, final int sizeClass) {
+        putLong(address, 0, freeLists[sizeClass]);
+        freeLists[sizeClass] = address;
+    }
+
+    // hand the unused tail of the current chunk over to the free lists before starting a new chunk
+    private void retireCurrentChunk() {
+        if (currentChunk == -1) {
+            return;
+        }
+        int remaining = chunkSize - currentOffset;
+        while (remaining >= MIN_BLOCK_SIZE) {
+            int sizeClass = sizeClass(remaining);
+            if (classSizes[sizeClass] > remaining) {
+                sizeClass--;
+            }
+            pushFree(address(currentChunk, currentOffset), sizeClass);
+            currentOffset += classSizes[sizeClass];
+            remaining -= classSizes[sizeClass];
+        }
+    }
+
+    private int newChunk(final int capacity) {
+        final ByteBuffer chunk = ByteBuffer.allocateDirect(capacity);
+        allocatedBytes += capacity;
+        if (!freeChunkIndexes.isEmpty()) {
+            final int index = freeChunkIndexes.pop();
+            chunks.set(index, chunk);
+            return index;
+        }
+        chunks.add(chunk);
+        return chunks.size() - 1;
+    }
+
+    /**
+     * Returns the bytes of direct memory held by this arena.
+     */
+    long allocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * Returns the bytes of direct memory held by allocated blocks.
+     */
+    long usedBytes() {
+        return usedBytes;
+    }
+
+    /**
+     * Drops all chunks, the direct memory is returned once the buffers are garbage collected.
+     */
+    void clear() {
+        chunks.clear();
+        freeChunkIndexes.clear();
+        Arrays.fill(freeLists, NULL);
+        currentChunk = -1;
+        currentOffset = 0;
+        allocatedBytes = 0;
+        usedBytes = 0;
+    }
+
+    int getInt(final long address, final int position) {
+        return chunk(address).getInt(offset(address) + position);
+    }
+
+    void putInt(final long address, final int position, final int value) {
+        chunk(address).putInt(offset(address) + position, value);
+    }
+
+    long getLong(final long address, final int position) {
+        return chunk(address).getLong(offset(address) + position);
+    }
+
+    void putLong(final long address, final int position, final long value) {
+        chunk(address).putLong(offset(address) + position, value);
+    }
+
+    byte[] getBytes(final long address, final int position, final int length) {
+        final byte[] bytes = new byte[length];
+        final ByteBuffer buffer = chunk(address).duplicate();
+        buffer.position(offset(address) + position);
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    void putBytes(final long address, final int position, final byte[] bytes) {
+        final ByteBuffer buffer = chunk(address).duplicate();
+        buffer.position(offset(address) + position);
+        buffer.put(bytes);
+    }
+
+    /**
+     * Compares {@code length} bytes stored at the given position of a block with {@code bytes}
+     * lexicographically, treating bytes as unsigned like {@link org.apache.kafka.common.utils.Bytes}.
+     */
+    int compare(final long address, final int position, final int length, final byte[] bytes) {
+        final ByteBuffer chunk = chunk(address);
+        final int start = offset(address) + position;
+        final int minLength = Math.min(length, bytes.length);
+        for (int i = 0; i < minLength; i++) {
+            final int a = chunk.get(start + i) & 0xff;
+            final int b = bytes[i] & 0xff;
+            if (a != b) {
+                return a - b;
+            }
+        }
+        return length - bytes.length;
+    }
+
+    private ByteBuffer chunk(final long address) {
+        return chunks.get(chunkIndex(address));
+    }
+
+    private static long address(final int chunk, final int offset) {
+        return ((long) chunk << 32) | (offset & 0xffffffffL);
+    }
+
+    private static int chunkIndex(final long address) {
+        return (int) (address >>> 32);
+    }
+
+    private static int offset(final long address) {
+        return (int) address;
+    }
+}
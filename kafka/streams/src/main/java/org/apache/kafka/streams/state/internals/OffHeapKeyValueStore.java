@@ -0,0 +1,540 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.kafka.streams.state.internals;
+
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.metrics.Sensor;
+import org.apache.kafka.common.metrics.stats.Value;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.utils.Bytes;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.errors.InvalidStateStoreException;
+import org.apache.kafka.streams.processor.ProcessorContext;
+import org.apache.kafka.streams.processor.StateStore;
+import org.apache.kafka.streams.processor.internals.InternalProcessorContext;
+import org.apache.kafka.streams.processor.internals.metrics.StreamsMetricsImpl;
+import org.apache.kafka.streams.state.KeyValueIterator;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * An in-memory key-value store which keeps its records in direct memory outside of the Java heap, so that
+ * large stores neither add to garbage collection pauses nor pay for per-record object headers.
+ * <p>
+ * Records are kept in a skip list whose nodes live in an {@link OffHeapArena}. Every node is a single block
+ * holding the node level, the key and value lengths, one next pointer per level, the key and the value.
+ * Reads take a shared and writes an exclusive lock. Iterators do not hold the lock between records: they
+ * remember the last returned key and seek past it again whenever the store was modified in between, so
+ * freed nodes are never dereferenced.
+ */
+public class OffHeapKeyValueStore implements KeyValueStore<Bytes, byte[]> {
+    static final int DEFAULT_CHUNK_SIZE = 4 * 1024 * 1024;
+
+    private static final Logger LOG = LoggerFactory.getLogger(OffHeapKeyValueStore.class);
+
+    private static final int MAX_LEVEL = 24;
+    private static final int LEVEL_OFFSET = 0;
+    private static final int KEY_LENGTH_OFFSET = 4;
+    private static final int VALUE_LENGTH_OFFSET = 8;
+    private static final int NEXT_OFFSET = 12;
+
+    private final String name;
+    private final String metricScope;
+    private final OffHeapArena arena;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final long[] head = new long[MAX_LEVEL];
+    private final Random random = new Random();
+    private int level = 1;
+    private long numEntries = 0;
+    private long modCount = 0;
+    private volatile boolean open = false;
+
+    private String taskName;
+    private StreamsMetricsImpl metrics;
+    private Sensor allocatedBytesSensor;
+    private Sensor usedBytesSensor;
+
+    public OffHeapKeyValueStore(final String name, final String metricScope) {
+        this(name, metricScope, DEFAULT_CHUNK_SIZE);
+    }
+
+    OffHeapKeyValueStore(final String name, final String metricScope, final int chunkSize) {
+        this.name = name;
+        this.metricScope = metricScope;
+        this.arena = new OffHeapArena(chunkSize);
+        Arrays.fill(head, OffHeapArena.NULL);
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public void init(final ProcessorContext context,
+                     final StateStore root) {
+        if (context instanceof InternalProcessorContext) {
+            metrics = ((InternalProcessorContext) context).metrics();
+            taskName = context.taskId().toString();
+            final String group = "stream-" + metricScope + "-metrics";
+            allocatedBytesSensor = memorySensor(group, "off-heap-allocated-bytes", "The bytes of direct memory held by the store.");
+            usedBytesSensor = memorySensor(group, "off-heap-used-bytes", "The bytes of direct memory held by the records of the store.");
+        }
+
+        if (root != null) {
+            // register the store
+            context.register(root, (key, value) -> {
+                // this is a delete
+                if (value == null) {
+                    delete(Bytes.wrap(key));
+                } else {
+                    put(Bytes.wrap(key), value);
+                }
+            });
+        }
+
+        open = true;
+        recordMemory();
+    }
+
+    private Sensor memorySensor(final String group, final String sensorName, final String description) {
+        final Sensor sensor = metrics.storeLevelSensor(taskName, name(), sensorName, Sensor.RecordingLevel.INFO);
+        sensor.add(
+            new MetricName(sensorName, group, description, metrics.tagMap("task-id", taskName, metricScope + "-id", name())),
+            new Value()
+        );
+        return sensor;
+    }
+
+    private void recordMemory() {
+        if (allocatedBytesSensor != null) {
+            final long allocatedBytes;
+            final long usedBytes;
+            lock.readLock().lock();
+            try {
+                allocatedBytes = arena.allocatedBytes();
+                usedBytes = arena.usedBytes();
+            } finally {
+                lock.readLock().unlock();
+            }
+            allocatedBytesSensor.record(allocatedBytes);
+            usedBytesSensor.record(usedBytes);
+        }
+    }
+
+    @Override
+    public boolean persistent() {
+        return false;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open;
+    }
+
+    @Override
+    public byte[] get(final Bytes key) {
+        final byte[] keyBytes = key.get();
+        lock.readLock().lock();
+        try {
+            final long node = findFirst(keyBytes, true);
+            if (node == OffHeapArena.NULL || compare(node, keyBytes) != 0) {
+                return null;
+            }
+            return value(node);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void put(final Bytes key, final byte[] value) {
+        if (value == null) {
+            delete(key);
+            return;
+        }
+        final byte[] keyBytes = key.get();
+        lock.writeLock().lock();
+        try {
+            final long[] predecessors = new long[MAX_LEVEL];
+            final long existing = findPredecessors(keyBytes, predecessors);
+            if (existing != OffHeapArena.NULL && compare(existing, keyBytes) == 0) {
+                replace(existing, keyBytes, value, predecessors);
+            } else {
+                insert(keyBytes, value, predecessors);
+            }
+            modCount++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public byte[] putIfAbsent(final Bytes key, final byte[] value) {
+        final byte[] originalValue = get(key);
+        if (originalValue == null) {
+            put(key, value);
+        }
+        return originalValue;
+    }
+
+    @Override
+    public void putAll(final List<KeyValue<Bytes, byte[]>> entries) {
+        for (final KeyValue<Bytes, byte[]> entry : entries) {
+            put(entry.key, entry.value);
+        }
+    }
+
+    @Override
+    public byte[] delete(final Bytes key) {
+        final byte[] keyBytes = key.get();
+        lock.writeLock().lock();
+        try {
+            final long[] predecessors = new long[MAX_LEVEL];
+            final long node = findPredecessors(keyBytes, predecessors);
+            if (node == OffHeapArena.NULL || compare(node, keyBytes) != 0) {
+                return null;
+            }
+            final byte[] oldValue = value(node);
+            final int nodeLevel = nodeLevel(node);
+            for (int i = 0; i < nodeLevel; i++) {
+                setNext(predecessors[i], i, nextOf(node, i));
+            }
+            arena.free(node, nodeSize(node));
+            while (level > 1 && head[level - 1] == OffHeapArena.NULL) {
+                level--;
+            }
+            numEntries--;
+            modCount++;
+            return oldValue;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public KeyValueIterator<Bytes, byte[]> range(final Bytes from, final Bytes to) {
+
+        if (from.compareTo(to) > 0) {
+            LOG.warn("Returning empty iterator for fetch with invalid key range: from > to. "
+                + "This may be due to serdes that don't preserve ordering when lexicographically comparing the serialized bytes. " +
+                "Note that the built-in numerical serdes do not follow this for negative numbers");
+            return KeyValueIterators.emptyIterator();
+        }
+
+        return new DelegatingPeekingKeyValueIterator<>(
+            name,
+            new OffHeapKeyValueIterator(from.get(), to.get(), true));
+    }
+
+    @Override
+    public KeyValueIterator<Bytes, byte[]> all() {
+        return new DelegatingPeekingKeyValueIterator<>(
+            name,
+            new OffHeapKeyValueIterator(null, null, true));
+    }
+
+    @Override
+    public <PS extends Serializer<P>, P> KeyValueIterator<Bytes, byte[]> prefixScan(final P prefix, final PS prefixKeySerializer) {
+        Objects.requireNonNull(prefix, "prefix cannot be null");
+        Objects.requireNonNull(prefixKeySerializer, "prefixKeySerializer cannot be null");
+
+        final Bytes from = Bytes.wrap(prefixKeySerializer.serialize(null, prefix));
+        final Bytes to = OrderedBytes.prefixUpperBound(from);
+        return new DelegatingPeekingKeyValueIterator<>(
+            name,
+            new OffHeapKeyValueIterator(from.get(), to == null ? null : to.get(), false));
+    }
+
+    @Override
+    public long approximateNumEntries() {
+        lock.readLock().lock();
+        try {
+            return numEntries;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void flush() {
+        // nothing to flush since it is in-memory, but refresh the memory metrics
+        recordMemory();
+    }
+
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            arena.clear();
+            Arrays.fill(head, OffHeapArena.NULL);
+            level = 1;
+            numEntries = 0;
+            modCount++;
+            open = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (metrics != null) {
+            metrics.removeAllStoreLevelSensors(taskName, name());
+            allocatedBytesSensor = null;
+            usedBytesSensor = null;
+        }
+    }
+
+    long allocatedBytes() {
+        lock.readLock().lock();
+        try {
+            return arena.allocatedBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    long usedBytes() {
+        lock.readLock().lock();
+        try {
+            return arena.usedBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void insert(final byte[] key, final byte[] value, final long[] predecessors) {
+        final int nodeLevel = randomLevel();
+        if (nodeLevel > level) {
+            for (int i = level; i < nodeLevel; i++) {
+                predecessors[i] = OffHeapArena.NULL;
+            }
+            level = nodeLevel;
+        }
+        final long node = newNode(nodeLevel, key, value);
+        for (int i = 0; i < nodeLevel; i++) {
+            setNext(node, i, nextOf(predecessors[i], i));
+            setNext(predecessors[i], i, node);
+        }
+        numEntries++;
+    }
+
+    private void replace(final long node, final byte[] key, final byte[] value, final long[] predecessors) {
+        final int nodeLevel = nodeLevel(node);
+        final int oldSize = nodeSize(node);
+        final int newSize = nodeSize(nodeLevel, key.length, value.length);
+        if (arena.blockSize(oldSize) == arena.blockSize(newSize)) {
+            // the new value fits into the block of the node
+            arena.putInt(node, VALUE_LENGTH_OFFSET, value.length);
+            arena.putBytes(node, valueOffset(nodeLevel, key.length), value);
+            return;
+        }
+        final long replacement = newNode(nodeLevel, key, value);
+        for (int i = 0; i < nodeLevel; i++) {
+            setNext(replacement, i, nextOf(node, i));
+            setNext(predecessors[i], i, replacement);
+        }
+        arena.free(node, oldSize);
+    }
+
+    private long newNode(final int nodeLevel, final byte[] key, final byte[] value) {
+        final long node = arena.allocate(nodeSize(nodeLevel, key.length, value.length));
+        arena.putInt(node, LEVEL_OFFSET, nodeLevel);
+        arena.putInt(node, KEY_LENGTH_OFFSET, key.length);
+        arena.putInt(node, VALUE_LENGTH_OFFSET, value.length);
+        arena.putBytes(node, NEXT_OFFSET + 8 * nodeLevel, key);
+        arena.putBytes(node, valueOffset(nodeLevel, key.length), value);
+        return node;
+    }
+
+    private int randomLevel() {
+        // every level holds a quarter of the nodes of the level below
+        int nodeLevel = 1;
+        while (nodeLevel < MAX_LEVEL && (random.nextInt() & 3) == 0) {
+            nodeLevel++;
+        }
+        return nodeLevel;
+    }
+
+    /**
+     * Fills in the last node before {@code key} on every level and returns the first node not less than {@code key}.
+     */
+    private long findPredecessors(final byte[] key, final long[] predecessors) {
+        long node = OffHeapArena.NULL;
+        for (int i = level - 1; i >= 0; i--) {
+            long next = nextOf(node, i);
+            while (next != OffHeapArena.NULL && compare(next, key) < 0) {
+                node = next;
+                next = nextOf(node, i);
+            }
+            predecessors[i] = node;
+        }
+        return nextOf(node, 0);
+    }
+
+    /**
+     * Returns the first node not less than {@code key}, or greater than {@code key} if not {@code inclusive}.
+     * A {@code null} key returns the first node.
+     */
+    private long findFirst(final byte[] key, final boolean inclusive) {
+        long node = OffHeapArena.NULL;
+        if (key == null) {
+            return nextOf(node, 0);
+        }
+        for (int i = level - 1; i >= 0; i--) {
+            long next = nextOf(node, i);
+            while (next != OffHeapArena.NULL && (inclusive ? compare(next, key) < 0 : compare(next, key) <= 0)) {
+                node = next;
+                next = nextOf(node, i);
+            }
+        }
+        return nextOf(node, 0);
+    }
+
+    private long nextOf(final long node, final int nodeLevel) {
+        return node == OffHeapArena.NULL ? head[nodeLevel] : arena.getLong(node, NEXT_OFFSET + 8 * nodeLevel);
+    }
+
+    private void setNext(final long node, final int nodeLevel, final long next) {
+        if (node == OffHeapArena.NULL) {
+            head[nodeLevel] = next;
+        } else {
+            arena.putLong(node, NEXT_OFFSET + 8 * nodeLevel, next);
+        }
+    }
+
+    private int nodeLevel(final long node) {
+        return arena.getInt(node, LEVEL_OFFSET);
+    }
+
+    private int compare(final long node, final byte[] key) {
+        return arena.compare(node, NEXT_OFFSET + 8 * nodeLevel(node), arena.getInt(node, KEY_LENGTH_OFFSET), key);
+    }
+
+    private byte[] key(final long node) {
+        return arena.getBytes(node, NEXT_OFFSET + 8 * nodeLevel(node), arena.getInt(node, KEY_LENGTH_OFFSET));
+    }
+
+    private byte[] value(final long node) {
+        final int keyLength = arena.getInt(node, KEY_LENGTH_OFFSET);
+        return arena.getBytes(node, valueOffset(nodeLevel(node), keyLength), arena.getInt(node, VALUE_LENGTH_OFFSET));
+    }
+
+    private int nodeSize(final long node) {
+        return nodeSize(nodeLevel(node), arena.getInt(node, KEY_LENGTH_OFFSET), arena.getInt(node, VALUE_LENGTH_OFFSET));
+    }
+
+    private static int nodeSize(final int nodeLevel, final int keyLength, final int valueLength) {
+        return valueOffset(nodeLevel, keyLength) + valueLength;
+    }
+
+    private static int valueOffset(final int nodeLevel, final int keyLength) {
+        return NEXT_OFFSET + 8 * nodeLevel + keyLength;
+    }
+
+    private class OffHeapKeyValueIterator implements KeyValueIterator<Bytes, byte[]> {
+        private final byte[] from;
+        private final byte[] to;
+        private final boolean toInclusive;
+        private byte[] lastKey;
+        private long nextNode;
+        private long expectedModCount;
+        private KeyValue<Bytes, byte[]> next;
+        private boolean exhausted = false;
+
+        private OffHeapKeyValueIterator(final byte[] from, final byte[] to, final boolean toInclusive) {
+            this.from = from;
+            this.to = to;
+            this.toInclusive = toInclusive;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null && !exhausted) {
+                next = fetchNext();
+                exhausted = next == null;
+            }
+            return next != null;
+        }
+
+        @Override
+        public KeyValue<Bytes, byte[]> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final KeyValue<Bytes, byte[]> result = next;
+            next = null;
+            return result;
+        }
+
+        private KeyValue<Bytes, byte[]> fetchNext() {
+            lock.readLock().lock();
+            try {
+                if (!open) {
+                    throw new InvalidStateStoreException(String.format("Store %s has closed", name));
+                }
+                final long node;
+                if (lastKey == null) {
+                    node = findFirst(from, true);
+                } else if (expectedModCount != modCount) {
+                    // the node after the last returned one may have been freed, so seek again
+                    node = findFirst(lastKey, false);
+                } else {
+                    node = nextNode;
+                }
+                if (node == OffHeapArena.NULL || isPastEnd(node)) {
+                    return null;
+                }
+                lastKey = key(node);
+                nextNode = nextOf(node, 0);
+                expectedModCount = modCount;
+                return new KeyValue<>(Bytes.wrap(lastKey), value(node));
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private boolean isPastEnd(final long node) {
+            if (to == null) {
+                return false;
+            }
+            final int comparison = compare(node, to);
+            return toInclusive ? comparison > 0 : comparison >= 0;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("remove() is not supported in " + getClass().getName());
+        }
+
+        @Override
+        public void close() {
+            // do nothing
+        }
+
+        @Override
+        public Bytes peekNextKey() {
+            throw new UnsupportedOperationException("peekNextKey() not supported in " + getClass().getName());
+        }
+    }
+}
@@ -20,6 +20,7 @@ package org.apache.kafka.streams.state.internals;
 import org.apache.kafka.common.utils.Bytes;
 
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 class OrderedBytes {
 
@@ -49,6 +50,36 @@ class OrderedBytes {
         return Bytes.wrap(res);
     }
 
+    /**
+     * Returns the smallest key that is larger than all keys starting with the given prefix,
+     * or {@code null} if there is no such key since the prefix only consists of {@code 0xFF} bytes
+     */
+    static Bytes prefixUpperBound(final Bytes prefix) {
+        final byte[] bytes = prefix.get();
+        int i = bytes.length - 1;
+        while (i >= 0 && bytes[i] == (byte) 0xFF) {
+            i--;
+        }
+        if (i < 0) {
+            return null;
+        }
+        final byte[] upperBound = Arrays.copyOf(bytes, i + 1);
+        upperBound[i]++;
+        return Bytes.wrap(upperBound);
+    }
+
+    static boolean hasPrefix(final byte[] key, final byte[] prefix) {
+        if (key.length < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (key[i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     static Bytes lowerRange(final Bytes key, final byte[] minSuffix) {
         final byte[] bytes = key.get();
         final ByteBuffer rangeStart = ByteBuffer.allocate(bytes.length + minSuffix.length);
@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.kafka.streams.state.internals;
+
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.metrics.Sensor;
+import org.apache.kafka.common.metrics.stats.Rate;
+import org.apache.kafka.common.metrics.stats.Total;
+import org.apache.kafka.common.metrics.stats.Value;
+import org.apache.kafka.streams.processor.internals.metrics.StreamsMetricsImpl;
+import org.rocksdb.Statistics;
+import org.rocksdb.TickerType;
+
+import java.util.Map;
+
+/**
+ * Exposes the statistics collected by RocksDB for a single {@link RocksDBStore} as store-level Streams metrics.
+ * <p>
+ * Collecting statistics slows down RocksDB, hence they are only enabled if the metrics recording level is
+ * {@link Sensor.RecordingLevel#DEBUG DEBUG}. The metrics are updated whenever the store is flushed.
+ */
+class RocksDBMetricsRecorder {
+    private static final String METRICS_GROUP = "stream-rocksdb-state-metrics";
+
+    private final StreamsMetricsImpl metrics;
+    private final String sensorPrefix;
+    private final Sensor blockCacheHitRatioSensor;
+    private final Sensor bytesReadDuringCompactionSensor;
+    private final Sensor bytesWrittenDuringCompactionSensor;
+    private final Sensor writeStallDurationSensor;
+
+    private Statistics statistics;
+
+    RocksDBMetricsRecorder(final StreamsMetricsImpl metrics,
+                           final String taskName,
+                           final String storeName) {
+        this.metrics = metrics;
+        // not registered as store-level sensors, since those are shared with the metered store wrapping this store
+        // and would be removed whenever the store is re-opened for bulk loading
+        sensorPrefix = "task." + taskName + ".rocksdb." + storeName + ".";
+
+        final Map<String, String> tags = metrics.tagMap("task-id", taskName, "rocksdb-state-id", storeName);
+        blockCacheHitRatioSensor = sensor("block-cache-hit-ratio");
+        blockCacheHitRatioSensor.add(
+            new MetricName("block-cache-hit-ratio", METRICS_GROUP,
+                "The ratio of block cache hits to all block cache lookups since the store was last flushed.", tags),
+            new Value());
+        bytesReadDuringCompactionSensor = sensor("bytes-read-compaction");
+        addRateAndTotal(bytesReadDuringCompactionSensor, "bytes-read-compaction", "bytes read during compaction", tags);
+        bytesWrittenDuringCompactionSensor = sensor("bytes-written-compaction");
+        addRateAndTotal(bytesWrittenDuringCompactionSensor, "bytes-written-compaction", "bytes written during compaction", tags);
+        writeStallDurationSensor = sensor("write-stall-duration");
+        writeStallDurationSensor.add(
+            new MetricName("write-stall-duration-total", METRICS_GROUP,
+                "The total time in milliseconds writes were stalled waiting for flushes or compactions.", tags),
+            new Total());
+    }
+
+    private Sensor sensor(final String sensorName) {
+        return metrics.addSensor(sensorPrefix + sensorName, Sensor.RecordingLevel.DEBUG);
+    }
+
+    private static void addRateAndTotal(final Sensor sensor,
+                                        final String name,
+                                        final String description,
+                                        final Map<String, String> tags) {
+        sensor.add(
+            new MetricName(name + "-rate", METRICS_GROUP, "The average number of " + description + " per second.", tags),
+            new Rate());
+        sensor.add(
+            new MetricName(name + "-total", METRICS_GROUP, "The total number of " + description + ".", tags),
+            new Total());
+    }
+
+    /**
+     * @return the statistics the store should collect, or {@code null} if the metrics are not recorded
+     */
+    Statistics statistics() {
+        if (statistics == null && blockCacheHitRatioSensor.shouldRecord()) {
+            statistics = new Statistics();
+        }
+        return statistics;
+    }
+
+    void record() {
+        if (statistics == null) {
+            return;
+        }
+        final long hits = statistics.getAndResetTickerCount(TickerType.BLOCK_CACHE_HIT);
+        final long misses = statistics.getAndResetTickerCount(TickerType.BLOCK_CACHE_MISS);
+        if (hits + misses > 0) {
+            blockCacheHitRatioSensor.record((double) hits / (hits + misses));
+        }
+        bytesReadDuringCompactionSensor.record(statistics.getAndResetTickerCount(TickerType.COMPACT_READ_BYTES));
+        bytesWrittenDuringCompactionSensor.record(statistics.getAndResetTickerCount(TickerType.COMPACT_WRITE_BYTES));
+        writeStallDurationSensor.record(statistics.getAndResetTickerCount(TickerType.STALL_MICROS) / 1000.0);
+    }
+
+    /**
+     * Removes the metrics of the store. Must be called after the RocksDB instance using the statistics was closed.
+     */
+    void close() {
+        metrics.removeSensor(blockCacheHitRatioSensor);
+        metrics.removeSensor(bytesReadDuringCompactionSensor);
+        metrics.removeSensor(bytesWrittenDuringCompactionSensor);
+        metrics.removeSensor(writeStallDurationSensor);
+        if (statistics != null) {
+            statistics.close();
+            statistics = null;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.kafka.streams.state.internals;
+
+import org.rocksdb.Cache;
+import org.rocksdb.LRUCache;
+import org.rocksdb.WriteBufferManager;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The block cache and write buffer manager shared by all {@link RocksDBStore}s of this process that are
+ * configured with the same {@link org.apache.kafka.streams.StreamsConfig#ROCKSDB_BLOCK_CACHE_SIZE_CONFIG} and
+ * {@link org.apache.kafka.streams.StreamsConfig#ROCKSDB_WRITE_BUFFER_MANAGER_SIZE_CONFIG}.
+ * <p>
+ * The resources are reference counted: every store {@link #acquire(long, long) acquires} them when it is opened
+ * and {@link #release() releases} them when it is closed, and they are freed once the last store released them.
+ */
+final class RocksDBSharedResources {
+    private static final Map<List<Long>, RocksDBSharedResources> SHARED_RESOURCES = new HashMap<>();
+
+    private final List<Long> sizes;
+    private final Cache cache;
+    private final WriteBufferManager writeBufferManager;
+    private int referenceCount = 0;
+
+    private RocksDBSharedResources(final List<Long> sizes,
+                                   final long blockCacheSize,
+                                   final long writeBufferManagerSize) {
+        this.sizes = sizes;
+        cache = new LRUCache(blockCacheSize);
+        writeBufferManager = writeBufferManagerSize > 0L ? new WriteBufferManager(writeBufferManagerSize, cache) : null;
+    }
+
+    static RocksDBSharedResources acquire(final long blockCacheSize,
+                                          final long writeBufferManagerSize) {
+        final List<Long> sizes = Arrays.asList(blockCacheSize, writeBufferManagerSize);
+        synchronized (SHARED_RESOURCES) {
+            final RocksDBSharedResources resources = SHARED_RESOURCES.computeIfAbsent(
+                sizes,
+                k -> new RocksDBSharedResources(k, blockCacheSize, writeBufferManagerSize));
+            resources.referenceCount++;
+            return resources;
+        }
+    }
+
+    void release() {
+        synchronized (SHARED_RESOURCES) {
+            if (--referenceCount == 0) {
+                SHARED_RESOURCES.remove(sizes);
+                if (writeBufferManager != null) {
+                    writeBufferManager.close();
+                }
+                cache.close();
+            }
+        }
+    }
+
+    Cache cache() {
+        return cache;
+    }
+
+    /**
+     * @return the write buffer manager, or {@code null} if the memtables are not bounded across stores
+     */
+    WriteBufferManager writeBufferManager() {
+        return writeBufferManager;
+    }
+
+    // visible for testing
+    int referenceCount() {
+        synchronized (SHARED_RESOURCES) {
+            return referenceCount;
+        }
+    }
+}
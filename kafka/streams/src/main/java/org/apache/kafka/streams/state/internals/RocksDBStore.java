@@ -17,6 +17,7 @@
 package org.apache.kafka.streams.state.internals;
 
 import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.Serializer;
 import org.apache.kafka.common.utils.Bytes;
 import org.apache.kafka.common.utils.Utils;
 import org.apache.kafka.streams.KeyValue;
@@ -27,6 +28,7 @@ import org.apache.kafka.streams.processor.AbstractNotifyingBatchingRestoreCallba
 import org.apache.kafka.streams.processor.BatchingStateRestoreCallback;
 import org.apache.kafka.streams.processor.ProcessorContext;
 import org.apache.kafka.streams.processor.StateStore;
+import org.apache.kafka.streams.processor.internals.InternalProcessorContext;
 import org.apache.kafka.streams.state.KeyValueIterator;
 import org.apache.kafka.streams.state.KeyValueStore;
 import org.apache.kafka.streams.state.RocksDBConfigSetter;
@@ -46,6 +48,7 @@ import org.rocksdb.Options;
 import org.rocksdb.RocksDB;
 import org.rocksdb.RocksDBException;
 import org.rocksdb.RocksIterator;
+import org.rocksdb.Statistics;
 import org.rocksdb.WriteBatch;
 import org.rocksdb.WriteOptions;
 import org.slf4j.Logger;
@@ -94,6 +97,8 @@ public class RocksDBStore implements KeyValueStore<Bytes, byte[]>, BulkLoadingSt
     FlushOptions fOptions;
     private Cache cache;
     private BloomFilter filter;
+    RocksDBSharedResources sharedResources;
+    private RocksDBMetricsRecorder metricsRecorder;
 
     private RocksDBConfigSetter configSetter;
 
@@ -122,10 +127,24 @@ public class RocksDBStore implements KeyValueStore<Bytes, byte[]>, BulkLoadingSt
         final DBOptions dbOptions = new DBOptions();
         final ColumnFamilyOptions columnFamilyOptions = new ColumnFamilyOptions();
         userSpecifiedOptions = new RocksDBGenericOptionsToDbOptionsColumnFamilyOptionsAdapter(dbOptions, columnFamilyOptions);
+        final Map<String, Object> configs = context.appConfigs();
 
         final BlockBasedTableConfig tableConfig = new BlockBasedTableConfig();
-        cache = new LRUCache(BLOCK_CACHE_SIZE);
-        tableConfig.setBlockCache(cache);
+        final long sharedBlockCacheSize = longConfig(configs, StreamsConfig.ROCKSDB_BLOCK_CACHE_SIZE_CONFIG);
+        if (sharedBlockCacheSize > 0L) {
+            sharedResources = RocksDBSharedResources.acquire(
+                sharedBlockCacheSize,
+                longConfig(configs, StreamsConfig.ROCKSDB_WRITE_BUFFER_MANAGER_SIZE_CONFIG));
+            tableConfig.setBlockCache(sharedResources.cache());
+            // charge index and filter blocks against the shared cache too, so that it bounds the memory of all stores
+            tableConfig.setCacheIndexAndFilterBlocks(true);
+            if (sharedResources.writeBufferManager() != null) {
+                userSpecifiedOptions.setWriteBufferManager(sharedResources.writeBufferManager());
+            }
+        } else {
+            cache = new LRUCache(BLOCK_CACHE_SIZE);
+            tableConfig.setBlockCache(cache);
+        }
         tableConfig.setBlockSize(BLOCK_SIZE);
 
         filter = new BloomFilter();
@@ -155,7 +174,17 @@ public class RocksDBStore implements KeyValueStore<Bytes, byte[]>, BulkLoadingSt
         fOptions = new FlushOptions();
         fOptions.setWaitForFlush(true);
 
-        final Map<String, Object> configs = context.appConfigs();
+        if (context instanceof InternalProcessorContext) {
+            metricsRecorder = new RocksDBMetricsRecorder(
+                ((InternalProcessorContext) context).metrics(),
+                context.taskId().toString(),
+                name);
+            final Statistics statistics = metricsRecorder.statistics();
+            if (statistics != null) {
+                userSpecifiedOptions.setStatistics(statistics);
+            }
+        }
+
         final Class<RocksDBConfigSetter> configSetterClass =
             (Class<RocksDBConfigSetter>) configs.get(StreamsConfig.ROCKSDB_CONFIG_SETTER_CLASS_CONFIG);
 
@@ -181,6 +210,12 @@ public class RocksDBStore implements KeyValueStore<Bytes, byte[]>, BulkLoadingSt
         open = true;
     }
 
+    private static long longConfig(final Map<String, Object> configs,
+                                   final String name) {
+        final Object value = configs.get(name);
+        return value == null ? 0L : Long.parseLong(value.toString());
+    }
+
     void openRocksDB(final DBOptions dbOptions,
                      final ColumnFamilyOptions columnFamilyOptions) {
         final List<ColumnFamilyDescriptor> columnFamilyDescriptors
@@ -317,6 +352,20 @@ public class RocksDBStore implements KeyValueStore<Bytes, byte[]>, BulkLoadingSt
         return rocksDbIterator;
     }
 
+    @Override
+    public synchronized <PS extends Serializer<P>, P> KeyValueIterator<Bytes, byte[]> prefixScan(final P prefix,
+                                                                                                 final PS prefixKeySerializer) {
+        Objects.requireNonNull(prefix, "prefix cannot be null");
+        Objects.requireNonNull(prefixKeySerializer, "prefixKeySerializer cannot be null");
+        validateStoreOpen();
+
+        final KeyValueIterator<Bytes, byte[]> rocksDBPrefixIterator =
+            dbAccessor.prefixScan(Bytes.wrap(prefixKeySerializer.serialize(null, prefix)));
+        openIterators.add(rocksDBPrefixIterator);
+
+        return rocksDBPrefixIterator;
+    }
+
     /**
      * Return an approximate count of key-value mappings in this store.
      *
@@ -359,6 +408,9 @@ public class RocksDBStore implements KeyValueStore<Bytes, byte[]>, BulkLoadingSt
         } catch (final RocksDBException e) {
             throw new ProcessorStateException("Error while executing flush from store " + name, e);
         }
+        if (metricsRecorder != null) {
+            metricsRecorder.record();
+        }
     }
 
     @Override
@@ -408,7 +460,15 @@ public class RocksDBStore implements KeyValueStore<Bytes, byte[]>, BulkLoadingSt
         fOptions.close();
         db.close();
         filter.close();
-        cache.close();
+        if (cache != null) {
+            cache.close();
+        }
+        if (sharedResources != null) {
+            sharedResources.release();
+        }
+        if (metricsRecorder != null) {
+            metricsRecorder.close();
+        }
 
         dbAccessor = null;
         userSpecifiedOptions = null;
@@ -417,6 +477,8 @@ public class RocksDBStore implements KeyValueStore<Bytes, byte[]>, BulkLoadingSt
         db = null;
         filter = null;
         cache = null;
+        sharedResources = null;
+        metricsRecorder = null;
     }
 
     private void closeOpenIterators() {
@@ -456,6 +518,8 @@ public class RocksDBStore implements KeyValueStore<Bytes, byte[]>, BulkLoadingSt
 
         KeyValueIterator<Bytes, byte[]> all();
 
+        KeyValueIterator<Bytes, byte[]> prefixScan(final Bytes prefix);
+
         long approximateNumEntries() throws RocksDBException;
 
         void flush() throws RocksDBException;
@@ -536,6 +600,15 @@ public class RocksDBStore implements KeyValueStore<Bytes, byte[]>, BulkLoadingSt
             return new RocksDbIterator(name, innerIterWithTimestamp, openIterators);
         }
 
+        @Override
+        public KeyValueIterator<Bytes, byte[]> prefixScan(final Bytes prefix) {
+            return new RocksDBPrefixIterator(
+                name,
+                db.newIterator(columnFamily),
+                openIterators,
+                prefix);
+        }
+
         @Override
         public long approximateNumEntries() throws RocksDBException {
             return db.getLongProperty(columnFamily, "rocksdb.estimate-num-keys");
@@ -208,6 +208,15 @@ public class RocksDBTimestampedStore extends RocksDBStore implements Timestamped
             return new RocksDBDualCFIterator(name, innerIterWithTimestamp, innerIterNoTimestamp);
         }
 
+        @Override
+        public KeyValueIterator<Bytes, byte[]> prefixScan(final Bytes prefix) {
+            return new RocksDBDualCFPrefixIterator(
+                name,
+                db.newIterator(newColumnFamily),
+                db.newIterator(oldColumnFamily),
+                prefix);
+        }
+
         @Override
         public long approximateNumEntries() throws RocksDBException {
             return db.getLongProperty(oldColumnFamily, "rocksdb.estimate-num-keys")
@@ -400,4 +409,29 @@ public class RocksDBTimestampedStore extends RocksDBStore implements Timestamped
         }
     }
 
+    private class RocksDBDualCFPrefixIterator extends RocksDBDualCFIterator {
+        private final byte[] rawPrefix;
+
+        RocksDBDualCFPrefixIterator(final String storeName,
+                                    final RocksIterator iterWithTimestamp,
+                                    final RocksIterator iterNoTimestamp,
+                                    final Bytes prefix) {
+            super(storeName, iterWithTimestamp, iterNoTimestamp);
+            rawPrefix = prefix.get();
+            iterWithTimestamp.seek(rawPrefix);
+            iterNoTimestamp.seek(rawPrefix);
+        }
+
+        @Override
+        public KeyValue<Bytes, byte[]> makeNext() {
+            final KeyValue<Bytes, byte[]> next = super.makeNext();
+
+            if (next == null || !OrderedBytes.hasPrefix(next.key.get(), rawPrefix)) {
+                return allDone();
+            } else {
+                return next;
+            }
+        }
+    }
+
 }
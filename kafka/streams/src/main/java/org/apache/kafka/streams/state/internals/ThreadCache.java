@@ -24,11 +24,13 @@ import org.apache.kafka.streams.state.internals.NamedCache.LRUNode;
 import org.slf4j.Logger;
 
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * An in-memory LRU cache store similar to {@link MemoryLRUCache} but byte-based, not
@@ -38,11 +40,12 @@ public class ThreadCache {
     private final Logger log;
     private final long maxCacheSizeBytes;
     private final StreamsMetricsImpl metrics;
-    private final Map<String, NamedCache> caches = new HashMap<>();
+    private final int numSegments;
+    private final ConcurrentMap<String, NamedCache> caches = new ConcurrentHashMap<>();
 
     // internal stats
     private long numPuts = 0;
-    private long numGets = 0;
+    private final LongAdder numGets = new LongAdder();
     private long numEvicts = 0;
     private long numFlushes = 0;
 
@@ -51,8 +54,20 @@ public class ThreadCache {
     }
 
     public ThreadCache(final LogContext logContext, final long maxCacheSizeBytes, final StreamsMetricsImpl metrics) {
+        this(logContext, maxCacheSizeBytes, metrics, 1);
+    }
+
+    /**
+     * @param numSegments the number of lock-striped segments of every {@link NamedCache}, a value greater
+     *                    than one lets interactive queries read the cache without contending with the stream thread
+     */
+    public ThreadCache(final LogContext logContext,
+                       final long maxCacheSizeBytes,
+                       final StreamsMetricsImpl metrics,
+                       final int numSegments) {
         this.maxCacheSizeBytes = maxCacheSizeBytes;
         this.metrics = metrics;
+        this.numSegments = numSegments;
         this.log = logContext.logger(getClass());
     }
 
@@ -61,7 +76,7 @@ public class ThreadCache {
     }
 
     public long gets() {
-        return numGets;
+        return numGets.sum();
     }
 
     public long evicts() {
@@ -130,7 +145,7 @@ public class ThreadCache {
     }
 
     public LRUCacheEntry get(final String namespace, final Bytes key) {
-        numGets++;
+        numGets.increment();
 
         if (key == null) {
             return null;
@@ -186,6 +201,14 @@ public class ThreadCache {
         return new MemoryLRUCacheBytesIterator(cache.subMapIterator(from, to));
     }
 
+    public MemoryLRUCacheBytesIterator prefixScan(final String namespace, final Bytes prefix) {
+        final NamedCache cache = getCache(namespace);
+        if (cache == null) {
+            return new MemoryLRUCacheBytesIterator(Collections.emptyIterator());
+        }
+        return new MemoryLRUCacheBytesIterator(cache.prefixIterator(prefix));
+    }
+
     public MemoryLRUCacheBytesIterator all(final String namespace) {
         final NamedCache cache = getCache(namespace);
         if (cache == null) {
@@ -220,7 +243,7 @@ public class ThreadCache {
         return sizeInBytes;
     }
 
-    synchronized void close(final String namespace) {
+    void close(final String namespace) {
         final NamedCache removed = caches.remove(namespace);
         if (removed != null) {
             removed.close();
@@ -247,15 +270,14 @@ public class ThreadCache {
         }
     }
 
-    private synchronized NamedCache getCache(final String namespace) {
+    private NamedCache getCache(final String namespace) {
         return caches.get(namespace);
     }
 
-    private synchronized NamedCache getOrCreateCache(final String name) {
+    private NamedCache getOrCreateCache(final String name) {
         NamedCache cache = caches.get(name);
         if (cache == null) {
-            cache = new NamedCache(name, this.metrics);
-            caches.put(name, cache);
+            cache = caches.computeIfAbsent(name, n -> new NamedCache(n, this.metrics, numSegments));
         }
         return cache;
     }
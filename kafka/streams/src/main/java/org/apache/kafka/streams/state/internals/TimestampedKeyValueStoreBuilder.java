@@ -17,6 +17,7 @@
 package org.apache.kafka.streams.state.internals;
 
 import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serializer;
 import org.apache.kafka.common.utils.Bytes;
 import org.apache.kafka.common.utils.Time;
 import org.apache.kafka.streams.KeyValue;
@@ -138,6 +139,12 @@ public class TimestampedKeyValueStoreBuilder<K, V>
             return wrapped.all();
         }
 
+        @Override
+        public <PS extends Serializer<P>, P> KeyValueIterator<Bytes, byte[]> prefixScan(final P prefix,
+                                                                                        final PS prefixKeySerializer) {
+            return wrapped.prefixScan(prefix, prefixKeySerializer);
+        }
+
         @Override
         public long approximateNumEntries() {
             return wrapped.approximateNumEntries();
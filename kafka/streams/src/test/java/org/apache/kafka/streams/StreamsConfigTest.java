@@ -89,6 +89,12 @@ public class StreamsConfigTest {
         new StreamsConfig(props);
     }
 
+    @Test(expected = ConfigException.class)
+    public void shouldThrowExceptionIfWriteBufferManagerIsSetWithoutSharedBlockCache() {
+        props.put(StreamsConfig.ROCKSDB_WRITE_BUFFER_MANAGER_SIZE_CONFIG, 1024L);
+        new StreamsConfig(props);
+    }
+
     @Test
     public void testGetProducerConfigs() {
         final Map<String, Object> returnedProps = streamsConfig.getProducerConfigs(clientId);
@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.kafka.streams.kstream;
+
+import org.junit.Test;
+
+import static java.time.Duration.ofMillis;
+import static org.apache.kafka.streams.EqualityCheck.verifyEquality;
+import static org.apache.kafka.streams.EqualityCheck.verifyInEquality;
+import static org.junit.Assert.assertEquals;
+
+public class SlidingWindowsTest {
+
+    @Test
+    public void shouldSetTimeDifferenceAndGrace() {
+        final SlidingWindows windows = SlidingWindows.withTimeDifferenceAndGrace(ofMillis(42L), ofMillis(7L));
+        assertEquals(42L, windows.timeDifferenceMs());
+        assertEquals(7L, windows.gracePeriodMs());
+    }
+
+    @Test
+    public void shouldAcceptZeroGrace() {
+        assertEquals(0L, SlidingWindows.withTimeDifferenceAndGrace(ofMillis(3L), ofMillis(0L)).gracePeriodMs());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void timeDifferenceMustNotBeZero() {
+        SlidingWindows.withTimeDifferenceAndGrace(ofMillis(0L), ofMillis(5L));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void timeDifferenceMustNotBeNegative() {
+        SlidingWindows.withTimeDifferenceAndGrace(ofMillis(-1L), ofMillis(5L));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void graceMustNotBeNegative() {
+        SlidingWindows.withTimeDifferenceAndGrace(ofMillis(3L), ofMillis(-1L));
+    }
+
+    @Test
+    public void equalsAndHashcodeShouldBeValidForPositiveCases() {
+        verifyEquality(
+            SlidingWindows.withTimeDifferenceAndGrace(ofMillis(3L), ofMillis(5L)),
+            SlidingWindows.withTimeDifferenceAndGrace(ofMillis(3L), ofMillis(5L)));
+    }
+
+    @Test
+    public void equalsAndHashcodeShouldBeValidForNegativeCases() {
+        verifyInEquality(
+            SlidingWindows.withTimeDifferenceAndGrace(ofMillis(3L), ofMillis(5L)),
+            SlidingWindows.withTimeDifferenceAndGrace(ofMillis(4L), ofMillis(5L)));
+        verifyInEquality(
+            SlidingWindows.withTimeDifferenceAndGrace(ofMillis(3L), ofMillis(5L)),
+            SlidingWindows.withTimeDifferenceAndGrace(ofMillis(3L), ofMillis(6L)));
+    }
+}
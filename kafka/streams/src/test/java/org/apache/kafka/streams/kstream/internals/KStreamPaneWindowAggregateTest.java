@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.kafka.streams.kstream.internals;
+
+import org.apache.kafka.common.serialization.LongSerializer;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.common.utils.Bytes;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.TopologyTestDriver;
+import org.apache.kafka.streams.kstream.Consumed;
+import org.apache.kafka.streams.kstream.Grouped;
+import org.apache.kafka.streams.kstream.KGroupedStream;
+import org.apache.kafka.streams.kstream.Materialized;
+import org.apache.kafka.streams.kstream.TimeWindowedKStream;
+import org.apache.kafka.streams.kstream.TimeWindows;
+import org.apache.kafka.streams.kstream.UnlimitedWindows;
+import org.apache.kafka.streams.kstream.Windowed;
+import org.apache.kafka.streams.state.WindowStore;
+import org.apache.kafka.streams.test.ConsumerRecordFactory;
+import org.apache.kafka.test.MockAggregator;
+import org.apache.kafka.test.MockInitializer;
+import org.apache.kafka.test.MockProcessorSupplier;
+import org.apache.kafka.test.StreamsTestUtils;
+import org.junit.Test;
+
+import java.util.Properties;
+import java.util.Random;
+
+import static java.time.Duration.ofMillis;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class KStreamPaneWindowAggregateTest {
+    private final ConsumerRecordFactory<String, String> recordFactory =
+        new ConsumerRecordFactory<>(new StringSerializer(), new StringSerializer());
+    private final Properties props = StreamsTestUtils.getStreamsConfig(Serdes.String(), Serdes.String());
+
+    @Test
+    public void shouldAssembleWindowsFromPanes() {
+        final StreamsBuilder builder = new StreamsBuilder();
+        final String topic = "topic";
+
+        final MockProcessorSupplier<Windowed<String>, String> supplier = new MockProcessorSupplier<>();
+        builder
+            .stream(topic, Consumed.with(Serdes.String(), Serdes.String()))
+            .groupByKey(Grouped.with(Serdes.String(), Serdes.String()))
+            .windowedBy(TimeWindows.of(ofMillis(10)).advanceBy(ofMillis(5)))
+            .aggregate(
+                MockInitializer.STRING_INIT,
+                MockAggregator.TOSTRING_ADDER,
+                (key, one, two) -> one + two.substring(1),
+                Materialized.<String, String, WindowStore<Bytes, byte[]>>as("panes").withValueSerde(Serdes.String()))
+            .toStream()
+            .process(supplier);
+
+        try (final TopologyTestDriver driver = new TopologyTestDriver(builder.build(), props)) {
+            driver.pipeInput(recordFactory.create(topic, "A", "1", 0L));
+            driver.pipeInput(recordFactory.create(topic, "A", "2", 6L));
+            driver.pipeInput(recordFactory.create(topic, "A", "3", 3L));
+            driver.pipeInput(recordFactory.create(topic, "A", "4", 12L));
+        }
+
+        assertEquals(
+            asList(
+                "[A@0/10]:0+1 (ts: 0)",
+                "[A@0/10]:0+1+2 (ts: 6)", "[A@5/15]:0+2 (ts: 6)",
+                "[A@0/10]:0+1+3+2 (ts: 6)",
+                "[A@5/15]:0+2+4 (ts: 12)", "[A@10/20]:0+4 (ts: 12)"
+            ),
+            supplier.theCapturedProcessor().processed
+        );
+    }
+
+    @Test
+    public void shouldComputeSameResultsAsWindowAggregation() {
+        final StreamsBuilder builder = new StreamsBuilder();
+        final String topic = "topic";
+        final TimeWindows windows = TimeWindows.of(ofMillis(60)).advanceBy(ofMillis(15)).grace(ofMillis(200));
+
+        final TimeWindowedKStream<String, Long> windowed = builder
+            .stream(topic, Consumed.with(Serdes.String(), Serdes.Long()))
+            .groupByKey(Grouped.with(Serdes.String(), Serdes.Long()))
+            .windowedBy(windows);
+        final MockProcessorSupplier<Windowed<String>, Long> windowSupplier = new MockProcessorSupplier<>();
+        windowed
+            .aggregate(
+                () -> 0L,
+                (key, value, aggregate) -> aggregate + value,
+                Materialized.<String, Long, WindowStore<Bytes, byte[]>>as("windows").withValueSerde(Serdes.Long()))
+            .toStream()
+            .process(windowSupplier);
+        final MockProcessorSupplier<Windowed<String>, Long> paneSupplier = new MockProcessorSupplier<>();
+        windowed
+            .aggregate(
+                () -> 0L,
+                (key, value, aggregate) -> aggregate + value,
+                (key, one, two) -> one + two,
+                Materialized.<String, Long, WindowStore<Bytes, byte[]>>as("panes").withValueSerde(Serdes.Long()))
+            .toStream()
+            .process(paneSupplier);
+
+        final ConsumerRecordFactory<String, Long> longRecordFactory =
+            new ConsumerRecordFactory<>(new StringSerializer(), new LongSerializer());
+        final Random random = new Random(42);
+        try (final TopologyTestDriver driver = new TopologyTestDriver(builder.build(), props)) {
+            for (int i = 0; i < 500; i++) {
+                driver.pipeInput(longRecordFactory.create(
+                    topic,
+                    "k" + random.nextInt(3),
+                    (long) random.nextInt(100),
+                    i + random.nextInt(150)));
+            }
+        }
+
+        assertFalse(windowSupplier.theCapturedProcessor().lastValueAndTimestampPerKey.isEmpty());
+        assertEquals(
+            windowSupplier.theCapturedProcessor().lastValueAndTimestampPerKey,
+            paneSupplier.theCapturedProcessor().lastValueAndTimestampPerKey);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRequireTimeWindows() {
+        final KGroupedStream<String, String> grouped = new StreamsBuilder()
+            .stream("topic", Consumed.with(Serdes.String(), Serdes.String()))
+            .groupByKey(Grouped.with(Serdes.String(), Serdes.String()));
+        grouped
+            .windowedBy(UnlimitedWindows.of())
+            .aggregate(MockInitializer.STRING_INIT, MockAggregator.TOSTRING_ADDER, (key, one, two) -> one + two);
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.kafka.streams.kstream.internals;
+
+import org.apache.kafka.common.serialization.LongSerializer;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.common.utils.Bytes;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.TopologyTestDriver;
+import org.apache.kafka.streams.kstream.Consumed;
+import org.apache.kafka.streams.kstream.Grouped;
+import org.apache.kafka.streams.kstream.KGroupedStream;
+import org.apache.kafka.streams.kstream.KTable;
+import org.apache.kafka.streams.kstream.Materialized;
+import org.apache.kafka.streams.kstream.SlidingWindows;
+import org.apache.kafka.streams.kstream.TimeWindows;
+import org.apache.kafka.streams.kstream.Windowed;
+import org.apache.kafka.streams.state.Stores;
+import org.apache.kafka.streams.state.ValueAndTimestamp;
+import org.apache.kafka.streams.state.WindowStore;
+import org.apache.kafka.streams.test.ConsumerRecordFactory;
+import org.apache.kafka.test.MockAggregator;
+import org.apache.kafka.test.MockInitializer;
+import org.apache.kafka.test.MockProcessorSupplier;
+import org.apache.kafka.test.StreamsTestUtils;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+
+import static java.time.Duration.ofMillis;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class KStreamSlidingWindowAggregateTest {
+    private final ConsumerRecordFactory<String, String> recordFactory =
+        new ConsumerRecordFactory<>(new StringSerializer(), new StringSerializer());
+    private final Properties props = StreamsTestUtils.getStreamsConfig(Serdes.String(), Serdes.String());
+
+    @Test
+    public void shouldCreateWindowsOnRecordBoundaries() {
+        final StreamsBuilder builder = new StreamsBuilder();
+        final String topic = "topic";
+
+        final MockProcessorSupplier<Windowed<String>, String> supplier = new MockProcessorSupplier<>();
+        builder
+            .stream(topic, Consumed.with(Serdes.String(), Serdes.String()))
+            .groupByKey(Grouped.with(Serdes.String(), Serdes.String()))
+            .windowedBy(SlidingWindows.withTimeDifferenceAndGrace(ofMillis(5), ofMillis(100)))
+            .aggregate(
+                MockInitializer.STRING_INIT,
+                MockAggregator.TOSTRING_ADDER,
+                Materialized.<String, String, WindowStore<Bytes, byte[]>>as("sliding").withValueSerde(Serdes.String()))
+            .toStream()
+            .process(supplier);
+
+        try (final TopologyTestDriver driver = new TopologyTestDriver(builder.build(), props)) {
+            driver.pipeInput(recordFactory.create(topic, "A", "1", 10L));
+            driver.pipeInput(recordFactory.create(topic, "A", "2", 13L));
+            driver.pipeInput(recordFactory.create(topic, "A", "3", 20L));
+            // out-of-order
+            driver.pipeInput(recordFactory.create(topic, "A", "4", 12L));
+        }
+
+        assertEquals(
+            asList(
+                "[A@5/10]:0+1 (ts: 10)",
+                "[A@11/16]:0+2 (ts: 13)", "[A@8/13]:0+1+2 (ts: 13)",
+                "[A@15/20]:0+3 (ts: 20)",
+                "[A@8/13]:0+1+2+4 (ts: 13)", "[A@11/16]:0+2+4 (ts: 13)", "[A@7/12]:0+1+4 (ts: 12)", "[A@13/18]:0+2 (ts: 13)"
+            ),
+            supplier.theCapturedProcessor().processed
+        );
+    }
+
+    @Test
+    public void shouldShareWindowForRecordsBeforeTimeDifference() {
+        final StreamsBuilder builder = new StreamsBuilder();
+        final String topic = "topic";
+
+        final MockProcessorSupplier<Windowed<String>, String> supplier = new MockProcessorSupplier<>();
+        builder
+            .stream(topic, Consumed.with(Serdes.String(), Serdes.String()))
+            .groupByKey(Grouped.with(Serdes.String(), Serdes.String()))
+            .windowedBy(SlidingWindows.withTimeDifferenceAndGrace(ofMillis(10), ofMillis(100)))
+            .aggregate(
+                MockInitializer.STRING_INIT,
+                MockAggregator.TOSTRING_ADDER,
+                Materialized.<String, String>as(Stores.inMemoryWindowStore("sliding", ofMillis(120), ofMillis(10), false))
+                    .withValueSerde(Serdes.String()))
+            .toStream()
+            .process(supplier);
+
+        try (final TopologyTestDriver driver = new TopologyTestDriver(builder.build(), props)) {
+            driver.pipeInput(recordFactory.create(topic, "A", "1", 2L));
+            driver.pipeInput(recordFactory.create(topic, "A", "2", 5L));
+        }
+
+        assertEquals(
+            asList(
+                "[A@0/10]:0+1 (ts: 2)",
+                "[A@0/10]:0+1+2 (ts: 5)", "[A@3/13]:0+2 (ts: 5)"
+            ),
+            supplier.theCapturedProcessor().processed
+        );
+    }
+
+    @Test
+    public void shouldComputeSameResultsAsHoppingWindowsWithMinimalAdvance() {
+        final StreamsBuilder builder = new StreamsBuilder();
+        final String topic = "topic";
+        final long timeDifference = 20L;
+
+        final KGroupedStream<String, Long> grouped = builder
+            .stream(topic, Consumed.with(Serdes.String(), Serdes.Long()))
+            .groupByKey(Grouped.with(Serdes.String(), Serdes.Long()));
+        final MockProcessorSupplier<Windowed<String>, Long> hoppingSupplier = new MockProcessorSupplier<>();
+        final KTable<Windowed<String>, Long> hopping = grouped
+            .windowedBy(TimeWindows.of(ofMillis(timeDifference + 1)).advanceBy(ofMillis(1)).grace(ofMillis(200)))
+            .reduce(Long::sum, Materialized.<String, Long, WindowStore<Bytes, byte[]>>as("hopping").withValueSerde(Serdes.Long()));
+        hopping.toStream().process(hoppingSupplier);
+        final MockProcessorSupplier<Windowed<String>, Long> slidingSupplier = new MockProcessorSupplier<>();
+        final KTable<Windowed<String>, Long> sliding = grouped
+            .windowedBy(SlidingWindows.withTimeDifferenceAndGrace(ofMillis(timeDifference), ofMillis(200)))
+            .reduce(Long::sum, Materialized.<String, Long, WindowStore<Bytes, byte[]>>as("sliding").withValueSerde(Serdes.Long()));
+        sliding.toStream().process(slidingSupplier);
+
+        final ConsumerRecordFactory<String, Long> longRecordFactory =
+            new ConsumerRecordFactory<>(new StringSerializer(), new LongSerializer());
+        final Random random = new Random(42);
+        try (final TopologyTestDriver driver = new TopologyTestDriver(builder.build(), props)) {
+            for (int i = 0; i < 300; i++) {
+                driver.pipeInput(longRecordFactory.create(
+                    topic,
+                    "k" + random.nextInt(3),
+                    (long) random.nextInt(100),
+                    i + random.nextInt(100)));
+            }
+        }
+
+        // every sliding window [start, start + timeDifference] is the hopping window starting at the same time
+        final Map<String, ValueAndTimestamp<Long>> hoppingResults = new HashMap<>();
+        for (final Map.Entry<Windowed<String>, ValueAndTimestamp<Long>> entry
+            : hoppingSupplier.theCapturedProcessor().lastValueAndTimestampPerKey.entrySet()) {
+            hoppingResults.put(entry.getKey().key() + "@" + entry.getKey().window().start(), entry.getValue());
+        }
+        final Map<Windowed<String>, ValueAndTimestamp<Long>> slidingResults =
+            slidingSupplier.theCapturedProcessor().lastValueAndTimestampPerKey;
+        assertFalse(slidingResults.isEmpty());
+        for (final Map.Entry<Windowed<String>, ValueAndTimestamp<Long>> entry : slidingResults.entrySet()) {
+            assertEquals(
+                hoppingResults.get(entry.getKey().key() + "@" + entry.getKey().window().start()),
+                entry.getValue());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRequireRetentionOfTwiceTheTimeDifferencePlusGrace() {
+        final StreamsBuilder builder = new StreamsBuilder();
+        builder
+            .stream("topic", Consumed.with(Serdes.String(), Serdes.String()))
+            .groupByKey(Grouped.with(Serdes.String(), Serdes.String()))
+            .windowedBy(SlidingWindows.withTimeDifferenceAndGrace(ofMillis(10), ofMillis(5)))
+            .count(Materialized.<String, Long, WindowStore<Bytes, byte[]>>as("sliding").withRetention(ofMillis(20)));
+    }
+}
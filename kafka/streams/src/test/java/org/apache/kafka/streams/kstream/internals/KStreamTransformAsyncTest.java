@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.kafka.streams.kstream.internals;
+
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.TopologyTestDriver;
+import org.apache.kafka.streams.kstream.AsyncTransformer;
+import org.apache.kafka.streams.kstream.Consumed;
+import org.apache.kafka.streams.processor.ProcessorContext;
+import org.apache.kafka.streams.test.ConsumerRecordFactory;
+import org.apache.kafka.test.MockProcessorSupplier;
+import org.apache.kafka.test.StreamsTestUtils;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.junit.Assert.assertEquals;
+
+public class KStreamTransformAsyncTest {
+    private final String topic = "topic";
+    private final ConsumerRecordFactory<String, String> recordFactory =
+        new ConsumerRecordFactory<>(new StringSerializer(), new StringSerializer());
+    private final Properties props = StreamsTestUtils.getStreamsConfig(Serdes.String(), Serdes.String());
+    // pending lookups by value; values without a pending lookup complete immediately
+    private final Map<String, CompletableFuture<KeyValue<String, String>>> lookups = new HashMap<>();
+    private final MockProcessorSupplier<String, String> supplier = new MockProcessorSupplier<>();
+
+    private TopologyTestDriver driver() {
+        final StreamsBuilder builder = new StreamsBuilder();
+        builder
+            .stream(topic, Consumed.with(Serdes.String(), Serdes.String()))
+            .transformAsync(() -> new AsyncTransformer<String, String, KeyValue<String, String>>() {
+                @Override
+                public void init(final ProcessorContext context) {}
+
+                @Override
+                public CompletionStage<KeyValue<String, String>> transform(final String key, final String value) {
+                    if (value.equals("drop")) {
+                        return CompletableFuture.completedFuture(null);
+                    }
+                    return lookups.getOrDefault(value, CompletableFuture.completedFuture(KeyValue.pair(key, value + "!")));
+                }
+
+                @Override
+                public void close() {}
+            })
+            .process(supplier);
+        return new TopologyTestDriver(builder.build(), props);
+    }
+
+    @Test
+    public void shouldForwardCompletedResultsWithRecordTimestamp() {
+        try (final TopologyTestDriver driver = driver()) {
+            driver.pipeInput(recordFactory.create(topic, "A", "1", 5L));
+            driver.pipeInput(recordFactory.create(topic, "A", "drop", 6L));
+            driver.pipeInput(recordFactory.create(topic, "B", "2", 7L));
+        }
+
+        assertEquals(asList("A:1! (ts: 5)", "B:2! (ts: 7)"), supplier.theCapturedProcessor().processed);
+    }
+
+    @Test
+    public void shouldPreserveOrderPerKey() {
+        final CompletableFuture<KeyValue<String, String>> slowLookup = new CompletableFuture<>();
+        lookups.put("slow", slowLookup);
+
+        try (final TopologyTestDriver driver = driver()) {
+            driver.pipeInput(recordFactory.create(topic, "A", "slow", 1L));
+            driver.pipeInput(recordFactory.create(topic, "A", "2", 2L));
+            driver.pipeInput(recordFactory.create(topic, "B", "3", 3L));
+
+            assertEquals(asList("B:3! (ts: 3)"), supplier.theCapturedProcessor().processed);
+
+            slowLookup.complete(KeyValue.pair("A", "1!"));
+            driver.advanceWallClockTime(1L);
+
+            assertEquals(
+                asList("B:3! (ts: 3)", "A:1! (ts: 1)", "A:2! (ts: 2)"),
+                supplier.theCapturedProcessor().processed);
+        }
+    }
+
+    @Test
+    public void shouldForwardPendingResultsOnClose() {
+        final CompletableFuture<KeyValue<String, String>> slowLookup = new CompletableFuture<>();
+        lookups.put("slow", slowLookup);
+
+        final TopologyTestDriver driver = driver();
+        driver.pipeInput(recordFactory.create(topic, "A", "slow", 1L));
+        assertEquals(emptyList(), supplier.theCapturedProcessor().processed);
+
+        new Thread(() -> slowLookup.complete(KeyValue.pair("A", "1!"))).start();
+        driver.close();
+
+        assertEquals(asList("A:1! (ts: 1)"), supplier.theCapturedProcessor().processed);
+    }
+}
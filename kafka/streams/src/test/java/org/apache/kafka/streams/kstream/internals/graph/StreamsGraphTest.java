@@ -22,6 +22,7 @@ import org.apache.kafka.streams.KeyValue;
 import org.apache.kafka.streams.StreamsBuilder;
 import org.apache.kafka.streams.StreamsConfig;
 import org.apache.kafka.streams.Topology;
+import org.apache.kafka.streams.TopologyDescription;
 import org.apache.kafka.streams.kstream.Grouped;
 import org.apache.kafka.streams.kstream.JoinWindows;
 import org.apache.kafka.streams.kstream.KStream;
@@ -34,14 +35,18 @@ import org.junit.Test;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Properties;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import static java.time.Duration.ofMillis;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 public class StreamsGraphTest {
 
@@ -124,6 +129,105 @@ public class StreamsGraphTest {
 
     }
 
+    @Test
+    public void shouldMergeRepartitionTopicsAfterSameValueChangingOperation() {
+
+        final Topology optimized = getTopologyWithRepartitionsAfterSameValueChangingOperation(StreamsConfig.OPTIMIZE);
+        final Topology noOptimization = getTopologyWithRepartitionsAfterSameValueChangingOperation(StreamsConfig.NO_OPTIMIZATION);
+
+        assertEquals(1, getCountOfRepartitionTopicsFound(optimized.describe().toString()));
+        assertEquals(2, getCountOfRepartitionTopicsFound(noOptimization.describe().toString()));
+
+        final List<String> appliedOptimizations = optimized.describe().appliedOptimizations();
+        assertEquals(1, appliedOptimizations.size());
+        assertTrue(appliedOptimizations.get(0).startsWith("Merged repartition topics"));
+        assertTrue(noOptimization.describe().appliedOptimizations().isEmpty());
+    }
+
+    @Test
+    public void shouldNotMergeRepartitionTopicsAfterValueChangingOperationBehindMergeNode() {
+
+        final Topology optimized = getTopologyWithRepartitionsAfterMergedValueChangingOperation(StreamsConfig.OPTIMIZE);
+        final Topology noOptimization = getTopologyWithRepartitionsAfterMergedValueChangingOperation(StreamsConfig.NO_OPTIMIZATION);
+
+        // records of the merged stream that did not pass through mapValues still need to be repartitioned
+        assertEquals(2, getCountOfRepartitionTopicsFound(optimized.describe().toString()));
+        assertEquals(noOptimization.describe().toString(), optimized.describe().toString());
+        assertTrue(optimized.describe().appliedOptimizations().isEmpty());
+    }
+
+    @Test
+    public void shouldKeepFiltersInFrontOfOptimizedRepartitionTopic() {
+
+        final Topology optimized = getTopologyWithFilterAfterChangingKey(StreamsConfig.OPTIMIZE);
+        final Topology noOptimization = getTopologyWithFilterAfterChangingKey(StreamsConfig.NO_OPTIMIZATION);
+
+        assertEquals(1, getCountOfRepartitionTopicsFound(optimized.describe().toString()));
+        assertTrue(getSubtopologyNodeNames(optimized, "KSTREAM-FILTER-0000000002").contains("KSTREAM-SOURCE-0000000000"));
+        assertTrue(getSubtopologyNodeNames(noOptimization, "KSTREAM-FILTER-0000000002").contains("KSTREAM-SOURCE-0000000000"));
+
+        final List<String> appliedOptimizations = optimized.describe().appliedOptimizations();
+        assertEquals(1, appliedOptimizations.size());
+        assertTrue(appliedOptimizations.get(0).endsWith("after filters [KSTREAM-FILTER-0000000002]"));
+    }
+
+    private Topology getTopologyWithRepartitionsAfterSameValueChangingOperation(final String optimizeConfig) {
+
+        final StreamsBuilder builder = new StreamsBuilder();
+        final Properties properties = new Properties();
+        properties.put(StreamsConfig.TOPOLOGY_OPTIMIZATION, optimizeConfig);
+
+        final KStream<String, String> inputStream = builder.stream("input");
+        final KStream<String, String> mappedValueStream = inputStream.selectKey((k, v) -> k + v).mapValues(v -> v.toUpperCase(Locale.getDefault()));
+
+        mappedValueStream.groupByKey().count().toStream().to("output");
+        mappedValueStream.groupByKey().windowedBy(TimeWindows.of(ofMillis(5000))).count().toStream().to("windowed-output");
+
+        return builder.build(properties);
+    }
+
+    private Topology getTopologyWithRepartitionsAfterMergedValueChangingOperation(final String optimizeConfig) {
+
+        final StreamsBuilder builder = new StreamsBuilder();
+        final Properties properties = new Properties();
+        properties.put(StreamsConfig.TOPOLOGY_OPTIMIZATION, optimizeConfig);
+
+        final KStream<String, String> mappedValueStream = builder.<String, String>stream("input").selectKey((k, v) -> k + v).mapValues(v -> v.toUpperCase(Locale.getDefault()));
+        final KStream<String, String> mappedKeyStream = builder.<String, String>stream("other-input").selectKey((k, v) -> v + k);
+        final KStream<String, String> mergedStream = mappedValueStream.merge(mappedKeyStream);
+
+        mergedStream.groupByKey().count().toStream().to("output");
+        mergedStream.groupByKey().windowedBy(TimeWindows.of(ofMillis(5000))).count().toStream().to("windowed-output");
+
+        return builder.build(properties);
+    }
+
+    private Topology getTopologyWithFilterAfterChangingKey(final String optimizeConfig) {
+
+        final StreamsBuilder builder = new StreamsBuilder();
+        final Properties properties = new Properties();
+        properties.put(StreamsConfig.TOPOLOGY_OPTIMIZATION, optimizeConfig);
+
+        final KStream<String, String> inputStream = builder.stream("input");
+
+        inputStream.selectKey((k, v) -> k + v).filter((k, v) -> v != null).groupByKey().count().toStream().to("output");
+
+        return builder.build(properties);
+    }
+
+    private Set<String> getSubtopologyNodeNames(final Topology topology, final String nodeName) {
+        for (final TopologyDescription.Subtopology subtopology : topology.describe().subtopologies()) {
+            final Set<String> nodeNames = new HashSet<>();
+            for (final TopologyDescription.Node node : subtopology.nodes()) {
+                nodeNames.add(node.name());
+            }
+            if (nodeNames.contains(nodeName)) {
+                return nodeNames;
+            }
+        }
+        return Collections.emptySet();
+    }
+
     private Topology getTopologyWithChangingValuesAfterChangingKey(final String optimizeConfig) {
 
         final StreamsBuilder builder = new StreamsBuilder();
@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.kafka.streams.processor.internals;
+
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.utils.Time;
+import org.apache.kafka.streams.errors.StreamsException;
+import org.apache.kafka.test.InternalMockProcessorContext;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class AsyncRecordTrackerTest {
+    private static final String TOPIC = "topic";
+    private static final TopicPartition PARTITION = new TopicPartition(TOPIC, 0);
+
+    private final InternalMockProcessorContext context = new InternalMockProcessorContext();
+    private final ProcessorNode<Object, Object> node = new ProcessorNode<>("async");
+    private final AsyncRecordTracker tracker = new AsyncRecordTracker(context, 3, 60000L, Time.SYSTEM);
+    private final List<String> forwarded = new ArrayList<>();
+
+    private void track(final String key, final long offset, final CompletableFuture<String> result) {
+        context.setRecordContext(new ProcessorRecordContext(offset * 10, offset, PARTITION.partition(), TOPIC, new RecordHeaders()));
+        context.setCurrentNode(node);
+        tracker.track(key, result, value -> forwarded.add(
+            value + "@" + context.recordContext().offset() + "/" + context.currentNode().name()));
+        context.setCurrentNode(null);
+    }
+
+    @Test
+    public void shouldForwardResultsOfTheSameKeyInProcessingOrder() {
+        final CompletableFuture<String> first = new CompletableFuture<>();
+        track("A", 0L, first);
+        track("A", 1L, CompletableFuture.completedFuture("A2"));
+        track("B", 2L, CompletableFuture.completedFuture("B1"));
+
+        assertEquals(1, tracker.forwardCompleted());
+        assertEquals(asList("B1@2/async"), forwarded);
+
+        first.complete("A1");
+        assertEquals(2, tracker.forwardCompleted());
+        assertEquals(asList("B1@2/async", "A1@0/async", "A2@1/async"), forwarded);
+        assertEquals(0, tracker.numInFlight());
+    }
+
+    @Test
+    public void shouldRestoreContextAfterForwarding() {
+        track("A", 0L, CompletableFuture.completedFuture("A1"));
+
+        tracker.forwardCompleted();
+
+        assertNull(context.currentNode());
+    }
+
+    @Test
+    public void shouldOnlyCommitUpToLowestIncompleteRecord() {
+        final CompletableFuture<String> first = new CompletableFuture<>();
+        track("A", 5L, first);
+        track("B", 6L, CompletableFuture.completedFuture("B1"));
+        tracker.forwardCompleted();
+
+        assertEquals(5L, tracker.committableOffset(PARTITION, 6L));
+        assertEquals(1L, tracker.committableOffset(new TopicPartition(TOPIC, 1), 0L));
+
+        first.complete("A1");
+        tracker.forwardCompleted();
+
+        assertEquals(7L, tracker.committableOffset(PARTITION, 6L));
+    }
+
+    @Test
+    public void shouldBeFullWhenMaxInFlightRecordsArePending() {
+        track("A", 0L, new CompletableFuture<>());
+        track("B", 1L, new CompletableFuture<>());
+        assertFalse(tracker.isFull());
+
+        track("C", 2L, new CompletableFuture<>());
+        assertTrue(tracker.isFull());
+    }
+
+    @Test
+    public void shouldWaitForAllResults() {
+        final CompletableFuture<String> result = new CompletableFuture<>();
+        track("A", 0L, result);
+        new Thread(() -> result.complete("A1")).start();
+
+        tracker.forwardAll();
+
+        assertEquals(asList("A1@0/async"), forwarded);
+        assertEquals(1L, tracker.committableOffset(PARTITION, 0L));
+    }
+
+    @Test
+    public void shouldThrowIfResultDoesNotCompleteWithinTimeout() {
+        final AsyncRecordTracker timingOutTracker = new AsyncRecordTracker(context, 3, 10L, Time.SYSTEM);
+        context.setRecordContext(new ProcessorRecordContext(0L, 7L, PARTITION.partition(), TOPIC, new RecordHeaders()));
+        context.setCurrentNode(node);
+        timingOutTracker.track("A", new CompletableFuture<String>(), forwarded::add);
+        context.setCurrentNode(null);
+
+        try {
+            timingOutTracker.forwardAll();
+            fail("Should have thrown StreamsException");
+        } catch (final StreamsException expected) {
+            assertEquals("Asynchronous processing did not complete within 10 ms. " +
+                "processor=async, topic=topic, partition=0, offset=7", expected.getMessage());
+        }
+        assertEquals(1, timingOutTracker.numInFlight());
+        assertEquals(7L, timingOutTracker.committableOffset(PARTITION, 7L));
+    }
+
+    @Test
+    public void shouldThrowIfResultFailed() {
+        final CompletableFuture<String> result = new CompletableFuture<>();
+        result.completeExceptionally(new IllegalStateException("lookup failed"));
+        track("A", 0L, result);
+
+        try {
+            tracker.forwardCompleted();
+            fail("Should have thrown StreamsException");
+        } catch (final StreamsException expected) {
+            assertTrue(expected.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    @Test
+    public void shouldDropPendingRecordsOnClear() {
+        track("A", 0L, new CompletableFuture<>());
+
+        tracker.clear();
+
+        assertEquals(0, tracker.numInFlight());
+        assertEquals(1L, tracker.committableOffset(PARTITION, 0L));
+    }
+}
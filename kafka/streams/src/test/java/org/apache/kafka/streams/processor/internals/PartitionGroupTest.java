@@ -34,12 +34,16 @@ import org.apache.kafka.test.MockSourceNode;
 import org.apache.kafka.test.MockTimestampExtractor;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import static org.apache.kafka.common.utils.Utils.mkEntry;
 import static org.apache.kafka.common.utils.Utils.mkMap;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 public class PartitionGroupTest {
     private final LogContext logContext = new LogContext();
@@ -256,6 +260,76 @@ public class PartitionGroupTest {
         assertEquals(record.timestamp, 3L);
     }
 
+    @Test
+    public void shouldGetBatchOfRecordsFromNextQueue() {
+        // add three 3 records with timestamp 1, 5, 3 to partition-1
+        final List<ConsumerRecord<byte[], byte[]>> list1 = Arrays.asList(
+            new ConsumerRecord<>("topic", 1, 1L, recordKey, recordValue),
+            new ConsumerRecord<>("topic", 1, 5L, recordKey, recordValue),
+            new ConsumerRecord<>("topic", 1, 3L, recordKey, recordValue));
+
+        group.addRawRecords(partition1, list1);
+
+        // add three 3 records with timestamp 2, 4, 6 to partition-2
+        final List<ConsumerRecord<byte[], byte[]>> list2 = Arrays.asList(
+            new ConsumerRecord<>("topic", 2, 2L, recordKey, recordValue),
+            new ConsumerRecord<>("topic", 2, 4L, recordKey, recordValue),
+            new ConsumerRecord<>("topic", 2, 6L, recordKey, recordValue));
+
+        group.addRawRecords(partition2, list2);
+
+        final PartitionGroup.RecordInfo info = new PartitionGroup.RecordInfo();
+        final List<StampedRecord> records = new ArrayList<>();
+
+        // get at most two records from partition 1
+        assertEquals(queue1.source(), group.nextSource());
+        assertEquals(2, group.nextRecords(info, records, 2));
+        // 1:[3]
+        // 2:[2, 4, 6]
+        // st: 5
+        assertEquals(partition1, info.partition());
+        verifyTimes(records, Arrays.asList(1L, 5L), 5L);
+        verifyBuffered(4, 1, 3);
+        assertEquals(0.0, metrics.metric(lastLatenessValue).metricValue());
+
+        // get all records from partition 2, the largest lateness is recorded once for the batch
+        records.clear();
+        assertEquals(queue2.source(), group.nextSource());
+        assertEquals(3, group.nextRecords(info, records, 10));
+        // 1:[3]
+        // 2:[]
+        // st: 6
+        assertEquals(partition2, info.partition());
+        verifyTimes(records, Arrays.asList(2L, 4L, 6L), 6L);
+        verifyBuffered(1, 1, 0);
+        assertEquals(3.0, metrics.metric(lastLatenessValue).metricValue());
+
+        records.clear();
+        assertEquals(queue1.source(), group.nextSource());
+        assertEquals(1, group.nextRecords(info, records, 10));
+        // 1:[]
+        // 2:[]
+        // st: 6
+        assertEquals(partition1, info.partition());
+        verifyTimes(records, Collections.singletonList(3L), 6L);
+        verifyBuffered(0, 0, 0);
+        assertEquals(3.0, metrics.metric(lastLatenessValue).metricValue());
+
+        records.clear();
+        assertNull(group.nextSource());
+        assertEquals(0, group.nextRecords(info, records, 10));
+        assertTrue(records.isEmpty());
+    }
+
+    private void verifyTimes(final List<StampedRecord> records, final List<Long> recordTimes, final long streamTime) {
+        final List<Long> timestamps = new ArrayList<>();
+        for (final StampedRecord record : records) {
+            timestamps.add(record.timestamp);
+        }
+        assertEquals(recordTimes, timestamps);
+        assertEquals(streamTime, group.timestamp());
+    }
+
     private void verifyTimes(final StampedRecord record, final long recordTime, final long streamTime) {
         assertEquals(recordTime, record.timestamp);
         assertEquals(streamTime, group.timestamp());
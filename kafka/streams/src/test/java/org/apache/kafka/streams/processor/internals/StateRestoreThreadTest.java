@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.kafka.streams.processor.internals;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.utils.LogContext;
+import org.apache.kafka.streams.errors.StreamsException;
+import org.apache.kafka.test.MockStateRestoreListener;
+import org.apache.kafka.test.TestUtils;
+import org.easymock.EasyMockRunner;
+import org.easymock.Mock;
+import org.easymock.MockType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.time.Duration;
+import java.util.Collections;
+
+import static org.apache.kafka.streams.state.internals.RecordConverters.identity;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(EasyMockRunner.class)
+public class StateRestoreThreadTest {
+
+    @Mock(type = MockType.NICE)
+    private RestoringTasks active;
+    @Mock(type = MockType.NICE)
+    private StreamTask task;
+
+    private final MockStateRestoreListener callback = new MockStateRestoreListener();
+    private final CompositeRestoreListener restoreListener = new CompositeRestoreListener(callback);
+    private final MockConsumer<byte[], byte[]> consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+    private final MockStateRestoreListener stateRestoreListener = new MockStateRestoreListener();
+    private final TopicPartition topicPartition = new TopicPartition("topic", 0);
+    private final StateRestoreThread restoreThread = new StateRestoreThread(
+        "test-restore-thread",
+        consumer,
+        Duration.ZERO,
+        stateRestoreListener,
+        new LogContext("test-restore-thread "));
+
+    @Before
+    public void setUp() {
+        restoreListener.setUserRestoreListener(stateRestoreListener);
+        expect(active.restoringTaskFor(topicPartition)).andStubReturn(task);
+        replay(active, task);
+    }
+
+    @After
+    public void cleanUp() {
+        if (!consumer.closed()) {
+            restoreThread.close();
+        }
+    }
+
+    @Test
+    public void shouldRestoreOnRestoreThread() throws InterruptedException {
+        setupConsumer(10);
+        restoreThread.register(restorer());
+        assertTrue(restoreThread.restore(active).isEmpty());
+
+        TestUtils.waitForCondition(
+            () -> restoreThread.restore(active).contains(topicPartition),
+            "Changelog was not restored");
+        assertThat(callback.restored.size(), equalTo(10));
+        assertTrue(restoreThread.restoredOffsets().containsKey(topicPartition));
+    }
+
+    @Test
+    public void shouldRethrowRestoreExceptionOnStreamThread() throws InterruptedException {
+        setupConsumer(10);
+        consumer.subscribe(Collections.singleton("sometopic"));
+        restoreThread.register(restorer());
+        restoreThread.restore(active);
+
+        TestUtils.waitForCondition(() -> {
+            try {
+                restoreThread.restore(active);
+                return false;
+            } catch (final StreamsException expected) {
+                return true;
+            }
+        }, "Restore exception was not rethrown");
+    }
+
+    @Test
+    public void shouldNotRestoreWhilePausedAndClearOnReset() throws InterruptedException {
+        setupConsumer(10);
+        restoreThread.register(restorer());
+        restoreThread.pause();
+        restoreThread.restore(active);
+
+        // the restorer is handed over, but not restored
+        Thread.sleep(50);
+        assertTrue(restoreThread.restore(active).isEmpty());
+        assertThat(callback.restored.size(), equalTo(0));
+
+        restoreThread.reset();
+        assertTrue(restoreThread.restore(active).isEmpty());
+        assertTrue(restoreThread.restoredOffsets().isEmpty());
+        assertTrue(consumer.assignment().isEmpty());
+    }
+
+    @Test
+    public void shouldCloseRestoreConsumerIfNeverStarted() {
+        restoreThread.close();
+        assertTrue(consumer.closed());
+        assertFalse(restoreThread.isAlive());
+    }
+
+    private StateRestorer restorer() {
+        return new StateRestorer(
+            topicPartition,
+            restoreListener,
+            null,
+            Long.MAX_VALUE,
+            true,
+            "storeName",
+            identity());
+    }
+
+    private void setupConsumer(final long messages) {
+        consumer.updatePartitions(
+            topicPartition.topic(),
+            Collections.singletonList(new PartitionInfo(
+                topicPartition.topic(),
+                topicPartition.partition(),
+                null,
+                null,
+                null)));
+        consumer.updateBeginningOffsets(Collections.singletonMap(topicPartition, 0L));
+        consumer.updateEndOffsets(Collections.singletonMap(topicPartition, messages));
+        consumer.assign(Collections.singletonList(topicPartition));
+        for (int i = 0; i < messages; i++) {
+            consumer.addRecord(new ConsumerRecord<>(
+                topicPartition.topic(),
+                topicPartition.partition(),
+                i,
+                new byte[0],
+                new byte[0]));
+        }
+        consumer.assign(Collections.emptyList());
+    }
+}
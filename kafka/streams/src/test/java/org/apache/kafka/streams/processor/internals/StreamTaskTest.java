@@ -42,6 +42,7 @@ import org.apache.kafka.streams.StreamsConfig;
 import org.apache.kafka.streams.errors.DefaultProductionExceptionHandler;
 import org.apache.kafka.streams.errors.StreamsException;
 import org.apache.kafka.streams.errors.TaskMigratedException;
+import org.apache.kafka.streams.processor.AbstractProcessor;
 import org.apache.kafka.streams.processor.PunctuationType;
 import org.apache.kafka.streams.processor.Punctuator;
 import org.apache.kafka.streams.processor.StateRestoreListener;
@@ -473,6 +474,92 @@ public class StreamTaskTest {
         assertEquals(0, consumer.paused().size());
     }
 
+    @Test
+    public void shouldProcessRecordsOfStatelessSubtopologyInBatches() {
+        task = createBatchingTask();
+
+        task.addRecords(partition1, asList(
+            getConsumerRecord(partition1, 10),
+            getConsumerRecord(partition1, 20),
+            getConsumerRecord(partition1, 30)
+        ));
+
+        task.addRecords(partition2, asList(
+            getConsumerRecord(partition2, 25),
+            getConsumerRecord(partition2, 35)
+        ));
+
+        // source1 only has stateless children, so all its records are processed at once
+        assertTrue(task.process());
+        assertEquals(2, task.numBuffered());
+        assertEquals(3, source1.numReceived);
+        assertEquals(0, source2.numReceived);
+
+        // source2 has a stateful child, so its records are processed one at a time
+        assertTrue(task.process());
+        assertEquals(1, task.numBuffered());
+        assertEquals(3, source1.numReceived);
+        assertEquals(1, source2.numReceived);
+
+        assertTrue(task.process());
+        assertEquals(0, task.numBuffered());
+        assertEquals(2, source2.numReceived);
+
+        assertFalse(task.process());
+    }
+
+    @Test
+    public void shouldCountEveryRecordOfBatchInProcessorNodeMetrics() {
+        final SourceNode<Integer, Integer> source = new SourceNode<>("batch-source", singletonList(topic1), intDeserializer, intDeserializer);
+        final ProcessorNode<Integer, Integer> statelessNode = new ProcessorNode<>("stateless", new StatelessForwardingProcessor(), Collections.emptySet());
+        source.addChild(statelessNode);
+        task = createBatchingTask(withSources(asList(source, statelessNode), mkMap(mkEntry(topic1, source))));
+        task.initializeStateStores();
+        task.initializeTopology();
+
+        task.addRecords(partition1, asList(
+            getConsumerRecord(partition1, 10),
+            getConsumerRecord(partition1, 20),
+            getConsumerRecord(partition1, 30)
+        ));
+
+        assertTrue(task.process());
+        assertEquals(0, task.numBuffered());
+
+        assertEquals(3.0, processorNodeMetric("process-total", "stateless").metricValue());
+        assertEquals(3.0, processorNodeMetric("process-total", "all").metricValue());
+        assertEquals(3.0, processorNodeMetric("forward-total", "batch-source").metricValue());
+        assertEquals(3.0, processorNodeMetric("forward-total", "all").metricValue());
+    }
+
+    private KafkaMetric processorNodeMetric(final String name, final String processorNodeId) {
+        return metrics.metric(metrics.metricName(
+            name,
+            "stream-processor-node-metrics",
+            mkMap(mkEntry("client-id", "test"), mkEntry("task-id", taskId00.toString()), mkEntry("processor-node-id", processorNodeId))
+        ));
+    }
+
+    @Test
+    public void shouldResumePartitionAfterProcessingBatch() {
+        task = createBatchingTask();
+
+        task.addRecords(partition1, asList(
+            getConsumerRecord(partition1, 10),
+            getConsumerRecord(partition1, 20),
+            getConsumerRecord(partition1, 30),
+            getConsumerRecord(partition1, 40),
+            getConsumerRecord(partition1, 50)
+        ));
+
+        assertEquals(1, consumer.paused().size());
+        assertTrue(consumer.paused().contains(partition1));
+
+        assertTrue(task.process());
+        assertEquals(5, source1.numReceived);
+        assertEquals(0, consumer.paused().size());
+    }
+
     @SuppressWarnings("unchecked")
     @Test
     public void shouldPunctuateOnceStreamTimeAfterGap() {
@@ -1524,6 +1611,45 @@ public class StreamTaskTest {
             metrics.sensor("dummy"));
     }
 
+    private StreamTask createBatchingTask() {
+        final ProcessorNode<Integer, Integer> statelessNode = new ProcessorNode<>("stateless", new StatelessForwardingProcessor(), Collections.emptySet());
+        final ProcessorTopology topology = withSources(
+            asList(source1, source2, statelessNode, processorStreamTime),
+            mkMap(mkEntry(topic1, source1), mkEntry(topic2, source2))
+        );
+
+        source1.addChild(statelessNode);
+        source2.addChild(processorStreamTime);
+
+        return createBatchingTask(topology);
+    }
+
+    private StreamTask createBatchingTask(final ProcessorTopology topology) {
+        final Map<String, Object> props = createConfig(false).originals();
+        props.put(StreamsConfig.PROCESSING_BATCH_SIZE_CONFIG, 10);
+
+        return new StreamTask(
+            taskId00,
+            partitions,
+            topology,
+            consumer,
+            changelogReader,
+            new StreamsConfig(props),
+            streamsMetrics,
+            stateDirectory,
+            null,
+            time,
+            () -> producer = new MockProducer<>(false, bytesSerializer, bytesSerializer),
+            metrics.sensor("dummy"));
+    }
+
+    private static class StatelessForwardingProcessor extends AbstractProcessor<Integer, Integer> implements StatelessProcessor {
+        @Override
+        public void process(final Integer key, final Integer value) {
+            context().forward(key, value);
+        }
+    }
+
     private StreamTask createStatelessTask(final StreamsConfig streamsConfig) {
         final ProcessorTopology topology = withSources(
             asList(source1, source2, processorStreamTime, processorSystemTime),
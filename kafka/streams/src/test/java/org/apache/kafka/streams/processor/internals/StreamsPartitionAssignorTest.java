@@ -139,6 +139,7 @@ public class StreamsPartitionAssignorTest {
         EasyMock.expect(taskManager.builder()).andReturn(builder).anyTimes();
         EasyMock.expect(taskManager.prevActiveTaskIds()).andReturn(prevTasks).anyTimes();
         EasyMock.expect(taskManager.cachedTasksIds()).andReturn(cachedTasks).anyTimes();
+        EasyMock.expect(taskManager.taskOffsetSums()).andReturn(Collections.emptyMap()).anyTimes();
         EasyMock.expect(taskManager.processId()).andReturn(processId).anyTimes();
         EasyMock.replay(taskManager);
     }
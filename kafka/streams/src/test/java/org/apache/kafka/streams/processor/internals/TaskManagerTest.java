@@ -28,6 +28,7 @@ import org.apache.kafka.common.internals.KafkaFutureImpl;
 import org.apache.kafka.common.utils.Utils;
 import org.apache.kafka.streams.errors.StreamsException;
 import org.apache.kafka.streams.processor.TaskId;
+import org.apache.kafka.streams.state.internals.OffsetCheckpoint;
 import org.easymock.EasyMock;
 import org.easymock.EasyMockRunner;
 import org.easymock.Mock;
@@ -234,6 +235,35 @@ public class TaskManagerTest {
         assertThat(tasks, equalTo(Utils.mkSet(task01, task02, task11)));
     }
 
+    @Test
+    public void shouldReturnTaskOffsetSumsFromCheckpointFilesAndAssignedTasks() throws IOException {
+        final File[] taskFolders = asList(testFolder.newFolder("0_1"),
+                                          testFolder.newFolder("0_2"),
+                                          testFolder.newFolder("dummy")).toArray(new File[0]);
+        final Map<TopicPartition, Long> checkpointedOffsets = new HashMap<>();
+        checkpointedOffsets.put(new TopicPartition("changelog", 1), 10L);
+        checkpointedOffsets.put(new TopicPartition("other-changelog", 1), 5L);
+        new OffsetCheckpoint(new File(taskFolders[0], ProcessorStateManager.CHECKPOINT_FILE_NAME)).write(checkpointedOffsets);
+
+        expect(activeTaskCreator.stateDirectory()).andReturn(stateDirectory).once();
+        expect(stateDirectory.listTaskDirectories()).andReturn(taskFolders).once();
+        expect(active.allTasks()).andReturn(Collections.singletonList(streamTask));
+        expect(streamTask.id()).andStubReturn(taskId0);
+        expect(streamTask.changelogOffsets()).andReturn(Collections.singletonMap(new TopicPartition("changelog", 0), 100L));
+        expect(standby.allTasks()).andReturn(Collections.emptyList());
+
+        EasyMock.replay(activeTaskCreator, stateDirectory, active, streamTask, standby);
+
+        final Map<TaskId, Long> taskOffsetSums = taskManager.taskOffsetSums();
+
+        EasyMock.verify(activeTaskCreator, stateDirectory);
+
+        final Map<TaskId, Long> expectedOffsetSums = new HashMap<>();
+        expectedOffsetSums.put(task01, 15L);
+        expectedOffsetSums.put(taskId0, 100L);
+        assertThat(taskOffsetSums, equalTo(expectedOffsetSums));
+    }
+
     @Test
     public void shouldCloseActiveUnAssignedSuspendedTasksWhenCreatingNewTasks() {
         mockSingleActiveTask();
@@ -25,6 +25,7 @@ import java.util.Collections;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 public class ClientStateTest {
@@ -65,6 +66,27 @@ public class ClientStateTest {
         assertThat(client.activeTasks().size(), equalTo(0));
     }
 
+    @Test
+    public void shouldKeepHighestOffsetSumReportedForTask() {
+        final TaskId tid1 = new TaskId(0, 1);
+        final TaskId tid2 = new TaskId(0, 2);
+
+        client.addPreviousTaskOffsetSums(Collections.singletonMap(tid1, 100L));
+        client.addPreviousTaskOffsetSums(Collections.singletonMap(tid1, 50L));
+        assertThat(client.offsetSum(tid1), equalTo(100L));
+        assertNull(client.offsetSum(tid2));
+    }
+
+    @Test
+    public void shouldUnassignActiveTask() {
+        final TaskId tid = new TaskId(0, 1);
+
+        client.assign(tid, true);
+        client.unassignActive(tid);
+        assertThat(client.activeTaskCount(), equalTo(0));
+        assertThat(client.assignedTaskCount(), equalTo(0));
+    }
+
     @Test
     public void shouldAddPreviousActiveTasksToPreviousAssignedAndPreviousActive() {
         final TaskId tid1 = new TaskId(0, 1);
@@ -36,6 +36,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.IsIterableContaining.hasItem;
 import static org.hamcrest.core.IsIterableContaining.hasItems;
 import static org.hamcrest.core.IsNot.not;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 public class StickyTaskAssignorTest {
@@ -674,6 +675,108 @@ public class StickyTaskAssignorTest {
         assertThat(newClient.activeTaskCount(), equalTo(2));
     }
 
+    @Test
+    public void shouldKeepActiveTaskOnCaughtUpClientAndAssignWarmupReplicaToLaggingClient() {
+        final ClientState c1 = createClientWithPreviousActiveTasks(p1, 1, task00, task01);
+        c1.addPreviousTaskOffsetSums(offsetSums(1000L, task00, task01));
+        final ClientState newClient = createClient(p2, 1);
+
+        final StickyTaskAssignor<Integer> taskAssignor = createLagAwareTaskAssignor(2, task00, task01);
+        taskAssignor.assign(0);
+
+        assertThat(c1.activeTasks(), equalTo(Utils.mkSet(task00, task01)));
+        assertThat(newClient.activeTaskCount(), equalTo(0));
+        assertThat(newClient.standbyTasks().size(), equalTo(1));
+        assertTrue(taskAssignor.probingRebalanceNeeded());
+    }
+
+    @Test
+    public void shouldMoveActiveTaskToClientWithinAcceptableRecoveryLag() {
+        final ClientState c1 = createClientWithPreviousActiveTasks(p1, 1, task00, task01);
+        c1.addPreviousTaskOffsetSums(offsetSums(1000L, task00, task01));
+        final ClientState c2 = createClient(p2, 1);
+        c2.addPreviousStandbyTasks(Utils.mkSet(task00, task01));
+        c2.addPreviousTaskOffsetSums(offsetSums(950L, task00, task01));
+
+        final StickyTaskAssignor<Integer> taskAssignor = createLagAwareTaskAssignor(2, task00, task01);
+        taskAssignor.assign(0);
+
+        assertThat(c1.activeTaskCount(), equalTo(1));
+        assertThat(c2.activeTaskCount(), equalTo(1));
+        assertFalse(taskAssignor.probingRebalanceNeeded());
+    }
+
+    @Test
+    public void shouldMoveActiveTaskWithSmallStateToNewClient() {
+        final ClientState c1 = createClientWithPreviousActiveTasks(p1, 1, task00, task01);
+        c1.addPreviousTaskOffsetSums(offsetSums(50L, task00, task01));
+        final ClientState newClient = createClient(p2, 1);
+
+        final StickyTaskAssignor<Integer> taskAssignor = createLagAwareTaskAssignor(2, task00, task01);
+        taskAssignor.assign(0);
+
+        assertThat(c1.activeTaskCount(), equalTo(1));
+        assertThat(newClient.activeTaskCount(), equalTo(1));
+        assertFalse(taskAssignor.probingRebalanceNeeded());
+    }
+
+    @Test
+    public void shouldNotAssignMoreThanMaxWarmupReplicas() {
+        final ClientState c1 = createClientWithPreviousActiveTasks(p1, 1, task00, task01, task02, task03);
+        c1.addPreviousTaskOffsetSums(offsetSums(1000L, task00, task01, task02, task03));
+        createClient(p2, 1);
+        createClient(p3, 1);
+
+        final StickyTaskAssignor<Integer> taskAssignor = createLagAwareTaskAssignor(1, task00, task01, task02, task03);
+        taskAssignor.assign(0);
+
+        assertThat(c1.activeTaskCount(), equalTo(4));
+        assertThat(allStandbyTasks().size(), equalTo(1));
+        assertTrue(taskAssignor.probingRebalanceNeeded());
+    }
+
+    @Test
+    public void shouldCountStandbyReplicaOnLaggingClientAsWarmupReplica() {
+        final ClientState c1 = createClientWithPreviousActiveTasks(p1, 1, task00, task01);
+        c1.addPreviousTaskOffsetSums(offsetSums(1000L, task00, task01));
+        final ClientState newClient = createClient(p2, 1);
+
+        final StickyTaskAssignor<Integer> taskAssignor = createLagAwareTaskAssignor(1, task00, task01);
+        taskAssignor.assign(1);
+
+        assertThat(c1.activeTasks(), equalTo(Utils.mkSet(task00, task01)));
+        assertThat(newClient.standbyTasks(), equalTo(Utils.mkSet(task00, task01)));
+        assertTrue(taskAssignor.probingRebalanceNeeded());
+    }
+
+    @Test
+    public void shouldMoveStatelessTasksRegardlessOfLag() {
+        final ClientState c1 = createClientWithPreviousActiveTasks(p1, 1, task00, task01);
+        c1.addPreviousTaskOffsetSums(offsetSums(1000L, task00, task01));
+        final ClientState newClient = createClient(p2, 1);
+
+        final StickyTaskAssignor<Integer> taskAssignor = new StickyTaskAssignor<>(
+            clients, Utils.mkSet(task00, task01), Collections.emptySet(), 100L, 2);
+        taskAssignor.assign(0);
+
+        assertThat(c1.activeTaskCount(), equalTo(1));
+        assertThat(newClient.activeTaskCount(), equalTo(1));
+        assertFalse(taskAssignor.probingRebalanceNeeded());
+    }
+
+    private StickyTaskAssignor<Integer> createLagAwareTaskAssignor(final int maxWarmupReplicas, final TaskId... statefulTasks) {
+        final Set<TaskId> taskIds = Utils.mkSet(statefulTasks);
+        return new StickyTaskAssignor<>(clients, taskIds, taskIds, 100L, maxWarmupReplicas);
+    }
+
+    private static Map<TaskId, Long> offsetSums(final long offsetSum, final TaskId... tasks) {
+        final Map<TaskId, Long> offsetSums = new HashMap<>();
+        for (final TaskId task : tasks) {
+            offsetSums.put(task, offsetSum);
+        }
+        return offsetSums;
+    }
+
     private StickyTaskAssignor<Integer> createTaskAssignor(final TaskId... tasks) {
         final List<TaskId> taskIds = Arrays.asList(tasks);
         Collections.shuffle(taskIds);
@@ -21,7 +21,10 @@ import org.junit.Test;
 
 import java.nio.ByteBuffer;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 
@@ -83,6 +86,25 @@ public class SubscriptionInfoTest {
         assertEquals(expectedInfo, SubscriptionInfo.decode(info.encode()));
     }
 
+    @Test
+    public void shouldEncodeAndDecodeVersion5() {
+        final Map<TaskId, Long> taskOffsetSums = new HashMap<>();
+        taskOffsetSums.put(new TaskId(0, 0), 42L);
+        taskOffsetSums.put(new TaskId(1, 1), 0L);
+        final SubscriptionInfo info = new SubscriptionInfo(5, processId, activeTasks, standbyTasks, "localhost:80", taskOffsetSums);
+        final SubscriptionInfo decoded = SubscriptionInfo.decode(info.encode());
+        assertEquals(new SubscriptionInfo(5, SubscriptionInfo.LATEST_SUPPORTED_VERSION, processId, activeTasks, standbyTasks, "localhost:80", taskOffsetSums), decoded);
+        assertEquals(taskOffsetSums, decoded.taskOffsetSums());
+    }
+
+    @Test
+    public void shouldNotEncodeTaskOffsetSumsForVersion4() {
+        final Map<TaskId, Long> taskOffsetSums = new HashMap<>();
+        taskOffsetSums.put(new TaskId(0, 0), 42L);
+        final SubscriptionInfo info = new SubscriptionInfo(4, processId, activeTasks, standbyTasks, "localhost:80", taskOffsetSums);
+        assertEquals(Collections.emptyMap(), SubscriptionInfo.decode(info.encode()).taskOffsetSums());
+    }
+
     @Test
     public void shouldAllowToDecodeFutureSupportedVersion() {
         final SubscriptionInfo info = SubscriptionInfo.decode(encodeFutureVersion());
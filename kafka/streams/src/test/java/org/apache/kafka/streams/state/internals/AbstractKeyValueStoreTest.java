@@ -373,6 +373,44 @@ public abstract class AbstractKeyValueStoreTest {
 
     }
 
+    @Test
+    public void shouldReturnKeysWithPrefixInOrderOnPrefixScan() {
+        // serialized big-endian: 0x000000FF, 0x00000100, 0x0000012C, 0x000001FF, 0x00000200
+        store.put(255, "two-five-five");
+        store.put(511, "five-one-one");
+        store.put(256, "two-five-six");
+        store.put(512, "five-one-two");
+        store.put(300, "three-hundred");
+
+        final List<Integer> keys = new ArrayList<>();
+        try (final KeyValueIterator<Integer, String> iterator =
+                 store.prefixScan(new byte[] {0, 0, 1}, Serdes.ByteArray().serializer())) {
+            while (iterator.hasNext()) {
+                final KeyValue<Integer, String> next = iterator.next();
+                assertEquals(store.get(next.key), next.value);
+                keys.add(next.key);
+            }
+        }
+        assertEquals(Arrays.asList(256, 300, 511), keys);
+    }
+
+    @Test
+    public void shouldReturnKeysWithPrefixOfMaximumBytesOnPrefixScan() {
+        // serialized big-endian: 0xFFFFFF00, 0xFFFFFFFF, 0xFFFFFE00
+        store.put(-256, "minus-two-five-six");
+        store.put(-1, "minus-one");
+        store.put(-512, "minus-five-one-two");
+
+        final List<Integer> keys = new ArrayList<>();
+        try (final KeyValueIterator<Integer, String> iterator =
+                 store.prefixScan(new byte[] {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF}, Serdes.ByteArray().serializer())) {
+            while (iterator.hasNext()) {
+                keys.add(iterator.next().key);
+            }
+        }
+        assertEquals(Arrays.asList(-256, -1), keys);
+    }
+
     @Test
     public void shouldDeleteFromStore() {
         store.put(1, "one");
@@ -35,6 +35,7 @@ import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.apache.kafka.test.StreamsTestUtils.getMetricByNameFilterByTags;
 import static org.junit.Assert.assertArrayEquals;
@@ -297,4 +298,72 @@ public class NamedCacheTest {
     public void shouldReturnNullIfKeyIsNull() {
         assertNull(cache.get(null));
     }
+
+    @Test
+    public void shouldFlushDirtyEntriesInArrivalOrderAcrossSegments() {
+        final NamedCache segmented = new NamedCache(taskIDString + "-segmentedStore", metrics, 4);
+        final List<ThreadCache.DirtyEntry> flushed = new ArrayList<>();
+        segmented.setListener(flushed::addAll);
+        for (byte i = 0; i < 10; i++) {
+            segmented.put(Bytes.wrap(new byte[]{i}), new LRUCacheEntry(new byte[]{i}, headers, true, 0, 0, 0, ""));
+        }
+        segmented.put(Bytes.wrap(new byte[]{3}), new LRUCacheEntry(new byte[]{30}, headers, true, 0, 0, 0, ""));
+
+        segmented.flush();
+
+        final List<Bytes> expected = new ArrayList<>();
+        for (final byte i : new byte[]{0, 1, 2, 4, 5, 6, 7, 8, 9, 3}) {
+            expected.add(Bytes.wrap(new byte[]{i}));
+        }
+        final List<Bytes> actual = new ArrayList<>();
+        for (final ThreadCache.DirtyEntry entry : flushed) {
+            actual.add(entry.key());
+        }
+        assertEquals(expected, actual);
+        assertArrayEquals(new byte[]{30}, flushed.get(9).newValue());
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedEntryAcrossSegments() {
+        final NamedCache segmented = new NamedCache(taskIDString + "-segmentedStore", metrics, 4);
+        for (byte i = 0; i < 8; i++) {
+            segmented.put(Bytes.wrap(new byte[]{i}), new LRUCacheEntry(new byte[]{i}));
+        }
+        segmented.get(Bytes.wrap(new byte[]{0}));
+        assertArrayEquals(new byte[]{0}, segmented.first().value());
+        assertArrayEquals(new byte[]{1}, segmented.last().value());
+
+        segmented.evict();
+
+        assertNull(segmented.get(Bytes.wrap(new byte[]{1})));
+        assertEquals(7, segmented.size());
+        assertArrayEquals(new byte[]{2}, segmented.last().value());
+    }
+
+    @Test
+    public void shouldGetFromOtherThreadsWhilePutting() throws InterruptedException {
+        final NamedCache segmented = new NamedCache(taskIDString + "-segmentedStore", metrics, 4);
+        final Bytes key = Bytes.wrap(new byte[]{0});
+        segmented.put(key, new LRUCacheEntry(new byte[]{0}));
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final Thread reader = new Thread(() -> {
+            try {
+                for (int i = 0; i < 10000; i++) {
+                    assertNotNull(segmented.get(key));
+                }
+            } catch (final Throwable t) {
+                failure.set(t);
+            }
+        });
+        reader.start();
+        for (int i = 0; i < 10000; i++) {
+            segmented.put(Bytes.wrap(new byte[]{(byte) (i % 100 + 1)}), new LRUCacheEntry(new byte[]{1}));
+            segmented.put(key, new LRUCacheEntry(new byte[]{0}));
+        }
+        reader.join();
+
+        assertNull(failure.get());
+        assertEquals(101, segmented.size());
+        assertEquals(10000, segmented.hits());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.kafka.streams.state.internals;
+
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.utils.Bytes;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.processor.ProcessorContext;
+import org.apache.kafka.streams.processor.StateStore;
+import org.apache.kafka.streams.state.KeyValueIterator;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.apache.kafka.streams.state.StoreBuilder;
+import org.apache.kafka.streams.state.Stores;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class OffHeapKeyValueStoreTest extends AbstractKeyValueStoreTest {
+
+    @SuppressWarnings("unchecked")
+    @Override
+    protected <K, V> KeyValueStore<K, V> createKeyValueStore(final ProcessorContext context) {
+        final StoreBuilder storeBuilder = Stores.keyValueStoreBuilder(
+                Stores.inMemoryOffHeapKeyValueStore("my-store"),
+                (Serde<K>) context.keySerde(),
+                (Serde<V>) context.valueSerde());
+
+        final StateStore store = storeBuilder.build();
+        store.init(context, store);
+        return (KeyValueStore<K, V>) store;
+    }
+
+    private OffHeapKeyValueStore createOffHeapStore(final int chunkSize) {
+        final OffHeapKeyValueStore offHeapStore = new OffHeapKeyValueStore("off-heap-store", "in-memory-off-heap-state", chunkSize);
+        offHeapStore.init(context, null);
+        return offHeapStore;
+    }
+
+    private static Bytes key(final int key) {
+        return Bytes.wrap(new byte[]{(byte) key});
+    }
+
+    @Test
+    public void shouldReuseMemoryOfDeletedRecords() {
+        final OffHeapKeyValueStore offHeapStore = createOffHeapStore(256);
+        for (int i = 0; i < 20; i++) {
+            offHeapStore.put(key(i), new byte[]{(byte) i});
+        }
+        final long allocatedBytes = offHeapStore.allocatedBytes();
+        final long usedBytes = offHeapStore.usedBytes();
+
+        for (int i = 0; i < 20; i++) {
+            offHeapStore.delete(key(i));
+        }
+        assertEquals(0, offHeapStore.usedBytes());
+        assertEquals(0, offHeapStore.approximateNumEntries());
+
+        for (int i = 0; i < 20; i++) {
+            offHeapStore.put(key(i), new byte[]{(byte) i});
+        }
+        assertEquals(allocatedBytes, offHeapStore.allocatedBytes());
+        assertEquals(usedBytes, offHeapStore.usedBytes());
+        offHeapStore.close();
+    }
+
+    @Test
+    public void shouldStoreRecordsLargerThanChunk() {
+        final OffHeapKeyValueStore offHeapStore = createOffHeapStore(256);
+        final byte[] value = new byte[1000];
+        value[999] = 1;
+        offHeapStore.put(key(0), value);
+        offHeapStore.put(key(1), new byte[]{1});
+
+        assertArrayEquals(value, offHeapStore.get(key(0)));
+        assertTrue(offHeapStore.allocatedBytes() > value.length);
+
+        final long allocatedBytes = offHeapStore.allocatedBytes();
+        assertArrayEquals(value, offHeapStore.delete(key(0)));
+        assertTrue(offHeapStore.allocatedBytes() < allocatedBytes - value.length);
+        assertNull(offHeapStore.get(key(0)));
+        assertArrayEquals(new byte[]{1}, offHeapStore.get(key(1)));
+        offHeapStore.close();
+    }
+
+    @Test
+    public void shouldOverwriteValuesOfDifferentSizes() {
+        final OffHeapKeyValueStore offHeapStore = createOffHeapStore(1024);
+        offHeapStore.put(key(1), new byte[]{1});
+        offHeapStore.put(key(1), new byte[]{1, 2});
+        assertArrayEquals(new byte[]{1, 2}, offHeapStore.get(key(1)));
+        offHeapStore.put(key(1), new byte[100]);
+        assertArrayEquals(new byte[100], offHeapStore.get(key(1)));
+        offHeapStore.put(key(1), new byte[]{3});
+        assertArrayEquals(new byte[]{3}, offHeapStore.get(key(1)));
+        assertEquals(1, offHeapStore.approximateNumEntries());
+        offHeapStore.close();
+    }
+
+    @Test
+    public void shouldContinueIterationAfterConcurrentModification() {
+        final OffHeapKeyValueStore offHeapStore = createOffHeapStore(256);
+        for (int i = 0; i < 10; i++) {
+            offHeapStore.put(key(i), new byte[]{(byte) i});
+        }
+
+        final List<Integer> keys = new ArrayList<>();
+        try (final KeyValueIterator<Bytes, byte[]> iterator = offHeapStore.range(key(2), key(8))) {
+            while (iterator.hasNext()) {
+                final KeyValue<Bytes, byte[]> next = iterator.next();
+                keys.add((int) next.key.get()[0]);
+                if (next.key.get()[0] == 4) {
+                    offHeapStore.delete(key(5));
+                    offHeapStore.put(key(6), new byte[200]);
+                }
+            }
+        }
+
+        final List<Integer> expected = new ArrayList<>();
+        for (final int i : new int[]{2, 3, 4, 6, 7, 8}) {
+            expected.add(i);
+        }
+        assertEquals(expected, keys);
+        offHeapStore.close();
+    }
+
+    @Test
+    public void shouldRecordMemoryMetricsOnFlush() {
+        final OffHeapKeyValueStore offHeapStore = createOffHeapStore(256);
+        offHeapStore.put(key(1), new byte[]{1});
+        offHeapStore.flush();
+
+        assertEquals((double) offHeapStore.usedBytes(), metricValue("off-heap-used-bytes"), 0.0);
+        assertEquals((double) offHeapStore.allocatedBytes(), metricValue("off-heap-allocated-bytes"), 0.0);
+        offHeapStore.close();
+    }
+
+    private double metricValue(final String name) {
+        for (final Map.Entry<MetricName, ? extends Metric> metric : context.metrics().metrics().entrySet()) {
+            if (metric.getKey().name().equals(name)
+                && "off-heap-store".equals(metric.getKey().tags().get("in-memory-off-heap-state-id"))) {
+                return (Double) metric.getValue().metricValue();
+            }
+        }
+        throw new AssertionError("Metric " + name + " not found");
+    }
+}
@@ -16,6 +16,11 @@
  */
 package org.apache.kafka.streams.state.internals;
 
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.metrics.MetricConfig;
+import org.apache.kafka.common.metrics.Metrics;
+import org.apache.kafka.common.metrics.Sensor;
 import org.apache.kafka.common.serialization.Deserializer;
 import org.apache.kafka.common.serialization.Serdes;
 import org.apache.kafka.common.serialization.Serializer;
@@ -27,6 +32,7 @@ import org.apache.kafka.streams.KeyValue;
 import org.apache.kafka.streams.StreamsConfig;
 import org.apache.kafka.streams.errors.ProcessorStateException;
 import org.apache.kafka.streams.processor.StateRestoreListener;
+import org.apache.kafka.streams.processor.internals.metrics.StreamsMetricsImpl;
 import org.apache.kafka.streams.state.KeyValueIterator;
 import org.apache.kafka.streams.state.RocksDBConfigSetter;
 import org.apache.kafka.test.InternalMockProcessorContext;
@@ -57,6 +63,9 @@ import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -161,6 +170,84 @@ public class RocksDBStoreTest {
         }
     }
 
+    @Test
+    public void shouldShareBlockCacheAndWriteBufferManagerAcrossStores() {
+        final Properties props = StreamsTestUtils.getStreamsConfig();
+        props.put(StreamsConfig.ROCKSDB_BLOCK_CACHE_SIZE_CONFIG, 1024 * 1024L);
+        props.put(StreamsConfig.ROCKSDB_WRITE_BUFFER_MANAGER_SIZE_CONFIG, 512 * 1024L);
+        final InternalMockProcessorContext sharedContext = new InternalMockProcessorContext(
+            TestUtils.tempDirectory(),
+            new StreamsConfig(props));
+        final RocksDBStore otherStore = new RocksDBStore("other-db-name");
+
+        rocksDBStore.init(sharedContext, rocksDBStore);
+        otherStore.init(sharedContext, otherStore);
+
+        final RocksDBSharedResources sharedResources = rocksDBStore.sharedResources;
+        assertSame(sharedResources, otherStore.sharedResources);
+        assertEquals(2, sharedResources.referenceCount());
+        assertSame(sharedResources.writeBufferManager(), rocksDBStore.getOptions().writeBufferManager());
+
+        otherStore.close();
+        assertEquals(1, sharedResources.referenceCount());
+        rocksDBStore.close();
+        assertEquals(0, sharedResources.referenceCount());
+    }
+
+    @Test
+    public void shouldNotShareBlockCacheByDefault() {
+        rocksDBStore.init(context, rocksDBStore);
+
+        assertNull(rocksDBStore.sharedResources);
+    }
+
+    @Test
+    public void shouldRecordStatisticsMetricsOnFlushIfRecordingLevelIsDebug() {
+        final Metrics metrics = new Metrics(new MetricConfig().recordLevel(Sensor.RecordingLevel.DEBUG));
+        final InternalMockProcessorContext debugContext = new InternalMockProcessorContext(
+            TestUtils.tempDirectory(),
+            Serdes.String(),
+            Serdes.String(),
+            new StreamsMetricsImpl(metrics, "mock"),
+            new StreamsConfig(StreamsTestUtils.getStreamsConfig()),
+            null,
+            null);
+        rocksDBStore.init(debugContext, rocksDBStore);
+        assertNotNull(rocksDBStore.getOptions().statistics());
+
+        rocksDBStore.put(new Bytes(stringSerializer.serialize(null, "key")), stringSerializer.serialize(null, "value"));
+        rocksDBStore.flush();
+        rocksDBStore.get(new Bytes(stringSerializer.serialize(null, "key")));
+        rocksDBStore.flush();
+
+        final Metric hitRatio = rocksDBMetric(metrics, "block-cache-hit-ratio");
+        assertNotNull(hitRatio);
+        final double ratio = (Double) hitRatio.metricValue();
+        assertTrue(ratio >= 0.0 && ratio <= 1.0);
+        assertNotNull(rocksDBMetric(metrics, "bytes-written-compaction-total"));
+        assertNotNull(rocksDBMetric(metrics, "write-stall-duration-total"));
+
+        rocksDBStore.close();
+        assertNull(rocksDBMetric(metrics, "block-cache-hit-ratio"));
+    }
+
+    @Test
+    public void shouldNotCollectStatisticsIfRecordingLevelIsInfo() {
+        rocksDBStore.init(context, rocksDBStore);
+
+        assertNull(rocksDBStore.getOptions().statistics());
+    }
+
+    private static Metric rocksDBMetric(final Metrics metrics, final String name) {
+        for (final Map.Entry<MetricName, ? extends Metric> metric : metrics.metrics().entrySet()) {
+            if (metric.getKey().name().equals(name)
+                && DB_NAME.equals(metric.getKey().tags().get("rocksdb-state-id"))) {
+                return metric.getValue();
+            }
+        }
+        return null;
+    }
+
     @Test
     public void shouldPutAll() {
         final List<KeyValue<Bytes, byte[]>> entries = new ArrayList<>();
@@ -16,6 +16,7 @@
  */
 package org.apache.kafka.streams.state.internals;
 
+import org.apache.kafka.common.serialization.StringSerializer;
 import org.apache.kafka.common.utils.Bytes;
 import org.apache.kafka.streams.KeyValue;
 import org.apache.kafka.streams.processor.internals.testutil.LogCaptureAppender;
@@ -275,6 +276,28 @@ public class RocksDBTimestampedStoreTest extends RocksDBStoreTest {
         LogCaptureAppender.unregister(appender);
     }
 
+    @Test
+    public void shouldPrefixScanAcrossBothColumnFamilies() {
+        prepareOldStore();
+        rocksDBStore.init(context, rocksDBStore);
+
+        // migrate key1 and add key8 to the new CF, while key2 to key7 remain in the old CF
+        rocksDBStore.get(new Bytes("key1".getBytes()));
+        rocksDBStore.put(new Bytes("key8".getBytes()), new byte[8 + 8]);
+        rocksDBStore.put(new Bytes("other".getBytes()), "timestamp+0".getBytes());
+
+        final List<String> keys = new ArrayList<>();
+        try (final KeyValueIterator<Bytes, byte[]> iterator = rocksDBStore.prefixScan("key", new StringSerializer())) {
+            while (iterator.hasNext()) {
+                final KeyValue<Bytes, byte[]> next = iterator.next();
+                keys.add(new String(next.key.get(), StandardCharsets.UTF_8));
+                // values of the old CF are returned in the timestamped format
+                assertThat(next.value.length, is(8 + Integer.parseInt(keys.get(keys.size() - 1).substring(3))));
+            }
+        }
+        assertThat(keys, is(asList("key1", "key2", "key3", "key4", "key5", "key6", "key7", "key8")));
+    }
+
     private void prepareOldStore() {
         final RocksDBStore keyValueStore = new RocksDBStore(DB_NAME);
         keyValueStore.init(context, keyValueStore);
@@ -129,7 +129,8 @@ public class StreamsUpgradeTest {
                 taskManager.processId(),
                 previousActiveTasks,
                 standbyTasks,
-                userEndPoint());
+                userEndPoint(),
+                taskManager.taskOffsetSums());
 
             taskManager.updateSubscriptionsFromMetadata(topics);
 
@@ -213,10 +214,12 @@ public class StreamsUpgradeTest {
                         new Subscription(
                             subscription.topics(),
                             new SubscriptionInfo(
+                                SubscriptionInfo.LATEST_SUPPORTED_VERSION,
                                 info.processId(),
                                 info.prevTasks(),
                                 info.standbyTasks(),
-                                info.userEndPoint())
+                                info.userEndPoint(),
+                                info.taskOffsetSums())
                                 .encode()));
                 }
                 assignment = super.assign(metadata, downgradedSubscriptions);
@@ -249,8 +252,9 @@ public class StreamsUpgradeTest {
                                final UUID processId,
                                final Set<TaskId> prevTasks,
                                final Set<TaskId> standbyTasks,
-                               final String userEndPoint) {
-            super(version, latestSupportedVersion, processId, prevTasks, standbyTasks, userEndPoint);
+                               final String userEndPoint,
+                               final Map<TaskId, Long> taskOffsetSums) {
+            super(version, latestSupportedVersion, processId, prevTasks, standbyTasks, userEndPoint, taskOffsetSums);
         }
 
         public ByteBuffer encode() {
@@ -270,7 +274,7 @@ public class StreamsUpgradeTest {
         private ByteBuffer encodeFutureVersion() {
             final byte[] endPointBytes = prepareUserEndPoint();
 
-            final ByteBuffer buf = ByteBuffer.allocate(getVersionThreeAndFourByteLength(endPointBytes));
+            final ByteBuffer buf = ByteBuffer.allocate(getVersionFiveByteLength(endPointBytes));
 
             buf.putInt(LATEST_SUPPORTED_VERSION + 1); // used version
             buf.putInt(LATEST_SUPPORTED_VERSION + 1); // supported version
@@ -278,6 +282,7 @@ public class StreamsUpgradeTest {
             encodeTasks(buf, prevTasks());
             encodeTasks(buf, standbyTasks());
             encodeUserEndPoint(buf, endPointBytes);
+            encodeTaskOffsetSums(buf);
 
             return buf;
         }
@@ -17,6 +17,8 @@
 package com.alipay.sofa.ark.container;
 
 import com.alipay.sofa.ark.common.util.AssertUtils;
+import com.alipay.sofa.ark.container.profiler.ArkStartupProfiler;
+import com.alipay.sofa.ark.container.profiler.ArkStartupProfiler.PhaseType;
 import com.alipay.sofa.ark.spi.argument.LaunchCommand;
 import com.alipay.sofa.ark.loader.ExecutableArkBizJar;
 import com.alipay.sofa.ark.loader.archive.JarFileArchive;
@@ -112,6 +114,7 @@ public class ArkContainer {
             Pipeline pipeline = arkServiceContainer.getService(Pipeline.class);
             pipeline.process(pipelineContext);
 
+            ArkStartupProfiler.recordPhase(PhaseType.CONTAINER, "start", start);
             System.out.println("Ark container started in " + (System.currentTimeMillis() - start) //NOPMD
                                + " ms.");
         }
@@ -18,6 +18,8 @@ package com.alipay.sofa.ark.container.pipeline;
 
 import com.alipay.sofa.ark.common.log.ArkLogger;
 import com.alipay.sofa.ark.common.log.ArkLoggerFactory;
+import com.alipay.sofa.ark.container.profiler.ArkStartupProfiler;
+import com.alipay.sofa.ark.container.profiler.ArkStartupProfiler.PhaseType;
 import com.alipay.sofa.ark.container.service.ArkServiceContainerHolder;
 import com.alipay.sofa.ark.exception.ArkException;
 import com.alipay.sofa.ark.spi.pipeline.Pipeline;
@@ -70,7 +72,10 @@ public class StandardPipeline implements Pipeline {
             try {
                 LOGGER.info(String.format("Start to process pipeline stage: %s", pipelineStage
                     .getClass().getName()));
+                long start = System.currentTimeMillis();
                 pipelineStage.process(pipelineContext);
+                ArkStartupProfiler.recordPhase(PhaseType.PIPELINE_STAGE, pipelineStage.getClass()
+                    .getSimpleName(), start);
                 LOGGER.info(String.format("Finish to process pipeline stage: %s", pipelineStage
                     .getClass().getName()));
             } catch (Throwable e) {
@@ -0,0 +1,234 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.ark.container.profiler;
+
+import com.alipay.sofa.ark.common.util.EnvironmentUtils;
+import com.alipay.sofa.ark.spi.constant.Constants;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Opt-in startup profiler of ark container, records class loading statistics of every
+ * ark classloader and durations of pipeline stages, plugin and biz start. It is
+ * enabled by system property {@link Constants#STARTUP_PROFILER_ENABLE}, all record
+ * methods are no-op when disabled.
+ *
+ * @author qilong.zql
+ * @since 0.4.0
+ */
+public class ArkStartupProfiler {
+
+    /**
+     * Stages which a class loading request passes through in ark classloader
+     */
+    public enum ResolveStage {
+        JDK, ARK, EXPORT, LOCAL, AGENT
+    }
+
+    /**
+     * Kinds of timed startup phases
+     */
+    public enum PhaseType {
+        CONTAINER, PIPELINE_STAGE, PLUGIN, BIZ
+    }
+
+    private static volatile boolean                               enabled              = "true"
+                                                                                          .equalsIgnoreCase(EnvironmentUtils
+                                                                                              .getProperty(Constants.STARTUP_PROFILER_ENABLE));
+
+    private static final ConcurrentMap<String, ClassloaderProfile> CLASSLOADER_PROFILES = new ConcurrentHashMap<>();
+
+    private static final Map<String, Long>                        PHASE_DURATIONS      = new LinkedHashMap<>();
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean enable) {
+        enabled = enable;
+    }
+
+    /**
+     * Clear all recorded statistics
+     */
+    public static void reset() {
+        CLASSLOADER_PROFILES.clear();
+        synchronized (PHASE_DURATIONS) {
+            PHASE_DURATIONS.clear();
+        }
+    }
+
+    /**
+     * Record a class loading request handled by classloader
+     * @param classloaderName name of classloader
+     */
+    public static void recordLoadClass(String classloaderName) {
+        if (enabled) {
+            getClassloaderProfile(classloaderName).loadCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Record time spent in one resolve stage
+     * @param classloaderName name of classloader
+     * @param stage resolve stage
+     * @param startNanos value of {@link System#nanoTime()} when stage begins
+     * @param found whether class is resolved in this stage
+     */
+    public static void recordResolve(String classloaderName, ResolveStage stage, long startNanos,
+                                     boolean found) {
+        if (enabled) {
+            ClassloaderProfile profile = getClassloaderProfile(classloaderName);
+            int index = stage.ordinal();
+            profile.resolveNanos[index].addAndGet(System.nanoTime() - startNanos);
+            profile.resolveCount[index].incrementAndGet();
+            if (found) {
+                profile.resolveHit[index].incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Record a class definition from classloader's classpath
+     * @param classloaderName name of classloader
+     * @param startNanos value of {@link System#nanoTime()} when definition begins
+     */
+    public static void recordDefineClass(String classloaderName, long startNanos) {
+        if (enabled) {
+            ClassloaderProfile profile = getClassloaderProfile(classloaderName);
+            profile.defineNanos.addAndGet(System.nanoTime() - startNanos);
+            profile.defineCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Record a resource lookup which scans classpath of classloader
+     * @param classloaderName name of classloader
+     * @param startNanos value of {@link System#nanoTime()} when lookup begins
+     */
+    public static void recordResourceScan(String classloaderName, long startNanos) {
+        if (enabled) {
+            ClassloaderProfile profile = getClassloaderProfile(classloaderName);
+            profile.resourceNanos.addAndGet(System.nanoTime() - startNanos);
+            profile.resourceCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Record duration of a startup phase
+     * @param type phase type
+     * @param name phase name, such as plugin name or biz identity
+     * @param startMillis value of {@link System#currentTimeMillis()} when phase begins
+     */
+    public static void recordPhase(PhaseType type, String name, long startMillis) {
+        if (enabled) {
+            synchronized (PHASE_DURATIONS) {
+                PHASE_DURATIONS.put(String.format("%s[%s]", type, name),
+                    System.currentTimeMillis() - startMillis);
+            }
+        }
+    }
+
+    /**
+     * Dump recorded statistics as a human readable report
+     * @return report
+     */
+    public static String report() {
+        StringBuilder sb = new StringBuilder();
+        if (!enabled) {
+            sb.append(String.format("Startup profiler is disabled, set -D%s=true to enable it.",
+                Constants.STARTUP_PROFILER_ENABLE));
+            return sb.append(Constants.TELNET_STRING_END).toString();
+        }
+
+        sb.append("Startup Phases (ms):").append(Constants.TELNET_STRING_END);
+        List<Map.Entry<String, Long>> phases;
+        synchronized (PHASE_DURATIONS) {
+            phases = new ArrayList<>(PHASE_DURATIONS.entrySet());
+        }
+        for (Map.Entry<String, Long> phase : phases) {
+            sb.append(String.format("  %-60s %8d", phase.getKey(), phase.getValue())).append(
+                Constants.TELNET_STRING_END);
+        }
+
+        sb.append("Classloaders (count / hit / ms):").append(Constants.TELNET_STRING_END);
+        for (Map.Entry<String, ClassloaderProfile> entry : CLASSLOADER_PROFILES.entrySet()) {
+            ClassloaderProfile profile = entry.getValue();
+            sb.append(String.format("  %s loadClass=%d", entry.getKey(), profile.loadCount.get()))
+                .append(Constants.TELNET_STRING_END);
+            for (ResolveStage stage : ResolveStage.values()) {
+                int index = stage.ordinal();
+                sb.append(
+                    String.format("    resolve-%-8s %8d / %8d / %8d", stage,
+                        profile.resolveCount[index].get(), profile.resolveHit[index].get(),
+                        toMillis(profile.resolveNanos[index].get()))).append(
+                    Constants.TELNET_STRING_END);
+            }
+            sb.append(
+                String.format("    define           %8d / %8s / %8d", profile.defineCount.get(),
+                    "-", toMillis(profile.defineNanos.get())))
+                .append(Constants.TELNET_STRING_END);
+            sb.append(
+                String.format("    resource         %8d / %8s / %8d",
+                    profile.resourceCount.get(), "-", toMillis(profile.resourceNanos.get())))
+                .append(Constants.TELNET_STRING_END);
+        }
+        return sb.toString();
+    }
+
+    private static long toMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    private static ClassloaderProfile getClassloaderProfile(String classloaderName) {
+        ClassloaderProfile profile = CLASSLOADER_PROFILES.get(classloaderName);
+        if (profile == null) {
+            ClassloaderProfile newProfile = new ClassloaderProfile();
+            profile = CLASSLOADER_PROFILES.putIfAbsent(classloaderName, newProfile);
+            if (profile == null) {
+                profile = newProfile;
+            }
+        }
+        return profile;
+    }
+
+    private static class ClassloaderProfile {
+        private final AtomicLong   loadCount     = new AtomicLong();
+        private final AtomicLong[] resolveCount  = newCounters();
+        private final AtomicLong[] resolveHit    = newCounters();
+        private final AtomicLong[] resolveNanos  = newCounters();
+        private final AtomicLong   defineCount   = new AtomicLong();
+        private final AtomicLong   defineNanos   = new AtomicLong();
+        private final AtomicLong   resourceCount = new AtomicLong();
+        private final AtomicLong   resourceNanos = new AtomicLong();
+
+        private static AtomicLong[] newCounters() {
+            AtomicLong[] counters = new AtomicLong[ResolveStage.values().length];
+            for (int i = 0; i < counters.length; i++) {
+                counters[i] = new AtomicLong();
+            }
+            return counters;
+        }
+    }
+}
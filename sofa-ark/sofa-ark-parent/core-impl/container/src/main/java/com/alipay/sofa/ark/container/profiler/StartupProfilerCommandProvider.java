@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.ark.container.profiler;
+
+import com.alipay.sofa.ark.common.util.StringUtils;
+import com.alipay.sofa.ark.spi.constant.Constants;
+import com.alipay.sofa.ark.spi.service.session.CommandProvider;
+
+/**
+ * Telnet command to dump report of {@link ArkStartupProfiler}, usage:
+ * <pre>
+ *     profiler [report|reset]
+ * </pre>
+ *
+ * @author qilong.zql
+ * @since 0.4.0
+ */
+public class StartupProfilerCommandProvider implements CommandProvider {
+
+    private static final String REPORT = "report";
+    private static final String RESET  = "reset";
+
+    private static final String HELP   = "profiler [report|reset]: dump or reset startup profiler report"
+                                         + Constants.TELNET_STRING_END;
+
+    @Override
+    public String getHelp() {
+        return HELP;
+    }
+
+    @Override
+    public String getHelp(String commandMarker) {
+        return Constants.STARTUP_PROFILER_COMMAND.equals(commandMarker) ? HELP : null;
+    }
+
+    @Override
+    public boolean validate(String command) {
+        String[] phrases = command.trim().split(Constants.SPACE_SPLIT);
+        if (!Constants.STARTUP_PROFILER_COMMAND.equals(phrases[0]) || phrases.length > 2) {
+            return false;
+        }
+        return phrases.length == 1 || REPORT.equals(phrases[1]) || RESET.equals(phrases[1]);
+    }
+
+    @Override
+    public String handleCommand(String command) {
+        String[] phrases = command.trim().split(Constants.SPACE_SPLIT);
+        if (phrases.length > 1 && RESET.equals(phrases[1])) {
+            ArkStartupProfiler.reset();
+            return StringUtils.EMPTY_STRING;
+        }
+        return ArkStartupProfiler.report();
+    }
+}
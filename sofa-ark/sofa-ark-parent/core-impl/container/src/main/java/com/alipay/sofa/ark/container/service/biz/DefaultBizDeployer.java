@@ -18,6 +18,8 @@ package com.alipay.sofa.ark.container.service.biz;
 
 import com.alipay.sofa.ark.common.log.ArkLogger;
 import com.alipay.sofa.ark.common.log.ArkLoggerFactory;
+import com.alipay.sofa.ark.container.profiler.ArkStartupProfiler;
+import com.alipay.sofa.ark.container.profiler.ArkStartupProfiler.PhaseType;
 import com.alipay.sofa.ark.exception.ArkException;
 import com.alipay.sofa.ark.spi.model.Biz;
 import com.alipay.sofa.ark.spi.service.ArkInject;
@@ -49,7 +51,9 @@ public class DefaultBizDeployer implements BizDeployer {
         for (Biz biz : bizManagerService.getBizInOrder()) {
             try {
                 LOGGER.info(String.format("Begin to start biz: %s", biz.getBizName()));
+                long start = System.currentTimeMillis();
                 biz.start(arguments);
+                ArkStartupProfiler.recordPhase(PhaseType.BIZ, biz.getIdentity(), start);
                 LOGGER.info(String.format("Finish to start biz: %s", biz.getBizName()));
             } catch (Throwable e) {
                 LOGGER.error(String.format("Start biz: %s meet error", biz.getBizName()), e);
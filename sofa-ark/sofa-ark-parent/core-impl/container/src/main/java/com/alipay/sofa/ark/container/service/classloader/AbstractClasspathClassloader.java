@@ -18,6 +18,8 @@ package com.alipay.sofa.ark.container.service.classloader;
 
 import com.alipay.sofa.ark.bootstrap.UseFastConnectionExceptionsEnumeration;
 import com.alipay.sofa.ark.common.util.StringUtils;
+import com.alipay.sofa.ark.container.profiler.ArkStartupProfiler;
+import com.alipay.sofa.ark.container.profiler.ArkStartupProfiler.ResolveStage;
 import com.alipay.sofa.ark.container.service.ArkServiceContainerHolder;
 import com.alipay.sofa.ark.exception.ArkLoaderException;
 import com.alipay.sofa.ark.loader.jar.Handler;
@@ -51,6 +53,8 @@ public abstract class AbstractClasspathClassloader extends URLClassLoader {
     protected ClassloaderService  classloaderService    = ArkServiceContainerHolder.getContainer()
                                                             .getService(ClassloaderService.class);
 
+    private String                profileName;
+
     public AbstractClasspathClassloader(URL[] urls) {
         super(urls, null);
     }
@@ -60,6 +64,7 @@ public abstract class AbstractClasspathClassloader extends URLClassLoader {
         if (StringUtils.isEmpty(name)) {
             return null;
         }
+        ArkStartupProfiler.recordLoadClass(profileName());
         Handler.setUseFastConnectionExceptions(true);
         try {
             definePackageIfNecessary(name);
@@ -124,6 +129,33 @@ public abstract class AbstractClasspathClassloader extends URLClassLoader {
         }
     }
 
+    @Override
+    protected Class<?> findClass(String name) throws ClassNotFoundException {
+        long start = System.nanoTime();
+        Class<?> clazz = super.findClass(name);
+        ArkStartupProfiler.recordDefineClass(profileName(), start);
+        return clazz;
+    }
+
+    /**
+     * Name of classloader shown in report of {@link ArkStartupProfiler}
+     * @return
+     */
+    protected String getProfileName() {
+        return getClass().getSimpleName();
+    }
+
+    /**
+     * Cached {@link #getProfileName()}, built once instead of on every class load
+     * @return
+     */
+    private String profileName() {
+        if (profileName == null) {
+            profileName = getProfileName();
+        }
+        return profileName;
+    }
+
     /**
      * Real logic to load class，need to implement by Sub Classloader
      * @param name
@@ -139,11 +171,13 @@ public abstract class AbstractClasspathClassloader extends URLClassLoader {
         if (StringUtils.isEmpty(name)) {
             return null;
         }
+        long start = System.nanoTime();
         Handler.setUseFastConnectionExceptions(true);
         try {
             return getResourceInternal(name);
         } finally {
             Handler.setUseFastConnectionExceptions(false);
+            ArkStartupProfiler.recordResourceScan(profileName(), start);
         }
     }
 
@@ -156,11 +190,13 @@ public abstract class AbstractClasspathClassloader extends URLClassLoader {
 
     @Override
     public Enumeration<URL> getResources(String name) throws IOException {
+        long start = System.nanoTime();
         Handler.setUseFastConnectionExceptions(true);
         try {
             return getResourcesInternal(name);
         } finally {
             Handler.setUseFastConnectionExceptions(false);
+            ArkStartupProfiler.recordResourceScan(profileName(), start);
         }
     }
 
@@ -192,6 +228,13 @@ public abstract class AbstractClasspathClassloader extends URLClassLoader {
      * @return
      */
     protected Class<?> resolveJDKClass(String name) {
+        long start = System.nanoTime();
+        Class<?> clazz = doResolveJDKClass(name);
+        ArkStartupProfiler.recordResolve(profileName(), ResolveStage.JDK, start, clazz != null);
+        return clazz;
+    }
+
+    private Class<?> doResolveJDKClass(String name) {
         try {
             return classloaderService.getJDKClassloader().loadClass(name);
         } catch (ClassNotFoundException e) {
@@ -206,6 +249,14 @@ public abstract class AbstractClasspathClassloader extends URLClassLoader {
      * @return
      */
     protected Class<?> resolveExportClass(String name) {
+        long start = System.nanoTime();
+        Class<?> clazz = doResolveExportClass(name);
+        ArkStartupProfiler.recordResolve(profileName(), ResolveStage.EXPORT, start,
+            clazz != null);
+        return clazz;
+    }
+
+    private Class<?> doResolveExportClass(String name) {
         if (shouldFindExportedClass(name)) {
             ClassLoader importClassloader = classloaderService.findExportClassloader(name);
             if (importClassloader != null) {
@@ -225,6 +276,13 @@ public abstract class AbstractClasspathClassloader extends URLClassLoader {
      * @return
      */
     protected Class<?> resolveArkClass(String name) {
+        long start = System.nanoTime();
+        Class<?> clazz = doResolveArkClass(name);
+        ArkStartupProfiler.recordResolve(profileName(), ResolveStage.ARK, start, clazz != null);
+        return clazz;
+    }
+
+    private Class<?> doResolveArkClass(String name) {
         if (classloaderService.isArkSpiClass(name)) {
             try {
                 return classloaderService.getArkClassloader().loadClass(name);
@@ -241,6 +299,14 @@ public abstract class AbstractClasspathClassloader extends URLClassLoader {
      * @return
      */
     protected Class<?> resolveLocalClass(String name) {
+        long start = System.nanoTime();
+        Class<?> clazz = doResolveLocalClass(name);
+        ArkStartupProfiler.recordResolve(profileName(), ResolveStage.LOCAL, start,
+            clazz != null);
+        return clazz;
+    }
+
+    private Class<?> doResolveLocalClass(String name) {
         try {
             return super.loadClass(name, false);
         } catch (ClassNotFoundException e) {
@@ -255,6 +321,14 @@ public abstract class AbstractClasspathClassloader extends URLClassLoader {
      * @return
      */
     protected Class<?> resolveJavaAgentClass(String name) {
+        long start = System.nanoTime();
+        Class<?> clazz = doResolveJavaAgentClass(name);
+        ArkStartupProfiler.recordResolve(profileName(), ResolveStage.AGENT, start,
+            clazz != null);
+        return clazz;
+    }
+
+    private Class<?> doResolveJavaAgentClass(String name) {
         try {
             return classloaderService.getAgentClassloader().loadClass(name);
         } catch (ClassNotFoundException e) {
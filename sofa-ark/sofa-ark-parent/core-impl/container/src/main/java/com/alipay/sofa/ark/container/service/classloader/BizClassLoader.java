@@ -40,6 +40,11 @@ public class BizClassLoader extends AbstractClasspathClassloader {
         this.bizIdentity = bizIdentity;
     }
 
+    @Override
+    protected String getProfileName() {
+        return String.format("biz[%s]", bizIdentity);
+    }
+
     @Override
     protected Class<?> loadClassInternal(String name, boolean resolve) throws ArkLoaderException {
 
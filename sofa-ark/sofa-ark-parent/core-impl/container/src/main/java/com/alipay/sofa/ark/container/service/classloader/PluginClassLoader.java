@@ -44,6 +44,11 @@ public class PluginClassLoader extends AbstractClasspathClassloader {
         return pluginName;
     }
 
+    @Override
+    protected String getProfileName() {
+        return String.format("plugin[%s]", pluginName);
+    }
+
     @Override
     protected Class<?> loadClassInternal(String name, boolean resolve) throws ArkLoaderException {
 
@@ -18,6 +18,8 @@ package com.alipay.sofa.ark.container.service.plugin;
 
 import com.alipay.sofa.ark.common.log.ArkLogger;
 import com.alipay.sofa.ark.common.log.ArkLoggerFactory;
+import com.alipay.sofa.ark.container.profiler.ArkStartupProfiler;
+import com.alipay.sofa.ark.container.profiler.ArkStartupProfiler.PhaseType;
 import com.alipay.sofa.ark.exception.ArkException;
 import com.alipay.sofa.ark.spi.service.plugin.PluginManagerService;
 import com.alipay.sofa.ark.spi.model.Plugin;
@@ -58,7 +60,9 @@ public class PluginDeployServiceImpl implements PluginDeployService {
     private void deployPlugin(Plugin plugin) throws ArkException {
         try {
             LOGGER.info(String.format("Start to deploy plugin: %s", plugin.getPluginName()));
+            long start = System.currentTimeMillis();
             plugin.start();
+            ArkStartupProfiler.recordPhase(PhaseType.PLUGIN, plugin.getPluginName(), start);
             LOGGER.info(String.format("Finish to deploy plugin: %s", plugin.getPluginName()));
         } catch (ArkException e) {
             LOGGER.error(String.format("Start plugin: %s meet error", plugin.getPluginName()), e);
@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.ark.container.profiler;
+
+import com.alipay.sofa.ark.container.BaseTest;
+import com.alipay.sofa.ark.container.profiler.ArkStartupProfiler.PhaseType;
+import com.alipay.sofa.ark.container.service.classloader.PluginClassLoader;
+import com.alipay.sofa.ark.container.testdata.classloader.ClassloaderTestClass;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.URL;
+
+/**
+ * @author qilong.zql
+ * @since 0.4.0
+ */
+public class ArkStartupProfilerTest extends BaseTest {
+
+    private URL classPathURL = ArkStartupProfilerTest.class.getClassLoader().getResource("");
+
+    @Before
+    public void before() {
+        super.before();
+        ArkStartupProfiler.reset();
+        ArkStartupProfiler.setEnabled(true);
+    }
+
+    @After
+    public void after() {
+        ArkStartupProfiler.setEnabled(false);
+        ArkStartupProfiler.reset();
+        super.after();
+    }
+
+    @Test
+    public void testClassloaderProfile() throws Exception {
+        PluginClassLoader pluginClassLoader = new PluginClassLoader("profiled plugin",
+            new URL[] { classPathURL });
+        pluginClassLoader.loadClass(ClassloaderTestClass.class.getName());
+        pluginClassLoader.getResource("SampleClass.class");
+        ArkStartupProfiler.recordPhase(PhaseType.PLUGIN, "profiled plugin",
+            System.currentTimeMillis());
+
+        String report = ArkStartupProfiler.report();
+        Assert.assertTrue(report.contains("plugin[profiled plugin] loadClass="));
+        Assert.assertTrue(report.contains("resolve-LOCAL"));
+        Assert.assertTrue(report.contains("PLUGIN[profiled plugin]"));
+    }
+
+    @Test
+    public void testCommandProvider() {
+        StartupProfilerCommandProvider commandProvider = new StartupProfilerCommandProvider();
+        Assert.assertTrue(commandProvider.validate("profiler"));
+        Assert.assertTrue(commandProvider.validate("profiler report"));
+        Assert.assertTrue(commandProvider.validate("profiler reset"));
+        Assert.assertFalse(commandProvider.validate("profiler unknown"));
+        Assert.assertFalse(commandProvider.validate("plugin"));
+
+        ArkStartupProfiler.recordPhase(PhaseType.BIZ, "biz:1.0", System.currentTimeMillis());
+        Assert.assertTrue(commandProvider.handleCommand("profiler").contains("BIZ[biz:1.0]"));
+        commandProvider.handleCommand("profiler reset");
+        Assert.assertFalse(commandProvider.handleCommand("profiler").contains("BIZ[biz:1.0]"));
+
+        ArkStartupProfiler.setEnabled(false);
+        Assert.assertTrue(commandProvider.handleCommand("profiler report").contains("disabled"));
+    }
+}
@@ -76,6 +76,12 @@ public class Constants {
     public final static String TELNET_SESSION_PROMPT                 = "sofa-ark>";
     public final static int    BUFFER_CHUNK                          = 128;
 
+    /**
+     * Startup Profiler
+     */
+    public final static String STARTUP_PROFILER_ENABLE               = "sofa.ark.startup.profiler.enable";
+    public final static String STARTUP_PROFILER_COMMAND              = "profiler";
+
     /**
      * String Constants
      */
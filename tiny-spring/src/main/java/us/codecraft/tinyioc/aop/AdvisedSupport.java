@@ -2,6 +2,13 @@ package us.codecraft.tinyioc.aop;
 
 import org.aopalliance.intercept.MethodInterceptor;
 
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * 代理相关的元数据
  * @author yihua.huang@dianping.com
@@ -14,12 +21,20 @@ public class AdvisedSupport {
 
     private MethodMatcher methodMatcher;
 
+    private final List<PointcutAdvisor> advisors = new ArrayList<PointcutAdvisor>();
+
+    /**
+     * 每个方法对应的拦截器链，第一次调用时计算，之后直接查表
+     */
+    private final Map<Method, List<MethodInterceptor>> methodCache = new ConcurrentHashMap<Method, List<MethodInterceptor>>();
+
     public TargetSource getTargetSource() {
         return targetSource;
     }
 
     public void setTargetSource(TargetSource targetSource) {
         this.targetSource = targetSource;
+        methodCache.clear();
     }
 
     public MethodInterceptor getMethodInterceptor() {
@@ -28,6 +43,7 @@ public class AdvisedSupport {
 
     public void setMethodInterceptor(MethodInterceptor methodInterceptor) {
         this.methodInterceptor = methodInterceptor;
+        methodCache.clear();
     }
 
     public MethodMatcher getMethodMatcher() {
@@ -36,5 +52,49 @@ public class AdvisedSupport {
 
     public void setMethodMatcher(MethodMatcher methodMatcher) {
         this.methodMatcher = methodMatcher;
+        methodCache.clear();
+    }
+
+    public void addAdvisor(PointcutAdvisor advisor) {
+        advisors.add(advisor);
+        methodCache.clear();
+    }
+
+    public List<PointcutAdvisor> getAdvisors() {
+        return advisors;
+    }
+
+    /**
+     * 获取方法的拦截器链。<br/>
+     * 先是单独设置的methodInterceptor(methodMatcher为空时拦截所有方法)，然后按顺序是各个匹配的advisor。
+     *
+     * @param method
+     * @return
+     */
+    public List<MethodInterceptor> getInterceptors(Method method) {
+        List<MethodInterceptor> interceptors = methodCache.get(method);
+        if (interceptors == null) {
+            interceptors = computeInterceptors(method, targetSource.getTargetClass());
+            methodCache.put(method, interceptors);
+        }
+        return interceptors;
+    }
+
+    private List<MethodInterceptor> computeInterceptors(Method method, Class targetClass) {
+        List<MethodInterceptor> interceptors = new ArrayList<MethodInterceptor>();
+        if (methodInterceptor != null && (methodMatcher == null || methodMatcher.matches(method, targetClass))) {
+            interceptors.add(methodInterceptor);
+        }
+        for (PointcutAdvisor advisor : advisors) {
+            Pointcut pointcut = advisor.getPointcut();
+            if (pointcut.getClassFilter().matches(targetClass)
+                    && pointcut.getMethodMatcher().matches(method, targetClass)) {
+                interceptors.add((MethodInterceptor) advisor.getAdvice());
+            }
+        }
+        if (interceptors.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(interceptors);
     }
 }
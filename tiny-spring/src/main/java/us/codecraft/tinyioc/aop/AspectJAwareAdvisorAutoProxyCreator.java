@@ -5,6 +5,7 @@ import us.codecraft.tinyioc.beans.BeanPostProcessor;
 import us.codecraft.tinyioc.beans.factory.AbstractBeanFactory;
 import us.codecraft.tinyioc.beans.factory.BeanFactory;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -14,6 +15,8 @@ public class AspectJAwareAdvisorAutoProxyCreator implements BeanPostProcessor, B
 
 	private AbstractBeanFactory beanFactory;
 
+	private volatile Advisors advisors;
+
 	@Override
 	public Object postProcessBeforeInitialization(Object bean, String beanName) throws Exception {
 		return bean;
@@ -27,25 +30,62 @@ public class AspectJAwareAdvisorAutoProxyCreator implements BeanPostProcessor, B
 		if (bean instanceof MethodInterceptor) {
 			return bean;
 		}
-		List<AspectJExpressionPointcutAdvisor> advisors = beanFactory
-				.getBeansForType(AspectJExpressionPointcutAdvisor.class);
-		for (AspectJExpressionPointcutAdvisor advisor : advisors) {
+		ProxyFactory advisedSupport = null;
+		for (AspectJExpressionPointcutAdvisor advisor : getAdvisors()) {
 			if (advisor.getPointcut().getClassFilter().matches(bean.getClass())) {
-                ProxyFactory advisedSupport = new ProxyFactory();
-				advisedSupport.setMethodInterceptor((MethodInterceptor) advisor.getAdvice());
-				advisedSupport.setMethodMatcher(advisor.getPointcut().getMethodMatcher());
-
-				TargetSource targetSource = new TargetSource(bean, bean.getClass(), bean.getClass().getInterfaces());
-				advisedSupport.setTargetSource(targetSource);
+				if (advisedSupport == null) {
+					advisedSupport = new ProxyFactory();
+					TargetSource targetSource = new TargetSource(bean, bean.getClass(), bean.getClass().getInterfaces());
+					advisedSupport.setTargetSource(targetSource);
+				}
+				advisedSupport.addAdvisor(advisor);
+			}
+		}
+		if (advisedSupport == null) {
+			return bean;
+		}
+		return advisedSupport.getProxy();
+	}
 
-				return advisedSupport.getProxy();
+	/**
+	 * advisor从BeanFactory中查询后复用，直到注册新的BeanDefinition使BeanFactory的类型缓存失效。<br/>
+	 * 不加锁，并发时可能重复查询，得到的是同一批单例
+	 *
+	 * @return
+	 * @throws Exception
+	 */
+	private List<AspectJExpressionPointcutAdvisor> getAdvisors() throws Exception {
+		List<String> names = beanFactory.getBeanNamesForType(AspectJExpressionPointcutAdvisor.class);
+		Advisors advisors = this.advisors;
+		if (advisors == null || advisors.names != names) {
+			List<AspectJExpressionPointcutAdvisor> beans = new ArrayList<AspectJExpressionPointcutAdvisor>();
+			for (String name : names) {
+				beans.add((AspectJExpressionPointcutAdvisor) beanFactory.getBean(name));
 			}
+			advisors = new Advisors(names, beans);
+			this.advisors = advisors;
 		}
-		return bean;
+		return advisors.beans;
 	}
 
 	@Override
 	public void setBeanFactory(BeanFactory beanFactory) throws Exception {
 		this.beanFactory = (AbstractBeanFactory) beanFactory;
+		this.advisors = null;
+	}
+
+	/**
+	 * 查询到的advisor，以及查询时BeanFactory返回的名称列表
+	 */
+	private static class Advisors {
+
+		private final List<String> names;
+
+		private final List<AspectJExpressionPointcutAdvisor> beans;
+
+		private Advisors(List<String> names, List<AspectJExpressionPointcutAdvisor> beans) {
+			this.names = names;
+			this.beans = beans;
+		}
 	}
 }
@@ -5,6 +5,7 @@ import org.aopalliance.intercept.MethodInterceptor;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
+import java.util.List;
 
 /**
  * 基于jdk的动态代理
@@ -24,14 +25,12 @@ public class JdkDynamicAopProxy extends AbstractAopProxy implements InvocationHa
 
 	@Override
 	public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
-		MethodInterceptor methodInterceptor = advised.getMethodInterceptor();
-		if (advised.getMethodMatcher() != null
-				&& advised.getMethodMatcher().matches(method, advised.getTargetSource().getTarget().getClass())) {
-			return methodInterceptor.invoke(new ReflectiveMethodInvocation(advised.getTargetSource().getTarget(),
-					method, args));
-		} else {
-			return method.invoke(advised.getTargetSource().getTarget(), args);
+		Object target = advised.getTargetSource().getTarget();
+		List<MethodInterceptor> interceptors = advised.getInterceptors(method);
+		if (interceptors.isEmpty()) {
+			return method.invoke(target, args);
 		}
+		return new ReflectiveMethodInvocation(target, method, args, interceptors).proceed();
 	}
 
 }
@@ -1,9 +1,12 @@
 package us.codecraft.tinyioc.aop;
 
+import org.aopalliance.intercept.MethodInterceptor;
 import org.aopalliance.intercept.MethodInvocation;
 
 import java.lang.reflect.AccessibleObject;
 import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * @author yihua.huang@dianping.com
@@ -16,10 +19,20 @@ public class ReflectiveMethodInvocation implements MethodInvocation {
 
     protected Object[] arguments;
 
+    protected final List<MethodInterceptor> interceptors;
+
+    private int currentInterceptorIndex = 0;
+
 	public ReflectiveMethodInvocation(Object target, Method method, Object[] arguments) {
+		this(target, method, arguments, Collections.<MethodInterceptor> emptyList());
+	}
+
+	public ReflectiveMethodInvocation(Object target, Method method, Object[] arguments,
+			List<MethodInterceptor> interceptors) {
 		this.target = target;
 		this.method = method;
 		this.arguments = arguments;
+		this.interceptors = interceptors;
 	}
 
 	@Override
@@ -32,8 +45,18 @@ public class ReflectiveMethodInvocation implements MethodInvocation {
 		return arguments;
 	}
 
+	/**
+	 * 依次调用拦截器链，链走完后调用目标方法
+	 */
 	@Override
 	public Object proceed() throws Throwable {
+		if (currentInterceptorIndex == interceptors.size()) {
+			return invokeJoinpoint();
+		}
+		return interceptors.get(currentInterceptorIndex++).invoke(this);
+	}
+
+	protected Object invokeJoinpoint() throws Throwable {
 		return method.invoke(target, arguments);
 	}
 
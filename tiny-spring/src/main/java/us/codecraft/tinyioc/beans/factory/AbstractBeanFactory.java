@@ -1,13 +1,26 @@
 package us.codecraft.tinyioc.beans.factory;
 
+import us.codecraft.tinyioc.BeanReference;
 import us.codecraft.tinyioc.beans.BeanDefinition;
 import us.codecraft.tinyioc.beans.BeanPostProcessor;
+import us.codecraft.tinyioc.beans.PropertyValue;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * @author yihua.huang@dianping.com
@@ -20,21 +33,127 @@ public abstract class AbstractBeanFactory implements BeanFactory {
 
 	private List<BeanPostProcessor> beanPostProcessors = new ArrayList<BeanPostProcessor>();
 
+	/**
+	 * 初始化完成的单例，只有完整初始化之后才会放进来，其他线程可以安全读取
+	 */
+	private final Map<String, Object> singletonObjects = new ConcurrentHashMap<String, Object>();
+
+	/**
+	 * 是否并行初始化单例
+	 */
+	private boolean parallelPreInstantiation = false;
+
+	private int preInstantiationThreads = Runtime.getRuntime().availableProcessors();
+
+	/**
+	 * 类型索引：bean class的所有父类和接口 -> bean名称，注册BeanDefinition时维护
+	 */
+	private final Map<Class, List<String>> typeIndex = new HashMap<Class, List<String>>();
+
+	/**
+	 * getBeanNamesForType的结果缓存，注册BeanDefinition时失效
+	 */
+	private final Map<Class, List<String>> beanNamesByType = new ConcurrentHashMap<Class, List<String>>();
+
+	/**
+	 * 保护singletonsInCreation和waitingCreations，只在认领和发布bean时持有，bean的创建在锁外进行
+	 */
+	private final Object singletonCreationLock = new Object();
+
+	/**
+	 * 正在创建中的单例 -> 创建它的线程
+	 */
+	private final Map<String, Thread> singletonsInCreation = new HashMap<String, Thread>();
+
+	/**
+	 * 等待其他线程创建bean的线程 -> 所等待的bean名称，用于发现跨线程的循环等待
+	 */
+	private final Map<Thread, String> waitingCreations = new HashMap<Thread, String>();
+
 	@Override
 	public Object getBean(String name) throws Exception {
+		return getBean(name, null);
+	}
+
+	/**
+	 * 在锁内认领bean后，在锁外完成属性注入和BeanPostProcessor，再在锁内发布。<br/>
+	 * 其他线程获取正在创建中的bean时等待其发布；同一线程内的循环依赖，以及会形成跨线程循环等待的获取，
+	 * 直接拿到提前暴露的bean。
+	 *
+	 * @param name
+	 * @param instance
+	 *            提前创建好的实例，为null时在认领后创建
+	 * @return
+	 * @throws Exception
+	 */
+	private Object getBean(String name, Object instance) throws Exception {
+		Object bean = singletonObjects.get(name);
+		if (bean != null) {
+			return bean;
+		}
 		BeanDefinition beanDefinition = beanDefinitionMap.get(name);
 		if (beanDefinition == null) {
 			throw new IllegalArgumentException("No bean named " + name + " is defined");
 		}
-		Object bean = beanDefinition.getBean();
-		if (bean == null) {
-			bean = doCreateBean(beanDefinition);
-            bean = initializeBean(bean, name);
-            beanDefinition.setBean(bean);
+		Thread currentThread = Thread.currentThread();
+		synchronized (singletonCreationLock) {
+			while (true) {
+				bean = singletonObjects.get(name);
+				if (bean != null) {
+					return bean;
+				}
+				Thread creator = singletonsInCreation.get(name);
+				if (creator == null) {
+					singletonsInCreation.put(name, currentThread);
+					break;
+				}
+				if (isWaitingFor(creator, currentThread)) {
+					// 创建线程在(间接)等待当前线程，它已经提前暴露了bean
+					return beanDefinition.getBean();
+				}
+				waitingCreations.put(currentThread, name);
+				try {
+					singletonCreationLock.wait();
+				} finally {
+					waitingCreations.remove(currentThread);
+				}
+			}
+		}
+		boolean created = false;
+		try {
+			bean = instance == null ? doCreateBean(beanDefinition) : doCreateBean(beanDefinition, instance);
+			bean = initializeBean(bean, name);
+			beanDefinition.setBean(bean);
+			created = true;
+		} finally {
+			synchronized (singletonCreationLock) {
+				singletonsInCreation.remove(name);
+				if (created) {
+					singletonObjects.put(name, bean);
+				}
+				singletonCreationLock.notifyAll();
+			}
 		}
 		return bean;
 	}
 
+	/**
+	 * @param creator
+	 *            正在创建bean的线程
+	 * @param thread
+	 * @return creator是否就是thread，或者在等待thread创建的bean
+	 */
+	private boolean isWaitingFor(Thread creator, Thread thread) {
+		while (creator != null) {
+			if (creator == thread) {
+				return true;
+			}
+			String awaited = waitingCreations.get(creator);
+			creator = awaited == null ? null : singletonsInCreation.get(awaited);
+		}
+		return false;
+	}
+
 	protected Object initializeBean(Object bean, String name) throws Exception {
 		for (BeanPostProcessor beanPostProcessor : beanPostProcessors) {
 			bean = beanPostProcessor.postProcessBeforeInitialization(bean, name);
@@ -52,19 +171,140 @@ public abstract class AbstractBeanFactory implements BeanFactory {
 	}
 
 	public void registerBeanDefinition(String name, BeanDefinition beanDefinition) throws Exception {
-		beanDefinitionMap.put(name, beanDefinition);
-		beanDefinitionNames.add(name);
+		synchronized (typeIndex) {
+			if (beanDefinitionMap.put(name, beanDefinition) != null) {
+				for (List<String> names : typeIndex.values()) {
+					names.remove(name);
+				}
+			} else {
+				beanDefinitionNames.add(name);
+			}
+			if (beanDefinition.getBeanClass() != null) {
+				indexType(beanDefinition.getBeanClass(), name, new HashSet<Class>());
+			}
+			beanNamesByType.clear();
+		}
+		singletonObjects.remove(name);
+	}
+
+	private void indexType(Class type, String name, Set<Class> visited) {
+		if (type == null || !visited.add(type)) {
+			return;
+		}
+		List<String> names = typeIndex.get(type);
+		if (names == null) {
+			names = new ArrayList<String>();
+			typeIndex.put(type, names);
+		}
+		names.add(name);
+		indexType(type.getSuperclass(), name, visited);
+		for (Class anInterface : type.getInterfaces()) {
+			indexType(anInterface, name, visited);
+		}
 	}
 
 	public void preInstantiateSingletons() throws Exception {
+		if (parallelPreInstantiation) {
+			preInstantiateSingletonsInParallel();
+			return;
+		}
 		for (Iterator it = this.beanDefinitionNames.iterator(); it.hasNext();) {
 			String beanName = (String) it.next();
 			getBean(beanName);
 		}
 	}
 
+	/**
+	 * 根据PropertyValues中的BeanReference建立依赖图，依赖都已初始化的bean并行初始化。<br/>
+	 * 实例化、属性注入和BeanPostProcessor都在锁外并行执行，锁只用于认领和发布bean；
+	 * 如果bean在此之前已被其他线程认领，提前创建的实例会被丢弃。<br/>
+	 * 处在循环依赖中(以及依赖它们)的bean最后在当前线程按顺序初始化，依靠提前暴露的bean解决循环。
+	 *
+	 * @throws Exception
+	 */
+	protected void preInstantiateSingletonsInParallel() throws Exception {
+		Map<String, Set<String>> dependencies = new HashMap<String, Set<String>>();
+		Map<String, List<String>> dependents = new HashMap<String, List<String>>();
+		for (String beanName : beanDefinitionNames) {
+			dependencies.put(beanName, getBeanReferenceNames(beanDefinitionMap.get(beanName)));
+			dependents.put(beanName, new ArrayList<String>());
+		}
+		for (Map.Entry<String, Set<String>> entry : dependencies.entrySet()) {
+			for (String dependency : entry.getValue()) {
+				dependents.get(dependency).add(entry.getKey());
+			}
+		}
+
+		ExecutorService executorService = Executors.newFixedThreadPool(preInstantiationThreads);
+		try {
+			CompletionService<String> completionService = new ExecutorCompletionService<String>(executorService);
+			int running = 0;
+			for (Map.Entry<String, Set<String>> entry : dependencies.entrySet()) {
+				if (entry.getValue().isEmpty()) {
+					completionService.submit(new BeanInstantiationTask(entry.getKey()));
+					running++;
+				}
+			}
+			while (running > 0) {
+				String beanName;
+				try {
+					beanName = completionService.take().get();
+				} catch (ExecutionException e) {
+					if (e.getCause() instanceof Exception) {
+						throw (Exception) e.getCause();
+					}
+					throw e;
+				}
+				running--;
+				dependencies.remove(beanName);
+				for (String dependent : dependents.get(beanName)) {
+					Set<String> remaining = dependencies.get(dependent);
+					remaining.remove(beanName);
+					if (remaining.isEmpty()) {
+						completionService.submit(new BeanInstantiationTask(dependent));
+						running++;
+					}
+				}
+			}
+		} finally {
+			executorService.shutdownNow();
+		}
+
+		// 剩下的都是循环依赖中的bean
+		for (String beanName : beanDefinitionNames) {
+			if (dependencies.containsKey(beanName)) {
+				getBean(beanName);
+			}
+		}
+	}
+
+	private Set<String> getBeanReferenceNames(BeanDefinition beanDefinition) {
+		Set<String> names = new LinkedHashSet<String>();
+		for (PropertyValue propertyValue : beanDefinition.getPropertyValues().getPropertyValues()) {
+			if (propertyValue.getValue() instanceof BeanReference) {
+				String name = ((BeanReference) propertyValue.getValue()).getName();
+				if (!beanDefinitionMap.containsKey(name)) {
+					throw new IllegalArgumentException("No bean named " + name + " is defined");
+				}
+				names.add(name);
+			}
+		}
+		return names;
+	}
+
+	public void setParallelPreInstantiation(boolean parallelPreInstantiation) {
+		this.parallelPreInstantiation = parallelPreInstantiation;
+	}
+
+	public void setPreInstantiationThreads(int preInstantiationThreads) {
+		this.preInstantiationThreads = preInstantiationThreads;
+	}
+
 	protected Object doCreateBean(BeanDefinition beanDefinition) throws Exception {
-		Object bean = createBeanInstance(beanDefinition);
+		return doCreateBean(beanDefinition, createBeanInstance(beanDefinition));
+	}
+
+	private Object doCreateBean(BeanDefinition beanDefinition, Object bean) throws Exception {
 		beanDefinition.setBean(bean);
 		applyPropertyValues(bean, beanDefinition);
 		return bean;
@@ -80,12 +320,50 @@ public abstract class AbstractBeanFactory implements BeanFactory {
 
 	public List getBeansForType(Class type) throws Exception {
 		List beans = new ArrayList<Object>();
-		for (String beanDefinitionName : beanDefinitionNames) {
-			if (type.isAssignableFrom(beanDefinitionMap.get(beanDefinitionName).getBeanClass())) {
-				beans.add(getBean(beanDefinitionName));
-			}
+		for (String beanDefinitionName : getBeanNamesForType(type)) {
+			beans.add(getBean(beanDefinitionName));
 		}
 		return beans;
 	}
 
+	/**
+	 * 获取所有类型为type(包括子类和实现类)的bean名称，按注册顺序排列。<br/>
+	 * 在注册新的BeanDefinition之前返回同一个列表实例，调用方可以据此判断缓存是否失效
+	 *
+	 * @param type
+	 * @return
+	 */
+	public List<String> getBeanNamesForType(Class type) {
+		List<String> names = beanNamesByType.get(type);
+		if (names == null) {
+			synchronized (typeIndex) {
+				names = beanNamesByType.get(type);
+				if (names == null) {
+					List<String> indexed = typeIndex.get(type);
+					names = indexed == null ? Collections.<String> emptyList() : Collections
+							.unmodifiableList(new ArrayList<String>(indexed));
+					beanNamesByType.put(type, names);
+				}
+			}
+		}
+		return names;
+	}
+
+	private class BeanInstantiationTask implements Callable<String> {
+
+		private final String beanName;
+
+		private BeanInstantiationTask(String beanName) {
+			this.beanName = beanName;
+		}
+
+		@Override
+		public String call() throws Exception {
+			if (!singletonObjects.containsKey(beanName)) {
+				getBean(beanName, createBeanInstance(beanDefinitionMap.get(beanName)));
+			}
+			return beanName;
+		}
+	}
+
 }
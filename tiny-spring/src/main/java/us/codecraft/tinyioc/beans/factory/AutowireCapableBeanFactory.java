@@ -5,8 +5,9 @@ import us.codecraft.tinyioc.aop.BeanFactoryAware;
 import us.codecraft.tinyioc.beans.BeanDefinition;
 import us.codecraft.tinyioc.beans.PropertyValue;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 可自动装配内容的BeanFactory
@@ -15,29 +16,31 @@ import java.lang.reflect.Method;
  */
 public class AutowireCapableBeanFactory extends AbstractBeanFactory {
 
+	/**
+	 * 每个BeanDefinition编译好的注入计划，第一次注入时生成
+	 */
+	private final Map<BeanDefinition, InjectionPlan> injectionPlans = new ConcurrentHashMap<BeanDefinition, InjectionPlan>();
+
 	protected void applyPropertyValues(Object bean, BeanDefinition mbd) throws Exception {
 		if (bean instanceof BeanFactoryAware) {
 			((BeanFactoryAware) bean).setBeanFactory(this);
 		}
-		for (PropertyValue propertyValue : mbd.getPropertyValues().getPropertyValues()) {
-			Object value = propertyValue.getValue();
+		List<PropertyValue> propertyValues = mbd.getPropertyValues().getPropertyValues();
+		Object[] values = new Object[propertyValues.size()];
+		for (int i = 0; i < values.length; i++) {
+			Object value = propertyValues.get(i).getValue();
 			if (value instanceof BeanReference) {
 				BeanReference beanReference = (BeanReference) value;
 				value = getBean(beanReference.getName());
 			}
+			values[i] = value;
+		}
 
-			try {
-				Method declaredMethod = bean.getClass().getDeclaredMethod(
-						"set" + propertyValue.getName().substring(0, 1).toUpperCase()
-								+ propertyValue.getName().substring(1), value.getClass());
-				declaredMethod.setAccessible(true);
-
-				declaredMethod.invoke(bean, value);
-			} catch (NoSuchMethodException e) {
-				Field declaredField = bean.getClass().getDeclaredField(propertyValue.getName());
-				declaredField.setAccessible(true);
-				declaredField.set(bean, value);
-			}
+		InjectionPlan injectionPlan = injectionPlans.get(mbd);
+		if (injectionPlan == null || !injectionPlan.isApplicable(bean.getClass(), values)) {
+			injectionPlan = InjectionPlan.compile(bean.getClass(), propertyValues, values);
+			injectionPlans.put(mbd, injectionPlan);
 		}
+		injectionPlan.inject(bean, values);
 	}
 }
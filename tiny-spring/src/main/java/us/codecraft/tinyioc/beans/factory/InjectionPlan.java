@@ -0,0 +1,235 @@
+package us.codecraft.tinyioc.beans.factory;
+
+import net.sf.cglib.reflect.FastClass;
+import net.sf.cglib.reflect.FastMethod;
+import us.codecraft.tinyioc.beans.PropertyValue;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 一个BeanDefinition的属性注入计划。<br/>
+ * 第一次注入时解析好每个属性对应的setter或field并缓存下来，之后的注入不再做反射查找。
+ * public的setter通过cglib的FastClass生成的访问器调用，其余的用反射调用。
+ *
+ * @author yihua.huang@dianping.com
+ */
+public class InjectionPlan {
+
+	private final Class beanClass;
+
+	private final PropertyInjector[] injectors;
+
+	private InjectionPlan(Class beanClass, PropertyInjector[] injectors) {
+		this.beanClass = beanClass;
+		this.injectors = injectors;
+	}
+
+	/**
+	 * 根据已解析好的属性值构造注入计划
+	 *
+	 * @param beanClass
+	 * @param propertyValues
+	 * @param values
+	 *            和propertyValues一一对应，BeanReference已经替换为bean
+	 * @return
+	 * @throws Exception
+	 */
+	public static InjectionPlan compile(Class beanClass, List<PropertyValue> propertyValues, Object[] values)
+			throws Exception {
+		FastClass fastClass = null;
+		PropertyInjector[] injectors = new PropertyInjector[values.length];
+		for (int i = 0; i < values.length; i++) {
+			String name = propertyValues.get(i).getName();
+			Method[] setters = findSetters(beanClass, name);
+			Method setter = findSetter(setters, values[i]);
+			if (setter == null) {
+				Field field = findField(beanClass, name);
+				field.setAccessible(true);
+				injectors[i] = new FieldInjector(field, setters);
+			} else if (Modifier.isPublic(setter.getModifiers())
+					&& Modifier.isPublic(setter.getDeclaringClass().getModifiers())) {
+				if (fastClass == null) {
+					fastClass = FastClass.create(beanClass);
+				}
+				injectors[i] = new FastMethodInjector(fastClass.getMethod(setter), setter.getParameterTypes()[0]);
+			} else {
+				setter.setAccessible(true);
+				injectors[i] = new MethodInjector(setter);
+			}
+		}
+		return new InjectionPlan(beanClass, injectors);
+	}
+
+	/**
+	 * 计划是按第一次注入时的bean类型和属性值类型编译的，
+	 * 属性值类型变化后(比如ref换成了字面量)原来选中的setter或field可能不再适用，需要重新编译
+	 *
+	 * @param clazz
+	 * @param values
+	 * @return
+	 */
+	public boolean isApplicable(Class clazz, Object[] values) {
+		if (beanClass != clazz || injectors.length != values.length) {
+			return false;
+		}
+		for (int i = 0; i < injectors.length; i++) {
+			if (!injectors[i].accepts(values[i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public void inject(Object bean, Object[] values) throws Exception {
+		for (int i = 0; i < injectors.length; i++) {
+			injectors[i].inject(bean, values[i]);
+		}
+	}
+
+	/**
+	 * 按子类到父类的顺序查找所有同名的单参数setter
+	 */
+	private static Method[] findSetters(Class beanClass, String name) {
+		String setterName = "set" + name.substring(0, 1).toUpperCase() + name.substring(1);
+		List<Method> setters = new ArrayList<Method>();
+		for (Class clazz = beanClass; clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+			for (Method method : clazz.getDeclaredMethods()) {
+				if (method.getName().equals(setterName) && method.getParameterTypes().length == 1) {
+					setters.add(method);
+				}
+			}
+		}
+		return setters.toArray(new Method[setters.size()]);
+	}
+
+	private static Method findSetter(Method[] setters, Object value) {
+		for (Method setter : setters) {
+			if (isAssignable(setter.getParameterTypes()[0], value)) {
+				return setter;
+			}
+		}
+		return null;
+	}
+
+	private static Field findField(Class beanClass, String name) throws NoSuchFieldException {
+		for (Class clazz = beanClass; clazz != null; clazz = clazz.getSuperclass()) {
+			try {
+				return clazz.getDeclaredField(name);
+			} catch (NoSuchFieldException e) {
+				// 到父类中继续查找
+			}
+		}
+		throw new NoSuchFieldException(name);
+	}
+
+	private static boolean isAssignable(Class type, Object value) {
+		if (value == null) {
+			return !type.isPrimitive();
+		}
+		if (type.isPrimitive()) {
+			return wrapperOf(type) == value.getClass();
+		}
+		return type.isAssignableFrom(value.getClass());
+	}
+
+	private static Class wrapperOf(Class primitiveType) {
+		if (primitiveType == int.class) {
+			return Integer.class;
+		} else if (primitiveType == long.class) {
+			return Long.class;
+		} else if (primitiveType == boolean.class) {
+			return Boolean.class;
+		} else if (primitiveType == double.class) {
+			return Double.class;
+		} else if (primitiveType == float.class) {
+			return Float.class;
+		} else if (primitiveType == short.class) {
+			return Short.class;
+		} else if (primitiveType == byte.class) {
+			return Byte.class;
+		} else if (primitiveType == char.class) {
+			return Character.class;
+		}
+		return Void.class;
+	}
+
+	private interface PropertyInjector {
+
+		/**
+		 * 编译时选中的setter或field是否仍然是这个值应该使用的注入方式
+		 */
+		boolean accepts(Object value);
+
+		void inject(Object bean, Object value) throws Exception;
+	}
+
+	private static class FastMethodInjector implements PropertyInjector {
+
+		private final FastMethod fastMethod;
+
+		private final Class parameterType;
+
+		private FastMethodInjector(FastMethod fastMethod, Class parameterType) {
+			this.fastMethod = fastMethod;
+			this.parameterType = parameterType;
+		}
+
+		@Override
+		public boolean accepts(Object value) {
+			return isAssignable(parameterType, value);
+		}
+
+		@Override
+		public void inject(Object bean, Object value) throws Exception {
+			fastMethod.invoke(bean, new Object[] { value });
+		}
+	}
+
+	private static class MethodInjector implements PropertyInjector {
+
+		private final Method method;
+
+		private MethodInjector(Method method) {
+			this.method = method;
+		}
+
+		@Override
+		public boolean accepts(Object value) {
+			return isAssignable(method.getParameterTypes()[0], value);
+		}
+
+		@Override
+		public void inject(Object bean, Object value) throws Exception {
+			method.invoke(bean, value);
+		}
+	}
+
+	private static class FieldInjector implements PropertyInjector {
+
+		private final Field field;
+
+		/**
+		 * 编译时没有匹配上的setter，值类型变化后如果能匹配上，应该改用setter
+		 */
+		private final Method[] setters;
+
+		private FieldInjector(Field field, Method[] setters) {
+			this.field = field;
+			this.setters = setters;
+		}
+
+		@Override
+		public boolean accepts(Object value) {
+			return findSetter(setters, value) == null;
+		}
+
+		@Override
+		public void inject(Object bean, Object value) throws Exception {
+			field.set(bean, value);
+		}
+	}
+}
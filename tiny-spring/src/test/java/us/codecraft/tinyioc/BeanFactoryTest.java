@@ -1,8 +1,16 @@
 package us.codecraft.tinyioc;
 
+import java.util.Arrays;
 import java.util.Map;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Assert;
 import org.junit.Test;
 import us.codecraft.tinyioc.beans.BeanDefinition;
+import us.codecraft.tinyioc.beans.BeanPostProcessor;
+import us.codecraft.tinyioc.beans.PropertyValue;
+import us.codecraft.tinyioc.beans.PropertyValues;
 import us.codecraft.tinyioc.beans.factory.AbstractBeanFactory;
 import us.codecraft.tinyioc.beans.factory.AutowireCapableBeanFactory;
 import us.codecraft.tinyioc.beans.io.ResourceLoader;
@@ -49,4 +57,222 @@ public class BeanFactoryTest {
 		HelloWorldService helloWorldService = (HelloWorldService) beanFactory.getBean("helloWorldService");
 		helloWorldService.helloWorld();
 	}
+
+	@Test
+	public void testParallelPreInstantiate() throws Exception {
+		// 1.读取配置
+		XmlBeanDefinitionReader xmlBeanDefinitionReader = new XmlBeanDefinitionReader(new ResourceLoader());
+		xmlBeanDefinitionReader.loadBeanDefinitions("tinyioc.xml");
+
+		// 2.初始化BeanFactory并注册bean
+		AbstractBeanFactory beanFactory = new AutowireCapableBeanFactory();
+		beanFactory.setParallelPreInstantiation(true);
+		for (Map.Entry<String, BeanDefinition> beanDefinitionEntry : xmlBeanDefinitionReader.getRegistry().entrySet()) {
+			beanFactory.registerBeanDefinition(beanDefinitionEntry.getKey(), beanDefinitionEntry.getValue());
+		}
+
+		// 3.并行初始化bean
+		beanFactory.preInstantiateSingletons();
+
+		// 4.获取bean
+		HelloWorldService helloWorldService = (HelloWorldService) beanFactory.getBean("helloWorldService");
+		Assert.assertSame(beanFactory.getBean("outputService"), ((HelloWorldServiceImpl) helloWorldService).getOutputService());
+		helloWorldService.helloWorld();
+	}
+
+	@Test(timeout = 10000)
+	public void testParallelPreInstantiateConcurrently() throws Exception {
+		final int beanCount = 4;
+		// 并行初始化时所有OutputService的构造同时进行，才能通过barrier
+		final CyclicBarrier barrier = new CyclicBarrier(beanCount);
+		final AtomicInteger outputServiceInstances = new AtomicInteger();
+		final AbstractBeanFactory beanFactory = new AutowireCapableBeanFactory() {
+			@Override
+			protected Object createBeanInstance(BeanDefinition beanDefinition) throws Exception {
+				Object bean = super.createBeanInstance(beanDefinition);
+				if (bean instanceof OutputService && outputServiceInstances.getAndIncrement() < beanCount) {
+					barrier.await(5, TimeUnit.SECONDS);
+				}
+				return bean;
+			}
+		};
+		beanFactory.setParallelPreInstantiation(true);
+		beanFactory.setPreInstantiationThreads(beanCount);
+		for (int i = 0; i < beanCount; i++) {
+			BeanDefinition outputService = new BeanDefinition();
+			outputService.setBeanClassName("us.codecraft.tinyioc.OutputServiceImpl");
+			beanFactory.registerBeanDefinition("outputService" + i, outputService);
+			BeanDefinition helloWorldService = new BeanDefinition();
+			helloWorldService.setBeanClassName("us.codecraft.tinyioc.HelloWorldServiceImpl");
+			helloWorldService.getPropertyValues().addPropertyValue(
+					new PropertyValue("outputService", new BeanReference("outputService" + i)));
+			beanFactory.registerBeanDefinition("helloWorldService" + i, helloWorldService);
+		}
+		// 初始化helloWorldService0和helloWorldService1时互相获取对方，两者在不同线程中同时创建
+		beanFactory.addBeanPostProcessor(new BeanPostProcessor() {
+			@Override
+			public Object postProcessBeforeInitialization(Object bean, String beanName) throws Exception {
+				if (beanName.equals("helloWorldService0")) {
+					beanFactory.getBean("helloWorldService1");
+				} else if (beanName.equals("helloWorldService1")) {
+					beanFactory.getBean("helloWorldService0");
+				}
+				return bean;
+			}
+
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) throws Exception {
+				return bean;
+			}
+		});
+
+		beanFactory.preInstantiateSingletons();
+
+		for (int i = 0; i < beanCount; i++) {
+			HelloWorldServiceImpl helloWorldService = (HelloWorldServiceImpl) beanFactory.getBean("helloWorldService"
+					+ i);
+			Assert.assertSame(beanFactory.getBean("outputService" + i), helloWorldService.getOutputService());
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void testParallelPreInstantiateInjectsConcurrently() throws Exception {
+		final int beanCount = 4;
+		// 属性注入和BeanPostProcessor都同时进行，才能通过barrier
+		final CyclicBarrier injectionBarrier = new CyclicBarrier(beanCount);
+		final CyclicBarrier postProcessBarrier = new CyclicBarrier(beanCount);
+		final AbstractBeanFactory beanFactory = new AutowireCapableBeanFactory() {
+			@Override
+			protected void applyPropertyValues(Object bean, BeanDefinition beanDefinition) throws Exception {
+				injectionBarrier.await(5, TimeUnit.SECONDS);
+				super.applyPropertyValues(bean, beanDefinition);
+			}
+		};
+		beanFactory.setParallelPreInstantiation(true);
+		beanFactory.setPreInstantiationThreads(beanCount);
+		for (int i = 0; i < beanCount; i++) {
+			BeanDefinition outputService = new BeanDefinition();
+			outputService.setBeanClassName("us.codecraft.tinyioc.OutputServiceImpl");
+			beanFactory.registerBeanDefinition("outputService" + i, outputService);
+		}
+		beanFactory.addBeanPostProcessor(new BeanPostProcessor() {
+			@Override
+			public Object postProcessBeforeInitialization(Object bean, String beanName) throws Exception {
+				postProcessBarrier.await(5, TimeUnit.SECONDS);
+				return bean;
+			}
+
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) throws Exception {
+				return bean;
+			}
+		});
+
+		beanFactory.preInstantiateSingletons();
+
+		Assert.assertEquals(beanCount, beanFactory.getBeansForType(OutputService.class).size());
+	}
+
+	@Test
+	public void testGetBeansForType() throws Exception {
+		AbstractBeanFactory beanFactory = new AutowireCapableBeanFactory();
+		BeanDefinition outputService = new BeanDefinition();
+		outputService.setBeanClassName("us.codecraft.tinyioc.OutputServiceImpl");
+		beanFactory.registerBeanDefinition("outputService", outputService);
+
+		Assert.assertEquals(Arrays.asList("outputService"), beanFactory.getBeanNamesForType(OutputService.class));
+		Assert.assertTrue(beanFactory.getBeanNamesForType(HelloWorldService.class).isEmpty());
+
+		// 注册新的BeanDefinition后缓存失效
+		BeanDefinition helloWorldService = new BeanDefinition();
+		helloWorldService.setBeanClassName("us.codecraft.tinyioc.HelloWorldServiceImpl");
+		beanFactory.registerBeanDefinition("helloWorldService", helloWorldService);
+
+		Assert.assertEquals(Arrays.asList("helloWorldService"), beanFactory.getBeanNamesForType(HelloWorldService.class));
+		Assert.assertEquals(Arrays.asList("outputService", "helloWorldService"),
+				beanFactory.getBeanNamesForType(Object.class));
+		Assert.assertEquals(1, beanFactory.getBeansForType(OutputService.class).size());
+	}
+
+	@Test
+	public void testInjectionPlanReusedForRecreatedBean() throws Exception {
+		AbstractBeanFactory beanFactory = new AutowireCapableBeanFactory();
+		BeanDefinition outputService = new BeanDefinition();
+		outputService.setBeanClassName("us.codecraft.tinyioc.OutputServiceImpl");
+		beanFactory.registerBeanDefinition("outputService", outputService);
+		BeanDefinition helloWorldService = new BeanDefinition();
+		helloWorldService.setBeanClassName("us.codecraft.tinyioc.HelloWorldServiceImpl");
+		helloWorldService.getPropertyValues().addPropertyValue(new PropertyValue("text", "Hello World!"));
+		helloWorldService.getPropertyValues().addPropertyValue(
+				new PropertyValue("outputService", new BeanReference("outputService")));
+		beanFactory.registerBeanDefinition("helloWorldService", helloWorldService);
+
+		HelloWorldServiceImpl first = (HelloWorldServiceImpl) beanFactory.getBean("helloWorldService");
+
+		// 同一个BeanDefinition重新创建bean，使用缓存的注入计划
+		HelloWorldServiceImpl second = (HelloWorldServiceImpl) recreateBean(beanFactory, "helloWorldService",
+				helloWorldService);
+		Assert.assertNotSame(first, second);
+		Assert.assertSame(beanFactory.getBean("outputService"), second.getOutputService());
+		second.helloWorld();
+	}
+
+	@Test
+	public void testInjectionPlanFallsBackToFieldForDifferentValueType() throws Exception {
+		AbstractBeanFactory beanFactory = new AutowireCapableBeanFactory();
+		BeanDefinition outputService = new BeanDefinition();
+		outputService.setBeanClassName("us.codecraft.tinyioc.OutputServiceImpl");
+		beanFactory.registerBeanDefinition("outputService", outputService);
+		BeanDefinition valueHolder = new BeanDefinition();
+		valueHolder.setBeanClassName("us.codecraft.tinyioc.ValueHolder");
+		valueHolder.getPropertyValues().addPropertyValue(new PropertyValue("value", "literal"));
+		beanFactory.registerBeanDefinition("valueHolder", valueHolder);
+
+		ValueHolder literal = (ValueHolder) beanFactory.getBean("valueHolder");
+		Assert.assertEquals("literal", literal.getValue());
+		Assert.assertTrue(literal.isSetterUsed());
+
+		// 字面量换成ref，setValue(String)不再匹配，改为直接注入field
+		PropertyValues propertyValues = new PropertyValues();
+		propertyValues.addPropertyValue(new PropertyValue("value", new BeanReference("outputService")));
+		valueHolder.setPropertyValues(propertyValues);
+		ValueHolder reference = (ValueHolder) recreateBean(beanFactory, "valueHolder", valueHolder);
+		Assert.assertSame(beanFactory.getBean("outputService"), reference.getValue());
+		Assert.assertFalse(reference.isSetterUsed());
+	}
+
+	@Test
+	public void testInjectionPlanSwitchesBackToSetterForMatchingValueType() throws Exception {
+		AbstractBeanFactory beanFactory = new AutowireCapableBeanFactory();
+		BeanDefinition outputService = new BeanDefinition();
+		outputService.setBeanClassName("us.codecraft.tinyioc.OutputServiceImpl");
+		beanFactory.registerBeanDefinition("outputService", outputService);
+		BeanDefinition valueHolder = new BeanDefinition();
+		valueHolder.setBeanClassName("us.codecraft.tinyioc.ValueHolder");
+		valueHolder.getPropertyValues().addPropertyValue(
+				new PropertyValue("value", new BeanReference("outputService")));
+		beanFactory.registerBeanDefinition("valueHolder", valueHolder);
+
+		ValueHolder reference = (ValueHolder) beanFactory.getBean("valueHolder");
+		Assert.assertSame(beanFactory.getBean("outputService"), reference.getValue());
+		Assert.assertFalse(reference.isSetterUsed());
+
+		// ref换成字面量后setter又能匹配上，不能继续沿用field注入
+		PropertyValues propertyValues = new PropertyValues();
+		propertyValues.addPropertyValue(new PropertyValue("value", "literal"));
+		valueHolder.setPropertyValues(propertyValues);
+		ValueHolder literal = (ValueHolder) recreateBean(beanFactory, "valueHolder", valueHolder);
+		Assert.assertEquals("literal", literal.getValue());
+		Assert.assertTrue(literal.isSetterUsed());
+	}
+
+	/**
+	 * 丢弃已创建的单例，用同一个BeanDefinition重新创建bean
+	 */
+	private Object recreateBean(AbstractBeanFactory beanFactory, String name, BeanDefinition beanDefinition)
+			throws Exception {
+		beanDefinition.setBean(null);
+		beanFactory.registerBeanDefinition(name, beanDefinition);
+		return beanFactory.getBean(name);
+	}
 }
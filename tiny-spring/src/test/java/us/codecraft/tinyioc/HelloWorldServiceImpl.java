@@ -22,4 +22,8 @@ public class HelloWorldServiceImpl implements HelloWorldService {
         this.outputService = outputService;
     }
 
+    public OutputService getOutputService() {
+        return outputService;
+    }
+
 }
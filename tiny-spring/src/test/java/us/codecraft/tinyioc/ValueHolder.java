@@ -0,0 +1,26 @@
+package us.codecraft.tinyioc;
+
+/**
+ * 只有String类型setter的bean，其他类型的值只能直接注入field
+ *
+ * @author yihua.huang@dianping.com
+ */
+public class ValueHolder {
+
+	private Object value;
+
+	private boolean setterUsed;
+
+	public void setValue(String value) {
+		this.value = value;
+		this.setterUsed = true;
+	}
+
+	public Object getValue() {
+		return value;
+	}
+
+	public boolean isSetterUsed() {
+		return setterUsed;
+	}
+}
@@ -0,0 +1,50 @@
+package us.codecraft.tinyioc.aop;
+
+import org.junit.Assert;
+import org.junit.Test;
+import us.codecraft.tinyioc.BeanReference;
+import us.codecraft.tinyioc.HelloWorldServiceImpl;
+import us.codecraft.tinyioc.beans.BeanDefinition;
+import us.codecraft.tinyioc.beans.PropertyValue;
+import us.codecraft.tinyioc.beans.factory.AbstractBeanFactory;
+import us.codecraft.tinyioc.beans.factory.AutowireCapableBeanFactory;
+
+/**
+ * @author yihua.huang@dianping.com
+ */
+public class AspectJAwareAdvisorAutoProxyCreatorTest {
+
+	@Test
+	public void testAdvisorRegisteredAfterFirstProxyCreation() throws Exception {
+		AbstractBeanFactory beanFactory = new AutowireCapableBeanFactory();
+		AspectJAwareAdvisorAutoProxyCreator autoProxyCreator = new AspectJAwareAdvisorAutoProxyCreator();
+		autoProxyCreator.setBeanFactory(beanFactory);
+		beanFactory.addBeanPostProcessor(autoProxyCreator);
+		beanFactory.registerBeanDefinition("helloWorldService", helloWorldServiceDefinition());
+
+		// 还没有advisor，不创建代理
+		Assert.assertSame(HelloWorldServiceImpl.class, beanFactory.getBean("helloWorldService").getClass());
+
+		// 注册advisor后，之后创建的bean要能用上它
+		BeanDefinition timeInterceptor = new BeanDefinition();
+		timeInterceptor.setBeanClassName("us.codecraft.tinyioc.aop.TimerInterceptor");
+		beanFactory.registerBeanDefinition("timeInterceptor", timeInterceptor);
+		BeanDefinition aspectjAspect = new BeanDefinition();
+		aspectjAspect.setBeanClassName("us.codecraft.tinyioc.aop.AspectJExpressionPointcutAdvisor");
+		aspectjAspect.getPropertyValues().addPropertyValue(
+				new PropertyValue("advice", new BeanReference("timeInterceptor")));
+		aspectjAspect.getPropertyValues().addPropertyValue(
+				new PropertyValue("expression", "execution(* us.codecraft.tinyioc.*.*(..))"));
+		beanFactory.registerBeanDefinition("aspectjAspect", aspectjAspect);
+		beanFactory.registerBeanDefinition("helloWorldService", helloWorldServiceDefinition());
+
+		Assert.assertNotSame(HelloWorldServiceImpl.class, beanFactory.getBean("helloWorldService").getClass());
+	}
+
+	private BeanDefinition helloWorldServiceDefinition() {
+		BeanDefinition helloWorldService = new BeanDefinition();
+		helloWorldService.setBeanClassName("us.codecraft.tinyioc.HelloWorldServiceImpl");
+		helloWorldService.getPropertyValues().addPropertyValue(new PropertyValue("text", "Hello World!"));
+		return helloWorldService;
+	}
+}
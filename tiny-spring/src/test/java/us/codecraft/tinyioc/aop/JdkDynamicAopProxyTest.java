@@ -1,11 +1,18 @@
 package us.codecraft.tinyioc.aop;
 
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.Assert;
 import org.junit.Test;
 import us.codecraft.tinyioc.HelloWorldService;
 import us.codecraft.tinyioc.HelloWorldServiceImpl;
 import us.codecraft.tinyioc.context.ApplicationContext;
 import us.codecraft.tinyioc.context.ClassPathXmlApplicationContext;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 /**
  * @author yihua.huang@dianping.com
  */
@@ -37,4 +44,36 @@ public class JdkDynamicAopProxyTest {
 		helloWorldServiceProxy.helloWorld();
 
 	}
+
+	@Test
+	public void testAdvisorChain() throws Exception {
+		ApplicationContext applicationContext = new ClassPathXmlApplicationContext("tinyioc.xml");
+		HelloWorldService helloWorldService = (HelloWorldService) applicationContext.getBean("helloWorldService");
+
+		AdvisedSupport advisedSupport = new AdvisedSupport();
+		advisedSupport.setTargetSource(new TargetSource(helloWorldService, HelloWorldServiceImpl.class,
+				HelloWorldService.class));
+
+		// 两个advisor都匹配helloWorld方法，按顺序组成拦截器链
+		final List<String> invocations = new ArrayList<String>();
+		for (final String name : new String[] { "first", "second" }) {
+			AspectJExpressionPointcutAdvisor advisor = new AspectJExpressionPointcutAdvisor();
+			advisor.setExpression("execution(* us.codecraft.tinyioc.*.*(..))");
+			advisor.setAdvice(new MethodInterceptor() {
+				@Override
+				public Object invoke(MethodInvocation invocation) throws Throwable {
+					invocations.add(name);
+					return invocation.proceed();
+				}
+			});
+			advisedSupport.addAdvisor(advisor);
+		}
+
+		HelloWorldService helloWorldServiceProxy = (HelloWorldService) new JdkDynamicAopProxy(advisedSupport)
+				.getProxy();
+		helloWorldServiceProxy.helloWorld();
+		helloWorldServiceProxy.helloWorld();
+
+		Assert.assertEquals(Arrays.asList("first", "second", "first", "second"), invocations);
+	}
 }